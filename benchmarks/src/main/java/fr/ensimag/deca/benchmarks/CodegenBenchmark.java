@@ -0,0 +1,71 @@
+package fr.ensimag.deca.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.ensimag.deca.DecacCompiler;
+import fr.ensimag.deca.tree.AbstractProgram;
+
+/**
+ * IMA code generation of large expressions (register allocation with
+ * RegisterManager.getUnusedR, spilling to the stack), and textual display of
+ * the generated program (IMAProgram.display).
+ *
+ * Each invocation generates the code of a freshly verified tree, parsing and
+ * verification are not measured.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 20)
+@Measurement(iterations = 20)
+@Fork(1)
+public class CodegenBenchmark {
+    @Param({ "synthetic:expressions-10", "synthetic:expressions-100", "synthetic:hierarchy-100",
+            "provided:ln2_fct.deca" })
+    public String program;
+
+    private File source;
+    private DecacCompiler compiler;
+    private AbstractProgram prog;
+
+    @Setup(Level.Trial)
+    public void writeSource() throws IOException {
+        source = Corpus.write(program);
+    }
+
+    @Setup(Level.Invocation)
+    public void verify() throws IOException {
+        compiler = Compilation.compiler(source);
+        prog = Compilation.verify(compiler);
+    }
+
+    @Benchmark
+    public DecacCompiler codeGen() {
+        prog.codeGenProgram(compiler);
+        return compiler;
+    }
+
+    @Benchmark
+    public String codeGenAndDisplay() {
+        prog.codeGenProgram(compiler);
+        return compiler.displayIMAProgram();
+    }
+}
@@ -0,0 +1,72 @@
+package fr.ensimag.deca.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.antlr.v4.runtime.CommonTokenStream;
+
+import fr.ensimag.deca.CLIException;
+import fr.ensimag.deca.CompilerOptions;
+import fr.ensimag.deca.DecacCompiler;
+import fr.ensimag.deca.context.ContextualError;
+import fr.ensimag.deca.syntax.ByteCharStream;
+import fr.ensimag.deca.syntax.DecaLexer;
+import fr.ensimag.deca.syntax.DecaParser;
+import fr.ensimag.deca.tree.AbstractProgram;
+
+/**
+ * The steps of a compilation, run separately so that each of them can be
+ * measured.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class Compilation {
+    /**
+     * @return a compiler for a source file, with the default options
+     */
+    public static DecacCompiler compiler(File source) {
+        CompilerOptions options = new CompilerOptions();
+        try {
+            options.parseArgs(new String[] { source.getPath() });
+        } catch (CLIException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+        return new DecacCompiler(options, source);
+    }
+
+    /**
+     * @return the lexer of the source file of a compiler
+     */
+    public static DecaLexer lexer(DecacCompiler compiler) throws IOException {
+        DecaLexer lex = new DecaLexer(ByteCharStream.fromFileName(compiler.getSource().getPath()));
+        lex.setDecacCompiler(compiler);
+        return lex;
+    }
+
+    /**
+     * Lex and parse the source file of a compiler.
+     */
+    public static AbstractProgram parse(DecacCompiler compiler) throws IOException {
+        DecaParser parser = new DecaParser(new CommonTokenStream(lexer(compiler)));
+        parser.setDecacCompiler(compiler);
+        AbstractProgram prog = parser.parseProgramAndManageErrors(System.err);
+        if (prog == null) {
+            throw new IllegalStateException("syntax error in " + compiler.getSource());
+        }
+        return prog;
+    }
+
+    /**
+     * Lex, parse and verify the source file of a compiler.
+     */
+    public static AbstractProgram verify(DecacCompiler compiler) throws IOException {
+        AbstractProgram prog = parse(compiler);
+        try {
+            prog.verifyProgram(compiler);
+        } catch (ContextualError e) {
+            throw new IllegalStateException("contextual error in " + compiler.getSource() + ": " + e, e);
+        }
+        return prog;
+    }
+}
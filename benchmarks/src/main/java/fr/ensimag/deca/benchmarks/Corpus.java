@@ -0,0 +1,85 @@
+package fr.ensimag.deca.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Programs compiled by the benchmarks.
+ *
+ * A program is named either "provided:&lt;file&gt;" for a program of
+ * src/test/deca/codegen/perf/provided, or "synthetic:&lt;kind&gt;-&lt;n&gt;"
+ * for a program built by {@link SyntheticPrograms}:
+ * <ul>
+ * <li>statements-n: a main block of n statements</li>
+ * <li>hierarchy-n: a chain of n classes, each one extending the previous
+ * one</li>
+ * <li>expressions-n: a main block of assignments of expressions nested n
+ * levels deep</li>
+ * </ul>
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class Corpus {
+    private static final String PROVIDED = "provided:";
+    private static final String SYNTHETIC = "synthetic:";
+
+    /**
+     * @return the source code of a program of the corpus
+     */
+    public static String source(String program) throws IOException {
+        if (program.startsWith(PROVIDED)) {
+            String resource = "/corpus/provided/" + program.substring(PROVIDED.length());
+            try (InputStream in = Corpus.class.getResourceAsStream(resource)) {
+                if (in == null) {
+                    throw new IOException("no such program in the corpus: " + program);
+                }
+                return readAll(in);
+            }
+        }
+        if (program.startsWith(SYNTHETIC)) {
+            String spec = program.substring(SYNTHETIC.length());
+            int dash = spec.lastIndexOf('-');
+            if (dash > 0) {
+                String kind = spec.substring(0, dash);
+                int n = Integer.parseInt(spec.substring(dash + 1));
+                switch (kind) {
+                    case "statements":
+                        return SyntheticPrograms.statements(n);
+                    case "hierarchy":
+                        return SyntheticPrograms.hierarchy(n, 4);
+                    case "expressions":
+                        return SyntheticPrograms.expressions(20, n);
+                    default:
+                        break;
+                }
+            }
+        }
+        throw new IllegalArgumentException("unknown program: " + program);
+    }
+
+    /**
+     * Write a program of the corpus to a temporary .deca file, deleted when
+     * the JVM exits.
+     */
+    public static File write(String program) throws IOException {
+        File file = File.createTempFile("bench", ".deca");
+        file.deleteOnExit();
+        Files.write(file.toPath(), source(program).getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static String readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
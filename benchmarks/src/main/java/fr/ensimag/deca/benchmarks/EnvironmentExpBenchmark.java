@@ -0,0 +1,77 @@
+package fr.ensimag.deca.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.ensimag.deca.context.ContextualError;
+import fr.ensimag.deca.context.EnvironmentExp;
+import fr.ensimag.deca.context.ExpDefinition;
+import fr.ensimag.deca.context.IntType;
+import fr.ensimag.deca.context.VariableDefinition;
+import fr.ensimag.deca.tools.SymbolTable;
+import fr.ensimag.deca.tools.SymbolTable.Symbol;
+import fr.ensimag.deca.tree.Location;
+
+/**
+ * Lookups (EnvironmentExp.get) in chains of environments, as built for the
+ * members of deep class hierarchies.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnvironmentExpBenchmark {
+    /** Number of environments in the chain */
+    @Param({ "1", "10", "100" })
+    public int depth;
+
+    /** Number of symbols declared in each environment */
+    @Param({ "10", "1000" })
+    public int size;
+
+    private EnvironmentExp innermost;
+    private Symbol declaredInnermost;
+    private Symbol declaredOutermost;
+
+    @Setup
+    public void setup() throws EnvironmentExp.DoubleDefException {
+        SymbolTable symbols = new SymbolTable();
+        VariableDefinition def = new VariableDefinition(new IntType(symbols.create("int")), Location.BUILTIN);
+        EnvironmentExp env = null;
+        for (int d = 0; d < depth; d++) {
+            env = new EnvironmentExp(env);
+            for (int i = 0; i < size; i++) {
+                env.declare(symbols.create("v" + d + "_" + i), def);
+            }
+        }
+        innermost = env;
+        declaredInnermost = symbols.create("v" + (depth - 1) + "_" + (size / 2));
+        declaredOutermost = symbols.create("v0_" + (size / 2));
+    }
+
+    @Benchmark
+    public ExpDefinition getInnermost() throws ContextualError {
+        return innermost.get(declaredInnermost, Location.BUILTIN_PACKED);
+    }
+
+    @Benchmark
+    public ExpDefinition getOutermost() throws ContextualError {
+        return innermost.get(declaredOutermost, Location.BUILTIN_PACKED);
+    }
+}
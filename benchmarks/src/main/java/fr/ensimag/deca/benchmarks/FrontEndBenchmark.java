@@ -0,0 +1,63 @@
+package fr.ensimag.deca.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.ensimag.deca.tree.AbstractProgram;
+
+/**
+ * Lexing and parsing (DecaLexer, DecaParser) of the programs of the corpus.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrontEndBenchmark {
+    @Param({ "provided:ln2.deca", "provided:ln2_fct.deca", "provided:syracuse42.deca",
+            "synthetic:statements-10000", "synthetic:hierarchy-100", "synthetic:expressions-50" })
+    public String program;
+
+    private File source;
+
+    @Setup
+    public void setup() throws IOException {
+        source = Corpus.write(program);
+    }
+
+    /**
+     * Lexing only: all the tokens of the file.
+     */
+    @Benchmark
+    public int lex() throws IOException {
+        CommonTokenStream tokens = new CommonTokenStream(Compilation.lexer(Compilation.compiler(source)));
+        tokens.fill();
+        return tokens.size();
+    }
+
+    /**
+     * Lexing and parsing, up to the abstract syntax tree.
+     */
+    @Benchmark
+    public AbstractProgram parse() throws IOException {
+        return Compilation.parse(Compilation.compiler(source));
+    }
+}
@@ -0,0 +1,92 @@
+package fr.ensimag.deca.benchmarks;
+
+/**
+ * Generators of valid Deca programs of arbitrary size.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class SyntheticPrograms {
+    /**
+     * A main block declaring a few variables followed by n statements
+     * (assignments, conditionals and loops).
+     */
+    public static String statements(int n) {
+        StringBuilder res = new StringBuilder("{\n    int a = 1, b = 2, c = 3;\n    float x = 1.5;\n");
+        for (int i = 0; i < n; i++) {
+            switch (i % 4) {
+                case 0:
+                    res.append("    a = (a + b * ").append(i).append(") % 1000;\n");
+                    break;
+                case 1:
+                    res.append("    if (a > b && c != ").append(i).append(") { b = b + 1; } else { c = c - 1; }\n");
+                    break;
+                case 2:
+                    res.append("    x = x * 0.5 + a;\n");
+                    break;
+                default:
+                    res.append("    while (c > ").append(i).append(") { c = c - 1; }\n");
+                    break;
+            }
+        }
+        return res.append("    println(a, \" \", b, \" \", c, \" \", x);\n}\n").toString();
+    }
+
+    /**
+     * A chain of depth classes C0 &lt;- C1 &lt;- ... each declaring one field
+     * and methods methods (half of them overriding those of the superclass),
+     * and a main block calling them on an instance of the last class.
+     */
+    public static String hierarchy(int depth, int methods) {
+        StringBuilder res = new StringBuilder();
+        for (int c = 0; c < depth; c++) {
+            res.append("class C").append(c);
+            if (c > 0) {
+                res.append(" extends C").append(c - 1);
+            }
+            res.append(" {\n    int f").append(c).append(" = ").append(c).append(";\n");
+            for (int m = 0; m < methods; m++) {
+                // odd methods are overridden at each level, even ones are new
+                String name = m % 2 == 1 ? "m" + m : "m" + m + "_" + c;
+                res.append("    int ").append(name).append("(int x) {\n        return x + f").append(c)
+                        .append(";\n    }\n");
+            }
+            res.append("}\n");
+        }
+        res.append("{\n    C").append(depth - 1).append(" o = new C").append(depth - 1).append("();\n    int s = 0;\n");
+        for (int c = 0; c < depth; c++) {
+            res.append("    s = s + o.m0_").append(c).append("(").append(c).append(");\n");
+        }
+        if (methods > 1) {
+            res.append("    s = s + o.m1(1);\n");
+        }
+        return res.append("    println(s);\n}\n").toString();
+    }
+
+    /**
+     * A main block of count assignments, each of an arithmetic expression
+     * nested depth levels deep (so that it needs more registers than
+     * available when depth is large).
+     */
+    public static String expressions(int count, int depth) {
+        StringBuilder res = new StringBuilder("{\n    int a = 1, b = 2, r = 0;\n");
+        for (int i = 0; i < count; i++) {
+            res.append("    r = ");
+            nested(res, depth);
+            res.append(";\n");
+        }
+        return res.append("    println(r);\n}\n").toString();
+    }
+
+    private static void nested(StringBuilder res, int depth) {
+        // (a + (b * (a - (b + ... ))))
+        final String[] operators = { " + ", " * ", " - " };
+        for (int d = 0; d < depth; d++) {
+            res.append(d % 2 == 0 ? "(a" : "(b").append(operators[d % operators.length]);
+        }
+        res.append("1");
+        for (int d = 0; d < depth; d++) {
+            res.append(")");
+        }
+    }
+}
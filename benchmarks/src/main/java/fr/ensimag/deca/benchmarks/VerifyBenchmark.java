@@ -0,0 +1,62 @@
+package fr.ensimag.deca.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.ensimag.deca.DecacCompiler;
+import fr.ensimag.deca.context.ContextualError;
+import fr.ensimag.deca.tree.AbstractProgram;
+
+/**
+ * Contextual verification (verifyProgram) of deep class hierarchies.
+ *
+ * Each invocation verifies a freshly parsed tree, parsing is not measured.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 20)
+@Measurement(iterations = 20)
+@Fork(1)
+public class VerifyBenchmark {
+    @Param({ "10", "100", "500" })
+    public int depth;
+
+    private File source;
+    private DecacCompiler compiler;
+    private AbstractProgram prog;
+
+    @Setup(Level.Trial)
+    public void writeSource() throws IOException {
+        source = Corpus.write("synthetic:hierarchy-" + depth);
+    }
+
+    @Setup(Level.Invocation)
+    public void parse() throws IOException {
+        compiler = Compilation.compiler(source);
+        prog = Compilation.parse(compiler);
+    }
+
+    @Benchmark
+    public AbstractProgram verify() throws ContextualError {
+        prog.verifyProgram(compiler);
+        return prog;
+    }
+}
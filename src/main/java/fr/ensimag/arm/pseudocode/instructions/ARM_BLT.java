@@ -1,16 +1,21 @@
 package fr.ensimag.arm.pseudocode.instructions;
 
-import fr.ensimag.arm.pseudocode.ARMGPRegister;
-import fr.ensimag.arm.pseudocode.ARMUnaryInstructionToReg;
+import fr.ensimag.arm.pseudocode.ARMLabel;
+import fr.ensimag.arm.pseudocode.ARMUnaryInstructionToLabel;
 
 /**
+ * Branch if Less Than instruction for ARM.
+ *
  * @author gl13
  * @date 21/01/2025
  */
-public class ARM_BLT extends ARMUnaryInstructionToReg {
-
-    public ARM_BLT(ARMGPRegister op) {
-        super(op);
+public class ARM_BLT extends ARMUnaryInstructionToLabel {
+    public ARM_BLT(ARMLabel label) {
+        super(label);
     }
 
+    @Override
+    public String getName() {
+        return "blt";
+    }
 }
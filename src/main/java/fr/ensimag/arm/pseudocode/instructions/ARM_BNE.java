@@ -1,16 +1,21 @@
 package fr.ensimag.arm.pseudocode.instructions;
 
-import fr.ensimag.arm.pseudocode.ARMGPRegister;
-import fr.ensimag.arm.pseudocode.ARMUnaryInstructionToReg;
+import fr.ensimag.arm.pseudocode.ARMLabel;
+import fr.ensimag.arm.pseudocode.ARMUnaryInstructionToLabel;
 
 /**
+ * Branch if Not Equal instruction for ARM.
+ *
  * @author gl13
  * @date 21/01/2025
  */
-public class ARM_BNE extends ARMUnaryInstructionToReg {
-
-    public ARM_BNE(ARMGPRegister op) {
-        super(op);
+public class ARM_BNE extends ARMUnaryInstructionToLabel {
+    public ARM_BNE(ARMLabel label) {
+        super(label);
     }
 
+    @Override
+    public String getName() {
+        return "bne";
+    }
 }
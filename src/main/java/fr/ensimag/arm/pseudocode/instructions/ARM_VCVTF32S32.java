@@ -9,7 +9,7 @@ import fr.ensimag.arm.pseudocode.ARMSPRegister;
  */
 public class ARM_VCVTF32S32 extends ARMBinaryInstructionDValToReg {
 
-    ARM_VCVTF32S32(ARMSPRegister op1, ARMSPRegister op2) {
+    public ARM_VCVTF32S32(ARMSPRegister op1, ARMSPRegister op2) {
         super(op1, op2);
     }
 
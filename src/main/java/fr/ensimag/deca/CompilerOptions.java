@@ -10,6 +10,8 @@ import java.util.List;
 import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
 
+import fr.ensimag.deca.cache.BuildCache;
+
 /**
  * User-specified options influencing the compilation.
  *
@@ -46,7 +48,7 @@ public class CompilerOptions {
         return printBanner;
     }
 
-    public static int getNbRegisters() {
+    public int getNbRegisters() {
         return NbRegisters;
     }
 
@@ -64,6 +66,58 @@ public class CompilerOptions {
         return arm;
     }
 
+    /**
+     * @return true if the bodies are compiled through the intermediate
+     *         representation (-ir, or -O2)
+     */
+    public boolean getIR() {
+        return ir || optimizationLevel >= 2;
+    }
+
+    /**
+     * @return the optimization level (-O0, -O1 or -O2), 0 by default
+     */
+    public int getOptimizationLevel() {
+        return optimizationLevel;
+    }
+
+    /**
+     * @return the directory of the build cache, or null if it is disabled
+     */
+    public File getCacheDir() {
+        return cacheDir;
+    }
+
+    /**
+     * @return the maximum size of the build cache, in bytes
+     */
+    public long getCacheSize() {
+        return cacheSize;
+    }
+
+    /**
+     * @return true if the time spent in each phase of the compilation is
+     *         reported (-T)
+     */
+    public boolean getTimings() {
+        return timings;
+    }
+
+    /**
+     * @return the file to write the timings to as JSON (-Tjson), or null to
+     *         print them as a table
+     */
+    public File getTimingsFile() {
+        return timingsFile;
+    }
+
+    private boolean ir = false;
+    private int optimizationLevel = 0;
+    private boolean timings = false;
+    private File timingsFile = null;
+    private File cacheDir = null;
+    private long cacheSize = BuildCache.DEFAULT_MAX_SIZE;
+
     private int debug = QUIET;
     private boolean parallel = false;
     private boolean printBanner = false;
@@ -73,7 +127,7 @@ public class CompilerOptions {
     private boolean warnings = false;
     private static final int registerLimitMax = 16;
     private static final int registerLimitMin = 4;
-    private static int NbRegisters = registerLimitMax;
+    private int NbRegisters = registerLimitMax;
     private HashSet<File> sourceFiles = new HashSet<File>();
 
     /**
@@ -83,6 +137,18 @@ public class CompilerOptions {
      * @throws CLIException if the arguments are invalid
      */
     public void parseArgs(String[] args) throws CLIException {
+        parseArgs(args, true);
+    }
+
+    /**
+     * Parse the command line arguments and configure the compiler options.
+     *
+     * @param args             Array of command line arguments
+     * @param configureLogging whether the log level is set from the -d options
+     *                         (not for the requests of the compile server)
+     * @throws CLIException if the arguments are invalid
+     */
+    public void parseArgs(String[] args, boolean configureLogging) throws CLIException {
         // no other argument can be passed with the -b argument
         for (String arg : args) {
             if (arg.equals("-b") && args.length > 1) {
@@ -141,6 +207,46 @@ public class CompilerOptions {
                 case "-arm":
                     arm = true;
                     break;
+                case "-ir":
+                    ir = true;
+                    break;
+                case "-O0":
+                case "-O1":
+                case "-O2":
+                    optimizationLevel = args[i].charAt(2) - '0';
+                    break;
+                case "-cache":
+                    if (i + 1 < args.length) {
+                        cacheDir = new File(args[++i]);
+                    } else {
+                        throw new CLIException("Missing argument for -cache.");
+                    }
+                    break;
+                case "-cache-size":
+                    if (i + 1 < args.length) {
+                        try {
+                            cacheSize = Long.parseLong(args[++i]) * 1024 * 1024;
+                            if (cacheSize <= 0) {
+                                throw new CLIException("Cache size must be positive.");
+                            }
+                        } catch (NumberFormatException e) {
+                            throw new CLIException("Invalid argument for -cache-size, need a number.");
+                        }
+                    } else {
+                        throw new CLIException("Missing argument for -cache-size.");
+                    }
+                    break;
+                case "-T":
+                    timings = true;
+                    break;
+                case "-Tjson":
+                    if (i + 1 < args.length) {
+                        timings = true;
+                        timingsFile = new File(args[++i]);
+                    } else {
+                        throw new CLIException("Missing argument for -Tjson.");
+                    }
+                    break;
                 default:
                     if (args[i].startsWith("-")) {
                         throw new CLIException("Invalid option: " + args[i]);
@@ -154,10 +260,24 @@ public class CompilerOptions {
             throw new CLIException("No source files.");
         }
 
+        if (configureLogging) {
+            configureLogging(getDebug());
+        }
+    }
+
+    /**
+     * Set the level of the log4j root logger from a debug level (number of -d
+     * options). Process-wide: the compile server only calls it once, at
+     * startup.
+     *
+     * @param debug one of {@link #QUIET}, {@link #INFO}, {@link #DEBUG} or
+     *              {@link #TRACE}
+     */
+    public static void configureLogging(int debug) {
         Logger logger = Logger.getRootLogger();
 
         // map command-line debug option to log4j's level.
-        switch (getDebug()) {
+        switch (debug) {
             case QUIET:
                 logger.setLevel(Level.OFF);
                 break; // keep default
@@ -190,25 +310,50 @@ public class CompilerOptions {
      * Shows all available command line options and their descriptions.
      */
     protected void displayUsage() {
-        System.out.println("Expected : decac [[-p | -v] [-n] [-r X] <source files>...] | [-b]\n");
-        System.out.println("Options:");
-        System.out.println("-b     (banner)        Displays a banner showing the team name.");
-        System.out.println(
+        displayUsage(System.out);
+    }
+
+    /**
+     * Display usage information for the Deca compiler.
+     * Shows all available command line options and their descriptions.
+     *
+     * @param out stream to print the usage to
+     */
+    protected void displayUsage(PrintStream out) {
+        out.println("Expected : decac [[-p | -v] [-n] [-r X] <source files>...] | [-b]\n");
+        out.println("Options:");
+        out.println("-b     (banner)        Displays a banner showing the team name.");
+        out.println(
                 "-p     (parse)         Stops decac after the tree building step, and displays the decompilation of the latter.");
-        System.out.println(
+        out.println(
                 "-v     (verification)  Stop decac after the check step (produces no output if there is no error)");
-        System.out.println(
+        out.println(
                 "-n     (no check)      Removes the runtime tests specified in points 11.1 and 11.3 of Deca semantics..");
-        System.out.println("-r <X> (registers)     Limit registers to R0 ... R{X-1}, with 4 <= X <= 16.");
-        System.out.println(
+        out.println("-r <X> (registers)     Limit registers to R0 ... R{X-1}, with 4 <= X <= 16.");
+        out.println(
                 "-d     (debug)         Enables debug traces. Repeat the option several times to have more traces.");
-        System.out.println(
-                "-P     (parallel)      If there are several source files, launch the compilation of the files in parallel (to speed up the compilation).");
-        System.out.println(
+        out.println(
+                "-P     (parallel)      If there are several source files, launch the compilation of the files in parallel (to speed up the compilation)."
+                        + " The code of the methods of each file is also generated in parallel.");
+        out.println(
                 "-w     (warnings)      Show warnings during compilation.");
-        System.out.println(
+        out.println(
                 "-arm   (ARM)           Enable ARM architecture-specific extensions.");
-        System.out.println(" <source files>        One or more Deca source files to compile.");
+        out.println(
+                "-ir    (IR)            Compile the main program and the methods through the intermediate representation.");
+        out.println(
+                "-O<L>  (optimize)      Optimization level: 0 (default), 1 (folds the constant expressions, peephole optimization of the IMA code), or 2 (also compiles through the IR, with constant propagation).");
+        out.println(
+                "-cache <dir>           Reuse the assembly files generated for unchanged sources, cached in <dir>.");
+        out.println(
+                "-cache-size <MB>       Maximum size of the cache (default 64), least recently used entries are evicted.");
+        out.println(
+                "-T     (timings)       Report the time and memory spent in each phase of the compilation.");
+        out.println(
+                "-Tjson <file>          Same as -T, written to <file> as JSON.");
+        out.println(" <source files>        One or more Deca source files to compile.");
+        out.println("\nServer mode : decac --server [-d]* [<port> | --stdio]");
+        out.println("  Keep a warm compiler running and serve compile requests from decac-client.");
     }
 
     /**
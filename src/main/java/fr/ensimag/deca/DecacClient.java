@@ -0,0 +1,126 @@
+package fr.ensimag.deca;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Thin client for the compile server (see {@link DecacServer}).
+ *
+ * Takes the same arguments as decac, sends them to the server running on the
+ * port given by the DECAC_SERVER_PORT environment variable (or
+ * {@link DecacServer#DEFAULT_PORT}), prints the output of the compilation and
+ * exits with its status. With -d, the time spent by the server on the request
+ * is also printed.
+ *
+ * This class only depends on the JDK so that it starts as fast as possible.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class DecacClient {
+    public static void main(String[] args) {
+        int port = DecacServer.DEFAULT_PORT;
+        String portEnv = System.getenv("DECAC_SERVER_PORT");
+        try {
+            if (portEnv != null) {
+                port = Integer.parseInt(portEnv);
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid DECAC_SERVER_PORT: " + portEnv);
+            System.exit(1);
+        }
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            sendRequest(args, socket.getOutputStream());
+            System.exit(readResponse(args, new BufferedInputStream(socket.getInputStream())));
+        } catch (ConnectException e) {
+            System.err.println("No compile server on port " + port + ", start one with: decac --server");
+            System.exit(1);
+        } catch (IOException e) {
+            System.err.println("Communication with the compile server failed: " + e.getLocalizedMessage());
+            System.exit(1);
+        }
+    }
+
+    static void sendRequest(String[] args, OutputStream output) throws IOException {
+        StringBuilder request = new StringBuilder();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            // the server does not share our working directory: the source files
+            // and the paths given to -cache and -Tjson are made absolute
+            boolean path = arg.endsWith(".deca")
+                    || i > 0 && (args[i - 1].equals("-cache") || args[i - 1].equals("-Tjson"));
+            if (path) {
+                arg = new File(arg).getAbsolutePath();
+            }
+            request.append(arg).append('\n');
+        }
+        request.append('\n');
+        output.write(request.toString().getBytes(StandardCharsets.UTF_8));
+        output.flush();
+    }
+
+    /**
+     * Print the output of the request and return its exit status.
+     */
+    private static int readResponse(String[] args, InputStream input) throws IOException {
+        String header;
+        while ((header = readLine(input)) != null) {
+            String[] fields = header.split(" ");
+            switch (fields[0]) {
+                case "out":
+                    copy(input, Integer.parseInt(fields[1]), System.out);
+                    break;
+                case "err":
+                    copy(input, Integer.parseInt(fields[1]), System.err);
+                    break;
+                case "exit":
+                    for (String arg : args) {
+                        if (arg.equals("-d")) {
+                            System.err.println("decac: " + fields[2] + " ms");
+                            break;
+                        }
+                    }
+                    return Integer.parseInt(fields[1]);
+                default:
+                    throw new IOException("unexpected response: " + header);
+            }
+        }
+        throw new IOException("connection closed by the server");
+    }
+
+    private static String readLine(InputStream input) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int c;
+        while ((c = input.read()) != '\n') {
+            if (c == -1) {
+                return line.size() == 0 ? null : line.toString("UTF-8");
+            }
+            line.write(c);
+        }
+        return line.toString("UTF-8");
+    }
+
+    private static void copy(InputStream input, int length, PrintStream output) throws IOException {
+        byte[] buffer = new byte[length];
+        int read = 0;
+        while (read < length) {
+            int n = input.read(buffer, read, length - read);
+            if (n == -1) {
+                throw new IOException("connection closed by the server");
+            }
+            read += n;
+        }
+        output.write(buffer, 0, length);
+        output.flush();
+    }
+}
@@ -5,10 +5,23 @@ import fr.ensimag.arm.pseudocode.ARMLabel;
 import fr.ensimag.arm.pseudocode.ARMLine;
 import fr.ensimag.arm.pseudocode.ARMProgram;
 import fr.ensimag.arm.pseudocode.AbstractARMLine;
+import fr.ensimag.deca.cache.BuildCache;
+import fr.ensimag.deca.codegen.ARMDataSection;
+import fr.ensimag.deca.codegen.ARMRegisterManager;
+import fr.ensimag.deca.codegen.CodeGenUnits;
+import fr.ensimag.deca.codegen.HelperInfo;
+import fr.ensimag.deca.codegen.RegisterManager;
+import fr.ensimag.deca.codegen.StackCount;
+import fr.ensimag.deca.codegen.peephole.PeepholeOptimizer;
+import fr.ensimag.deca.codegen.peephole.PeepholeRule;
 import fr.ensimag.deca.context.EnvironmentType;
+import fr.ensimag.deca.syntax.ByteCharStream;
 import fr.ensimag.deca.syntax.DecaLexer;
 import fr.ensimag.deca.syntax.DecaParser;
+import fr.ensimag.deca.syntax.TimedTokenSource;
+import fr.ensimag.deca.tools.CompilerEvents;
 import fr.ensimag.deca.tools.DecacInternalError;
+import fr.ensimag.deca.tools.PhaseTimer;
 import fr.ensimag.deca.tools.SymbolTable;
 import fr.ensimag.deca.tools.SymbolTable.Symbol;
 import fr.ensimag.deca.tree.AbstractProgram;
@@ -19,15 +32,23 @@ import fr.ensimag.ima.pseudocode.ImmediateString;
 import fr.ensimag.ima.pseudocode.Instruction;
 import fr.ensimag.ima.pseudocode.Label;
 import fr.ensimag.ima.pseudocode.Line;
+import fr.ensimag.ima.pseudocode.Register;
 import fr.ensimag.ima.pseudocode.instructions.ERROR;
 import fr.ensimag.ima.pseudocode.instructions.WNL;
 import fr.ensimag.ima.pseudocode.instructions.WSTR;
 
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
-import org.antlr.v4.runtime.CharStreams;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 import org.antlr.v4.runtime.CommonTokenStream;
 import org.apache.log4j.Logger;
 
@@ -49,6 +70,8 @@ import org.apache.log4j.Logger;
 public class DecacCompiler {
     private static final Logger LOG = Logger.getLogger(DecacCompiler.class);
     private int labelCounter = 0;
+    /** Names of the labels only used in the code which created them */
+    private final Set<String> localLabels = new HashSet<String>();
     /**
      * Portable newline character.
      */
@@ -65,6 +88,41 @@ public class DecacCompiler {
         this.compilerOptions = compilerOptions;
         this.source = source;
 
+        this.symbolTable = SymbolTable.getShared();
+        this.environmentType = new EnvironmentType(this);
+
+        int nbRegisters = compilerOptions != null ? compilerOptions.getNbRegisters() : Register.MAX_REGISTERS;
+        this.stackCount = new StackCount();
+        this.registerManager = new RegisterManager(nbRegisters, stackCount);
+        this.armRegisterManager = new ARMRegisterManager(nbRegisters);
+        this.helperInfo = new HelperInfo("");
+        this.phaseTimer = new PhaseTimer(getSourceName(), compilerOptions != null && compilerOptions.getTimings());
+        this.peephole = compilerOptions != null && compilerOptions.getOptimizationLevel() >= 1
+                ? new PeepholeOptimizer() : null;
+    }
+
+    /**
+     * Creates a compiler generating one unit of the code of a compilation (see
+     * {@link #codeGenUnits(CodeGenUnits)}): it shares the source, options and
+     * environments of the compilation, but has its own program, code
+     * generation state and labels.
+     *
+     * @param parent      compiler of the compilation
+     * @param labelSuffix suffix of the labels created by the unit
+     */
+    private DecacCompiler(DecacCompiler parent, String labelSuffix) {
+        this.compilerOptions = parent.compilerOptions;
+        this.source = parent.source;
+        this.symbolTable = parent.symbolTable;
+        this.environmentType = parent.environmentType;
+
+        int nbRegisters = parent.registerManager.getNbRegisters();
+        this.stackCount = new StackCount();
+        this.registerManager = new RegisterManager(nbRegisters, stackCount);
+        this.armRegisterManager = new ARMRegisterManager(nbRegisters);
+        this.helperInfo = new HelperInfo(labelSuffix);
+        this.phaseTimer = new PhaseTimer(getSourceName(), false);
+        this.peephole = null;
     }
 
     public EnvironmentType getEnvTypes() {
@@ -78,6 +136,14 @@ public class DecacCompiler {
         return source;
     }
 
+    /**
+     * Name of the source file, as given on the command line (empty if there is
+     * none).
+     */
+    public String getSourceName() {
+        return source != null ? source.getPath() : "";
+    }
+
     /**
      * Compilation options (e.g. when to stop compilation, number of registers
      * to use, ...).
@@ -86,6 +152,45 @@ public class DecacCompiler {
         return compilerOptions;
     }
 
+    // ---------- Code generation state (owned by this compilation only, so that
+    // several files can be compiled concurrently)
+
+    private final StackCount stackCount;
+    private final RegisterManager registerManager;
+    private final ARMRegisterManager armRegisterManager;
+    private final ARMDataSection armDataSection = new ARMDataSection();
+    private final HelperInfo helperInfo;
+
+    public StackCount getStackCount() {
+        return stackCount;
+    }
+
+    public RegisterManager getRegisterManager() {
+        return registerManager;
+    }
+
+    public ARMRegisterManager getARMRegisterManager() {
+        return armRegisterManager;
+    }
+
+    public ARMDataSection getARMDataSection() {
+        return armDataSection;
+    }
+
+    public HelperInfo getHelperInfo() {
+        return helperInfo;
+    }
+
+    private final PhaseTimer phaseTimer;
+
+    /**
+     * Time spent in each phase of this compilation (recorded with decac -T
+     * only).
+     */
+    public PhaseTimer getPhaseTimer() {
+        return phaseTimer;
+    }
+
     /**
      * @see
      *      fr.ensimag.ima.pseudocode.IMAProgram#add(fr.ensimag.ima.pseudocode.AbstractLine)
@@ -448,10 +553,44 @@ public class DecacCompiler {
      */
     private final IMAProgram program = new IMAProgram();
 
+    /**
+     * Append a complete block to the program. When the program is streamed to
+     * the destination file, the program up to and including this block is
+     * written and released.
+     */
     public void appendBlock(IMAProgram block) {
         program.append(block);
+        if (output != null) {
+            flushProgram(output);
+        }
+    }
+
+    /**
+     * Peephole optimizer of the program (from -O1), null if the program is
+     * written as generated. Only the compiler of the compilation has one: the
+     * code of the units is optimized when it is appended to the program.
+     */
+    private final PeepholeOptimizer peephole;
+
+    /**
+     * Optimize the program, then write it to s and remove its lines.
+     */
+    private void flushProgram(PrintStream s) {
+        if (peephole != null) {
+            peephole.optimize(program, localLabels);
+        }
+        program.flush(s);
     }
 
+    /** Size of the buffer of the destination file */
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Destination file the finished blocks of the IMA program are written to,
+     * null when the program is only written at the end of the compilation.
+     */
+    private PrintStream output = null;
+
     private IMAProgram currentBlock = program;
 
     public IMAProgram getCurrentBlock() {
@@ -489,10 +628,12 @@ public class DecacCompiler {
         currentARMBlock = ARMProgram;
     }
 
-    /** The global environment for types (and the symbolTable) */
-    // j'ai inversé les 2 lignes
-    public final SymbolTable symbolTable = new SymbolTable();
-    public final EnvironmentType environmentType = new EnvironmentType(this);
+    /**
+     * The global environment for types (and the symbolTable, shared by all the
+     * compilations of the process)
+     */
+    public final SymbolTable symbolTable;
+    public final EnvironmentType environmentType;
 
     /**
      * Creates a new symbol or returns the existing one.
@@ -512,6 +653,17 @@ public class DecacCompiler {
      * @return true on error
      */
     public boolean compile() {
+        return compile(System.out, System.err);
+    }
+
+    /**
+     * Run the compiler (parse source file, generate code)
+     *
+     * @param stdout stream for standard output (e.g., decac -p)
+     * @param stderr stream for error messages
+     * @return true on error
+     */
+    public boolean compile(PrintStream stdout, PrintStream stderr) {
         String assemblyFileExt;
         if (getCompilerOptions().getArm()) {
             assemblyFileExt = ".s";
@@ -522,8 +674,13 @@ public class DecacCompiler {
         String sourceFile = source.getAbsolutePath();
         String destFile = sourceFile.substring(0, sourceFile.lastIndexOf(".")) + assemblyFileExt;
 
-        PrintStream err = System.err;
-        PrintStream out = System.out;
+        // when compiling several files at once, messages of each file are
+        // buffered and flushed in one go so they don't get interleaved
+        boolean buffered = getCompilerOptions().getParallel();
+        ByteArrayOutputStream outBuffer = new ByteArrayOutputStream();
+        ByteArrayOutputStream errBuffer = new ByteArrayOutputStream();
+        PrintStream err = buffered ? new PrintStream(errBuffer, true) : stderr;
+        PrintStream out = buffered ? new PrintStream(outBuffer, true) : stdout;
         LOG.debug("Compiling file " + sourceFile + " to assembly file " + destFile);
         try {
             return doCompile(sourceFile, destFile, out, err);
@@ -542,14 +699,41 @@ public class DecacCompiler {
                     + ":", e);
             err.println("Internal compiler error while compiling file " + sourceFile + ", sorry.");
             // NOTE : print stacktrace on internal compiler error
-            e.printStackTrace();
+            e.printStackTrace(err);
             return true;
         } catch (AssertionError e) {
             LOG.fatal("Assertion failed while compiling file " + sourceFile
                     + ":", e);
             err.println("Internal compiler error while compiling file " + sourceFile + ", sorry.");
-            e.printStackTrace();
+            e.printStackTrace(err);
             return true;
+        } finally {
+            if (buffered) {
+                flushDiagnostics(outBuffer, stdout, errBuffer, stderr);
+            }
+        }
+    }
+
+    /** Lock serializing the flush of buffered messages of parallel compilations */
+    private static final Object OUTPUT_LOCK = new Object();
+
+    /**
+     * Write the messages buffered during a compilation to the given streams.
+     *
+     * @param outBuffer messages destined to the standard output
+     * @param errBuffer messages destined to the standard error
+     */
+    private static void flushDiagnostics(ByteArrayOutputStream outBuffer, PrintStream out,
+            ByteArrayOutputStream errBuffer, PrintStream err) {
+        synchronized (OUTPUT_LOCK) {
+            if (outBuffer.size() > 0) {
+                out.write(outBuffer.toByteArray(), 0, outBuffer.size());
+                out.flush();
+            }
+            if (errBuffer.size() > 0) {
+                err.write(errBuffer.toByteArray(), 0, errBuffer.size());
+                err.flush();
+            }
         }
     }
 
@@ -567,8 +751,34 @@ public class DecacCompiler {
      */
     private boolean doCompile(String sourceName, String destName, PrintStream out, PrintStream err)
             throws DecacFatalError, LocationException {
+        // Step 0: Reuse the assembly file generated by a previous compilation
+        BuildCache cache = null;
+        String cacheKey = null;
+        if (compilerOptions.getCacheDir() != null && !compilerOptions.getParse() && !compilerOptions.getVerify()) {
+            PhaseTimer.Phase cachePhase = phaseTimer.start("cache");
+            try {
+                cache = BuildCache.forDirectory(compilerOptions.getCacheDir(), compilerOptions.getCacheSize());
+                try {
+                    cacheKey = cache.key(source, compilerOptions);
+                } catch (IOException e) {
+                    throw new DecacFatalError("Failed to open input file: " + e.getLocalizedMessage());
+                }
+                if (cache.restore(cacheKey, source, new File(destName))) {
+                    return false;
+                }
+            } finally {
+                cachePhase.close();
+            }
+        }
+
         // Step 1: Lexing and parsing
-        AbstractProgram prog = doLexingAndParsing(sourceName, err);
+        AbstractProgram prog;
+        PhaseTimer.Phase parsing = phaseTimer.start("parsing");
+        try {
+            prog = doLexingAndParsing(sourceName, err);
+        } finally {
+            parsing.close();
+        }
         if (prog == null) {
             LOG.info("Parsing failed");
             return true;
@@ -576,12 +786,22 @@ public class DecacCompiler {
 
         // Step 2: Handle -p (print) option
         if (compilerOptions.getParse()) {
-            prog.decompile(out);
+            PhaseTimer.Phase decompilation = phaseTimer.start("decompilation");
+            try {
+                prog.decompile(out);
+            } finally {
+                decompilation.close();
+            }
             return false;
         }
 
         // Step 3: Contextual verification
-        prog.verifyProgram(this);
+        PhaseTimer.Phase verification = phaseTimer.start("verification");
+        try {
+            prog.verifyProgram(this);
+        } finally {
+            verification.close();
+        }
         assert (prog.checkAllDecorations());
 
         // Step 4: Handle -v (verify only) option
@@ -589,35 +809,114 @@ public class DecacCompiler {
             return false;
         }
 
-        // Step 6: Generate main program
-
-        if (getCompilerOptions().getArm()) {
-            prog.ARMCodeGenProgram(this);
-        } else {
-            addComment("Start of the main program");
-            prog.codeGenProgram(this);
-            addComment("End of the main program");
+        // Step 5: Fold the constant expressions of the decorated tree
+        if (compilerOptions.getOptimizationLevel() >= 1) {
+            PhaseTimer.Phase folding = phaseTimer.start("folding");
+            try {
+                prog.foldAllConstants(this);
+            } finally {
+                folding.close();
+            }
+            assert (prog.checkAllDecorations());
         }
 
-        LOG.debug("Generated assembly code:\n" + program.display());
+        // Step 6: Generate the program. The IMA code is written to the
+        // destination file block by block, as soon as each block is complete
         LOG.info("Output file: " + destName);
+        boolean written = false;
+        try (PrintStream output = new PrintStream(
+                new BufferedOutputStream(new FileOutputStream(destName), OUTPUT_BUFFER_SIZE), false)) {
+            // the whole program is kept in memory only to be displayed in the traces
+            if (!LOG.isDebugEnabled()) {
+                this.output = output;
+            }
+
+            // blocks streamed to the output during code generation are
+            // counted in this phase
+            PhaseTimer.Phase codegen = phaseTimer.start("codegen");
+            try {
+                if (getCompilerOptions().getArm()) {
+                    prog.ARMCodeGenProgram(this);
+                } else {
+                    addComment("Start of the main program");
+                    prog.codeGenProgram(this);
+                    addComment("End of the main program");
+                }
+            } finally {
+                codegen.close();
+            }
+
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Generated assembly code:\n"
+                        + (getCompilerOptions().getArm() ? ARMProgram.display() : program.display()));
+            }
 
-        // Step 7: Write to the destination file
-        try (FileOutputStream fstream = new FileOutputStream(destName)) {
+            // Step 7: Write the rest of the program to the destination file
             LOG.info("Writing assembly file...");
-            if (getCompilerOptions().getArm()) {
-                ARMProgram.display(new PrintStream(fstream));
-            } else {
-                program.display(new PrintStream(fstream));
+            CompilerEvents.Event event = CompilerEvents.begin(CompilerEvents.Kind.EMISSION);
+            PhaseTimer.Phase emission = phaseTimer.start("emission");
+            try {
+                if (getCompilerOptions().getArm()) {
+                    ARMProgram.display(output);
+                } else {
+                    flushProgram(output);
+                }
+                this.output = null;
+                output.flush();
+            } finally {
+                emission.close();
+            }
+            if (event != null) {
+                event.set(CompilerEvents.Field.FILE, getSourceName()).commit();
+            }
+            if (peephole != null && LOG.isDebugEnabled()) {
+                for (PeepholeRule rule : peephole.getRules()) {
+                    LOG.debug("Peephole rule " + rule);
+                }
+            }
+            if (output.checkError()) {
+                throw new DecacFatalError("Failed to write to output file: " + destName);
             }
+            written = true;
         } catch (IOException e) {
             throw new DecacFatalError("Failed to write to output file: " + e.getLocalizedMessage());
+        } finally {
+            if (!written) {
+                // don't leave a truncated assembly file behind
+                new File(destName).delete();
+            }
+        }
+
+        if (cache != null) {
+            PhaseTimer.Phase cachePhase = phaseTimer.start("cache");
+            try {
+                cache.store(cacheKey, source, includedFiles, new File(destName));
+            } catch (IOException e) {
+                LOG.warn("Failed to store " + destName + " in the cache: " + e.getLocalizedMessage());
+            } finally {
+                cachePhase.close();
+            }
         }
 
         LOG.info("Compilation of " + sourceName + " completed successfully.");
         return false;
     }
 
+    /** Files included by the source file */
+    private final List<BuildCache.Include> includedFiles = new ArrayList<BuildCache.Include>();
+
+    /**
+     * Record a file included by the source file (through a
+     * <code>#include</code> directive), directly or by an included file.
+     *
+     * @param name      the name given to the directive
+     * @param directory the directory in which the file was looked up before
+     *                  the library, null for none
+     */
+    public void addIncludedFile(String name, File directory) {
+        includedFiles.add(new BuildCache.Include(name, directory));
+    }
+
     public EnvironmentType getEnvironmentType() {
         return environmentType;
     }
@@ -639,15 +938,28 @@ public class DecacCompiler {
             throws DecacFatalError, DecacInternalError {
         DecaLexer lex;
         try {
-            lex = new DecaLexer(CharStreams.fromFileName(sourceName));
+            lex = new DecaLexer(ByteCharStream.fromFileName(sourceName));
         } catch (IOException ex) {
             throw new DecacFatalError("Failed to open input file: " + ex.getLocalizedMessage());
         }
         lex.setDecacCompiler(this);
-        CommonTokenStream tokens = new CommonTokenStream(lex);
+        CompilerEvents.Event event = CompilerEvents.begin(CompilerEvents.Kind.PARSING);
+        // the time spent in the lexer is needed by -T and by the event
+        PhaseTimer lexTimer = event != null && !phaseTimer.isEnabled() ? new PhaseTimer(getSourceName(), true)
+                : phaseTimer;
+        CommonTokenStream tokens = new CommonTokenStream(
+                lexTimer.isEnabled() ? new TimedTokenSource(lex, lexTimer) : lex);
         DecaParser parser = new DecaParser(tokens);
         parser.setDecacCompiler(this);
-        return parser.parseProgramAndManageErrors(err);
+        AbstractProgram prog = parser.parseProgramAndManageErrors(err);
+        if (event != null) {
+            PhaseTimer.Measure lexing = lexTimer.getPhases().get("lexing");
+            event.set(CompilerEvents.Field.FILE, getSourceName())
+                    .set(CompilerEvents.Field.TOKENS, tokens.size())
+                    .set(CompilerEvents.Field.LEXING_TIME, lexing != null ? lexing.getWallNanos() : 0L)
+                    .commit();
+        }
+        return prog;
     }
 
     /**
@@ -658,7 +970,64 @@ public class DecacCompiler {
      */
     public Label createLabel(String prefix) {
         labelCounter++;
-        return new Label(prefix + "_" + labelCounter);
+        return declareLocalLabel(new Label(prefix + "_" + labelCounter + helperInfo.getLabelSuffix()));
+    }
+
+    /**
+     * Declare a label used only in the code generated by this compiler (and
+     * not by the other units of the program), which the peephole optimizer
+     * may remove once nothing jumps to it. The labels created by
+     * {@link #createLabel(String)} are local.
+     *
+     * @return label
+     */
+    public Label declareLocalLabel(Label label) {
+        localLabels.add(label.toString());
+        return label;
+    }
+
+    /**
+     * Generate the units of code of the program, each with a compiler of its
+     * own, and append them to the program in their order. With -P, the units
+     * are generated concurrently, which gives the same program since the
+     * labels of each unit are distinct.
+     */
+    public void codeGenUnits(CodeGenUnits units) {
+        List<DecacCompiler> compilers = new ArrayList<DecacCompiler>(units.size());
+        for (String labelSuffix : units.getLabelSuffixes()) {
+            compilers.add(new DecacCompiler(this, labelSuffix));
+        }
+        List<Consumer<DecacCompiler>> generators = units.getGenerators();
+
+        if (compilerOptions != null && compilerOptions.getParallel() && units.size() > 1) {
+            IntStream.range(0, units.size()).parallel()
+                    .forEach(i -> generators.get(i).accept(compilers.get(i)));
+            for (DecacCompiler unit : compilers) {
+                appendUnit(unit);
+            }
+        } else {
+            // append each unit as soon as it is generated, so that it can be
+            // streamed to the destination file
+            for (int i = 0; i < units.size(); i++) {
+                generators.get(i).accept(compilers.get(i));
+                appendUnit(compilers.get(i));
+            }
+        }
+    }
+
+    /**
+     * Append the program generated by the compiler of a unit, and record the
+     * execution errors it can raise.
+     */
+    private void appendUnit(DecacCompiler unit) {
+        localLabels.addAll(unit.localLabels);
+        appendBlock(unit.program);
+        possibleError |= unit.possibleError;
+        possibleStackOverflow |= unit.possibleStackOverflow;
+        possibleOverflow |= unit.possibleOverflow;
+        possibleIOError |= unit.possibleIOError;
+        possibleNullDereferenceError |= unit.possibleNullDereferenceError;
+        possibleFullHeapError |= unit.possibleFullHeapError;
     }
 
 }
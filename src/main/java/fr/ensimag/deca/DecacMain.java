@@ -1,7 +1,10 @@
 package fr.ensimag.deca;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -9,6 +12,9 @@ import java.util.concurrent.Future;
 
 import org.apache.log4j.Logger;
 
+import fr.ensimag.deca.cache.BuildCache;
+import fr.ensimag.deca.tools.PhaseTimer;
+
 /**
  * Main class for the command-line Deca compiler.
  * Handles the compilation process for one or multiple Deca source files,
@@ -26,74 +32,75 @@ public class DecacMain {
      * Supports sequential or parallel compilation based on options.
      *
      * @param args Command line arguments
-     *             Usage: decac [[-p | -v] [-n] [-r X] [-d]* [-P] [-w] <fichier deca>...] | [-b]
+     *             Usage: decac [[-p | -v] [-n] [-r X] [-d]* [-P] [-w] [-T] <fichier deca>...] | [-b]
+     *             or: decac --server [-d]* [<port> | --stdio]
      */
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--server")) {
+            DecacServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * Run one decac command: parse the arguments, then compile the given files
+     * (or print the banner). Used by {@link #main(String[])} and by the compile
+     * server for each request.
+     *
+     * @param args command line arguments
+     * @param out  stream for standard output
+     * @param err  stream for error messages
+     * @return the exit status of the command (0 on success)
+     */
+    public static int run(String[] args, PrintStream out, PrintStream err) {
+        return run(args, out, err, true);
+    }
+
+    /**
+     * @param configureLogging whether the -d options set the log level of the
+     *                         process, false for the requests of the compile
+     *                         server
+     * @see #run(String[], PrintStream, PrintStream)
+     */
+    static int run(String[] args, PrintStream out, PrintStream err, boolean configureLogging) {
         // example log4j message.
         LOG.info("Decac compiler started");
         boolean error = false;
         final CompilerOptions options = new CompilerOptions();
         try {
-            options.parseArgs(args);
+            options.parseArgs(args, configureLogging);
         } catch (CLIException e) {
-            System.err.println("Error during option parsing:\n"
+            err.println("Error during option parsing:\n"
                     + e.getMessage());
-            options.displayUsage();
-            System.exit(1);
+            options.displayUsage(out);
+            return 1;
         }
         if (options.getPrintBanner()) {
-            System.out.println("                                         :                               ");
-            System.out.println("                                        ;;                               ");
-            System.out.println("                                       / |                               ");
-            System.out.println("                                      /  |                               ");
-            System.out.println("                                    .'   :                               ");
-            System.out.println("                                 .-'     '                               ");
-            System.out.println("                             _.-'       /                                ");
-            System.out.println("                         .-\"*\"          /                                _ ");
-            System.out.println("                      .-'            .'                            _.-*?'");
-            System.out.println("                    .'             .'                           .-\"  .'    __");
-            System.out.println("                  .'      ,     .-'                           .-+.  .' _.-*\".'");
-            System.out.println("                 /        \\  .-'         _.--**\"\"**-.     .-'  _.y-:-\"   .'    ");
-            System.out.println("                :          `+.       .*\"\"*.          `.  :-. -.     \\  .'  ");
-            System.out.println("                ;        .--*\"\"*--. / __   `  _.--.    \\ |$| -.`   -.;/ _.-+.");
-            System.out.println("                :      .'          :*\"  \"*..*\"          y`-' $|      ;*\"  _(    ");
-            System.out.println("                 \\    /      +----/ / .'.-'---+  .-._.+' `.  -'_.--. :- \"_(");
-            System.out.println("                  `*-:       |    \\/\\/\\/      | /)     `     .'___   ' \"_(");
-            System.out.println("   __________        ;    `._|                | \\  )`      .'.'   `./_\" ( ");
-            System.out.println("  /\\____;;___\\       :      \\|    ProjetGL    | (`._..--**\" : .-    ; `\"' ");
-            System.out.println(" | /         /        \\      |                |  `----**\"T\"\" \" `+.  |     ( (");
-            System.out.println(" `. ())oo() .          `.    |    équipe      |         '     .'    :      ) )");
-            System.out.println("  |\\(%()*^^()^\\      _.-*\"*- |      13        |            / /      '   ........");
-            System.out.println(" %| |-%-------|  .-*\" _      |                |      __..-'\\       /    |      |]");
-            System.out.println("% \\ | %  ))   |   \"+,'___..--|                |--**\"\"       `-.__.'     \\      /");
-            System.out.println("%  \\|%________|     \"\"       +----------------+                          `----'");
-            
-
-            System.exit(0);
+            printBanner(out);
+            return 0;
         }
         if (options.getSourceFiles().isEmpty()) {
-            options.displayUsage();
-            System.exit(0);
+            options.displayUsage(out);
+            return 0;
+        }
+        long start = System.nanoTime();
+        List<DecacCompiler> compilers = new ArrayList<>();
+        for (File source : options.getSourceFiles()) {
+            compilers.add(new DecacCompiler(options, source));
         }
         if (options.getParallel()) {
-            // A FAIRE : instancier DecacCompiler pour chaque fichier à
-            // compiler, et lancer l'exécution des méthodes compile() de chaque
-            // instance en parallèle. Il est conseillé d'utiliser
-            // java.util.concurrent de la bibliothèque standard Java.
-
-            ArrayList<File> sourceFiles = (ArrayList<File>) options.getSourceFiles();
+            // Each DecacCompiler owns its whole compilation state (symbols,
+            // environments, registers, stack counters...), so the files can be
+            // compiled concurrently. Messages are buffered per file by
+            // DecacCompiler.compile() to avoid interleaving.
 
-            int nbThreads = Integer.min(Runtime.getRuntime().availableProcessors(), sourceFiles.size());
+            int nbThreads = Integer.min(Runtime.getRuntime().availableProcessors(), compilers.size());
             ExecutorService executor = Executors.newFixedThreadPool(nbThreads);
             List<Future<Boolean>> futures = new ArrayList<>();
 
-            for (File sourceFile : sourceFiles) {
-                Future<Boolean> future = executor.submit(() -> {
-                    DecacCompiler compiler = new DecacCompiler(options, sourceFile);
-                    synchronized (System.out) {
-                        return compiler.compile();
-                    }
-                });
+            for (DecacCompiler compiler : compilers) {
+                Future<Boolean> future = executor.submit(() -> compiler.compile(out, err));
                 futures.add(future);
             }
 
@@ -112,13 +119,72 @@ public class DecacMain {
             }
 
         } else {
-            for (File source : options.getSourceFiles()) {
-                DecacCompiler compiler = new DecacCompiler(options, source);
-                if (compiler.compile()) {
+            for (DecacCompiler compiler : compilers) {
+                if (compiler.compile(out, err)) {
                     error = true;
                 }
             }
         }
-        System.exit(error ? 1 : 0);
+        if (options.getCacheDir() != null) {
+            BuildCache cache = BuildCache.forDirectory(options.getCacheDir(), options.getCacheSize());
+            LOG.info("Build cache: " + cache.getHits() + " hits, " + cache.getMisses() + " misses");
+        }
+        if (options.getTimings() && !reportTimings(options, compilers, System.nanoTime() - start, err)) {
+            error = true;
+        }
+        return error ? 1 : 0;
+    }
+
+    /**
+     * Report the time spent in each phase of the compilations (decac -T), on
+     * the error stream or in the JSON file given to -Tjson.
+     *
+     * @return false if the report could not be written
+     */
+    private static boolean reportTimings(CompilerOptions options, List<DecacCompiler> compilers,
+            long elapsedNanos, PrintStream err) {
+        List<PhaseTimer> timers = new ArrayList<>();
+        for (DecacCompiler compiler : compilers) {
+            timers.add(compiler.getPhaseTimer());
+        }
+        if (options.getTimingsFile() == null) {
+            PhaseTimer.printTable(timers, elapsedNanos, err);
+            return true;
+        }
+        try (PrintStream json = new PrintStream(options.getTimingsFile(), "UTF-8")) {
+            PhaseTimer.printJson(timers, elapsedNanos, json);
+            return !json.checkError();
+        } catch (IOException e) {
+            err.println("Failed to write timings to " + options.getTimingsFile() + ": " + e.getLocalizedMessage());
+            return false;
+        }
+    }
+
+    private static void printBanner(PrintStream out) {
+        out.println("                                         :                               ");
+        out.println("                                        ;;                               ");
+        out.println("                                       / |                               ");
+        out.println("                                      /  |                               ");
+        out.println("                                    .'   :                               ");
+        out.println("                                 .-'     '                               ");
+        out.println("                             _.-'       /                                ");
+        out.println("                         .-\"*\"          /                                _ ");
+        out.println("                      .-'            .'                            _.-*?'");
+        out.println("                    .'             .'                           .-\"  .'    __");
+        out.println("                  .'      ,     .-'                           .-+.  .' _.-*\".'");
+        out.println("                 /        \\  .-'         _.--**\"\"**-.     .-'  _.y-:-\"   .'    ");
+        out.println("                :          `+.       .*\"\"*.          `.  :-. -.     \\  .'  ");
+        out.println("                ;        .--*\"\"*--. / __   `  _.--.    \\ |$| -.`   -.;/ _.-+.");
+        out.println("                :      .'          :*\"  \"*..*\"          y`-' $|      ;*\"  _(    ");
+        out.println("                 \\    /      +----/ / .'.-'---+  .-._.+' `.  -'_.--. :- \"_(");
+        out.println("                  `*-:       |    \\/\\/\\/      | /)     `     .'___   ' \"_(");
+        out.println("   __________        ;    `._|                | \\  )`      .'.'   `./_\" ( ");
+        out.println("  /\\____;;___\\       :      \\|    ProjetGL    | (`._..--**\" : .-    ; `\"' ");
+        out.println(" | /         /        \\      |                |  `----**\"T\"\" \" `+.  |     ( (");
+        out.println(" `. ())oo() .          `.    |    équipe      |         '     .'    :      ) )");
+        out.println("  |\\(%()*^^()^\\      _.-*\"*- |      13        |            / /      '   ........");
+        out.println(" %| |-%-------|  .-*\" _      |                |      __..-'\\       /    |      |]");
+        out.println("% \\ | %  ))   |   \"+,'___..--|                |--**\"\"       `-.__.'     \\      /");
+        out.println("%  \\|%________|     \"\"       +----------------+                          `----'");
     }
-}
\ No newline at end of file
+}
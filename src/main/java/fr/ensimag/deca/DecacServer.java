@@ -0,0 +1,219 @@
+package fr.ensimag.deca;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.log4j.ConsoleAppender;
+import org.apache.log4j.Logger;
+
+import fr.ensimag.deca.tools.SymbolTable;
+import fr.ensimag.deca.tree.Location;
+
+/**
+ * Persistent compile server (decac --server).
+ *
+ * Keeps one warm JVM (loaded classes, JIT-compiled code, ANTLR DFA caches which
+ * are shared by all parsers) and runs {@link DecacMain#run} for each request.
+ * The log level is set once, when the server starts: INFO, raised by each -d
+ * option; the -d options of the requests do not change it.
+ *
+ * Protocol, on a loopback TCP connection or on stdin/stdout (--stdio):
+ * <ul>
+ * <li>request: the decac arguments, one per line, followed by an empty
+ * line. Source files must be given as absolute paths.</li>
+ * <li>response: "out &lt;n&gt;" and "err &lt;n&gt;" lines each followed by n
+ * bytes of standard output/error, then "exit &lt;status&gt; &lt;ms&gt;" with
+ * the exit status of the command and its duration in milliseconds.</li>
+ * </ul>
+ * A TCP connection may send several requests, a "quit" request stops the
+ * connection.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class DecacServer {
+    private static final Logger LOG = Logger.getLogger(DecacServer.class);
+
+    /** Port used when none is given to decac --server */
+    public static final int DEFAULT_PORT = 7654;
+
+    static final String QUIT = "quit";
+
+    /** Number of source names above which the table of source names is emptied */
+    static final int MAX_SHARED_FILES = 1 << 12;
+    /** Number of symbols above which the shared table of symbols is replaced */
+    static final int MAX_SHARED_SYMBOLS = 1 << 16;
+
+    /**
+     * Held (read) by each request during its compilation, and (write) to empty
+     * the tables shared by the compilations of the process.
+     */
+    private static final ReentrantReadWriteLock compilations = new ReentrantReadWriteLock();
+
+    /**
+     * @param args [-d]* [&lt;port&gt; | --stdio]
+     */
+    public static void main(String[] args) {
+        int debug = CompilerOptions.INFO;
+        while (args.length > 0 && args[0].equals("-d")) {
+            debug = Math.min(debug + 1, CompilerOptions.TRACE);
+            args = Arrays.copyOfRange(args, 1, args.length);
+        }
+        try {
+            if (args.length == 1 && args[0].equals("--stdio")) {
+                // stdout carries the protocol, stray prints go to stderr
+                PrintStream protocol = System.out;
+                System.setOut(System.err);
+                redirectConsoleLogs();
+                CompilerOptions.configureLogging(debug);
+                serve(System.in, protocol);
+            } else if (args.length <= 1) {
+                CompilerOptions.configureLogging(debug);
+                int port = args.length == 1 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+                listen(port);
+            } else {
+                System.err.println("Expected : decac --server [-d]* [<port> | --stdio]");
+                System.exit(1);
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid port for --server: " + args[0]);
+            System.exit(1);
+        } catch (IOException e) {
+            System.err.println("Compile server failed: " + e.getLocalizedMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Send the log4j console output to stderr.
+     */
+    private static void redirectConsoleLogs() {
+        Enumeration<?> appenders = Logger.getRootLogger().getAllAppenders();
+        while (appenders.hasMoreElements()) {
+            Object appender = appenders.nextElement();
+            if (appender instanceof ConsoleAppender) {
+                ((ConsoleAppender) appender).setTarget(ConsoleAppender.SYSTEM_ERR);
+                ((ConsoleAppender) appender).activateOptions();
+            }
+        }
+    }
+
+    /**
+     * Accept connections on the loopback interface, each connection being served
+     * by its own thread.
+     */
+    private static void listen(int port) throws IOException {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try (ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            LOG.info("Compile server listening on port " + server.getLocalPort());
+            while (true) {
+                final Socket socket = server.accept();
+                executor.submit(() -> {
+                    try (Socket s = socket) {
+                        serve(s.getInputStream(), s.getOutputStream());
+                    } catch (IOException e) {
+                        LOG.warn("Compile server connection failed: " + e.getLocalizedMessage());
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Serve the requests read from an input stream until it is closed or a quit
+     * request is received.
+     */
+    static void serve(InputStream input, OutputStream output) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        OutputStream writer = new BufferedOutputStream(output);
+        List<String> args = new ArrayList<String>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.isEmpty()) {
+                args.add(line);
+                continue;
+            }
+            if (args.size() == 1 && args.get(0).equals(QUIT)) {
+                return;
+            }
+            handle(args.toArray(new String[args.size()]), writer);
+            args.clear();
+        }
+    }
+
+    /**
+     * Run one compile request and send back its output, exit status and timing.
+     */
+    private static void handle(String[] args, OutputStream writer) throws IOException {
+        ByteArrayOutputStream outBuffer = new ByteArrayOutputStream();
+        ByteArrayOutputStream errBuffer = new ByteArrayOutputStream();
+        long start = System.nanoTime();
+        int status;
+        compilations.readLock().lock();
+        try (PrintStream out = new PrintStream(outBuffer, true, "UTF-8");
+                PrintStream err = new PrintStream(errBuffer, true, "UTF-8")) {
+            status = DecacMain.run(args, out, err, false);
+        } finally {
+            compilations.readLock().unlock();
+        }
+        releaseSharedTables();
+        long millis = (System.nanoTime() - start) / 1000000;
+        LOG.info("Request " + String.join(" ", args) + " done in " + millis + " ms, exit status " + status);
+
+        writeChunk(writer, "out", outBuffer);
+        writeChunk(writer, "err", errBuffer);
+        writer.write(("exit " + status + " " + millis + "\n").getBytes(StandardCharsets.UTF_8));
+        writer.flush();
+    }
+
+    /**
+     * Empty the tables shared by the compilations when they have grown too
+     * large and no other request is being compiled, so that they do not fill
+     * up in a long-lived server.
+     */
+    private static void releaseSharedTables() {
+        if (!compilations.writeLock().tryLock()) {
+            return;
+        }
+        try {
+            if (Location.getFileCount() > MAX_SHARED_FILES) {
+                LOG.debug("Emptying the table of source names (" + Location.getFileCount() + " names)");
+                Location.resetFileTable();
+            }
+            if (SymbolTable.getShared().size() > MAX_SHARED_SYMBOLS) {
+                LOG.debug("Emptying the table of symbols (" + SymbolTable.getShared().size() + " symbols)");
+                SymbolTable.resetShared();
+            }
+        } finally {
+            compilations.writeLock().unlock();
+        }
+    }
+
+    private static void writeChunk(OutputStream writer, String name, ByteArrayOutputStream content)
+            throws IOException {
+        if (content.size() == 0) {
+            return;
+        }
+        writer.write((name + " " + content.size() + "\n").getBytes(StandardCharsets.UTF_8));
+        content.writeTo(writer);
+    }
+}
@@ -0,0 +1,350 @@
+package fr.ensimag.deca.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+import fr.ensimag.deca.CompilerOptions;
+import fr.ensimag.deca.DecacCompiler;
+import fr.ensimag.deca.syntax.AbstractDecaLexer;
+import fr.ensimag.deca.tools.DecacInternalError;
+
+/**
+ * On-disk cache of generated assembly files (decac -cache).
+ *
+ * An entry is keyed by a hash of the compiler version, of the options that
+ * influence code generation (-n, -r, -arm) and of the source file. It records
+ * the files included by the source, directly or by an included file, with the
+ * directory each was looked up in before the library and the hash of the file
+ * it resolved to: the entry is only used if they still resolve to the same
+ * contents.
+ *
+ * The size of the cache is bounded, least recently used entries being evicted
+ * first.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class BuildCache {
+    private static final Logger LOG = Logger.getLogger(BuildCache.class);
+
+    /** Default maximum size of a cache directory, in bytes */
+    public static final long DEFAULT_MAX_SIZE = 64L * 1024 * 1024;
+
+    private static final String MAGIC = "deca-cache 2";
+    private static final String ENTRY_EXT = ".entry";
+
+    private static final Map<File, BuildCache> instances = new HashMap<File, BuildCache>();
+
+    private static String compilerVersion;
+
+    /**
+     * A file included by a source file, looked up like
+     * {@link AbstractDecaLexer#findFile}: in the directory of the file
+     * containing the directive, then in the library.
+     */
+    public static class Include {
+        private final String name;
+        private final File directory;
+
+        /**
+         * @param name      the name given to the <code>#include</code> directive
+         * @param directory the directory of the file containing the directive,
+         *                  null for a library file
+         */
+        public Include(String name, File directory) {
+            this.name = name;
+            this.directory = directory == null ? null : directory.getAbsoluteFile();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public File getDirectory() {
+            return directory;
+        }
+    }
+
+    private final File directory;
+    private final long maxSize;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Get the cache stored in a directory. The same instance is shared by all
+     * the compilations of this JVM (e.g. decac -P, or the compile server).
+     *
+     * @param directory directory of the cache, created if needed
+     * @param maxSize   maximum size of the cache, in bytes
+     */
+    public static synchronized BuildCache forDirectory(File directory, long maxSize) {
+        File key = directory.getAbsoluteFile();
+        BuildCache cache = instances.get(key);
+        if (cache == null || cache.maxSize != maxSize) {
+            cache = new BuildCache(key, maxSize);
+            instances.put(key, cache);
+        }
+        return cache;
+    }
+
+    public BuildCache(File directory, long maxSize) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Compute the key of the entry for a source file.
+     *
+     * @param source  the source file
+     * @param options options of the compilation
+     * @return the key, to be given to {@link #restore} and {@link #store}
+     */
+    public String key(File source, CompilerOptions options) throws IOException {
+        MessageDigest digest = newDigest();
+        String header = compilerVersion() + "\n-n " + options.getNoCheck() + "\n-r " + options.getNbRegisters()
+                + "\n-arm " + options.getArm() + "\n-ir " + options.getIR()
+                + "\n-O " + options.getOptimizationLevel() + "\n";
+        digest.update(header.getBytes(StandardCharsets.UTF_8));
+        digest.update(Files.readAllBytes(source.toPath()));
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Restore the assembly file of a source file from the cache.
+     *
+     * @param key    key of the entry, see {@link #key}
+     * @param source the source file
+     * @param dest   the assembly file to write
+     * @return true on a cache hit (dest has been written), false otherwise
+     */
+    public boolean restore(String key, File source, File dest) {
+        File entry = entryFile(key);
+        try {
+            if (!entry.isFile()) {
+                return miss(source);
+            }
+            byte[] content = Files.readAllBytes(entry.toPath());
+            int headerEnd = headerEnd(content);
+            String[] header = new String(content, 0, headerEnd, StandardCharsets.UTF_8).split("\n");
+            if (!header[0].equals(MAGIC)) {
+                return miss(source);
+            }
+            for (int i = 1; i < header.length; i++) {
+                // "include <hash> <name> <directory>", the directory being
+                // empty for none
+                String[] fields = header[i].split(" ", 4);
+                Include include = new Include(fields[2], fields[3].isEmpty() ? null : new File(fields[3]));
+                if (!fields[1].equals(includeHash(include))) {
+                    LOG.debug("Cache: " + include.getName() + " changed since " + source + " was cached");
+                    return miss(source);
+                }
+            }
+            File tmp = tempFile(dest.getAbsoluteFile().getParentFile());
+            try {
+                Files.write(tmp.toPath(), Arrays.copyOfRange(content, headerEnd + 2, content.length));
+                Files.move(tmp.toPath(), dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(tmp.toPath());
+            }
+            // keep track of the last use for eviction
+            entry.setLastModified(System.currentTimeMillis());
+        } catch (IOException | RuntimeException e) {
+            // corrupted or concurrently evicted entry: compile normally
+            LOG.debug("Cache: cannot restore " + source + ": " + e);
+            return miss(source);
+        }
+        hits.incrementAndGet();
+        LOG.info("Cache hit for " + source);
+        return true;
+    }
+
+    private boolean miss(File source) {
+        misses.incrementAndGet();
+        LOG.info("Cache miss for " + source);
+        return false;
+    }
+
+    /**
+     * Store the assembly file generated for a source file.
+     *
+     * @param key      key of the entry, see {@link #key}
+     * @param source   the source file
+     * @param includes files included (transitively) by the source
+     * @param dest     the generated assembly file
+     */
+    public void store(String key, File source, List<Include> includes, File dest) throws IOException {
+        StringBuilder header = new StringBuilder(MAGIC);
+        for (Include include : includes) {
+            String hash = includeHash(include);
+            if (hash == null) {
+                return;
+            }
+            header.append("\ninclude ").append(hash).append(' ').append(include.getName()).append(' ')
+                    .append(include.getDirectory() == null ? "" : include.getDirectory().getPath());
+        }
+        header.append("\n\n");
+
+        if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+            throw new IOException("cannot create cache directory " + directory);
+        }
+        File tmp = tempFile(directory);
+        try {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            content.write(header.toString().getBytes(StandardCharsets.UTF_8));
+            content.write(Files.readAllBytes(dest.toPath()));
+            Files.write(tmp.toPath(), content.toByteArray());
+            Files.move(tmp.toPath(), entryFile(key).toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp.toPath());
+        }
+        LOG.debug("Cache: stored " + source);
+        evict();
+    }
+
+    /**
+     * Remove the least recently used entries until the cache fits in its
+     * maximum size.
+     */
+    private synchronized void evict() {
+        File[] entries = directory.listFiles((dir, name) -> name.endsWith(ENTRY_EXT));
+        if (entries == null) {
+            return;
+        }
+        long size = 0;
+        for (File entry : entries) {
+            size += entry.length();
+        }
+        if (size <= maxSize) {
+            return;
+        }
+        Arrays.sort(entries, Comparator.comparingLong(File::lastModified));
+        for (File entry : entries) {
+            if (size <= maxSize) {
+                break;
+            }
+            long length = entry.length();
+            if (entry.delete()) {
+                size -= length;
+                LOG.debug("Cache: evicted " + entry.getName());
+            }
+        }
+    }
+
+    private File entryFile(String key) {
+        return new File(directory, key + ENTRY_EXT);
+    }
+
+    private static File tempFile(File directory) throws IOException {
+        return File.createTempFile("deca", ".tmp", directory);
+    }
+
+    private static int headerEnd(byte[] content) throws IOException {
+        for (int i = 0; i + 1 < content.length; i++) {
+            if (content[i] == '\n' && content[i + 1] == '\n') {
+                return i;
+            }
+        }
+        throw new IOException("malformed cache entry");
+    }
+
+    /**
+     * Hash of the file that an include directive resolves to, or null if it
+     * cannot be found.
+     */
+    private static String includeHash(Include include) throws IOException {
+        byte[] content;
+        File local = AbstractDecaLexer.localInclude(include.getDirectory(), include.getName());
+        if (local != null) {
+            content = Files.readAllBytes(local.toPath());
+        } else {
+            URL url = AbstractDecaLexer.libraryInclude(include.getName());
+            if (url == null) {
+                return null;
+            }
+            try (InputStream in = url.openStream()) {
+                content = readAll(in);
+            }
+        }
+        return toHex(newDigest().digest(content));
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Version of the running compiler: the implementation version of the jar
+     * when there is one, else the date of the most recently modified class.
+     */
+    private static synchronized String compilerVersion() {
+        if (compilerVersion == null) {
+            String version = DecacCompiler.class.getPackage().getImplementationVersion();
+            CodeSource code = DecacCompiler.class.getProtectionDomain().getCodeSource();
+            File location = null;
+            if (code != null && "file".equals(code.getLocation().getProtocol())) {
+                location = new File(code.getLocation().getPath());
+            }
+            compilerVersion = version + "@" + (location == null ? 0 : lastModified(location));
+        }
+        return compilerVersion;
+    }
+
+    private static long lastModified(File file) {
+        long last = file.lastModified();
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                last = Math.max(last, lastModified(child));
+            }
+        }
+        return last;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new DecacInternalError("SHA-256 is not available");
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder res = new StringBuilder();
+        for (byte b : bytes) {
+            res.append(String.format("%02x", b));
+        }
+        return res.toString();
+    }
+}
@@ -4,21 +4,25 @@ import java.util.HashMap;
 
 import fr.ensimag.deca.DecacCompiler;
 
+/**
+ * Entries of the .data section of the generated ARM program. One instance is
+ * owned by each {@link DecacCompiler}.
+ */
 public class ARMDataSection {
-    private static HashMap<String, String> preLoadData = new HashMap<String, String>();
-    private static HashMap<String, String> preLoadStringData = new HashMap<String, String>();
+    private HashMap<String, String> preLoadData = new HashMap<String, String>();
+    private HashMap<String, String> preLoadStringData = new HashMap<String, String>();
 
-    private static void setDataSectionElem(String name, String content) {
+    private void setDataSectionElem(String name, String content) {
         preLoadData.put(name, content);
     }
 
-    private static void setStringDataSectionElem(String name, String content) {
+    private void setStringDataSectionElem(String name, String content) {
         preLoadStringData.put(name, content);
     }
 
-    private static int floatEntryCount = 0;
+    private int floatEntryCount = 0;
 
-    public static String createFloatDataEntry(Float value) {
+    public String createFloatDataEntry(Float value) {
         String formattedEntryName = String.format("float_val.%d", floatEntryCount);
         floatEntryCount++;
 
@@ -29,9 +33,9 @@ public class ARMDataSection {
         return formattedEntryName;
     }
 
-    private static int stringEntryCount = 0;
+    private int stringEntryCount = 0;
 
-    public static String createStringDataEntry(String string) {
+    public String createStringDataEntry(String string) {
         String formattedEntryName = String.format("string_val.%d", stringEntryCount);
         stringEntryCount++;
 
@@ -42,7 +46,7 @@ public class ARMDataSection {
         return formattedEntryName;
     }
 
-    public static void codeGenDataSection(DecacCompiler compiler) {
+    public void codeGenDataSection(DecacCompiler compiler) {
         for (String name : preLoadData.keySet()) {
             compiler.addARMRawFirst(String.format("%s: %s", name, preLoadData.get(name)));
         }
@@ -68,21 +72,21 @@ public class ARMDataSection {
         compiler.addARMRawFirst("\n");
     }
 
-    private static Boolean intPrint = false;
+    private Boolean intPrint = false;
 
-    public static void setIntPrint() {
+    public void setIntPrint() {
         intPrint = true;
     }
 
-    private static Boolean floatPrint = false;
+    private Boolean floatPrint = false;
 
-    public static void setFloatPrint() {
+    public void setFloatPrint() {
         floatPrint = true;
     }
 
-    private static Boolean stringPrint = false;
+    private Boolean stringPrint = false;
 
-    public static void setStringPrint() {
+    public void setStringPrint() {
         stringPrint = true;
     }
 }
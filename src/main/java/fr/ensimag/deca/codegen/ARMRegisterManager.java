@@ -0,0 +1,251 @@
+package fr.ensimag.deca.codegen;
+
+import fr.ensimag.arm.pseudocode.ARMDPRegister;
+import fr.ensimag.arm.pseudocode.ARMDVal;
+import fr.ensimag.arm.pseudocode.ARMGPRegister;
+import fr.ensimag.arm.pseudocode.ARMRegister;
+import fr.ensimag.arm.pseudocode.ARMRegisterOffset;
+import fr.ensimag.arm.pseudocode.ARMSPRegister;
+
+/**
+ * Statuses of the ARM general purpose and VFP registers during code
+ * generation. One instance is owned by each
+ * {@link fr.ensimag.deca.DecacCompiler}, the registers themselves being
+ * immutable and shared (see {@link ARMRegister}).
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class ARMRegisterManager {
+    private final int nbRegisters;
+
+    /**
+     * Statuses for R0 - min(NBRegisters - 1, 8) registers (and R12, the scratch
+     * register). true means a register is being used and should not be
+     * overwritten, false means otherwise.
+     */
+    private final boolean[] registerStatuses = new boolean[ARMRegister.MAX_REGISTERS];
+
+    private final boolean[] VFPSregisterStatuses = new boolean[32];
+
+    private final boolean[] VFPDregisterStatuses = new boolean[16];
+
+    private ARMRegisterOffset lastExprPos = new ARMRegisterOffset(0, ARMRegister.R0);
+
+    /**
+     * @param nbRegisters number of usable general purpose registers
+     */
+    public ARMRegisterManager(int nbRegisters) {
+        this.nbRegisters = nbRegisters;
+    }
+
+    /**
+     * Set the location of the latest computed expression's value
+     */
+    public void setLastExprPos(ARMRegisterOffset exprPos) {
+        lastExprPos = exprPos != null ? exprPos : new ARMRegisterOffset(0, ARMRegister.R0);
+    }
+
+    /**
+     * Get the location of the latest computed expression's value
+     */
+    public ARMDVal getLastExprPos() {
+        if (lastExprPos == null) {
+            return ARMRegister.R0;
+        }
+        return lastExprPos.getOffset() == 0 ? lastExprPos.getRegister() : lastExprPos;
+    }
+
+    /**
+     * Get whether a register is used or not
+     *
+     * @param i register to check
+     * @return true if Ri is used, false otherwise
+     */
+    public boolean isUsed(int i) {
+        return registerStatuses[i];
+    }
+
+    /**
+     * Set a register as used
+     *
+     * @param i register to set as used
+     */
+    public void setUsed(int i) {
+        registerStatuses[i] = true;
+    }
+
+    /**
+     * Set a register as used
+     *
+     * @param R register to set as used
+     */
+    public void setUsed(ARMGPRegister R) {
+        registerStatuses[R.getNumber()] = true;
+    }
+
+    /**
+     * Set a register as unused
+     *
+     * @param i register to set as unused
+     */
+    public void setUnused(int i) {
+        registerStatuses[i] = false;
+    }
+
+    /**
+     * Set a register as unused
+     *
+     * @param Reg register to set as unused
+     */
+    public void setUnused(ARMRegister Reg) {
+        if (Reg instanceof ARMGPRegister) {
+            ARMGPRegister R = (ARMGPRegister) Reg;
+            registerStatuses[R.getNumber()] = false;
+        } else if (Reg instanceof ARMSPRegister) {
+            ARMSPRegister S = (ARMSPRegister) Reg;
+            VFPSregisterStatuses[S.getNumber()] = false;
+        } else {
+            ARMDPRegister D = (ARMDPRegister) Reg;
+            VFPDregisterStatuses[D.getNumber()] = false;
+        }
+    }
+
+    /**
+     * Get an unused register (prioritizes smallest numbered unused registers)
+     *
+     * @return unused register or null if all registers are used
+     */
+    public ARMGPRegister getUnusedR() {
+        return getUnusedRFrom(0);
+    }
+
+    /**
+     * Get an unused callee-saved register (R4 - R8)
+     *
+     * @return unused register or null if all registers are used
+     */
+    public ARMGPRegister getUnusedSavedR() {
+        return getUnusedRFrom(4);
+    }
+
+    private ARMGPRegister getUnusedRFrom(int first) {
+        int i = first;
+        while (i < Integer.min(nbRegisters, 8) && isUsed(i)) {
+            i++;
+        }
+        if (i >= nbRegisters) {
+            if (!isUsed(12)) {
+                setUsed(12);
+                return ARMRegister.getR(12);
+            }
+            return null;
+        }
+
+        setUsed(i);
+        return ARMRegister.getR(i);
+    }
+
+    /**
+     * Get whether a VFP single precision register is used or not
+     *
+     * @param i register to check
+     * @return true if Si is used, false otherwise
+     */
+    private boolean VFPSisUsed(int i) {
+        return VFPSregisterStatuses[i];
+    }
+
+    /**
+     * Set a VFP single precision register as used
+     *
+     * @param S register to set as used
+     */
+    public void VFPSsetUsed(ARMSPRegister S) {
+        VFPSregisterStatuses[S.getNumber()] = true;
+    }
+
+    /**
+     * Set a VFP single precision register as unused
+     *
+     * @param i register to set as unused
+     */
+    public void VFPSsetUnused(int i) {
+        VFPSregisterStatuses[i] = false;
+    }
+
+    /**
+     * Set a VFP single precision register as unused
+     *
+     * @param S register to set as unused
+     */
+    public void VFPSsetUnused(ARMSPRegister S) {
+        VFPSregisterStatuses[S.getNumber()] = false;
+    }
+
+    /**
+     * Get an unused VFP single precision register (prioritizes smallest numbered
+     * unused registers). S31 is used as a scratch register.
+     *
+     * @return unused register or null if all registers are used
+     */
+    public ARMSPRegister VFPgetUnusedS() {
+        int i = 0;
+        while (i < 30 && VFPSisUsed(i)) {
+            i++;
+        }
+        if (i >= 31) {
+            return null;
+        }
+
+        VFPSregisterStatuses[i] = true;
+        return ARMRegister.VFPgetS(i);
+    }
+
+    /**
+     * Get whether a double precision register is used or not
+     *
+     * @param i register to check
+     * @return true if Di is used, false otherwise
+     */
+    private boolean VFPDisUsed(int i) {
+        return VFPDregisterStatuses[i];
+    }
+
+    /**
+     * Set a VFP double precision register as unused
+     *
+     * @param i register to set as unused
+     */
+    public void VFPDsetUnused(int i) {
+        VFPDregisterStatuses[i] = false;
+    }
+
+    /**
+     * Set a VFP double precision register as unused
+     *
+     * @param D register to set as unused
+     */
+    public void VFPDsetUnused(ARMDPRegister D) {
+        VFPDregisterStatuses[D.getNumber()] = false;
+    }
+
+    /**
+     * Get an unused VFP double precision register (prioritizes smallest numbered
+     * unused registers). D15 is used as a scratch register.
+     *
+     * @return unused register or null if all registers are used
+     */
+    public ARMDPRegister VFPgetUnusedD() {
+        int i = 0;
+        while (i < 14 && VFPDisUsed(i)) {
+            i++;
+        }
+        if (i >= 15) {
+            return null;
+        }
+
+        VFPDregisterStatuses[i] = true;
+        return ARMRegister.VFPgetD(i);
+    }
+}
@@ -0,0 +1,50 @@
+package fr.ensimag.deca.codegen;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import fr.ensimag.deca.DecacCompiler;
+
+/**
+ * Independent parts of the code of a program (class initializations and
+ * methods), in the order they appear in the program.
+ *
+ * Each unit is generated by a compiler of its own (see
+ * {@link DecacCompiler#codeGenUnits(CodeGenUnits)}), whose labels end with the
+ * suffix of the unit, so that the units can be generated in any order, or
+ * concurrently, and still give the same program.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class CodeGenUnits {
+    private final List<String> labelSuffixes = new ArrayList<String>();
+    private final List<Consumer<DecacCompiler>> generators = new ArrayList<Consumer<DecacCompiler>>();
+
+    /**
+     * Add a unit after the others.
+     *
+     * @param labelSuffix suffix of the labels created by the unit, unique in the
+     *                    program (e.g. ".A.m" for method m of class A)
+     * @param generator   code generator of the unit, appending its code to the
+     *                    program of the compiler it is given
+     */
+    public void add(String labelSuffix, Consumer<DecacCompiler> generator) {
+        labelSuffixes.add(labelSuffix);
+        generators.add(generator);
+    }
+
+    public int size() {
+        return generators.size();
+    }
+
+    public List<String> getLabelSuffixes() {
+        return Collections.unmodifiableList(labelSuffixes);
+    }
+
+    public List<Consumer<DecacCompiler>> getGenerators() {
+        return Collections.unmodifiableList(generators);
+    }
+}
@@ -4,18 +4,73 @@ import fr.ensimag.deca.tree.DeclMethod;
 
 /**
  * Helper class maintaining some information used during code generation
- * 
+ * (current method, label numbering, VTable layout). One instance is owned by
+ * each {@link fr.ensimag.deca.DecacCompiler}.
+ *
  * @author gl13
  * @date 16/01/2025
  */
 public class HelperInfo {
-    private static DeclMethod currentMethod;
+    private DeclMethod currentMethod;
 
-    public static DeclMethod getCurrentMethod() {
+    /**
+     * Suffix of the numbered labels, distinct for each unit of code generated
+     * separately (see {@link fr.ensimag.deca.codegen.CodeGenUnits})
+     */
+    private final String labelSuffix;
+
+    /** Numbering of if/else labels */
+    private int ifClauseCount = -1;
+
+    /** Numbering of instanceof labels */
+    private int instanceOfCount = 0;
+
+    /** Represents the current offset for the GB register in the VTable */
+    private int currentGBOffset = 2;
+
+    /**
+     * @param labelSuffix suffix of the numbered labels ("" for the main program)
+     */
+    public HelperInfo(String labelSuffix) {
+        this.labelSuffix = labelSuffix;
+    }
+
+    public String getLabelSuffix() {
+        return labelSuffix;
+    }
+
+    public DeclMethod getCurrentMethod() {
         return currentMethod;
     }
 
-    public static void setCurrentMethod(DeclMethod method) {
+    public void setCurrentMethod(DeclMethod method) {
         currentMethod = method;
     }
+
+    /**
+     * @return the number to use for the labels of the next if/else statement
+     */
+    public int nextIfClauseCount() {
+        return ++ifClauseCount;
+    }
+
+    /**
+     * @return the number to use for the labels of the next instanceof expression
+     */
+    public int nextInstanceOfCount() {
+        return ++instanceOfCount;
+    }
+
+    public int getVTableSize() {
+        return currentGBOffset;
+    }
+
+    /**
+     * Get the next GB offset to be used in creation of VTable
+     *
+     * @return the next value of the GB offset for the VTable creation
+     */
+    public int getNextGBOffset() {
+        return ++currentGBOffset;
+    }
 }
@@ -0,0 +1,167 @@
+package fr.ensimag.deca.codegen;
+
+import java.util.HashMap;
+
+import fr.ensimag.deca.tree.AbstractExpr;
+import fr.ensimag.ima.pseudocode.DVal;
+import fr.ensimag.ima.pseudocode.GPRegister;
+import fr.ensimag.ima.pseudocode.Register;
+import fr.ensimag.ima.pseudocode.RegisterOffset;
+
+/**
+ * Statuses of the IMA general purpose registers during code generation. One
+ * instance is owned by each {@link fr.ensimag.deca.DecacCompiler}, the
+ * registers themselves being immutable and shared (see {@link Register}).
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class RegisterManager {
+    private final int nbRegisters;
+    private final StackCount stackCount;
+
+    /**
+     * Statuses for R2 - RNbRegisters - 1 registers (padded in the beginning by 2
+     * for convenience). true means a register is being used and should not be
+     * overwritten, false means otherwise.
+     */
+    private final boolean[] registerStatuses;
+
+    /** Store, for each GP register, the current AbstractExpr's value being held */
+    private final HashMap<GPRegister, AbstractExpr> registerValues = new HashMap<GPRegister, AbstractExpr>();
+
+    /** Store the last expression's position */
+    private RegisterOffset lastExprPos = null;
+
+    /**
+     * @param nbRegisters number of usable registers (R0 ... R{nbRegisters-1})
+     * @param stackCount  stack counter recording the registers to save
+     */
+    public RegisterManager(int nbRegisters, StackCount stackCount) {
+        this.nbRegisters = nbRegisters;
+        this.stackCount = stackCount;
+        this.registerStatuses = new boolean[nbRegisters];
+        registerStatuses[0] = true;
+        registerStatuses[1] = true;
+    }
+
+    public int getNbRegisters() {
+        return nbRegisters;
+    }
+
+    /**
+     * Get whether a register is used or not
+     *
+     * @param i register to check
+     * @return true if Ri is used, false otherwise
+     */
+    private boolean isUsed(int i) {
+        assert i > 1;
+        return registerStatuses[i];
+    }
+
+    /**
+     * Set a register as used
+     *
+     * @param i register to set as used
+     */
+    public void setUsed(int i) {
+        assert i > 1;
+        registerStatuses[i] = true;
+        stackCount.setUsedGPReg(Register.getR(i));
+    }
+
+    /**
+     * Set a register as used
+     *
+     * @param R register to set as unused
+     */
+    public void setUsed(GPRegister R) {
+        registerStatuses[R.getNumber()] = true;
+        stackCount.setUsedGPReg(R);
+    }
+
+    /**
+     * Set a register as unused
+     *
+     * @param i register to set as unused
+     */
+    public void setUnused(int i) {
+        assert i > 1;
+        registerStatuses[i] = false;
+    }
+
+    /**
+     * Set a register as unused
+     *
+     * @param R register to set as unused
+     */
+    public void setUnused(GPRegister R) {
+        registerStatuses[R.getNumber()] = false;
+    }
+
+    /**
+     * Get an unused register (prioritizes smallest numbered unused registers)
+     *
+     * @return unused register or null if all registers are used
+     */
+    public GPRegister getUnusedR() {
+        int i = 2;
+        while (i < nbRegisters && isUsed(i)) {
+            i++;
+        }
+        if (i >= nbRegisters) {
+            return null;
+        }
+
+        setUsed(i);
+        return Register.getR(i);
+    }
+
+    /**
+     * Get register containing expression's value, or null if no register contains
+     * it
+     *
+     * @param expr the {@link AbstractExpr} whose value a register might contain
+     * @return the first register containing the given {@link AbstractExpr}'s value,
+     *         else null
+     */
+    public GPRegister getRegisterOfExp(AbstractExpr expr) {
+        for (GPRegister reg : registerValues.keySet()) {
+            if (expr.equals(registerValues.get(reg))) {
+                return reg;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the location of the latest computed expression's value
+     *
+     * @return the location of the latest computed expression's value
+     */
+    public DVal getLastExprPos() {
+        DVal loadTarget = lastExprPos.getOffset() == 0 ? lastExprPos.getRegister() : lastExprPos;
+        return loadTarget;
+    }
+
+    /**
+     * Set the location of the latest computed expression's value
+     */
+    public void setLastExprPos(RegisterOffset exprPos) {
+        lastExprPos = exprPos;
+    }
+
+    /**
+     * Set a register as containing an expression's value
+     *
+     * @param reg  register the {@link AbstractExpr}'s value
+     * @param expr the {@link AbstractExpr} itself
+     */
+    public void setRegisterOfExp(GPRegister reg, AbstractExpr expr) {
+        registerValues.put(reg, expr);
+
+        // set the last expression's position
+        setLastExprPos(new RegisterOffset(0, reg));
+    }
+}
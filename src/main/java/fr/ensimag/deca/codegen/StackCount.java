@@ -1,6 +1,6 @@
 package fr.ensimag.deca.codegen;
 
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 import fr.ensimag.deca.DecacCompiler;
@@ -13,65 +13,67 @@ import fr.ensimag.ima.pseudocode.instructions.PUSH;
 import fr.ensimag.ima.pseudocode.instructions.TSTO;
 
 /**
- * Helper class to generate overflow checking code
+ * Helper class to generate overflow checking code. One instance is owned by
+ * each {@link DecacCompiler}, so that several files can be compiled at once.
  * 
  * @author gl13
  * @date 16/01/2025
  */
 public class StackCount {
-    private static int varCount;
-    private static int savedRegNum;
-    private static int tempCount;
-    private static int maxParamCount;
+    private int varCount;
+    private int savedRegNum;
+    private int tempCount;
+    private int maxParamCount;
 
-    private static Set<GPRegister> regsToSave = new HashSet<GPRegister>();
+    /** In order of first use, so that the generated code does not depend on hash codes */
+    private Set<GPRegister> regsToSave = new LinkedHashSet<GPRegister>();
 
-    private static int tempCountCandidate;
-    private static int tempParamCandidate;
+    private int tempCountCandidate;
+    private int tempParamCandidate;
 
-    public static int getVarCount() {
+    public int getVarCount() {
         return varCount;
     }
 
-    public static int getSavedRegNum() {
+    public int getSavedRegNum() {
         return savedRegNum;
     }
 
-    public static int getTempCount() {
+    public int getTempCount() {
         return tempCount;
     }
 
-    public static int getParamCount() {
+    public int getParamCount() {
         return maxParamCount;
     }
 
-    public static int getAggregate() {
+    public int getAggregate() {
         return varCount + savedRegNum + tempCount + maxParamCount;
     }
 
-    public static void addVarCount(int VTableSize) {
+    public void addVarCount(int VTableSize) {
         varCount += VTableSize;
     }
 
-    public static int incVarCount() {
+    public int incVarCount() {
         return ++varCount;
     }
 
-    public static int incSavedRegNum() {
+    public int incSavedRegNum() {
         return ++savedRegNum;
     }
 
-    public static int incTempCount() {
+    public int incTempCount() {
         return ++tempCount;
     }
 
-    public static void setMaxParamCount(int newParamCountCandidate) {
+    public void setMaxParamCount(int newParamCountCandidate) {
         if (newParamCountCandidate > maxParamCount) {
             maxParamCount = newParamCountCandidate;
         }
     }
 
-    private static void resetCount() {
+    private void resetCount() {
         varCount = 0;
         savedRegNum = 0;
         tempCount = 0;
@@ -80,11 +82,11 @@ public class StackCount {
         tempCountCandidate = 0;
     }
 
-    public static void setUsedGPReg(GPRegister reg) {
+    public void setUsedGPReg(GPRegister reg) {
         regsToSave.add(reg);
     }
 
-    private static void resetRegs() {
+    private void resetRegs() {
         regsToSave.clear();
     }
 
@@ -92,7 +94,7 @@ public class StackCount {
      * Tracks PUSH instructions, updates {@link StackCount#tempCount} if
      * necessary
      */
-    public static void countPush() {
+    public void countPush() {
         tempCountCandidate++;
         if (tempCountCandidate > tempCount) {
             tempCount++;
@@ -102,7 +104,7 @@ public class StackCount {
     /**
      * Tracks POP instructions
      */
-    public static void countPop() {
+    public void countPop() {
         tempCountCandidate--;
     }
 
@@ -111,13 +113,13 @@ public class StackCount {
      * {@link fr.ensimag.ima.pseudocode.Register.SP} value and checking for stack
      * overflow
      */
-    public static void genCodeAllocateStack(DecacCompiler compiler) {
+    public void genCodeAllocateStack(DecacCompiler compiler) {
         // TODO : (check page 210) maxStackSize should be: number of saved registers at
         // block start + number of global variables (OK) + number of max temps used for
         // expression evaluation + max of number of parameters of called methods
-        int maxStackSize = StackCount.getAggregate();
+        int maxStackSize = getAggregate();
 
-        int SPOffset = StackCount.getVarCount() + StackCount.getTempCount();
+        int SPOffset = getVarCount() + getTempCount();
 
         compiler.addFirst(new ADDSP(SPOffset));
         if (!compiler.getCompilerOptions().getNoCheck()) {
@@ -133,7 +135,7 @@ public class StackCount {
      * Generates assembly code for saving R2 - R15 registers that are
      * used in a block
      */
-    public static void genCodeSaveRegisters(DecacCompiler compiler) {
+    public void genCodeSaveRegisters(DecacCompiler compiler) {
         for (GPRegister reg : regsToSave) {
             compiler.addFirst(new PUSH(reg));
             incSavedRegNum();
@@ -145,7 +147,7 @@ public class StackCount {
      * Generates assembly code for restoring R2 - R15 registers that are
      * used in a block
      */
-    public static void genCodeRestoreRegisters(DecacCompiler compiler) {
+    public void genCodeRestoreRegisters(DecacCompiler compiler) {
         for (GPRegister reg : regsToSave) {
             compiler.addInstruction(new POP(reg));
         }
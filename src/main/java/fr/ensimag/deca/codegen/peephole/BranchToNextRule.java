@@ -0,0 +1,27 @@
+package fr.ensimag.deca.codegen.peephole;
+
+import fr.ensimag.ima.pseudocode.BranchInstruction;
+import fr.ensimag.ima.pseudocode.Label;
+
+/**
+ * Branch to the label which follows it (e.g. the BRA to the end of a method
+ * generated for its last return): the branch is removed.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class BranchToNextRule extends PeepholeRule {
+    public BranchToNextRule() {
+        super("branch-to-next");
+    }
+
+    @Override
+    protected boolean apply(Window window) {
+        if (window.getInstruction(0) instanceof BranchInstruction
+                && window.isLabelAt(1, (Label) ((BranchInstruction) window.getInstruction(0)).getOperand())) {
+            window.remove(0);
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,39 @@
+package fr.ensimag.deca.codegen.peephole;
+
+import fr.ensimag.ima.pseudocode.Operand;
+import fr.ensimag.ima.pseudocode.RegisterOffset;
+import fr.ensimag.ima.pseudocode.instructions.LOAD;
+
+/**
+ * LOAD a, R; LOAD b, R where b does not use R: the first value is never read,
+ * the first LOAD is removed (the condition codes are set again by the second).
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class DeadLoadRule extends PeepholeRule {
+    public DeadLoadRule() {
+        super("dead-load");
+    }
+
+    @Override
+    protected boolean apply(Window window) {
+        if (!(window.getInstruction(0) instanceof LOAD) || !(window.getInstruction(1) instanceof LOAD)) {
+            return false;
+        }
+        String register = ((LOAD) window.getInstruction(0)).getOperand2().toString();
+        LOAD second = (LOAD) window.getInstruction(1);
+        if (second.getOperand2().toString().equals(register) && !uses(second.getOperand1(), register)) {
+            window.remove(0);
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean uses(Operand operand, String register) {
+        if (operand instanceof RegisterOffset) {
+            return ((RegisterOffset) operand).getRegister().toString().equals(register);
+        }
+        return operand.toString().equals(register);
+    }
+}
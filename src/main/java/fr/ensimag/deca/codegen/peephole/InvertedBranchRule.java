@@ -0,0 +1,62 @@
+package fr.ensimag.deca.codegen.peephole;
+
+import fr.ensimag.ima.pseudocode.BranchInstruction;
+import fr.ensimag.ima.pseudocode.Instruction;
+import fr.ensimag.ima.pseudocode.Label;
+import fr.ensimag.ima.pseudocode.instructions.BEQ;
+import fr.ensimag.ima.pseudocode.instructions.BGE;
+import fr.ensimag.ima.pseudocode.instructions.BGT;
+import fr.ensimag.ima.pseudocode.instructions.BLE;
+import fr.ensimag.ima.pseudocode.instructions.BLT;
+import fr.ensimag.ima.pseudocode.instructions.BNE;
+import fr.ensimag.ima.pseudocode.instructions.BRA;
+
+/**
+ * Bcc L1; BRA L2; L1: (e.g. the code of an if) is replaced by the opposite
+ * conditional branch: B!cc L2; L1:.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class InvertedBranchRule extends PeepholeRule {
+    public InvertedBranchRule() {
+        super("inverted-branch");
+    }
+
+    /**
+     * @return the branch to target on the opposite condition of branch, or null
+     *         if it has none
+     */
+    private static Instruction invert(Instruction branch, Label target) {
+        if (branch instanceof BEQ) {
+            return new BNE(target);
+        } else if (branch instanceof BNE) {
+            return new BEQ(target);
+        } else if (branch instanceof BLT) {
+            return new BGE(target);
+        } else if (branch instanceof BGE) {
+            return new BLT(target);
+        } else if (branch instanceof BGT) {
+            return new BLE(target);
+        } else if (branch instanceof BLE) {
+            return new BGT(target);
+        }
+        return null;
+    }
+
+    @Override
+    protected boolean apply(Window window) {
+        if (!(window.getInstruction(0) instanceof BranchInstruction) || !(window.getInstruction(1) instanceof BRA)) {
+            return false;
+        }
+        Label skipped = (Label) ((BranchInstruction) window.getInstruction(0)).getOperand();
+        Label target = (Label) ((BRA) window.getInstruction(1)).getOperand();
+        Instruction inverted = invert(window.getInstruction(0), target);
+        if (inverted != null && window.isLabelAt(2, skipped)) {
+            window.replace(0, inverted);
+            window.remove(1);
+            return true;
+        }
+        return false;
+    }
+}
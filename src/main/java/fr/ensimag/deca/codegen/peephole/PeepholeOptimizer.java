@@ -0,0 +1,137 @@
+package fr.ensimag.deca.codegen.peephole;
+
+import fr.ensimag.ima.pseudocode.AbstractLine;
+import fr.ensimag.ima.pseudocode.BinaryInstruction;
+import fr.ensimag.ima.pseudocode.IMAProgram;
+import fr.ensimag.ima.pseudocode.InlinePortion;
+import fr.ensimag.ima.pseudocode.Instruction;
+import fr.ensimag.ima.pseudocode.Label;
+import fr.ensimag.ima.pseudocode.LabelOperand;
+import fr.ensimag.ima.pseudocode.Line;
+import fr.ensimag.ima.pseudocode.Operand;
+import fr.ensimag.ima.pseudocode.UnaryInstruction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Peephole optimizer of the IMA code: the rules of the catalogue are tried at
+ * each position of the program, and the program is walked again until no rule
+ * applies. Each rule removes at least one item (label or instruction), so that
+ * the optimization ends.
+ *
+ * The optimizer works on the part of the program which has not been written
+ * yet, so a label is only removed if the compiler declared it local to the
+ * code which created it.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class PeepholeOptimizer {
+    private final List<PeepholeRule> rules;
+
+    /**
+     * Optimizer with the default catalogue.
+     */
+    public PeepholeOptimizer() {
+        this(Arrays.asList(new UnreferencedLabelRule(), new UnreachableCodeRule(), new BranchToNextRule(),
+                new InvertedBranchRule(), new PushPopRule(), new StoreLoadRule(), new DeadLoadRule()));
+    }
+
+    public PeepholeOptimizer(List<PeepholeRule> rules) {
+        this.rules = new ArrayList<PeepholeRule>(rules);
+    }
+
+    /**
+     * @return the rules of the catalogue, with their hit counters
+     */
+    public List<PeepholeRule> getRules() {
+        return Collections.unmodifiableList(rules);
+    }
+
+    /**
+     * Optimize a program in place.
+     *
+     * @param localLabels names of the labels only used in this program
+     * @return the number of rewritings
+     */
+    public int optimize(IMAProgram program, Set<String> localLabels) {
+        List<AbstractLine> lines = split(program.getLines());
+        // the code written in the source may use any label
+        boolean inlined = false;
+        for (AbstractLine line : lines) {
+            inlined |= line instanceof InlinePortion;
+        }
+        Set<String> referencedLabels = new HashSet<String>();
+        Window window = new Window(lines, referencedLabels, inlined ? Collections.<String>emptySet() : localLabels);
+        int rewritings = 0;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            referencedLabels.clear();
+            collectReferencedLabels(lines, referencedLabels);
+            for (int i = 0; i < lines.size(); i++) {
+                if (!(lines.get(i) instanceof Line) || ((Line) lines.get(i)).getLabel() == null
+                        && ((Line) lines.get(i)).getInstruction() == null) {
+                    continue;
+                }
+                window.moveTo(i);
+                for (PeepholeRule rule : rules) {
+                    if (rule.tryApply(window)) {
+                        changed = true;
+                        rewritings++;
+                        break;
+                    }
+                    window.moveTo(i);
+                }
+            }
+        }
+        List<AbstractLine> result = program.getLines();
+        result.clear();
+        for (AbstractLine line : lines) {
+            if (!(line instanceof Line) || ((Line) line).getLabel() != null
+                    || ((Line) line).getInstruction() != null || ((Line) line).getComment() != null) {
+                result.add(line);
+            }
+        }
+        return rewritings;
+    }
+
+    /**
+     * @return the lines, with a line of its own for the label of each line
+     *         holding a label and an instruction
+     */
+    private static List<AbstractLine> split(List<AbstractLine> lines) {
+        List<AbstractLine> result = new ArrayList<AbstractLine>(lines.size());
+        for (AbstractLine line : lines) {
+            if (line instanceof Line && ((Line) line).getLabel() != null
+                    && ((Line) line).getInstruction() != null) {
+                result.add(new Line(((Line) line).getLabel()));
+                ((Line) line).setLabel(null);
+            }
+            result.add(line);
+        }
+        return result;
+    }
+
+    private static void collectReferencedLabels(List<AbstractLine> lines, Set<String> labels) {
+        for (AbstractLine line : lines) {
+            Instruction instruction = line instanceof Line ? ((Line) line).getInstruction() : null;
+            if (instruction instanceof UnaryInstruction) {
+                addLabel(((UnaryInstruction) instruction).getOperand(), labels);
+            } else if (instruction instanceof BinaryInstruction) {
+                addLabel(((BinaryInstruction) instruction).getOperand1(), labels);
+                addLabel(((BinaryInstruction) instruction).getOperand2(), labels);
+            }
+        }
+    }
+
+    private static void addLabel(Operand operand, Set<String> labels) {
+        if (operand instanceof Label || operand instanceof LabelOperand) {
+            labels.add(operand.toString());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package fr.ensimag.deca.codegen.peephole;
+
+/**
+ * Rule of the peephole optimizer: a local rewriting of the code, tried at each
+ * position of the program.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public abstract class PeepholeRule {
+    private final String name;
+    private int hits = 0;
+
+    protected PeepholeRule(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the number of times the rule has rewritten the code
+     */
+    public int getHits() {
+        return hits;
+    }
+
+    /**
+     * Rewrite the code at the beginning of the window if it matches the rule.
+     *
+     * @return true if the code has been rewritten
+     */
+    protected abstract boolean apply(Window window);
+
+    /**
+     * Apply the rule and count it.
+     */
+    boolean tryApply(Window window) {
+        if (apply(window)) {
+            hits++;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + hits;
+    }
+}
@@ -0,0 +1,29 @@
+package fr.ensimag.deca.codegen.peephole;
+
+import fr.ensimag.ima.pseudocode.instructions.POP;
+import fr.ensimag.ima.pseudocode.instructions.PUSH;
+
+/**
+ * PUSH R; POP R: the register and the stack are left unchanged, both
+ * instructions are removed.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class PushPopRule extends PeepholeRule {
+    public PushPopRule() {
+        super("push-pop");
+    }
+
+    @Override
+    protected boolean apply(Window window) {
+        if (window.getInstruction(0) instanceof PUSH && window.getInstruction(1) instanceof POP
+                && ((PUSH) window.getInstruction(0)).getOperand().toString()
+                        .equals(((POP) window.getInstruction(1)).getOperand().toString())) {
+            window.remove(0);
+            window.remove(1);
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,78 @@
+package fr.ensimag.deca.codegen.peephole;
+
+import fr.ensimag.ima.pseudocode.Instruction;
+import fr.ensimag.ima.pseudocode.instructions.ADD;
+import fr.ensimag.ima.pseudocode.instructions.CMP;
+import fr.ensimag.ima.pseudocode.instructions.DIV;
+import fr.ensimag.ima.pseudocode.instructions.ERROR;
+import fr.ensimag.ima.pseudocode.instructions.HALT;
+import fr.ensimag.ima.pseudocode.instructions.LOAD;
+import fr.ensimag.ima.pseudocode.instructions.MUL;
+import fr.ensimag.ima.pseudocode.instructions.OPP;
+import fr.ensimag.ima.pseudocode.instructions.POP;
+import fr.ensimag.ima.pseudocode.instructions.PUSH;
+import fr.ensimag.ima.pseudocode.instructions.QUO;
+import fr.ensimag.ima.pseudocode.instructions.REM;
+import fr.ensimag.ima.pseudocode.instructions.STORE;
+import fr.ensimag.ima.pseudocode.instructions.SUB;
+import fr.ensimag.ima.pseudocode.instructions.WFLOAT;
+import fr.ensimag.ima.pseudocode.instructions.WFLOATX;
+import fr.ensimag.ima.pseudocode.instructions.WINT;
+import fr.ensimag.ima.pseudocode.instructions.WNL;
+import fr.ensimag.ima.pseudocode.instructions.WSTR;
+
+/**
+ * STORE R, a; LOAD a, R: R already holds the value of a, the LOAD is removed.
+ *
+ * The LOAD also sets the condition codes, so it is only removed when they are
+ * set again before being read.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class StoreLoadRule extends PeepholeRule {
+    public StoreLoadRule() {
+        super("store-load");
+    }
+
+    @Override
+    protected boolean apply(Window window) {
+        if (!(window.getInstruction(0) instanceof STORE) || !(window.getInstruction(1) instanceof LOAD)) {
+            return false;
+        }
+        STORE store = (STORE) window.getInstruction(0);
+        LOAD load = (LOAD) window.getInstruction(1);
+        if (store.getOperand1().toString().equals(load.getOperand2().toString())
+                && store.getOperand2().toString().equals(load.getOperand1().toString())
+                && conditionCodesSetFrom(window, 2)) {
+            window.remove(1);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the condition codes are set by the straight-line code
+     *         from the item i on before being read
+     */
+    private static boolean conditionCodesSetFrom(Window window, int i) {
+        for (Instruction instruction = window.getInstruction(i); instruction != null;
+                instruction = window.getInstruction(++i)) {
+            if (instruction instanceof LOAD || instruction instanceof CMP || instruction instanceof ADD
+                    || instruction instanceof SUB || instruction instanceof MUL || instruction instanceof OPP
+                    || instruction instanceof QUO || instruction instanceof REM || instruction instanceof DIV
+                    || instruction instanceof HALT || instruction instanceof ERROR) {
+                return true;
+            }
+            if (!(instruction instanceof STORE || instruction instanceof PUSH || instruction instanceof POP
+                    || instruction instanceof WINT || instruction instanceof WFLOAT
+                    || instruction instanceof WFLOATX || instruction instanceof WSTR
+                    || instruction instanceof WNL)) {
+                // branches, and instructions which read or may set the codes
+                return false;
+            }
+        }
+        // a label, or the end of the known code
+        return false;
+    }
+}
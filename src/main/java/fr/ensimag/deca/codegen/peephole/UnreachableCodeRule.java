@@ -0,0 +1,32 @@
+package fr.ensimag.deca.codegen.peephole;
+
+import fr.ensimag.ima.pseudocode.Instruction;
+import fr.ensimag.ima.pseudocode.instructions.BRA;
+import fr.ensimag.ima.pseudocode.instructions.ERROR;
+import fr.ensimag.ima.pseudocode.instructions.HALT;
+import fr.ensimag.ima.pseudocode.instructions.RTS;
+
+/**
+ * Instruction following an unconditional branch, a return or a halt without a
+ * label in between (e.g. the error of a method exiting without a return,
+ * after the branch of its last return): it is never executed, and is removed.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class UnreachableCodeRule extends PeepholeRule {
+    public UnreachableCodeRule() {
+        super("unreachable-code");
+    }
+
+    @Override
+    protected boolean apply(Window window) {
+        Instruction first = window.getInstruction(0);
+        if ((first instanceof BRA || first instanceof RTS || first instanceof HALT || first instanceof ERROR)
+                && window.getInstruction(1) != null) {
+            window.remove(1);
+            return true;
+        }
+        return false;
+    }
+}
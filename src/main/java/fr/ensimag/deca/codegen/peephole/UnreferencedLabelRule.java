@@ -0,0 +1,28 @@
+package fr.ensimag.deca.codegen.peephole;
+
+import fr.ensimag.ima.pseudocode.Label;
+
+/**
+ * Label which no instruction uses: it is removed, so that the rules can match
+ * the code around it. Only the labels local to a part of the program are
+ * removed; the entry points of the methods, class initializations and error
+ * handlers may be used by another part, already written or not generated yet.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class UnreferencedLabelRule extends PeepholeRule {
+    public UnreferencedLabelRule() {
+        super("unreferenced-label");
+    }
+
+    @Override
+    protected boolean apply(Window window) {
+        Label label = window.getLabel(0);
+        if (label != null && window.isLocal(label) && !window.isReferenced(label)) {
+            window.remove(0);
+            return true;
+        }
+        return false;
+    }
+}
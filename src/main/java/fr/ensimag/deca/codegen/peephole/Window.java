@@ -0,0 +1,126 @@
+package fr.ensimag.deca.codegen.peephole;
+
+import fr.ensimag.ima.pseudocode.AbstractLine;
+import fr.ensimag.ima.pseudocode.Instruction;
+import fr.ensimag.ima.pseudocode.Label;
+import fr.ensimag.ima.pseudocode.Line;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * View of the code following a position of the program, seen by the rules of
+ * the peephole optimizer as a sequence of items: each item is a label or an
+ * instruction (the lines holding only a comment are skipped). The window stops
+ * at the portions of assembly code written in the source, which the optimizer
+ * does not know.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public final class Window {
+    private final List<AbstractLine> lines;
+    private final Set<String> referencedLabels;
+    private final Set<String> localLabels;
+    /** indices in lines of the items of the window, computed when needed */
+    private final List<Integer> items = new ArrayList<Integer>();
+    private int next;
+
+    /**
+     * @param lines            lines of the program, each holding a label, an
+     *                         instruction, or only a comment
+     * @param referencedLabels names of the labels used by an instruction
+     * @param localLabels      names of the labels only used in the program
+     */
+    Window(List<AbstractLine> lines, Set<String> referencedLabels, Set<String> localLabels) {
+        this.lines = lines;
+        this.referencedLabels = referencedLabels;
+        this.localLabels = localLabels;
+    }
+
+    /**
+     * Start the window at a line.
+     */
+    void moveTo(int start) {
+        items.clear();
+        next = start;
+    }
+
+    /**
+     * @return the line of the item i, or null past the end of the window
+     */
+    private Line get(int i) {
+        while (items.size() <= i) {
+            if (next >= lines.size() || !(lines.get(next) instanceof Line)) {
+                return null;
+            }
+            Line line = (Line) lines.get(next);
+            if (line.getLabel() != null || line.getInstruction() != null) {
+                items.add(next);
+            }
+            next++;
+        }
+        return (Line) lines.get(items.get(i));
+    }
+
+    /**
+     * @return the instruction of the item i, or null if it is a label or past
+     *         the end of the window
+     */
+    public Instruction getInstruction(int i) {
+        Line line = get(i);
+        return line == null ? null : line.getInstruction();
+    }
+
+    /**
+     * @return the label of the item i, or null if it is an instruction or past
+     *         the end of the window
+     */
+    public Label getLabel(int i) {
+        Line line = get(i);
+        return line == null ? null : line.getLabel();
+    }
+
+    /**
+     * @return true if the labels from the item i on include label
+     */
+    public boolean isLabelAt(int i, Label label) {
+        for (Label l = getLabel(i); l != null; l = getLabel(++i)) {
+            if (l.toString().equals(label.toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if label may be removed when no instruction uses it
+     */
+    public boolean isLocal(Label label) {
+        return localLabels.contains(label.toString());
+    }
+
+    /**
+     * @return true if an instruction of the program used label when the
+     *         optimizer started its last pass
+     */
+    public boolean isReferenced(Label label) {
+        return referencedLabels.contains(label.toString());
+    }
+
+    /**
+     * Remove the item i. Its comment is kept on a line of its own.
+     */
+    public void remove(int i) {
+        Line line = get(i);
+        line.setLabel(null);
+        line.setInstruction(null);
+    }
+
+    /**
+     * Replace the instruction of the item i.
+     */
+    public void replace(int i, Instruction instruction) {
+        get(i).setInstruction(instruction);
+    }
+}
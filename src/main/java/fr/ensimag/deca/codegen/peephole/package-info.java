@@ -0,0 +1,13 @@
+/**
+ * Peephole optimization of the generated IMA code, enabled from -O1.
+ *
+ * {@link fr.ensimag.deca.codegen.peephole.PeepholeOptimizer} slides a
+ * {@link fr.ensimag.deca.codegen.peephole.Window} over the lines of the
+ * program and tries the rules of its catalogue at each position; each rule
+ * ({@link fr.ensimag.deca.codegen.peephole.PeepholeRule}) removes or replaces
+ * a few instructions, and counts how many times it did.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+package fr.ensimag.deca.codegen.peephole;
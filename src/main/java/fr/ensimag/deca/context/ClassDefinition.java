@@ -82,6 +82,94 @@ public class ClassDefinition extends TypeDefinition {
         VBTablePos = null;
     }
 
+    /**
+     * Methods of the class (inherited or not) by index in the method table, and
+     * fields by index - 1, built by {@link #buildMemberTables()}.
+     */
+    private MethodDefinition[] methodTable;
+    private FieldDefinition[] fieldTable;
+
+    /**
+     * Build the flattened tables of the members of the class once they are all
+     * declared (end of pass 2): the lookups in {@link #getMembers()} no longer
+     * walk the superclasses, and the methods and fields can be found by index.
+     */
+    public void buildMemberTables() {
+        if (superClass != null && superClass.methodTable == null) {
+            superClass.buildMemberTables();
+        }
+        members.flatten();
+        methodTable = new MethodDefinition[numberOfMethods];
+        fieldTable = new FieldDefinition[numberOfFields];
+        if (superClass != null) {
+            System.arraycopy(superClass.methodTable, 0, methodTable, 0, superClass.methodTable.length);
+            System.arraycopy(superClass.fieldTable, 0, fieldTable, 0, superClass.fieldTable.length);
+        }
+        for (ExpDefinition def : members.getOwnDefinitions()) {
+            if (def.isMethod()) {
+                MethodDefinition method = (MethodDefinition) def;
+                methodTable[method.getIndex()] = method;
+            } else if (def.isField()) {
+                FieldDefinition field = (FieldDefinition) def;
+                fieldTable[field.getIndex() - 1] = field;
+            }
+        }
+    }
+
+    /**
+     * @return the method of index index in the method table (inherited or not)
+     */
+    public MethodDefinition getMethodOfIndex(int index) {
+        Validate.notNull(methodTable, "member tables not built");
+        return methodTable[index];
+    }
+
+    /**
+     * @param index index of the field, from 1 to getNumberOfFields()
+     * @return the field of this index (inherited or not)
+     */
+    public FieldDefinition getFieldOfIndex(int index) {
+        Validate.notNull(fieldTable, "member tables not built");
+        return fieldTable[index - 1];
+    }
+
+    /**
+     * Position of the class in a pre-order traversal of the class tree, and
+     * greatest position of its subclasses, set by
+     * {@link EnvironmentType#numberClasses()} (-1 before): a class is a
+     * subclass of another if its position is in the interval of the other.
+     */
+    private int treePosition = -1;
+    private int lastSubclassPosition = -1;
+
+    void setTreePosition(int treePosition) {
+        this.treePosition = treePosition;
+    }
+
+    int getTreePosition() {
+        return treePosition;
+    }
+
+    void setLastSubclassPosition(int lastSubclassPosition) {
+        this.lastSubclassPosition = lastSubclassPosition;
+    }
+
+    /**
+     * @return true if this class is other or one of its subclasses
+     */
+    public boolean isSubClassOf(ClassDefinition other) {
+        if (treePosition >= 0 && other.treePosition >= 0) {
+            return other.treePosition <= treePosition && treePosition <= other.lastSubclassPosition;
+        }
+        // not numbered yet
+        for (ClassDefinition c = this; c != null; c = c.getSuperClass()) {
+            if (c == other) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public void setVBTablePos(RegisterOffset VBTablePos) {
         this.VBTablePos = VBTablePos;
     }
@@ -53,25 +53,15 @@ public class ClassType extends Type {
 
     @Override
     public boolean sameType(Type otherType) {
-        if (!otherType.isClass()) {
-            return false;
-        }
-        ClassType otherClassType = (ClassType) otherType;
-        return this.getName().equals(otherClassType.getName());
+        // there is a single ClassType per class
+        return otherType == this;
     }
 
     /**
      * Return true if potentialSuperClass is a superclass of this class.
      */
     public boolean isSubClassOf(ClassType potentialSuperClass) {
-        ClassDefinition currentClassDef = this.getDefinition();
-        while (currentClassDef != null) {
-            if (currentClassDef.getType().sameType(potentialSuperClass)) {
-                return true;
-            }
-            currentClassDef = currentClassDef.getSuperClass();
-        }
-        return false;
+        return getDefinition().isSubClassOf(potentialSuperClass.getDefinition());
     }
 
 
@@ -1,9 +1,8 @@
 package fr.ensimag.deca.context;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 
-import fr.ensimag.deca.tools.SymbolTable;
+import fr.ensimag.deca.tools.SymbolMap;
 import fr.ensimag.deca.tools.SymbolTable.Symbol;
 import fr.ensimag.deca.tree.Location;
 
@@ -28,13 +27,20 @@ import fr.ensimag.deca.tree.Location;
 public class EnvironmentExp {
     public EnvironmentExp parentEnvironment;
 
-    private final Map<Symbol, ExpDefinition> envExpr;
+    private final SymbolMap<ExpDefinition> envExpr;
+
+    /**
+     * All the definitions visible from this environment (its own ones and those
+     * of its parents it does not hide), null until {@link #flatten()} is
+     * called.
+     */
+    private SymbolMap<ExpDefinition> flattened = null;
 
     public EnvironmentExp(EnvironmentExp parentEnvironment) {
         this.parentEnvironment = parentEnvironment;
 
         // Expression's environment associated with predefined types;
-        envExpr = new HashMap<Symbol, ExpDefinition>();
+        envExpr = new SymbolMap<ExpDefinition>();
     }
 
     public static class DoubleDefException extends Exception {
@@ -48,19 +54,19 @@ public class EnvironmentExp {
     /**
      * Return the definition of the symbol in the environment
      *
+     * @param location packed location of the lookup (see {@link Location#pack}),
+     *                 only unpacked for the error
      * @throws ContextualError if the symbol does not exist in the current context
      */
-    public ExpDefinition get(Symbol key, Location location) throws ContextualError {
-        ExpDefinition def = envExpr.get(key);
-        if (def == null){
-        }
+    public ExpDefinition get(Symbol key, long location) throws ContextualError {
+        ExpDefinition def = flattened != null ? flattened.get(key) : envExpr.get(key);
         // search in parent dictionary in case of failure
-        if (def == null && parentEnvironment != null) {
+        if (def == null && flattened == null && parentEnvironment != null) {
             def = parentEnvironment.get(key, location);
         }
         if (def == null) {
             String errorMessage = String.format("'%s' does not exist in current context of expressions", key.getName());
-            throw new ContextualError(errorMessage, location);
+            throw new ContextualError(errorMessage, Location.unpack(location));
         }
         return def;
     }
@@ -72,39 +78,59 @@ public class EnvironmentExp {
      */
     public void addOrUpdate(Symbol sym, MethodDefinition def) {
         envExpr.put(sym, def);
+        if (flattened != null) {
+            flattened.put(sym, def);
+        }
     }
 
     /**
-     * Return the method definition of a certain index
+     * Precompute the definitions visible from this environment, so that the
+     * lookups no longer walk the parent environments. To be called once the
+     * parent environments are complete, e.g. for the members of a class at the
+     * end of pass 2 (see {@link ClassDefinition#buildMemberTables()}).
      */
-    public MethodDefinition getMethodOfIndex(int index) {
-        for (Symbol sym : envExpr.keySet()) {
-            ExpDefinition currDef = envExpr.get(sym);
-            if (currDef.isMethod()) {
-                MethodDefinition method = (MethodDefinition) currDef;
-                if (method.getIndex() == index) {
-                    return method;
-                }
-            }
-        }
+    public void flatten() {
+        SymbolMap<ExpDefinition> res = new SymbolMap<ExpDefinition>();
         if (parentEnvironment != null) {
-            return parentEnvironment.getMethodOfIndex(index);
-        } else {
-            return null;
+            if (parentEnvironment.flattened == null) {
+                parentEnvironment.flatten();
+            }
+            res.putAll(parentEnvironment.flattened);
         }
+        res.putAll(envExpr);
+        flattened = res;
+    }
+
+    /**
+     * @return the definitions of the "current" dictionary, in declaration order
+     */
+    public List<ExpDefinition> getOwnDefinitions() {
+        return envExpr.values();
     }
 
     /**
      * Return the definition of the symbol for a field in the environment
      *
+     * @param location packed location of the lookup (see {@link Location#pack}),
+     *                 only unpacked for the error
      * @throws ContextualError if the symbol does not exist in the current context
      */
-    public ExpDefinition getAsField(Symbol key, Location location) throws ContextualError {
+    public ExpDefinition getAsField(Symbol key, long location) throws ContextualError {
+        if (flattened != null) {
+            // fields and methods have distinct symbols, the nearest definition
+            // is the one to use
+            ExpDefinition def = flattened.get(key);
+            if (def == null) {
+                String errorMessage = String.format("Field '%s' does not exist in current context of expressions", key.getName());
+                throw new ContextualError(errorMessage, Location.unpack(location));
+            }
+            return def;
+        }
         ExpDefinition def = envExpr.get(key);
         // search in parent dictionary in case of failure
         if (def == null && parentEnvironment == null) {
             String errorMessage = String.format("Field '%s' does not exist in current context of expressions", key.getName());
-            throw new ContextualError(errorMessage, location);
+            throw new ContextualError(errorMessage, Location.unpack(location));
         }
 
         if (def == null && parentEnvironment != null)  {
@@ -121,14 +147,24 @@ public class EnvironmentExp {
     /**
      * Return the definition of the symbol for a method in the environment
      *
+     * @param location packed location of the lookup (see {@link Location#pack}),
+     *                 only unpacked for the error
      * @throws ContextualError if the symbol does not exist in the current context
      */
-    public ExpDefinition getAsMethod(Symbol key, Location location) throws ContextualError {
+    public ExpDefinition getAsMethod(Symbol key, long location) throws ContextualError {
+        if (flattened != null) {
+            ExpDefinition def = flattened.get(key);
+            if (def == null) {
+                String errorMessage = String.format("Method '%s' does not exist in current context of expressions", key.getName().substring(0, key.getName().length()-2));
+                throw new ContextualError(errorMessage, Location.unpack(location));
+            }
+            return def;
+        }
         ExpDefinition def = envExpr.get(key);
         // search in parent dictionary in case of failure
         if (def == null && parentEnvironment == null) {
             String errorMessage = String.format("Method '%s' does not exist in current context of expressions", key.getName().substring(0, key.getName().length()-2));
-            throw new ContextualError(errorMessage, location);
+            throw new ContextualError(errorMessage, Location.unpack(location));
         }
 
         if (def == null && parentEnvironment != null) {
@@ -162,11 +198,14 @@ public class EnvironmentExp {
             throw new DoubleDefException("Symbol already used in the environment of expressions: " + name);
         }
         envExpr.put(name, def);
+        if (flattened != null) {
+            flattened.put(name, def);
+        }
     }
 
 
     public void showEnvKey(){
-        for (Symbol key : envExpr.keySet()) {
+        for (Symbol key : envExpr.keys()) {
             System.out.println(key.toString()+" : "+envExpr.get(key).toString());
         }
     }
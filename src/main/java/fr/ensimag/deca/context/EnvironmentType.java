@@ -1,12 +1,20 @@
 package fr.ensimag.deca.context;
 
-import java.util.HashMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+
 import fr.ensimag.deca.tree.Location;
 import fr.ensimag.ima.pseudocode.Label;
 import fr.ensimag.ima.pseudocode.RegisterOffset;
 import fr.ensimag.ima.pseudocode.Register;
 import fr.ensimag.deca.DecacCompiler;
+import fr.ensimag.deca.tools.SymbolMap;
 import fr.ensimag.deca.tools.SymbolTable.Symbol;
 
 /**
@@ -27,7 +35,7 @@ public class EnvironmentType {
     }
 
     public EnvironmentType(DecacCompiler compiler) {
-        envTypes = new HashMap<Symbol, TypeDefinition>();
+        envTypes = new SymbolMap<TypeDefinition>();
 
         Symbol intSymb = compiler.createSymbol("int");
         INT = new IntType(intSymb);
@@ -74,9 +82,10 @@ public class EnvironmentType {
         MethodDefinition objectEquals = new MethodDefinition(BOOLEAN, null, objectEqualsSig, 0);
         objectEquals.setLabel(new Label("code.Object.equals"));
         OBJECT.getDefinition().getMembers().addOrUpdate(compiler.createSymbol("equals.m"), objectEquals);
+        OBJECT.getDefinition().buildMemberTables();
     }
 
-    private final Map<Symbol, TypeDefinition> envTypes;
+    private final SymbolMap<TypeDefinition> envTypes;
 
     public TypeDefinition defOfType(Symbol s) {
         return envTypes.get(s);
@@ -132,12 +141,7 @@ public class EnvironmentType {
         if (type1.isInt() && type2.isFloat()) {
             return true;
         } else if (type1.isClass() && type2.isClass()) {
-            if (type1.equals(OBJECT)) {
-                return false;
-            } else {
-                type1 = ((ClassType) type1).getDefinition().getSuperClass().getType();
-                return isSubType(type1, type2);
-            }
+            return ((ClassType) type1).getDefinition().isSubClassOf(((ClassType) type2).getDefinition());
         } else {
             return false;
         }
@@ -156,17 +160,43 @@ public class EnvironmentType {
         if (classDef1.getType().equals(classDef2.getType())) {
             return true;
         }
-        if (classDef1.getType().isInt() && classDef2.getType().isFloat()) {
-            return true;
-        } else if (classDef1.getType().isClass() && classDef2.getType().isClass()) {
-            if (classDef1.getType().equals(OBJECT)) {
-                return false;
+        return classDef1.isSubClassOf(classDef2);
+    }
+
+    /**
+     * Number the classes declared in this environment in a pre-order traversal
+     * of the class tree, so that {@link ClassDefinition#isSubClassOf} compares
+     * two integers instead of walking up the superclasses. To be called once
+     * the classes are declared (end of pass 1).
+     */
+    public void numberClasses() {
+        Map<ClassDefinition, List<ClassDefinition>> subclasses = new IdentityHashMap<>();
+        for (TypeDefinition def : envTypes.values()) {
+            if (def instanceof ClassDefinition && ((ClassDefinition) def).getSuperClass() != null) {
+                ClassDefinition classDef = (ClassDefinition) def;
+                subclasses.computeIfAbsent(classDef.getSuperClass(), c -> new ArrayList<>()).add(classDef);
+            }
+        }
+
+        // iterative depth-first traversal, hierarchies can be deep
+        int position = 0;
+        Deque<ClassDefinition> path = new ArrayDeque<>();
+        Deque<Iterator<ClassDefinition>> remaining = new ArrayDeque<>();
+        ClassDefinition object = OBJECT.getDefinition();
+        object.setTreePosition(position++);
+        path.push(object);
+        remaining.push(subclasses.getOrDefault(object, Collections.emptyList()).iterator());
+        while (!path.isEmpty()) {
+            Iterator<ClassDefinition> next = remaining.peek();
+            if (next.hasNext()) {
+                ClassDefinition subclass = next.next();
+                subclass.setTreePosition(position++);
+                path.push(subclass);
+                remaining.push(subclasses.getOrDefault(subclass, Collections.emptyList()).iterator());
             } else {
-                classDef1 = classDef1.getSuperClass();
-                return isSubClass(classDef1, classDef2);
+                path.pop().setLastSubclassPosition(position - 1);
+                remaining.pop();
             }
-        } else {
-            return false;
         }
     }
 
@@ -0,0 +1,203 @@
+package fr.ensimag.deca.ir;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import fr.ensimag.arm.pseudocode.ARMDAddr;
+import fr.ensimag.arm.pseudocode.ARMGPRegister;
+import fr.ensimag.arm.pseudocode.ARMImmediateInteger;
+import fr.ensimag.arm.pseudocode.ARMInstruction;
+import fr.ensimag.arm.pseudocode.ARMLabel;
+import fr.ensimag.arm.pseudocode.ARMLiteral;
+import fr.ensimag.arm.pseudocode.ARMRegister;
+import fr.ensimag.arm.pseudocode.ARMRegisterOffset;
+import fr.ensimag.arm.pseudocode.ARMSPRegister;
+import fr.ensimag.arm.pseudocode.instructions.ARM_B;
+import fr.ensimag.arm.pseudocode.instructions.ARM_BEQ;
+import fr.ensimag.arm.pseudocode.instructions.ARM_BGE;
+import fr.ensimag.arm.pseudocode.instructions.ARM_BGT;
+import fr.ensimag.arm.pseudocode.instructions.ARM_BLE;
+import fr.ensimag.arm.pseudocode.instructions.ARM_BLT;
+import fr.ensimag.arm.pseudocode.instructions.ARM_BNE;
+import fr.ensimag.arm.pseudocode.instructions.ARM_CMP;
+import fr.ensimag.arm.pseudocode.instructions.ARM_LDR;
+import fr.ensimag.arm.pseudocode.instructions.ARM_MOV;
+import fr.ensimag.arm.pseudocode.instructions.ARM_STR;
+import fr.ensimag.arm.pseudocode.instructions.ARM_VCMPF32;
+import fr.ensimag.arm.pseudocode.instructions.ARM_VMOV;
+import fr.ensimag.deca.DecacCompiler;
+
+/**
+ * Translation of a control-flow graph of the main program to ARM, appended to
+ * the current ARM block of the compiler.
+ *
+ * Like the variables declared in the main program, each virtual register
+ * lives in a word at an offset of SB; the instructions work in R0 - R3, and
+ * floats are kept as their bits in the general purpose registers, moved to S0
+ * and S1 to compute. As in the rest of the ARM backend, reads, method bodies
+ * and the runtime checks are not supported.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class ARMSelector {
+    public static final ARMSPRegister S0 = ARMRegister.VFPgetS(0);
+    public static final ARMSPRegister S1 = ARMRegister.VFPgetS(1);
+
+    private final DecacCompiler compiler;
+    private final ControlFlowGraph cfg;
+
+    private final ARMDAddr[] homes;
+    private final Map<BasicBlock, ARMLabel> labels = new HashMap<BasicBlock, ARMLabel>();
+    private BasicBlock next;
+
+    public ARMSelector(DecacCompiler compiler, ControlFlowGraph cfg) {
+        this.compiler = compiler;
+        this.cfg = cfg;
+        this.homes = new ARMDAddr[cfg.getRegisters().size()];
+    }
+
+    /**
+     * @return true if all the instructions of the graph can be translated
+     */
+    public static boolean supports(ControlFlowGraph cfg) {
+        for (BasicBlock block : cfg.getBlocks()) {
+            for (IRInstruction instruction : block.getInstructions()) {
+                if (!instruction.isSupportedByARM()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Generate the code of the graph, which must be supported.
+     */
+    public void codeGen() {
+        assert supports(cfg);
+        for (VirtualRegister register : cfg.getRegisters()) {
+            homes[register.getId()] = new ARMRegisterOffset(compiler.getStackCount().incVarCount() * 4,
+                    ARMRegister.SB);
+        }
+        List<BasicBlock> blocks = cfg.getBlocks();
+        for (int i = 0; i < blocks.size(); i++) {
+            BasicBlock block = blocks.get(i);
+            next = i + 1 < blocks.size() ? blocks.get(i + 1) : null;
+            if (!block.getPredecessors().isEmpty()) {
+                compiler.addARMLabel(getLabel(block));
+            }
+            for (IRInstruction instruction : block.getInstructions()) {
+                instruction.codeGenARM(this);
+            }
+        }
+    }
+
+    public DecacCompiler getCompiler() {
+        return compiler;
+    }
+
+    public ARMDAddr home(VirtualRegister register) {
+        return homes[register.getId()];
+    }
+
+    /**
+     * Load an operand in a register, floats as their bits.
+     */
+    public void load(Operand operand, ARMGPRegister register) {
+        if (operand instanceof VirtualRegister) {
+            compiler.addARMInstruction(new ARM_LDR(register, home((VirtualRegister) operand)));
+            return;
+        }
+        int value = operand instanceof IntConstant ? ((IntConstant) operand).getValue()
+                : Float.floatToRawIntBits(((FloatConstant) operand).getValue());
+        if (value >= 0 && value < 256) {
+            compiler.addARMInstruction(new ARM_MOV(register, new ARMImmediateInteger(value)));
+        } else {
+            compiler.addARMInstruction(new ARM_LDR(register, new ARMLiteral(Integer.toString(value))));
+        }
+    }
+
+    public void store(ARMGPRegister register, VirtualRegister dst) {
+        compiler.addARMInstruction(new ARM_STR(register, home(dst)));
+    }
+
+    /**
+     * Load two floats in S0 and S1, through R0 and R1.
+     */
+    public void loadFloats(Operand left, Operand right) {
+        load(left, ARMRegister.R0);
+        load(right, ARMRegister.R1);
+        compiler.addARMInstruction(new ARM_VMOV(S0, ARMRegister.R0));
+        compiler.addARMInstruction(new ARM_VMOV(S1, ARMRegister.R1));
+    }
+
+    /**
+     * Compare two operands, setting the condition codes.
+     */
+    public void compare(Operand left, Operand right) {
+        if (left.getType() == IRType.FLOAT) {
+            loadFloats(left, right);
+            compiler.addARMInstruction(new ARM_VCMPF32(S0, S1));
+            // copy the condition codes of the floating point unit
+            compiler.addARMRaw("        VMRS APSR_nzcv, FPSCR");
+        } else {
+            load(left, ARMRegister.R0);
+            load(right, ARMRegister.R1);
+            compiler.addARMInstruction(new ARM_CMP(ARMRegister.R0, ARMRegister.R1));
+        }
+    }
+
+    public ARMLabel getLabel(BasicBlock block) {
+        ARMLabel label = labels.get(block);
+        if (label == null) {
+            label = newLabel(block.toString());
+            labels.put(block, label);
+        }
+        return label;
+    }
+
+    /**
+     * @return a new label, unique in the program
+     */
+    public ARMLabel newLabel(String prefix) {
+        return new ARMLabel(compiler.createLabel(prefix).toString());
+    }
+
+    public boolean isNext(BasicBlock block) {
+        return block == next;
+    }
+
+    /**
+     * Jump to a block, unless it is the next one.
+     */
+    public void jump(BasicBlock target) {
+        if (!isNext(target)) {
+            compiler.addARMInstruction(new ARM_B(getLabel(target)));
+        }
+    }
+
+    /**
+     * @return the branch to label taken when the condition codes satisfy the
+     *         comparison
+     */
+    public ARMInstruction branch(BinaryOperator comparison, ARMLabel label) {
+        switch (comparison) {
+            case EQ:
+                return new ARM_BEQ(label);
+            case NE:
+                return new ARM_BNE(label);
+            case LT:
+                return new ARM_BLT(label);
+            case LE:
+                return new ARM_BLE(label);
+            case GT:
+                return new ARM_BGT(label);
+            case GE:
+                return new ARM_BGE(label);
+            default:
+                throw new IllegalArgumentException(comparison + " is not a comparison");
+        }
+    }
+}
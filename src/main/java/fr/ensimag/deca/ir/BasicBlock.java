@@ -0,0 +1,62 @@
+package fr.ensimag.deca.ir;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Sequence of instructions executed from the first to the last, which is a
+ * terminator (see {@link Terminator}) once the block is complete.
+ *
+ * The predecessors and successors are computed by
+ * {@link ControlFlowGraph#computeEdges()}.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class BasicBlock {
+    private final int id;
+    private final List<IRInstruction> instructions = new ArrayList<IRInstruction>();
+    final List<BasicBlock> predecessors = new ArrayList<BasicBlock>();
+
+    BasicBlock(int id) {
+        this.id = id;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return the instructions of the block, which can be modified
+     */
+    public List<IRInstruction> getInstructions() {
+        return instructions;
+    }
+
+    /**
+     * @return the last instruction of the block, or null if the block is not
+     *         complete
+     */
+    public Terminator getTerminator() {
+        if (instructions.isEmpty()) {
+            return null;
+        }
+        IRInstruction last = instructions.get(instructions.size() - 1);
+        return last.isTerminator() ? (Terminator) last : null;
+    }
+
+    public List<BasicBlock> getSuccessors() {
+        Terminator terminator = getTerminator();
+        return terminator == null ? Collections.<BasicBlock>emptyList() : terminator.getSuccessors();
+    }
+
+    public List<BasicBlock> getPredecessors() {
+        return Collections.unmodifiableList(predecessors);
+    }
+
+    @Override
+    public String toString() {
+        return "B" + id;
+    }
+}
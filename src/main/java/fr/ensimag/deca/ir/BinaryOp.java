@@ -0,0 +1,194 @@
+package fr.ensimag.deca.ir;
+
+import fr.ensimag.arm.pseudocode.ARMLabel;
+import fr.ensimag.arm.pseudocode.ARMRegister;
+import fr.ensimag.arm.pseudocode.ARMImmediateInteger;
+import fr.ensimag.arm.pseudocode.instructions.ARM_ADD;
+import fr.ensimag.arm.pseudocode.instructions.ARM_BL;
+import fr.ensimag.arm.pseudocode.instructions.ARM_MOV;
+import fr.ensimag.arm.pseudocode.instructions.ARM_MUL;
+import fr.ensimag.arm.pseudocode.instructions.ARM_SUB;
+import fr.ensimag.arm.pseudocode.instructions.ARM_VADDF32;
+import fr.ensimag.arm.pseudocode.instructions.ARM_VDIVF32;
+import fr.ensimag.arm.pseudocode.instructions.ARM_VMOV;
+import fr.ensimag.arm.pseudocode.instructions.ARM_VMULF32;
+import fr.ensimag.arm.pseudocode.instructions.ARM_VSUBF32;
+import fr.ensimag.deca.DecacCompiler;
+import fr.ensimag.ima.pseudocode.DVal;
+import fr.ensimag.ima.pseudocode.GPRegister;
+import fr.ensimag.ima.pseudocode.Register;
+import fr.ensimag.ima.pseudocode.instructions.ADD;
+import fr.ensimag.ima.pseudocode.instructions.CMP;
+import fr.ensimag.ima.pseudocode.instructions.DIV;
+import fr.ensimag.ima.pseudocode.instructions.MUL;
+import fr.ensimag.ima.pseudocode.instructions.QUO;
+import fr.ensimag.ima.pseudocode.instructions.REM;
+import fr.ensimag.ima.pseudocode.instructions.SUB;
+
+/**
+ * dst = left op right
+ *
+ * The arithmetic operators work on two ints or two floats, the comparisons on
+ * two values of the same type. As in Deca, the int operations wrap around,
+ * the float operations and the int division by zero are execution errors
+ * (unless -n).
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class BinaryOp extends IRInstruction {
+    private final BinaryOperator operator;
+
+    public BinaryOp(BinaryOperator operator, VirtualRegister dst, Operand left, Operand right) {
+        super(dst, left, right);
+        this.operator = operator;
+    }
+
+    public BinaryOperator getOperator() {
+        return operator;
+    }
+
+    public Operand getLeft() {
+        return getSrc(0);
+    }
+
+    public Operand getRight() {
+        return getSrc(1);
+    }
+
+    /**
+     * @return true if the operation can raise an execution error
+     */
+    public boolean canFail() {
+        switch (operator) {
+            case QUO:
+            case REM:
+                return true;
+            case ADD:
+            case SUB:
+            case MUL:
+            case DIV:
+                return getLeft().getType() == IRType.FLOAT;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    public boolean hasSideEffects() {
+        return canFail();
+    }
+
+    @Override
+    public Operand fold(Operand[] srcs) {
+        return ConstantFolder.fold(operator, srcs[0], srcs[1]);
+    }
+
+    @Override
+    protected void codeGenIMA(IMASelector selector) {
+        DecacCompiler compiler = selector.getCompiler();
+        DVal right = selector.dval(getRight());
+        GPRegister target = selector.target(getDst());
+        if (right == target && selector.dval(getLeft()) != target) {
+            // loading the left operand would overwrite the right one
+            target = Register.R0;
+        }
+        selector.load(getLeft(), target);
+        if (operator.isComparison()) {
+            compiler.addInstruction(new CMP(right, target));
+            compiler.addInstruction(selector.set(operator, target));
+        } else {
+            switch (operator) {
+                case ADD:
+                    compiler.addInstruction(new ADD(right, target));
+                    break;
+                case SUB:
+                    compiler.addInstruction(new SUB(right, target));
+                    break;
+                case MUL:
+                    compiler.addInstruction(new MUL(right, target));
+                    break;
+                case DIV:
+                    compiler.addInstruction(new DIV(right, target));
+                    break;
+                case QUO:
+                    compiler.addInstruction(new QUO(right, target));
+                    break;
+                case REM:
+                    compiler.addInstruction(new REM(right, target));
+                    break;
+                default:
+                    throw new IllegalStateException(operator.toString());
+            }
+            if (canFail()) {
+                selector.checkOverflow();
+            }
+        }
+        selector.store(target, getDst());
+    }
+
+    @Override
+    protected void codeGenARM(ARMSelector selector) {
+        DecacCompiler compiler = selector.getCompiler();
+        if (operator.isComparison()) {
+            selector.compare(getLeft(), getRight());
+            ARMLabel done = selector.newLabel("cmp");
+            compiler.addARMInstruction(new ARM_MOV(ARMRegister.R2, new ARMImmediateInteger(1)));
+            compiler.addARMInstruction(selector.branch(operator, done));
+            compiler.addARMInstruction(new ARM_MOV(ARMRegister.R2, new ARMImmediateInteger(0)));
+            compiler.addARMLabel(done);
+            selector.store(ARMRegister.R2, getDst());
+        } else if (getLeft().getType() == IRType.FLOAT) {
+            selector.loadFloats(getLeft(), getRight());
+            switch (operator) {
+                case ADD:
+                    compiler.addARMInstruction(new ARM_VADDF32(ARMSelector.S0, ARMSelector.S0, ARMSelector.S1));
+                    break;
+                case SUB:
+                    compiler.addARMInstruction(new ARM_VSUBF32(ARMSelector.S0, ARMSelector.S0, ARMSelector.S1));
+                    break;
+                case MUL:
+                    compiler.addARMInstruction(new ARM_VMULF32(ARMSelector.S0, ARMSelector.S0, ARMSelector.S1));
+                    break;
+                case DIV:
+                    compiler.addARMInstruction(new ARM_VDIVF32(ARMSelector.S0, ARMSelector.S0, ARMSelector.S1));
+                    break;
+                default:
+                    throw new IllegalStateException(operator.toString());
+            }
+            compiler.addARMInstruction(new ARM_VMOV(ARMRegister.R0, ARMSelector.S0));
+            selector.store(ARMRegister.R0, getDst());
+        } else {
+            selector.load(getLeft(), ARMRegister.R0);
+            selector.load(getRight(), ARMRegister.R1);
+            switch (operator) {
+                case ADD:
+                    compiler.addARMInstruction(new ARM_ADD(ARMRegister.R0, ARMRegister.R0, ARMRegister.R1));
+                    break;
+                case SUB:
+                    compiler.addARMInstruction(new ARM_SUB(ARMRegister.R0, ARMRegister.R0, ARMRegister.R1));
+                    break;
+                case MUL:
+                    compiler.addARMInstruction(new ARM_MUL(ARMRegister.R0, ARMRegister.R0, ARMRegister.R1));
+                    break;
+                case QUO:
+                    // quotient in R0
+                    compiler.addARMInstruction(new ARM_BL(new ARMLabel("__aeabi_idiv")));
+                    break;
+                case REM:
+                    // quotient in R0, remainder in R1
+                    compiler.addARMInstruction(new ARM_BL(new ARMLabel("__aeabi_idivmod")));
+                    compiler.addARMInstruction(new ARM_MOV(ARMRegister.R0, ARMRegister.R1));
+                    break;
+                default:
+                    throw new IllegalStateException(operator.toString());
+            }
+            selector.store(ARMRegister.R0, getDst());
+        }
+    }
+
+    @Override
+    protected String describe() {
+        return operator + " " + getLeft() + ", " + getRight();
+    }
+}
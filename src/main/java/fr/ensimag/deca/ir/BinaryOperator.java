@@ -0,0 +1,75 @@
+package fr.ensimag.deca.ir;
+
+/**
+ * Operators of {@link BinaryOp} and {@link Branch}. The comparisons give
+ * booleans, the other operators a value of the type of their operands.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public enum BinaryOperator {
+    ADD("add"), SUB("sub"), MUL("mul"),
+    /** float division */
+    DIV("div"),
+    /** int division */
+    QUO("quo"),
+    /** int remainder */
+    REM("rem"),
+    EQ("eq"), NE("ne"), LT("lt"), LE("le"), GT("gt"), GE("ge");
+
+    private final String name;
+
+    BinaryOperator(String name) {
+        this.name = name;
+    }
+
+    public boolean isComparison() {
+        return ordinal() >= EQ.ordinal();
+    }
+
+    /**
+     * @return the comparison true exactly when this one is false
+     */
+    public BinaryOperator negate() {
+        switch (this) {
+            case EQ:
+                return NE;
+            case NE:
+                return EQ;
+            case LT:
+                return GE;
+            case LE:
+                return GT;
+            case GT:
+                return LE;
+            case GE:
+                return LT;
+            default:
+                throw new IllegalStateException(this + " is not a comparison");
+        }
+    }
+
+    /**
+     * @return the comparison giving the same result with its operands swapped
+     */
+    public BinaryOperator swap() {
+        switch (this) {
+            case LT:
+                return GT;
+            case LE:
+                return GE;
+            case GT:
+                return LT;
+            case GE:
+                return LE;
+            default:
+                assert isComparison();
+                return this;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
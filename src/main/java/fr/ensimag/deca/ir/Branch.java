@@ -0,0 +1,99 @@
+package fr.ensimag.deca.ir;
+
+import java.util.Arrays;
+import java.util.List;
+
+import fr.ensimag.ima.pseudocode.GPRegister;
+import fr.ensimag.ima.pseudocode.Register;
+import fr.ensimag.ima.pseudocode.instructions.CMP;
+
+/**
+ * if (left comparison right) goto ifTrue else goto ifFalse
+ *
+ * A boolean b is tested with "ne b, false".
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class Branch extends Terminator {
+    private final BinaryOperator comparison;
+    private BasicBlock ifTrue;
+    private BasicBlock ifFalse;
+
+    public Branch(BinaryOperator comparison, Operand left, Operand right, BasicBlock ifTrue, BasicBlock ifFalse) {
+        super(left, right);
+        assert comparison.isComparison();
+        this.comparison = comparison;
+        this.ifTrue = ifTrue;
+        this.ifFalse = ifFalse;
+    }
+
+    public BinaryOperator getComparison() {
+        return comparison;
+    }
+
+    public Operand getLeft() {
+        return getSrc(0);
+    }
+
+    public Operand getRight() {
+        return getSrc(1);
+    }
+
+    public BasicBlock getIfTrue() {
+        return ifTrue;
+    }
+
+    public BasicBlock getIfFalse() {
+        return ifFalse;
+    }
+
+    @Override
+    public List<BasicBlock> getSuccessors() {
+        return Arrays.asList(ifTrue, ifFalse);
+    }
+
+    @Override
+    public void replaceSuccessor(BasicBlock old, BasicBlock replacement) {
+        if (ifTrue == old) {
+            ifTrue = replacement;
+        }
+        if (ifFalse == old) {
+            ifFalse = replacement;
+        }
+    }
+
+    @Override
+    protected void codeGenIMA(IMASelector selector) {
+        GPRegister left = getLeft() instanceof VirtualRegister ? selector.register((VirtualRegister) getLeft()) : null;
+        if (left == null) {
+            left = Register.R0;
+            selector.load(getLeft(), left);
+        }
+        selector.getCompiler().addInstruction(new CMP(selector.dval(getRight()), left));
+        if (selector.isNext(ifTrue)) {
+            selector.getCompiler().addInstruction(
+                    selector.branch(comparison.negate(), selector.getLabel(ifFalse)));
+        } else {
+            selector.getCompiler().addInstruction(selector.branch(comparison, selector.getLabel(ifTrue)));
+            selector.jump(ifFalse);
+        }
+    }
+
+    @Override
+    protected void codeGenARM(ARMSelector selector) {
+        selector.compare(getLeft(), getRight());
+        if (selector.isNext(ifTrue)) {
+            selector.getCompiler().addARMInstruction(
+                    selector.branch(comparison.negate(), selector.getLabel(ifFalse)));
+        } else {
+            selector.getCompiler().addARMInstruction(selector.branch(comparison, selector.getLabel(ifTrue)));
+            selector.jump(ifFalse);
+        }
+    }
+
+    @Override
+    protected String describe() {
+        return "if " + comparison + " " + getLeft() + ", " + getRight() + " goto " + ifTrue + " else " + ifFalse;
+    }
+}
@@ -0,0 +1,129 @@
+package fr.ensimag.deca.ir;
+
+/**
+ * Evaluation of the operators on constants, following the semantics of the
+ * generated code: ints on 32 bits, floats in single precision rounded to the
+ * nearest.
+ *
+ * An operation is only evaluated when the compiled code could not behave
+ * differently: the operations which overflow, divide by zero, or give a float
+ * which is infinite or not normal are left to the execution, so that the
+ * program still gets the error (or, with -n, the value) of the machine.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public final class ConstantFolder {
+    private ConstantFolder() {
+    }
+
+    /**
+     * @return the constant value of left op right, or null if it is not known
+     *         at compile time
+     */
+    public static Operand fold(BinaryOperator operator, Operand left, Operand right) {
+        if (left instanceof FloatConstant && right instanceof FloatConstant) {
+            return fold(operator, ((FloatConstant) left).getValue(), ((FloatConstant) right).getValue());
+        } else if (left instanceof IntConstant && right instanceof IntConstant) {
+            return fold(operator, ((IntConstant) left).getValue(), ((IntConstant) right).getValue());
+        }
+        return null;
+    }
+
+    private static Operand fold(BinaryOperator operator, int a, int b) {
+        try {
+            switch (operator) {
+                case ADD:
+                    return new IntConstant(Math.addExact(a, b));
+                case SUB:
+                    return new IntConstant(Math.subtractExact(a, b));
+                case MUL:
+                    return new IntConstant(Math.multiplyExact(a, b));
+                case QUO:
+                    return b == 0 || (a == Integer.MIN_VALUE && b == -1) ? null : new IntConstant(a / b);
+                case REM:
+                    return b == 0 || (a == Integer.MIN_VALUE && b == -1) ? null : new IntConstant(a % b);
+                case EQ:
+                    return IntConstant.of(a == b);
+                case NE:
+                    return IntConstant.of(a != b);
+                case LT:
+                    return IntConstant.of(a < b);
+                case LE:
+                    return IntConstant.of(a <= b);
+                case GT:
+                    return IntConstant.of(a > b);
+                case GE:
+                    return IntConstant.of(a >= b);
+                default:
+                    return null;
+            }
+        } catch (ArithmeticException e) {
+            // overflow
+            return null;
+        }
+    }
+
+    private static Operand fold(BinaryOperator operator, float a, float b) {
+        switch (operator) {
+            case ADD:
+                return floatResult(a + b, false);
+            case SUB:
+                return floatResult(a - b, false);
+            case MUL:
+                return floatResult(a * b, a != 0 && b != 0);
+            case DIV:
+                return b == 0 ? null : floatResult(a / b, a != 0);
+            case EQ:
+                return IntConstant.of(a == b);
+            case NE:
+                return IntConstant.of(a != b);
+            case LT:
+                return IntConstant.of(a < b);
+            case LE:
+                return IntConstant.of(a <= b);
+            case GT:
+                return IntConstant.of(a > b);
+            case GE:
+                return IntConstant.of(a >= b);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @param nonZero true if the exact result is not zero
+     * @return the result, or null if it overflows or underflows
+     */
+    private static Operand floatResult(float result, boolean nonZero) {
+        if (Float.isInfinite(result) || Float.isNaN(result)) {
+            return null;
+        }
+        if (result == 0 ? nonZero : Math.abs(result) < Float.MIN_NORMAL) {
+            return null;
+        }
+        return new FloatConstant(result);
+    }
+
+    /**
+     * @return the constant value of op src, or null if it is not known at
+     *         compile time
+     */
+    public static Operand fold(UnaryOperator operator, Operand src) {
+        switch (operator) {
+            case NEG:
+                if (src instanceof FloatConstant) {
+                    return new FloatConstant(-((FloatConstant) src).getValue());
+                } else if (src instanceof IntConstant && ((IntConstant) src).getValue() != Integer.MIN_VALUE) {
+                    return new IntConstant(-((IntConstant) src).getValue());
+                }
+                return null;
+            case NOT:
+                return src instanceof IntConstant ? IntConstant.of(((IntConstant) src).getValue() == 0) : null;
+            case FLOAT:
+                return src instanceof IntConstant ? new FloatConstant((float) ((IntConstant) src).getValue()) : null;
+            default:
+                return null;
+        }
+    }
+}
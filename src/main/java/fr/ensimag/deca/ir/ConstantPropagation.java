@@ -0,0 +1,266 @@
+package fr.ensimag.deca.ir;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Sparse conditional constant propagation (Wegman and Zadeck) over the SSA
+ * form of a graph.
+ *
+ * Each value starts unknown and can only go down to a constant, then to
+ * "not constant"; a block is only evaluated once an edge leading to it is
+ * known to be executable, and a branch on a constant only makes one of its
+ * edges executable. The graph is then rewritten: the uses of constant values
+ * are replaced by the constants, the instructions computing a constant by
+ * copies, the branches on constants by jumps, and the blocks which are never
+ * executed are removed.
+ *
+ * The constants are computed by {@link IRInstruction#fold}, so that the
+ * operations whose result depends on the machine (overflows, divisions by
+ * zero) are kept.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class ConstantPropagation {
+    /** value which is not constant */
+    private static final Object OVERDEFINED = new Object();
+
+    private final ControlFlowGraph cfg;
+    private final SSAForm ssa;
+    /** by value id: null (unknown), a constant Operand, or OVERDEFINED */
+    private final Object[] lattice;
+    private final boolean[] executableBlocks;
+    private final Set<Long> executableEdges = new HashSet<Long>();
+    /** targets of the edges found executable, not visited yet */
+    private final Deque<BasicBlock> edgeTargets = new ArrayDeque<BasicBlock>();
+    private final Deque<SSAValue> changedValues = new ArrayDeque<SSAValue>();
+
+    public ConstantPropagation(SSAForm ssa) {
+        this.ssa = ssa;
+        this.cfg = ssa.getGraph();
+        this.lattice = new Object[ssa.getValues().size()];
+        this.executableBlocks = new boolean[cfg.getBlockIdBound()];
+    }
+
+    /**
+     * Propagate the constants of a graph and rewrite it.
+     *
+     * @return true if the graph has been changed
+     */
+    public static boolean run(ControlFlowGraph cfg) {
+        ConstantPropagation propagation = new ConstantPropagation(new SSAForm(cfg));
+        propagation.propagate();
+        return propagation.rewrite();
+    }
+
+    private long edge(BasicBlock source, BasicBlock target) {
+        return (long) source.getId() * cfg.getBlockIdBound() + target.getId();
+    }
+
+    private void addEdge(BasicBlock source, BasicBlock target) {
+        if (executableEdges.add(edge(source, target))) {
+            edgeTargets.add(target);
+        }
+    }
+
+    /**
+     * Compute the values and the executable blocks.
+     */
+    public void propagate() {
+        // value of the variables and parameters on entry
+        for (SSAValue value : ssa.getValues()) {
+            if (value.getDefinition() == null && value.getPhi() == null) {
+                lattice[value.getId()] = OVERDEFINED;
+            }
+        }
+        visitBlock(cfg.getEntry());
+        while (!edgeTargets.isEmpty() || !changedValues.isEmpty()) {
+            while (!edgeTargets.isEmpty()) {
+                visitBlock(edgeTargets.poll());
+            }
+            while (!changedValues.isEmpty()) {
+                SSAValue value = changedValues.poll();
+                for (Phi phi : value.getPhiUsers()) {
+                    if (executableBlocks[phi.getBlock().getId()]) {
+                        visitPhi(phi);
+                    }
+                }
+                for (IRInstruction user : value.getUsers()) {
+                    if (executableBlocks[ssa.getBlock(user).getId()]) {
+                        visitInstruction(user);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A new edge to block is executable: evaluate its phi-functions, and its
+     * instructions the first time.
+     */
+    private void visitBlock(BasicBlock block) {
+        for (Phi phi : ssa.getPhis(block)) {
+            visitPhi(phi);
+        }
+        if (!executableBlocks[block.getId()]) {
+            executableBlocks[block.getId()] = true;
+            for (IRInstruction instruction : block.getInstructions()) {
+                visitInstruction(instruction);
+            }
+        }
+    }
+
+    private void visitPhi(Phi phi) {
+        Object value = null;
+        List<BasicBlock> predecessors = phi.getBlock().getPredecessors();
+        for (int i = 0; i < predecessors.size(); i++) {
+            if (executableEdges.contains(edge(predecessors.get(i), phi.getBlock()))) {
+                value = meet(value, lattice[phi.getArgument(i).getId()]);
+            }
+        }
+        update(phi.getResult(), value);
+    }
+
+    private static Object meet(Object a, Object b) {
+        if (a == null) {
+            return b;
+        } else if (b == null || a.equals(b)) {
+            return a;
+        }
+        return OVERDEFINED;
+    }
+
+    private void update(SSAValue value, Object newValue) {
+        Object old = lattice[value.getId()];
+        if (old == OVERDEFINED || newValue == null || newValue.equals(old)) {
+            return;
+        }
+        lattice[value.getId()] = old == null ? newValue : OVERDEFINED;
+        changedValues.add(value);
+    }
+
+    /**
+     * @return the sources of an instruction in the lattice: null if one of
+     *         them is unknown, with OVERDEFINED if one of them is not constant
+     */
+    private Object[] sources(IRInstruction instruction) {
+        Object[] srcs = new Object[instruction.getSrcCount()];
+        for (int i = 0; i < srcs.length; i++) {
+            SSAValue use = ssa.getUse(instruction, i);
+            srcs[i] = use == null ? instruction.getSrc(i) : lattice[use.getId()];
+            if (srcs[i] == null) {
+                return null;
+            }
+        }
+        return srcs;
+    }
+
+    private static boolean allConstant(Object[] srcs) {
+        for (Object src : srcs) {
+            if (src == OVERDEFINED) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void visitInstruction(IRInstruction instruction) {
+        BasicBlock block = ssa.getBlock(instruction);
+        Object[] srcs = sources(instruction);
+        if (instruction instanceof Branch) {
+            Branch branch = (Branch) instruction;
+            if (srcs == null) {
+                return;
+            }
+            Operand condition = allConstant(srcs)
+                    ? ConstantFolder.fold(branch.getComparison(), (Operand) srcs[0], (Operand) srcs[1])
+                    : null;
+            if (condition == null) {
+                addEdge(block, branch.getIfTrue());
+                addEdge(block, branch.getIfFalse());
+            } else {
+                addEdge(block, ((IntConstant) condition).getValue() != 0 ? branch.getIfTrue() : branch.getIfFalse());
+            }
+        } else if (instruction.isTerminator()) {
+            for (BasicBlock successor : ((Terminator) instruction).getSuccessors()) {
+                addEdge(block, successor);
+            }
+        } else if (instruction.getDst() != null) {
+            SSAValue value = ssa.getDefinition(instruction);
+            if (srcs == null) {
+                return;
+            }
+            Operand result = null;
+            if (allConstant(srcs)) {
+                Operand[] constants = new Operand[srcs.length];
+                for (int i = 0; i < srcs.length; i++) {
+                    constants[i] = (Operand) srcs[i];
+                }
+                result = instruction.fold(constants);
+            }
+            update(value, result == null ? OVERDEFINED : result);
+        }
+    }
+
+    /**
+     * @return the constant value of the source i of a reachable instruction,
+     *         or null
+     */
+    private Operand constantSource(IRInstruction instruction, int i) {
+        SSAValue use = ssa.getUse(instruction, i);
+        if (use == null) {
+            return instruction.getSrc(i);
+        }
+        Object value = lattice[use.getId()];
+        return value instanceof Operand ? (Operand) value : null;
+    }
+
+    /**
+     * Rewrite the graph with the result of {@link #propagate()}.
+     *
+     * @return true if the graph has been changed
+     */
+    public boolean rewrite() {
+        boolean changed = false;
+        List<BasicBlock> blocks = new ArrayList<BasicBlock>(cfg.getBlocks());
+        for (BasicBlock block : blocks) {
+            if (!executableBlocks[block.getId()]) {
+                changed |= ssa.getDominatorTree().isReachable(block);
+                continue;
+            }
+            List<IRInstruction> instructions = block.getInstructions();
+            for (int n = 0; n < instructions.size(); n++) {
+                IRInstruction instruction = instructions.get(n);
+                for (int i = 0; i < instruction.getSrcCount(); i++) {
+                    Operand constant = constantSource(instruction, i);
+                    if (constant != null && instruction.getSrc(i) != constant) {
+                        instruction.setSrc(i, constant);
+                        changed = true;
+                    }
+                }
+                SSAValue value = ssa.getDefinition(instruction);
+                if (value != null && lattice[value.getId()] instanceof Operand && !(instruction instanceof Copy)) {
+                    instructions.set(n, new Copy(instruction.getDst(), (Operand) lattice[value.getId()]));
+                    changed = true;
+                } else if (instruction instanceof Branch) {
+                    Branch branch = (Branch) instruction;
+                    boolean toTrue = executableEdges.contains(edge(block, branch.getIfTrue()));
+                    boolean toFalse = executableEdges.contains(edge(block, branch.getIfFalse()));
+                    if (toTrue != toFalse) {
+                        instructions.set(n, new Jump(toTrue ? branch.getIfTrue() : branch.getIfFalse()));
+                        changed = true;
+                    }
+                }
+            }
+        }
+        if (changed) {
+            cfg.removeUnreachable();
+        }
+        return changed;
+    }
+}
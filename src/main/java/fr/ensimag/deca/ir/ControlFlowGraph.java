@@ -0,0 +1,223 @@
+package fr.ensimag.deca.ir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Control-flow graph of the body of the main program or of a method.
+ *
+ * The blocks are kept in the order their code is laid out: the entry block
+ * first, and the exit block, whose code is followed by the end of the body
+ * (the HALT of the main program, the epilogue of a method), last.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class ControlFlowGraph {
+    private final String name;
+    private final List<BasicBlock> blocks = new ArrayList<BasicBlock>();
+    private final List<VirtualRegister> registers = new ArrayList<VirtualRegister>();
+    private final BasicBlock entry;
+    private final BasicBlock exit;
+    private int nextBlockId = 0;
+
+    /**
+     * @param name name of the body, for the traces (e.g. "main" or "A.m")
+     */
+    public ControlFlowGraph(String name) {
+        this.name = name;
+        this.entry = newBlock();
+        this.exit = new BasicBlock(nextBlockId++);
+        exit.getInstructions().add(new Exit());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public BasicBlock getEntry() {
+        return entry;
+    }
+
+    public BasicBlock getExit() {
+        return exit;
+    }
+
+    /**
+     * @return the blocks in layout order, exit block included
+     */
+    public List<BasicBlock> getBlocks() {
+        List<BasicBlock> all = new ArrayList<BasicBlock>(blocks);
+        all.add(exit);
+        return Collections.unmodifiableList(all);
+    }
+
+    /**
+     * @return a bound of the ids of the blocks, to index arrays by block
+     */
+    public int getBlockIdBound() {
+        return nextBlockId;
+    }
+
+    /**
+     * @return the virtual registers, indexed by their id
+     */
+    public List<VirtualRegister> getRegisters() {
+        return Collections.unmodifiableList(registers);
+    }
+
+    /**
+     * Add a block, laid out after the others (but before the exit block).
+     */
+    public BasicBlock newBlock() {
+        BasicBlock block = new BasicBlock(nextBlockId++);
+        blocks.add(block);
+        return block;
+    }
+
+    /**
+     * Lay a block out after the others (but before the exit block).
+     */
+    public void moveToEnd(BasicBlock block) {
+        assert block != exit;
+        blocks.remove(block);
+        blocks.add(block);
+    }
+
+    /**
+     * @param name name of the variable held by the register, or null
+     */
+    public VirtualRegister newRegister(IRType type, String name) {
+        VirtualRegister register = new VirtualRegister(registers.size(), type, name);
+        registers.add(register);
+        return register;
+    }
+
+    /**
+     * Compute the predecessors of the blocks from their terminators.
+     */
+    public void computeEdges() {
+        for (BasicBlock block : getBlocks()) {
+            block.predecessors.clear();
+        }
+        for (BasicBlock block : getBlocks()) {
+            for (BasicBlock successor : block.getSuccessors()) {
+                successor.predecessors.add(block);
+            }
+        }
+    }
+
+    /**
+     * Remove the blocks which cannot be reached from the entry block (the
+     * exit block is kept), and compute the edges.
+     */
+    public void removeUnreachable() {
+        List<BasicBlock> reachable = reversePostOrder();
+        blocks.retainAll(reachable);
+        computeEdges();
+    }
+
+    /**
+     * Merge each block ending with a jump with its target, when the block is
+     * the only predecessor of the target (e.g. after branches have been
+     * removed). The edges must be up to date.
+     *
+     * @return true if blocks have been merged
+     */
+    public boolean mergeBlocks() {
+        boolean[] merged = new boolean[nextBlockId];
+        boolean changed = false;
+        for (BasicBlock block : blocks) {
+            if (merged[block.getId()]) {
+                continue;
+            }
+            Terminator terminator = block.getTerminator();
+            while (terminator instanceof Jump) {
+                BasicBlock target = ((Jump) terminator).getTarget();
+                if (target == block || target == entry || target == exit || target.getPredecessors().size() != 1) {
+                    break;
+                }
+                List<IRInstruction> instructions = block.getInstructions();
+                instructions.remove(instructions.size() - 1);
+                instructions.addAll(target.getInstructions());
+                target.getInstructions().clear();
+                merged[target.getId()] = true;
+                for (BasicBlock successor : block.getSuccessors()) {
+                    Collections.replaceAll(successor.predecessors, target, block);
+                }
+                terminator = block.getTerminator();
+                changed = true;
+            }
+        }
+        if (changed) {
+            blocks.removeIf(block -> merged[block.getId()]);
+        }
+        return changed;
+    }
+
+    /**
+     * @return the blocks reachable from the entry block, in reverse post-order
+     *         (each block before its successors, loops excepted)
+     */
+    public List<BasicBlock> reversePostOrder() {
+        List<BasicBlock> order = new ArrayList<BasicBlock>();
+        boolean[] visited = new boolean[nextBlockId];
+        // iterative depth-first traversal: explicit stack of blocks and of the
+        // position in their successors
+        Deque<BasicBlock> path = new ArrayDeque<BasicBlock>();
+        Deque<Integer> positions = new ArrayDeque<Integer>();
+        visited[entry.getId()] = true;
+        path.push(entry);
+        positions.push(0);
+        while (!path.isEmpty()) {
+            BasicBlock block = path.peek();
+            int position = positions.pop();
+            List<BasicBlock> successors = block.getSuccessors();
+            if (position < successors.size()) {
+                positions.push(position + 1);
+                BasicBlock successor = successors.get(position);
+                if (!visited[successor.getId()]) {
+                    visited[successor.getId()] = true;
+                    path.push(successor);
+                    positions.push(0);
+                }
+            } else {
+                order.add(path.pop());
+            }
+        }
+        Collections.reverse(order);
+        return order;
+    }
+
+    /**
+     * Display the graph, one block after the other, for the traces and the
+     * tests.
+     */
+    public void display(PrintStream s) {
+        s.println("body " + name);
+        for (BasicBlock block : getBlocks()) {
+            s.print(block + ":");
+            if (!block.getPredecessors().isEmpty()) {
+                s.print(" ; from " + block.getPredecessors());
+            }
+            s.println();
+            for (IRInstruction instruction : block.getInstructions()) {
+                s.println("    " + instruction);
+            }
+        }
+    }
+
+    /**
+     * @return the graph as displayed by {@link #display(PrintStream)}
+     */
+    public String display() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        display(new PrintStream(out));
+        return out.toString();
+    }
+}
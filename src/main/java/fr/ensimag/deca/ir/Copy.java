@@ -0,0 +1,40 @@
+package fr.ensimag.deca.ir;
+
+import fr.ensimag.arm.pseudocode.ARMRegister;
+import fr.ensimag.ima.pseudocode.GPRegister;
+import fr.ensimag.ima.pseudocode.Register;
+
+/**
+ * dst = src
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class Copy extends IRInstruction {
+    public Copy(VirtualRegister dst, Operand src) {
+        super(dst, src);
+    }
+
+    @Override
+    public Operand fold(Operand[] srcs) {
+        return srcs[0];
+    }
+
+    @Override
+    protected void codeGenIMA(IMASelector selector) {
+        GPRegister target = selector.target(getDst());
+        selector.load(getSrc(0), target);
+        selector.store(target, getDst());
+    }
+
+    @Override
+    protected void codeGenARM(ARMSelector selector) {
+        selector.load(getSrc(0), ARMRegister.R0);
+        selector.store(ARMRegister.R0, getDst());
+    }
+
+    @Override
+    protected String describe() {
+        return getSrc(0).toString();
+    }
+}
@@ -0,0 +1,147 @@
+package fr.ensimag.deca.ir;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Dominators and dominance frontiers of the blocks of a graph reachable from
+ * its entry block, computed with the iterative algorithm of Cooper, Harvey
+ * and Kennedy ("A Simple, Fast Dominance Algorithm").
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class DominatorTree {
+    private final List<BasicBlock> order;
+    /** position of the blocks in order, -1 for an unreachable block */
+    private final int[] position;
+    private final BasicBlock[] idom;
+    private final List<List<BasicBlock>> children;
+    private final List<List<BasicBlock>> frontiers;
+
+    public DominatorTree(ControlFlowGraph cfg) {
+        int bound = cfg.getBlockIdBound();
+        order = cfg.reversePostOrder();
+        position = new int[bound];
+        idom = new BasicBlock[bound];
+        children = new ArrayList<List<BasicBlock>>(bound);
+        frontiers = new ArrayList<List<BasicBlock>>(bound);
+        for (int i = 0; i < bound; i++) {
+            position[i] = -1;
+            children.add(new ArrayList<BasicBlock>());
+            frontiers.add(new ArrayList<BasicBlock>());
+        }
+        for (int i = 0; i < order.size(); i++) {
+            position[order.get(i).getId()] = i;
+        }
+        computeDominators(cfg.getEntry());
+        for (BasicBlock block : order) {
+            if (block != cfg.getEntry()) {
+                children.get(getImmediateDominator(block).getId()).add(block);
+            }
+        }
+        computeFrontiers();
+    }
+
+    private void computeDominators(BasicBlock entry) {
+        idom[entry.getId()] = entry;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (BasicBlock block : order) {
+                if (block == entry) {
+                    continue;
+                }
+                BasicBlock newIdom = null;
+                for (BasicBlock predecessor : block.getPredecessors()) {
+                    if (idom[predecessor.getId()] != null) {
+                        newIdom = newIdom == null ? predecessor : intersect(predecessor, newIdom);
+                    }
+                }
+                if (idom[block.getId()] != newIdom) {
+                    idom[block.getId()] = newIdom;
+                    changed = true;
+                }
+            }
+        }
+    }
+
+    private BasicBlock intersect(BasicBlock a, BasicBlock b) {
+        while (a != b) {
+            while (position[a.getId()] > position[b.getId()]) {
+                a = idom[a.getId()];
+            }
+            while (position[b.getId()] > position[a.getId()]) {
+                b = idom[b.getId()];
+            }
+        }
+        return a;
+    }
+
+    private void computeFrontiers() {
+        for (BasicBlock block : order) {
+            if (block.getPredecessors().size() < 2) {
+                continue;
+            }
+            for (BasicBlock predecessor : block.getPredecessors()) {
+                if (!isReachable(predecessor)) {
+                    continue;
+                }
+                for (BasicBlock runner = predecessor; runner != idom[block.getId()]; runner = idom[runner.getId()]) {
+                    List<BasicBlock> frontier = frontiers.get(runner.getId());
+                    if (frontier.isEmpty() || frontier.get(frontier.size() - 1) != block) {
+                        frontier.add(block);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the blocks reachable from the entry block, in reverse post-order
+     */
+    public List<BasicBlock> getOrder() {
+        return Collections.unmodifiableList(order);
+    }
+
+    public boolean isReachable(BasicBlock block) {
+        return position[block.getId()] >= 0;
+    }
+
+    /**
+     * @return the immediate dominator of a reachable block (the entry block
+     *         for itself)
+     */
+    public BasicBlock getImmediateDominator(BasicBlock block) {
+        return idom[block.getId()];
+    }
+
+    /**
+     * @return true if every path from the entry block to b goes through a
+     */
+    public boolean dominates(BasicBlock a, BasicBlock b) {
+        if (!isReachable(a) || !isReachable(b)) {
+            return false;
+        }
+        while (position[b.getId()] > position[a.getId()]) {
+            b = idom[b.getId()];
+        }
+        return a == b;
+    }
+
+    /**
+     * @return the blocks whose immediate dominator is block
+     */
+    public List<BasicBlock> getChildren(BasicBlock block) {
+        return Collections.unmodifiableList(children.get(block.getId()));
+    }
+
+    /**
+     * @return the dominance frontier of block: the blocks it does not strictly
+     *         dominate, but one of whose predecessors it dominates
+     */
+    public List<BasicBlock> getFrontier(BasicBlock block) {
+        return Collections.unmodifiableList(frontiers.get(block.getId()));
+    }
+}
@@ -0,0 +1,38 @@
+package fr.ensimag.deca.ir;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Terminator of the exit block of a graph: the execution goes on with the
+ * code following the body.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class Exit extends Terminator {
+    @Override
+    public List<BasicBlock> getSuccessors() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public void replaceSuccessor(BasicBlock old, BasicBlock replacement) {
+        // no successor
+    }
+
+    @Override
+    protected void codeGenIMA(IMASelector selector) {
+        // the exit block is the last one
+    }
+
+    @Override
+    protected void codeGenARM(ARMSelector selector) {
+        // the exit block is the last one
+    }
+
+    @Override
+    protected String describe() {
+        return "exit";
+    }
+}
@@ -0,0 +1,41 @@
+package fr.ensimag.deca.ir;
+
+/**
+ * Constant float operand.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class FloatConstant extends Operand {
+    private final float value;
+
+    public FloatConstant(float value) {
+        this.value = value;
+    }
+
+    public float getValue() {
+        return value;
+    }
+
+    @Override
+    public IRType getType() {
+        return IRType.FLOAT;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        // compare the bits, so that -0.0 and 0.0 are distinct
+        return other instanceof FloatConstant
+                && Float.floatToIntBits(((FloatConstant) other).value) == Float.floatToIntBits(value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Float.floatToIntBits(value);
+    }
+
+    @Override
+    public String toString() {
+        return Float.toHexString(value);
+    }
+}
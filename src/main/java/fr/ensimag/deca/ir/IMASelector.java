@@ -0,0 +1,284 @@
+package fr.ensimag.deca.ir;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+
+import fr.ensimag.deca.DecacCompiler;
+import fr.ensimag.ima.pseudocode.DAddr;
+import fr.ensimag.ima.pseudocode.DVal;
+import fr.ensimag.ima.pseudocode.GPRegister;
+import fr.ensimag.ima.pseudocode.ImmediateFloat;
+import fr.ensimag.ima.pseudocode.ImmediateInteger;
+import fr.ensimag.ima.pseudocode.Instruction;
+import fr.ensimag.ima.pseudocode.Label;
+import fr.ensimag.ima.pseudocode.Register;
+import fr.ensimag.ima.pseudocode.RegisterOffset;
+import fr.ensimag.ima.pseudocode.instructions.BEQ;
+import fr.ensimag.ima.pseudocode.instructions.BGE;
+import fr.ensimag.ima.pseudocode.instructions.BGT;
+import fr.ensimag.ima.pseudocode.instructions.BLE;
+import fr.ensimag.ima.pseudocode.instructions.BLT;
+import fr.ensimag.ima.pseudocode.instructions.BNE;
+import fr.ensimag.ima.pseudocode.instructions.BOV;
+import fr.ensimag.ima.pseudocode.instructions.BRA;
+import fr.ensimag.ima.pseudocode.instructions.LOAD;
+import fr.ensimag.ima.pseudocode.instructions.SEQ;
+import fr.ensimag.ima.pseudocode.instructions.SGE;
+import fr.ensimag.ima.pseudocode.instructions.SGT;
+import fr.ensimag.ima.pseudocode.instructions.SLE;
+import fr.ensimag.ima.pseudocode.instructions.SLT;
+import fr.ensimag.ima.pseudocode.instructions.SNE;
+import fr.ensimag.ima.pseudocode.instructions.STORE;
+
+/**
+ * Translation of a control-flow graph to IMA, appended to the current block of
+ * the compiler.
+ *
+ * Each virtual register lives in a slot of the stack frame (GB in the main
+ * program, LB in a method), reserved with the variables of the body. From -O1,
+ * the registers R2 to R(n-1) of -r are allocated by {@link LinearScan}, the
+ * virtual registers left out keeping a slot. R0 and R1 are not allocated: the
+ * instructions work in them when their operands are not in registers, and
+ * they hold the values read, written and returned. The blocks are laid out in
+ * the order of the graph, a jump to the next block being omitted.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class IMASelector {
+    private static final Logger LOG = Logger.getLogger(IMASelector.class);
+
+    /** first register given to the virtual registers */
+    private static final int FIRST_REGISTER = 2;
+
+    private final DecacCompiler compiler;
+    private final ControlFlowGraph cfg;
+    private final Register base;
+    private final Label returnLabel;
+
+    private final DAddr[] homes;
+    private final GPRegister[] registers;
+    private final Map<BasicBlock, Label> labels = new HashMap<BasicBlock, Label>();
+    private BasicBlock next;
+
+    /**
+     * @param base        GB for the main program, LB for a method
+     * @param returnLabel label of the epilogue of the method, null in the main
+     *                    program
+     */
+    public IMASelector(DecacCompiler compiler, ControlFlowGraph cfg, Register base, Label returnLabel) {
+        this.compiler = compiler;
+        this.cfg = cfg;
+        this.base = base;
+        this.returnLabel = returnLabel;
+        this.homes = new DAddr[cfg.getRegisters().size()];
+        this.registers = new GPRegister[cfg.getRegisters().size()];
+    }
+
+    /**
+     * Generate the code of the graph.
+     */
+    public void codeGen() {
+        if (compiler.getCompilerOptions().getOptimizationLevel() >= 1) {
+            allocate();
+        } else {
+            for (VirtualRegister register : cfg.getRegisters()) {
+                homes[register.getId()] = new RegisterOffset(compiler.getStackCount().incVarCount(), base);
+            }
+        }
+        List<BasicBlock> blocks = cfg.getBlocks();
+        for (int i = 0; i < blocks.size(); i++) {
+            BasicBlock block = blocks.get(i);
+            next = i + 1 < blocks.size() ? blocks.get(i + 1) : null;
+            if (!block.getPredecessors().isEmpty()) {
+                compiler.addLabel(getLabel(block));
+            }
+            for (IRInstruction instruction : block.getInstructions()) {
+                instruction.codeGenIMA(this);
+            }
+        }
+    }
+
+    /**
+     * Give the virtual registers a physical register, or a slot shared by the
+     * registers coalesced with them.
+     */
+    private void allocate() {
+        LinearScan scan = new LinearScan(cfg, compiler.getRegisterManager().getNbRegisters() - FIRST_REGISTER);
+        scan.run();
+        for (VirtualRegister register : cfg.getRegisters()) {
+            int number = scan.getRegister(register);
+            if (number >= 0) {
+                registers[register.getId()] = Register.getR(FIRST_REGISTER + number);
+                compiler.getRegisterManager().setUsed(registers[register.getId()]);
+            } else {
+                VirtualRegister representative = scan.getRepresentative(register);
+                if (homes[representative.getId()] == null) {
+                    homes[representative.getId()] = new RegisterOffset(compiler.getStackCount().incVarCount(), base);
+                }
+                homes[register.getId()] = homes[representative.getId()];
+            }
+        }
+        LOG.debug(cfg.getName() + ": " + scan.getCoalescedCount() + " copies coalesced, "
+                + scan.getSpilledCount() + " intervals spilled");
+    }
+
+    public DecacCompiler getCompiler() {
+        return compiler;
+    }
+
+    /**
+     * @return the label of the epilogue of the method
+     */
+    public Label getReturnLabel() {
+        assert returnLabel != null;
+        return returnLabel;
+    }
+
+    /**
+     * @return the address of the slot of a virtual register, null if it is in
+     *         a register
+     */
+    public DAddr home(VirtualRegister register) {
+        return homes[register.getId()];
+    }
+
+    /**
+     * @return the physical register of a virtual register, null if it is in
+     *         memory
+     */
+    public GPRegister register(VirtualRegister register) {
+        return registers[register.getId()];
+    }
+
+    /**
+     * @return the register in which to compute the value of dst: its own, or
+     *         R0 if it is in memory
+     */
+    public GPRegister target(VirtualRegister dst) {
+        GPRegister register = register(dst);
+        return register != null ? register : Register.R0;
+    }
+
+    /**
+     * @return the IMA operand of an IR operand
+     */
+    public DVal dval(Operand operand) {
+        if (operand instanceof VirtualRegister) {
+            GPRegister register = register((VirtualRegister) operand);
+            return register != null ? register : home((VirtualRegister) operand);
+        } else if (operand instanceof IntConstant) {
+            return new ImmediateInteger(((IntConstant) operand).getValue());
+        } else {
+            return new ImmediateFloat(((FloatConstant) operand).getValue());
+        }
+    }
+
+    /**
+     * Load an operand in a register, unless it is already there.
+     */
+    public void load(Operand operand, GPRegister register) {
+        DVal value = dval(operand);
+        if (value != register) {
+            compiler.addInstruction(new LOAD(value, register));
+        }
+    }
+
+    /**
+     * Store the value of a register in dst, unless it has been computed in
+     * the register of dst.
+     */
+    public void store(GPRegister register, VirtualRegister dst) {
+        GPRegister dstRegister = register(dst);
+        if (dstRegister == null) {
+            compiler.addInstruction(new STORE(register, home(dst)));
+        } else if (dstRegister != register) {
+            compiler.addInstruction(new LOAD(register, dstRegister));
+        }
+    }
+
+    public Label getLabel(BasicBlock block) {
+        Label label = labels.get(block);
+        if (label == null) {
+            label = compiler.createLabel(block.toString());
+            labels.put(block, label);
+        }
+        return label;
+    }
+
+    /**
+     * @return true if the code of block follows the current block
+     */
+    public boolean isNext(BasicBlock block) {
+        return block == next;
+    }
+
+    /**
+     * Jump to a block, unless it is the next one.
+     */
+    public void jump(BasicBlock target) {
+        if (!isNext(target)) {
+            compiler.addInstruction(new BRA(getLabel(target)));
+        }
+    }
+
+    /**
+     * @return the branch to label taken when the condition codes of a CMP
+     *         satisfy the comparison
+     */
+    public Instruction branch(BinaryOperator comparison, Label label) {
+        switch (comparison) {
+            case EQ:
+                return new BEQ(label);
+            case NE:
+                return new BNE(label);
+            case LT:
+                return new BLT(label);
+            case LE:
+                return new BLE(label);
+            case GT:
+                return new BGT(label);
+            case GE:
+                return new BGE(label);
+            default:
+                throw new IllegalArgumentException(comparison + " is not a comparison");
+        }
+    }
+
+    /**
+     * @return the instruction setting register to 1 if the condition codes of
+     *         a CMP satisfy the comparison, to 0 otherwise
+     */
+    public Instruction set(BinaryOperator comparison, GPRegister register) {
+        switch (comparison) {
+            case EQ:
+                return new SEQ(register);
+            case NE:
+                return new SNE(register);
+            case LT:
+                return new SLT(register);
+            case LE:
+                return new SLE(register);
+            case GT:
+                return new SGT(register);
+            case GE:
+                return new SGE(register);
+            default:
+                throw new IllegalArgumentException(comparison + " is not a comparison");
+        }
+    }
+
+    /**
+     * Branch to the overflow error if the last operation overflowed (float
+     * operations, int division by zero), unless -n.
+     */
+    public void checkOverflow() {
+        if (!compiler.getCompilerOptions().getNoCheck()) {
+            compiler.setPossibleOverflow();
+            compiler.addInstruction(new BOV(new Label("overflow_error")));
+        }
+    }
+}
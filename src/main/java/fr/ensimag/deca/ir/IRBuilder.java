@@ -0,0 +1,124 @@
+package fr.ensimag.deca.ir;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import fr.ensimag.deca.context.ExpDefinition;
+import fr.ensimag.deca.context.ParamDefinition;
+
+/**
+ * Builder of the control-flow graph of a body, used by the tree to lower
+ * itself (see the lower methods of {@link fr.ensimag.deca.tree.AbstractInst}
+ * and {@link fr.ensimag.deca.tree.AbstractExpr}).
+ *
+ * Instructions are appended to the current block, which must be completed by
+ * a terminator before another block is started. After a terminator, the code
+ * is unreachable until another block is started: it goes to a new block
+ * without predecessors, removed by {@link #finish()}.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class IRBuilder {
+    private final ControlFlowGraph cfg;
+    private BasicBlock current;
+    private final Map<ExpDefinition, VirtualRegister> variables = new IdentityHashMap<ExpDefinition, VirtualRegister>();
+    private int paramLoads = 0;
+
+    /**
+     * @param name name of the body (e.g. "main" or "A.m")
+     */
+    public IRBuilder(String name) {
+        this.cfg = new ControlFlowGraph(name);
+        this.current = cfg.getEntry();
+    }
+
+    public ControlFlowGraph getGraph() {
+        return cfg;
+    }
+
+    public BasicBlock newBlock() {
+        return cfg.newBlock();
+    }
+
+    /**
+     * Go on in block, which must not be complete. The block is laid out after
+     * the blocks started before, so that the code follows the order of the
+     * source.
+     */
+    public void startBlock(BasicBlock block) {
+        assert current == null && block.getTerminator() == null;
+        cfg.moveToEnd(block);
+        current = block;
+    }
+
+    /**
+     * @return a new register for an intermediate value
+     */
+    public VirtualRegister newTemp(IRType type) {
+        return cfg.newRegister(type, null);
+    }
+
+    /**
+     * @return the register of a variable or of a parameter, created on the
+     *         first use; a parameter is loaded at the beginning of the body
+     */
+    public VirtualRegister variable(ExpDefinition definition, String name) {
+        VirtualRegister register = variables.get(definition);
+        if (register == null) {
+            register = cfg.newRegister(IRType.of(definition.getType()), name);
+            variables.put(definition, register);
+            if (definition.isParam()) {
+                cfg.getEntry().getInstructions().add(paramLoads++,
+                        new LoadParam(register, ((ParamDefinition) definition).getIndex()));
+            }
+        }
+        return register;
+    }
+
+    /**
+     * Append an instruction to the current block.
+     */
+    public void emit(IRInstruction instruction) {
+        if (current == null) {
+            // unreachable code
+            current = cfg.newBlock();
+        }
+        current.getInstructions().add(instruction);
+        if (instruction.isTerminator()) {
+            current = null;
+        }
+    }
+
+    /**
+     * @return a new register holding left op right
+     */
+    public VirtualRegister emitBinary(BinaryOperator operator, Operand left, Operand right) {
+        VirtualRegister dst = newTemp(operator.isComparison() ? IRType.BOOLEAN : left.getType());
+        emit(new BinaryOp(operator, dst, left, right));
+        return dst;
+    }
+
+    /**
+     * @return a new register holding op src
+     */
+    public VirtualRegister emitUnary(UnaryOperator operator, Operand src) {
+        IRType type = operator == UnaryOperator.FLOAT ? IRType.FLOAT : src.getType();
+        VirtualRegister dst = newTemp(type);
+        emit(new UnaryOp(operator, dst, src));
+        return dst;
+    }
+
+    /**
+     * Complete the graph: the end of the body goes to the exit block.
+     *
+     * @return the graph, without its unreachable blocks
+     */
+    public ControlFlowGraph finish() {
+        if (current != null) {
+            emit(new Jump(cfg.getExit()));
+        }
+        cfg.removeUnreachable();
+        return cfg;
+    }
+}
@@ -0,0 +1,101 @@
+package fr.ensimag.deca.ir;
+
+/**
+ * Three-address instruction: at most one virtual register defined (the
+ * destination) from source operands.
+ *
+ * The operands can be replaced, so that the optimizations can rewrite the
+ * instructions in place. Like the tree nodes, each instruction generates its
+ * own IMA and ARM code, with the help of the selector.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public abstract class IRInstruction {
+    private VirtualRegister dst;
+    private final Operand[] srcs;
+
+    protected IRInstruction(VirtualRegister dst, Operand... srcs) {
+        this.dst = dst;
+        this.srcs = srcs;
+    }
+
+    /**
+     * @return the register defined by the instruction, or null
+     */
+    public VirtualRegister getDst() {
+        return dst;
+    }
+
+    public void setDst(VirtualRegister dst) {
+        assert (dst == null) == (this.dst == null);
+        this.dst = dst;
+    }
+
+    public int getSrcCount() {
+        return srcs.length;
+    }
+
+    public Operand getSrc(int i) {
+        return srcs[i];
+    }
+
+    public void setSrc(int i, Operand src) {
+        srcs[i] = src;
+    }
+
+    /**
+     * @return true if the instruction ends its block
+     */
+    public boolean isTerminator() {
+        return false;
+    }
+
+    /**
+     * @return true if the instruction has an effect besides defining its
+     *         destination (input, output, execution error), so that it cannot
+     *         be removed even if its destination is not used
+     */
+    public boolean hasSideEffects() {
+        return false;
+    }
+
+    /**
+     * Evaluate the instruction at compile time.
+     *
+     * @param srcs the constant values of the sources
+     * @return the constant value of the destination, or null if it is not
+     *         known at compile time
+     * @see ConstantFolder
+     */
+    public Operand fold(Operand[] srcs) {
+        return null;
+    }
+
+    /**
+     * @return true if {@link ARMSelector} can translate the instruction
+     */
+    public boolean isSupportedByARM() {
+        return true;
+    }
+
+    /**
+     * Generate the IMA code of the instruction.
+     */
+    protected abstract void codeGenIMA(IMASelector selector);
+
+    /**
+     * Generate the ARM code of the instruction.
+     */
+    protected abstract void codeGenARM(ARMSelector selector);
+
+    /**
+     * @return the instruction without its destination, e.g. "add %1, 2"
+     */
+    protected abstract String describe();
+
+    @Override
+    public String toString() {
+        return dst == null ? describe() : dst + " = " + describe();
+    }
+}
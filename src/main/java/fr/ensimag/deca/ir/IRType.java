@@ -0,0 +1,29 @@
+package fr.ensimag.deca.ir;
+
+import fr.ensimag.deca.context.Type;
+
+/**
+ * Types of the values of the IR. Booleans are the ints 0 and 1.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public enum IRType {
+    INT, FLOAT, BOOLEAN;
+
+    /**
+     * @return the IR type of a Deca type
+     * @throws UnsupportedLoweringException if the type is not int, float or
+     *                                      boolean
+     */
+    public static IRType of(Type type) {
+        if (type.isInt()) {
+            return INT;
+        } else if (type.isFloat()) {
+            return FLOAT;
+        } else if (type.isBoolean()) {
+            return BOOLEAN;
+        }
+        throw new UnsupportedLoweringException("values of type " + type);
+    }
+}
@@ -0,0 +1,53 @@
+package fr.ensimag.deca.ir;
+
+/**
+ * Constant int or boolean (0 or 1) operand.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class IntConstant extends Operand {
+    public static final IntConstant FALSE = new IntConstant(0, IRType.BOOLEAN);
+    public static final IntConstant TRUE = new IntConstant(1, IRType.BOOLEAN);
+
+    private final int value;
+    private final IRType type;
+
+    public IntConstant(int value) {
+        this(value, IRType.INT);
+    }
+
+    private IntConstant(int value, IRType type) {
+        this.value = value;
+        this.type = type;
+    }
+
+    public static IntConstant of(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    @Override
+    public IRType getType() {
+        return type;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof IntConstant && ((IntConstant) other).value == value
+                && ((IntConstant) other).type == type;
+    }
+
+    @Override
+    public int hashCode() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return type == IRType.BOOLEAN ? Boolean.toString(value != 0) : Integer.toString(value);
+    }
+}
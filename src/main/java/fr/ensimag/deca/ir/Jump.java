@@ -0,0 +1,49 @@
+package fr.ensimag.deca.ir;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * goto target
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class Jump extends Terminator {
+    private BasicBlock target;
+
+    public Jump(BasicBlock target) {
+        this.target = target;
+    }
+
+    public BasicBlock getTarget() {
+        return target;
+    }
+
+    @Override
+    public List<BasicBlock> getSuccessors() {
+        return Collections.singletonList(target);
+    }
+
+    @Override
+    public void replaceSuccessor(BasicBlock old, BasicBlock replacement) {
+        if (target == old) {
+            target = replacement;
+        }
+    }
+
+    @Override
+    protected void codeGenIMA(IMASelector selector) {
+        selector.jump(target);
+    }
+
+    @Override
+    protected void codeGenARM(ARMSelector selector) {
+        selector.jump(target);
+    }
+
+    @Override
+    protected String describe() {
+        return "goto " + target;
+    }
+}
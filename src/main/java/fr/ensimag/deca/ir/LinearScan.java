@@ -0,0 +1,368 @@
+package fr.ensimag.deca.ir;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Register allocation of the virtual registers of a graph by linear scan
+ * (Poletto and Sarkar).
+ *
+ * The instructions are numbered in the order of the layout of the blocks;
+ * with the liveness of the registers at the boundaries of the blocks, each
+ * virtual register gets an interval of positions covering all the points
+ * where it may be live. Before the scan, the copies are coalesced: the source
+ * and the destination of a copy share their interval, and then their register,
+ * when their intervals only meet at the copy, or when the source is a
+ * temporary computed by the previous instruction for the copy alone (x = t
+ * after t = x + 1). The intervals are then scanned by increasing start, each
+ * one taking a free register; when there is none, the interval with the
+ * lowest spill cost (its uses and definitions, weighted by ten for each loop
+ * around them, divided by its length) among the active ones and the new one
+ * is spilled to a stack slot.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class LinearScan {
+    /** weight of an access for each loop around it */
+    private static final double LOOP_WEIGHT = 10;
+    /** loop depth above which the accesses all have the same weight */
+    private static final int MAX_LOOP_DEPTH = 6;
+
+    private final ControlFlowGraph cfg;
+    private final int nbRegisters;
+
+    /** union-find of the coalesced registers, by id */
+    private final int[] representative;
+    /** number of registers coalesced in each group, by representative */
+    private final int[] size;
+    private final int[] start;
+    private final int[] end;
+    private final double[] cost;
+    private final int[] assigned;
+    private int coalesced = 0;
+    private int spilled = 0;
+
+    /**
+     * @param nbRegisters number of physical registers available
+     */
+    public LinearScan(ControlFlowGraph cfg, int nbRegisters) {
+        this.cfg = cfg;
+        this.nbRegisters = nbRegisters;
+        int n = cfg.getRegisters().size();
+        this.representative = new int[n];
+        this.size = new int[n];
+        this.start = new int[n];
+        this.end = new int[n];
+        this.cost = new double[n];
+        this.assigned = new int[n];
+        for (int i = 0; i < n; i++) {
+            representative[i] = i;
+            size[i] = 1;
+            start[i] = Integer.MAX_VALUE;
+            end[i] = -1;
+            assigned[i] = -1;
+        }
+    }
+
+    /**
+     * Allocate the registers.
+     */
+    public void run() {
+        buildIntervals();
+        coalesce();
+        scan();
+    }
+
+    /**
+     * @return the number of the physical register of register (from 0), or -1
+     *         if it lives in memory
+     */
+    public int getRegister(VirtualRegister register) {
+        return assigned[find(register.getId())];
+    }
+
+    /**
+     * @return the register whose stack slot register shares when spilled
+     */
+    public VirtualRegister getRepresentative(VirtualRegister register) {
+        return cfg.getRegisters().get(find(register.getId()));
+    }
+
+    /**
+     * @return the number of copies whose registers have been coalesced
+     */
+    public int getCoalescedCount() {
+        return coalesced;
+    }
+
+    /**
+     * @return the number of intervals spilled to memory
+     */
+    public int getSpilledCount() {
+        return spilled;
+    }
+
+    private int find(int id) {
+        while (representative[id] != id) {
+            representative[id] = representative[representative[id]];
+            id = representative[id];
+        }
+        return id;
+    }
+
+    private void extend(int id, int position) {
+        start[id] = Math.min(start[id], position);
+        end[id] = Math.max(end[id], position);
+    }
+
+    /**
+     * Compute the intervals (an instruction numbered n reads its sources at
+     * 2n and writes its destination at 2n + 1) and the spill costs.
+     */
+    private void buildIntervals() {
+        List<BasicBlock> blocks = cfg.getBlocks();
+        int nbIds = cfg.getBlockIdBound();
+        int nbRegs = cfg.getRegisters().size();
+        BitSet[] uses = new BitSet[nbIds];
+        BitSet[] defs = new BitSet[nbIds];
+        BitSet[] liveIn = new BitSet[nbIds];
+        BitSet[] liveOut = new BitSet[nbIds];
+        for (BasicBlock block : blocks) {
+            BitSet use = new BitSet(nbRegs);
+            BitSet def = new BitSet(nbRegs);
+            for (IRInstruction instruction : block.getInstructions()) {
+                for (int i = 0; i < instruction.getSrcCount(); i++) {
+                    Operand src = instruction.getSrc(i);
+                    if (src instanceof VirtualRegister && !def.get(((VirtualRegister) src).getId())) {
+                        use.set(((VirtualRegister) src).getId());
+                    }
+                }
+                if (instruction.getDst() != null) {
+                    def.set(instruction.getDst().getId());
+                }
+            }
+            uses[block.getId()] = use;
+            defs[block.getId()] = def;
+            liveIn[block.getId()] = new BitSet(nbRegs);
+            liveOut[block.getId()] = new BitSet(nbRegs);
+        }
+
+        // liveness, backwards until nothing changes
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int b = blocks.size() - 1; b >= 0; b--) {
+                BasicBlock block = blocks.get(b);
+                BitSet out = liveOut[block.getId()];
+                for (BasicBlock successor : block.getSuccessors()) {
+                    out.or(liveIn[successor.getId()]);
+                }
+                BitSet in = (BitSet) out.clone();
+                in.andNot(defs[block.getId()]);
+                in.or(uses[block.getId()]);
+                if (!in.equals(liveIn[block.getId()])) {
+                    liveIn[block.getId()] = in;
+                    changed = true;
+                }
+            }
+        }
+
+        int[] depth = loopDepths();
+        int n = 0;
+        for (BasicBlock block : blocks) {
+            int first = 2 * n;
+            double weight = Math.pow(LOOP_WEIGHT, Math.min(depth[block.getId()], MAX_LOOP_DEPTH));
+            BitSet in = liveIn[block.getId()];
+            for (int id = in.nextSetBit(0); id >= 0; id = in.nextSetBit(id + 1)) {
+                extend(id, first);
+            }
+            for (IRInstruction instruction : block.getInstructions()) {
+                for (int i = 0; i < instruction.getSrcCount(); i++) {
+                    Operand src = instruction.getSrc(i);
+                    if (src instanceof VirtualRegister) {
+                        extend(((VirtualRegister) src).getId(), 2 * n);
+                        cost[((VirtualRegister) src).getId()] += weight;
+                    }
+                }
+                if (instruction.getDst() != null) {
+                    extend(instruction.getDst().getId(), 2 * n + 1);
+                    cost[instruction.getDst().getId()] += weight;
+                }
+                n++;
+            }
+            BitSet out = liveOut[block.getId()];
+            for (int id = out.nextSetBit(0); id >= 0; id = out.nextSetBit(id + 1)) {
+                extend(id, 2 * n - 1);
+            }
+        }
+    }
+
+    /**
+     * @return the number of natural loops around each block, by block id
+     */
+    private int[] loopDepths() {
+        DominatorTree dominators = new DominatorTree(cfg);
+        int[] depth = new int[cfg.getBlockIdBound()];
+        BitSet inLoop = new BitSet(cfg.getBlockIdBound());
+        Deque<BasicBlock> work = new ArrayDeque<BasicBlock>();
+        for (BasicBlock header : cfg.getBlocks()) {
+            if (!dominators.isReachable(header)) {
+                continue;
+            }
+            // the blocks reaching a back edge to header without going through it
+            inLoop.clear();
+            inLoop.set(header.getId());
+            for (BasicBlock latch : header.getPredecessors()) {
+                if (dominators.isReachable(latch) && dominators.dominates(header, latch)
+                        && !inLoop.get(latch.getId())) {
+                    inLoop.set(latch.getId());
+                    work.push(latch);
+                }
+            }
+            if (work.isEmpty()) {
+                continue;
+            }
+            while (!work.isEmpty()) {
+                for (BasicBlock predecessor : work.pop().getPredecessors()) {
+                    if (!inLoop.get(predecessor.getId())) {
+                        inLoop.set(predecessor.getId());
+                        work.push(predecessor);
+                    }
+                }
+            }
+            for (int id = inLoop.nextSetBit(0); id >= 0; id = inLoop.nextSetBit(id + 1)) {
+                depth[id]++;
+            }
+        }
+        return depth;
+    }
+
+    /**
+     * Coalesce the source and the destination of the copies, the most costly
+     * first.
+     */
+    private void coalesce() {
+        List<Copy> copies = new ArrayList<Copy>();
+        List<Integer> positions = new ArrayList<Integer>();
+        List<Boolean> fromPrevious = new ArrayList<Boolean>();
+        int n = 0;
+        for (BasicBlock block : cfg.getBlocks()) {
+            IRInstruction previous = null;
+            for (IRInstruction instruction : block.getInstructions()) {
+                if (instruction instanceof Copy && instruction.getSrc(0) instanceof VirtualRegister) {
+                    copies.add((Copy) instruction);
+                    positions.add(2 * n);
+                    fromPrevious.add(previous != null && previous.getDst() == instruction.getSrc(0));
+                }
+                previous = instruction;
+                n++;
+            }
+        }
+        Integer[] order = new Integer[copies.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble(
+                i -> -cost[copies.get(i).getDst().getId()] - cost[((VirtualRegister) copies.get(i).getSrc(0)).getId()]));
+        int[] useCount = useCounts();
+        for (int i : order) {
+            Copy copy = copies.get(i);
+            int src = find(((VirtualRegister) copy.getSrc(0)).getId());
+            int dst = find(copy.getDst().getId());
+            if (src == dst) {
+                continue;
+            }
+            int position = positions.get(i);
+            boolean disjoint = end[src] <= position && start[dst] >= position + 1
+                    || end[dst] < start[src] || end[src] < start[dst];
+            // t = x + 1; x = t: t is only live between the two instructions,
+            // where the previous value of x is not read anymore (x must not be
+            // coalesced yet, another register of its group could be live there)
+            int temp = ((VirtualRegister) copy.getSrc(0)).getId();
+            boolean temporary = fromPrevious.get(i) && src == temp && size[src] == 1 && size[dst] == 1
+                    && useCount[temp] == 1 && start[src] == position - 1 && end[src] == position;
+            if (disjoint || temporary) {
+                representative[src] = dst;
+                start[dst] = Math.min(start[dst], start[src]);
+                end[dst] = Math.max(end[dst], end[src]);
+                cost[dst] += cost[src];
+                size[dst] += size[src];
+                coalesced++;
+            }
+        }
+    }
+
+    /**
+     * @return the number of instructions reading each register, by id
+     */
+    private int[] useCounts() {
+        int[] count = new int[cfg.getRegisters().size()];
+        for (BasicBlock block : cfg.getBlocks()) {
+            for (IRInstruction instruction : block.getInstructions()) {
+                for (int i = 0; i < instruction.getSrcCount(); i++) {
+                    if (instruction.getSrc(i) instanceof VirtualRegister) {
+                        count[((VirtualRegister) instruction.getSrc(i)).getId()]++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private double spillWeight(int id) {
+        return cost[id] / (end[id] - start[id] + 1);
+    }
+
+    private void scan() {
+        List<Integer> intervals = new ArrayList<Integer>();
+        for (int id = 0; id < representative.length; id++) {
+            if (find(id) == id && end[id] >= 0) {
+                intervals.add(id);
+            }
+        }
+        Collections.sort(intervals, Comparator.comparingInt((Integer id) -> start[id]).thenComparingInt(id -> id));
+        // active intervals, by increasing end
+        List<Integer> active = new ArrayList<Integer>();
+        boolean[] free = new boolean[nbRegisters];
+        Arrays.fill(free, true);
+        for (int id : intervals) {
+            while (!active.isEmpty() && end[active.get(0)] < start[id]) {
+                free[assigned[active.remove(0)]] = true;
+            }
+            int register = 0;
+            while (register < nbRegisters && !free[register]) {
+                register++;
+            }
+            if (register == nbRegisters) {
+                // spill the cheapest of the active intervals and this one
+                int victim = id;
+                for (int other : active) {
+                    if (spillWeight(other) < spillWeight(victim)) {
+                        victim = other;
+                    }
+                }
+                spilled++;
+                if (victim == id) {
+                    continue;
+                }
+                register = assigned[victim];
+                assigned[victim] = -1;
+                active.remove((Integer) victim);
+            }
+            assigned[id] = register;
+            free[register] = false;
+            int index = 0;
+            while (index < active.size() && end[active.get(index)] <= end[id]) {
+                index++;
+            }
+            active.add(index, id);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package fr.ensimag.deca.ir;
+
+import fr.ensimag.ima.pseudocode.GPRegister;
+import fr.ensimag.ima.pseudocode.Register;
+import fr.ensimag.ima.pseudocode.RegisterOffset;
+import fr.ensimag.ima.pseudocode.instructions.LOAD;
+
+/**
+ * dst = value of a parameter of the method, on the stack of the caller.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class LoadParam extends IRInstruction {
+    private final int index;
+
+    /**
+     * @param index index of the parameter, as in ParamDefinition
+     */
+    public LoadParam(VirtualRegister dst, int index) {
+        super(dst);
+        this.index = index;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    @Override
+    public boolean isSupportedByARM() {
+        return false;
+    }
+
+    @Override
+    protected void codeGenIMA(IMASelector selector) {
+        GPRegister target = selector.target(getDst());
+        selector.getCompiler().addInstruction(new LOAD(new RegisterOffset(-2 - index, Register.LB), target));
+        selector.store(target, getDst());
+    }
+
+    @Override
+    protected void codeGenARM(ARMSelector selector) {
+        throw new UnsupportedLoweringException("methods on ARM");
+    }
+
+    @Override
+    protected String describe() {
+        return "param " + index;
+    }
+}
@@ -0,0 +1,11 @@
+package fr.ensimag.deca.ir;
+
+/**
+ * Operand of an IR instruction: a virtual register or a constant.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public abstract class Operand {
+    public abstract IRType getType();
+}
@@ -0,0 +1,26 @@
+package fr.ensimag.deca.ir;
+
+import fr.ensimag.deca.CompilerOptions;
+
+/**
+ * Optimizations of the control-flow graphs, run between the lowering and the
+ * instruction selection according to the optimization level (-O).
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public final class Optimizer {
+    private Optimizer() {
+    }
+
+    /**
+     * Optimize the graph of a body, in place.
+     */
+    public static void optimize(ControlFlowGraph cfg, CompilerOptions options) {
+        if (options.getOptimizationLevel() >= 2) {
+            if (ConstantPropagation.run(cfg)) {
+                cfg.mergeBlocks();
+            }
+        }
+    }
+}
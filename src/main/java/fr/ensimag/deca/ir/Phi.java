@@ -0,0 +1,61 @@
+package fr.ensimag.deca.ir;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Phi-function at the beginning of a block: its value is the argument
+ * corresponding to the predecessor the execution comes from.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class Phi {
+    private final BasicBlock block;
+    private final VirtualRegister register;
+    private final SSAValue[] arguments;
+    private SSAValue result;
+
+    Phi(BasicBlock block, VirtualRegister register) {
+        this.block = block;
+        this.register = register;
+        this.arguments = new SSAValue[block.getPredecessors().size()];
+    }
+
+    public BasicBlock getBlock() {
+        return block;
+    }
+
+    public VirtualRegister getRegister() {
+        return register;
+    }
+
+    public SSAValue getResult() {
+        return result;
+    }
+
+    void setResult(SSAValue result) {
+        this.result = result;
+    }
+
+    /**
+     * @return the arguments, in the order of the predecessors of the block
+     */
+    public List<SSAValue> getArguments() {
+        return Collections.unmodifiableList(Arrays.asList(arguments));
+    }
+
+    SSAValue getArgument(int i) {
+        return arguments[i];
+    }
+
+    void setArgument(int i, SSAValue argument) {
+        arguments[i] = argument;
+    }
+
+    @Override
+    public String toString() {
+        return result + " = phi" + Arrays.toString(arguments);
+    }
+}
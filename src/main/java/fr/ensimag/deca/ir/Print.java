@@ -0,0 +1,75 @@
+package fr.ensimag.deca.ir;
+
+import fr.ensimag.arm.pseudocode.ARMLabel;
+import fr.ensimag.arm.pseudocode.ARMLiteral;
+import fr.ensimag.arm.pseudocode.ARMRegister;
+import fr.ensimag.arm.pseudocode.instructions.ARM_BL;
+import fr.ensimag.arm.pseudocode.instructions.ARM_LDR;
+import fr.ensimag.arm.pseudocode.instructions.ARM_TVMOV;
+import fr.ensimag.arm.pseudocode.instructions.ARM_VCVTF64F32;
+import fr.ensimag.arm.pseudocode.instructions.ARM_VMOV;
+import fr.ensimag.deca.DecacCompiler;
+import fr.ensimag.ima.pseudocode.Register;
+import fr.ensimag.ima.pseudocode.instructions.WFLOAT;
+import fr.ensimag.ima.pseudocode.instructions.WFLOATX;
+import fr.ensimag.ima.pseudocode.instructions.WINT;
+
+/**
+ * print(value), value being an int or a float.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class Print extends IRInstruction {
+    private final boolean hex;
+
+    /**
+     * @param hex true to print a float in hexadecimal (printx)
+     */
+    public Print(Operand value, boolean hex) {
+        super(null, value);
+        this.hex = hex;
+    }
+
+    @Override
+    public boolean hasSideEffects() {
+        return true;
+    }
+
+    @Override
+    protected void codeGenIMA(IMASelector selector) {
+        DecacCompiler compiler = selector.getCompiler();
+        selector.load(getSrc(0), Register.R1);
+        if (getSrc(0).getType() != IRType.FLOAT) {
+            compiler.addInstruction(new WINT());
+        } else if (hex) {
+            compiler.addInstruction(new WFLOATX());
+        } else {
+            compiler.addInstruction(new WFLOAT());
+        }
+    }
+
+    @Override
+    protected void codeGenARM(ARMSelector selector) {
+        DecacCompiler compiler = selector.getCompiler();
+        if (getSrc(0).getType() != IRType.FLOAT) {
+            compiler.getARMDataSection().setIntPrint();
+            selector.load(getSrc(0), ARMRegister.R1);
+            compiler.addARMInstruction(new ARM_LDR(ARMRegister.R0, new ARMLiteral("int_format")));
+        } else {
+            // printf takes a double, in R2 and R3
+            compiler.getARMDataSection().setFloatPrint();
+            selector.load(getSrc(0), ARMRegister.R3);
+            compiler.addARMInstruction(new ARM_VMOV(ARMRegister.S31, ARMRegister.R3));
+            compiler.addARMInstruction(new ARM_VCVTF64F32(ARMRegister.D15, ARMRegister.S31));
+            compiler.addARMInstruction(new ARM_TVMOV(ARMRegister.R2, ARMRegister.R3, ARMRegister.D15));
+            compiler.addARMInstruction(new ARM_LDR(ARMRegister.R0, new ARMLiteral("float_format")));
+        }
+        compiler.addARMInstruction(new ARM_BL(new ARMLabel("printf")));
+    }
+
+    @Override
+    protected String describe() {
+        return (hex ? "printx " : "print ") + getSrc(0);
+    }
+}
@@ -0,0 +1,35 @@
+package fr.ensimag.deca.ir;
+
+import fr.ensimag.ima.pseudocode.instructions.WNL;
+
+/**
+ * End of a println.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class PrintNewline extends IRInstruction {
+    public PrintNewline() {
+        super(null);
+    }
+
+    @Override
+    public boolean hasSideEffects() {
+        return true;
+    }
+
+    @Override
+    protected void codeGenIMA(IMASelector selector) {
+        selector.getCompiler().addInstruction(new WNL());
+    }
+
+    @Override
+    protected void codeGenARM(ARMSelector selector) {
+        // the formats of the ARM backend already end with a newline
+    }
+
+    @Override
+    protected String describe() {
+        return "println";
+    }
+}
@@ -0,0 +1,50 @@
+package fr.ensimag.deca.ir;
+
+import fr.ensimag.arm.pseudocode.ARMLabel;
+import fr.ensimag.arm.pseudocode.ARMLiteral;
+import fr.ensimag.arm.pseudocode.ARMRegister;
+import fr.ensimag.arm.pseudocode.instructions.ARM_BL;
+import fr.ensimag.arm.pseudocode.instructions.ARM_LDR;
+import fr.ensimag.deca.DecacCompiler;
+import fr.ensimag.ima.pseudocode.ImmediateString;
+import fr.ensimag.ima.pseudocode.instructions.WSTR;
+
+/**
+ * print("text")
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class PrintString extends IRInstruction {
+    private final String text;
+
+    public PrintString(String text) {
+        super(null);
+        this.text = text;
+    }
+
+    @Override
+    public boolean hasSideEffects() {
+        return true;
+    }
+
+    @Override
+    protected void codeGenIMA(IMASelector selector) {
+        selector.getCompiler().addInstruction(new WSTR(new ImmediateString(text)));
+    }
+
+    @Override
+    protected void codeGenARM(ARMSelector selector) {
+        DecacCompiler compiler = selector.getCompiler();
+        compiler.getARMDataSection().setStringPrint();
+        String entry = compiler.getARMDataSection().createStringDataEntry(text);
+        compiler.addARMInstruction(new ARM_LDR(ARMRegister.R0, new ARMLiteral("string_format")));
+        compiler.addARMInstruction(new ARM_LDR(ARMRegister.R1, new ARMLiteral(entry)));
+        compiler.addARMInstruction(new ARM_BL(new ARMLabel("printf")));
+    }
+
+    @Override
+    protected String describe() {
+        return "print \"" + text + "\"";
+    }
+}
@@ -0,0 +1,53 @@
+package fr.ensimag.deca.ir;
+
+import fr.ensimag.deca.DecacCompiler;
+import fr.ensimag.ima.pseudocode.Label;
+import fr.ensimag.ima.pseudocode.Register;
+import fr.ensimag.ima.pseudocode.instructions.BOV;
+import fr.ensimag.ima.pseudocode.instructions.RFLOAT;
+import fr.ensimag.ima.pseudocode.instructions.RINT;
+
+/**
+ * dst = readInt() or readFloat(), depending on the type of dst.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class Read extends IRInstruction {
+    public Read(VirtualRegister dst) {
+        super(dst);
+    }
+
+    @Override
+    public boolean hasSideEffects() {
+        return true;
+    }
+
+    @Override
+    public boolean isSupportedByARM() {
+        return false;
+    }
+
+    @Override
+    protected void codeGenIMA(IMASelector selector) {
+        DecacCompiler compiler = selector.getCompiler();
+        if (getDst().getType() == IRType.FLOAT) {
+            compiler.addInstruction(new RFLOAT());
+        } else {
+            compiler.addInstruction(new RINT());
+        }
+        compiler.setPossibleIOError();
+        compiler.addInstruction(new BOV(new Label("IO_error")));
+        selector.store(Register.R1, getDst());
+    }
+
+    @Override
+    protected void codeGenARM(ARMSelector selector) {
+        throw new UnsupportedLoweringException("read on ARM");
+    }
+
+    @Override
+    protected String describe() {
+        return getDst().getType() == IRType.FLOAT ? "readFloat" : "readInt";
+    }
+}
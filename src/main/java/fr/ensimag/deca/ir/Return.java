@@ -0,0 +1,50 @@
+package fr.ensimag.deca.ir;
+
+import java.util.Collections;
+import java.util.List;
+
+import fr.ensimag.ima.pseudocode.Register;
+import fr.ensimag.ima.pseudocode.instructions.BRA;
+
+/**
+ * return value, in a method.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class Return extends Terminator {
+    public Return(Operand value) {
+        super(value);
+    }
+
+    @Override
+    public List<BasicBlock> getSuccessors() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public void replaceSuccessor(BasicBlock old, BasicBlock replacement) {
+        // no successor
+    }
+
+    @Override
+    public boolean isSupportedByARM() {
+        return false;
+    }
+
+    @Override
+    protected void codeGenIMA(IMASelector selector) {
+        selector.load(getSrc(0), Register.R0);
+        selector.getCompiler().addInstruction(new BRA(selector.getReturnLabel()));
+    }
+
+    @Override
+    protected void codeGenARM(ARMSelector selector) {
+        throw new UnsupportedLoweringException("methods on ARM");
+    }
+
+    @Override
+    protected String describe() {
+        return "return " + getSrc(0);
+    }
+}
@@ -0,0 +1,245 @@
+package fr.ensimag.deca.ir;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Static single assignment form of a control-flow graph, built beside the
+ * graph: the instructions are not rewritten, but each definition of a virtual
+ * register gives a new {@link SSAValue}, each use is linked to the value it
+ * reads, and phi-functions merge the values at the join points.
+ *
+ * The phi-functions are placed at the iterated dominance frontiers of the
+ * definitions (Cytron et al.), only for the registers read in another block
+ * than the one defining them ("semi-pruned" form); the values are then named
+ * by a walk of the dominator tree. Only the blocks reachable from the entry
+ * block are considered.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class SSAForm {
+    private final ControlFlowGraph cfg;
+    private final DominatorTree dominators;
+    private final List<SSAValue> values = new ArrayList<SSAValue>();
+    private final List<List<Phi>> phis;
+    private final SSAValue[] entryValues;
+    private final Map<IRInstruction, SSAValue[]> uses = new IdentityHashMap<IRInstruction, SSAValue[]>();
+    private final Map<IRInstruction, SSAValue> definitions = new IdentityHashMap<IRInstruction, SSAValue>();
+    private final Map<IRInstruction, BasicBlock> blocks = new IdentityHashMap<IRInstruction, BasicBlock>();
+
+    public SSAForm(ControlFlowGraph cfg) {
+        this.cfg = cfg;
+        this.dominators = new DominatorTree(cfg);
+        this.phis = new ArrayList<List<Phi>>(cfg.getBlockIdBound());
+        for (int i = 0; i < cfg.getBlockIdBound(); i++) {
+            phis.add(new ArrayList<Phi>());
+        }
+        this.entryValues = new SSAValue[cfg.getRegisters().size()];
+        placePhis();
+        rename();
+    }
+
+    private void placePhis() {
+        int nbRegisters = cfg.getRegisters().size();
+        boolean[] global = new boolean[nbRegisters];
+        List<List<BasicBlock>> definingBlocks = new ArrayList<List<BasicBlock>>(nbRegisters);
+        for (int i = 0; i < nbRegisters; i++) {
+            definingBlocks.add(new ArrayList<BasicBlock>());
+        }
+        // definedIn[r] == id + 1 if r is defined in the block id
+        int[] definedIn = new int[nbRegisters];
+        for (BasicBlock block : dominators.getOrder()) {
+            for (IRInstruction instruction : block.getInstructions()) {
+                for (int i = 0; i < instruction.getSrcCount(); i++) {
+                    Operand src = instruction.getSrc(i);
+                    if (src instanceof VirtualRegister && definedIn[((VirtualRegister) src).getId()] != block.getId() + 1) {
+                        global[((VirtualRegister) src).getId()] = true;
+                    }
+                }
+                VirtualRegister dst = instruction.getDst();
+                if (dst != null && definedIn[dst.getId()] != block.getId() + 1) {
+                    definedIn[dst.getId()] = block.getId() + 1;
+                    definingBlocks.get(dst.getId()).add(block);
+                }
+            }
+        }
+
+        // hasPhi[b] == r + 1 if the block b has a phi-function for r,
+        // queued[b] == r + 1 if b has been added to the work list for r
+        int[] hasPhi = new int[cfg.getBlockIdBound()];
+        int[] queued = new int[cfg.getBlockIdBound()];
+        Deque<BasicBlock> work = new ArrayDeque<BasicBlock>();
+        for (VirtualRegister register : cfg.getRegisters()) {
+            int mark = register.getId() + 1;
+            if (!global[register.getId()]) {
+                continue;
+            }
+            for (BasicBlock block : definingBlocks.get(register.getId())) {
+                queued[block.getId()] = mark;
+                work.push(block);
+            }
+            while (!work.isEmpty()) {
+                for (BasicBlock frontier : dominators.getFrontier(work.pop())) {
+                    if (hasPhi[frontier.getId()] != mark) {
+                        hasPhi[frontier.getId()] = mark;
+                        phis.get(frontier.getId()).add(new Phi(frontier, register));
+                        if (queued[frontier.getId()] != mark) {
+                            queued[frontier.getId()] = mark;
+                            work.push(frontier);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private SSAValue newValue(VirtualRegister register, IRInstruction definition, Phi phi) {
+        SSAValue value = new SSAValue(values.size(), register, definition, phi);
+        values.add(value);
+        return value;
+    }
+
+    private SSAValue current(List<List<SSAValue>> stacks, VirtualRegister register) {
+        List<SSAValue> stack = stacks.get(register.getId());
+        if (!stack.isEmpty()) {
+            return stack.get(stack.size() - 1);
+        }
+        return getEntryValue(register);
+    }
+
+    /**
+     * Name the values by a depth-first walk of the dominator tree, with an
+     * explicit stack of blocks: a block is pushed a second time to pop its
+     * definitions once its subtree is done.
+     */
+    private void rename() {
+        List<List<SSAValue>> stacks = new ArrayList<List<SSAValue>>(cfg.getRegisters().size());
+        for (int i = 0; i < cfg.getRegisters().size(); i++) {
+            stacks.add(new ArrayList<SSAValue>());
+        }
+        Deque<BasicBlock> work = new ArrayDeque<BasicBlock>();
+        Deque<Boolean> leaving = new ArrayDeque<Boolean>();
+        Deque<List<VirtualRegister>> defined = new ArrayDeque<List<VirtualRegister>>();
+        work.push(cfg.getEntry());
+        leaving.push(false);
+        while (!work.isEmpty()) {
+            BasicBlock block = work.pop();
+            if (leaving.pop()) {
+                for (VirtualRegister register : defined.pop()) {
+                    List<SSAValue> stack = stacks.get(register.getId());
+                    stack.remove(stack.size() - 1);
+                }
+                continue;
+            }
+            List<VirtualRegister> definedHere = new ArrayList<VirtualRegister>();
+            for (Phi phi : phis.get(block.getId())) {
+                phi.setResult(newValue(phi.getRegister(), null, phi));
+                stacks.get(phi.getRegister().getId()).add(phi.getResult());
+                definedHere.add(phi.getRegister());
+            }
+            for (IRInstruction instruction : block.getInstructions()) {
+                blocks.put(instruction, block);
+                SSAValue[] used = new SSAValue[instruction.getSrcCount()];
+                for (int i = 0; i < used.length; i++) {
+                    Operand src = instruction.getSrc(i);
+                    if (src instanceof VirtualRegister) {
+                        used[i] = current(stacks, (VirtualRegister) src);
+                        used[i].users.add(instruction);
+                    }
+                }
+                uses.put(instruction, used);
+                VirtualRegister dst = instruction.getDst();
+                if (dst != null) {
+                    SSAValue value = newValue(dst, instruction, null);
+                    definitions.put(instruction, value);
+                    stacks.get(dst.getId()).add(value);
+                    definedHere.add(dst);
+                }
+            }
+            for (BasicBlock successor : block.getSuccessors()) {
+                List<BasicBlock> predecessors = successor.getPredecessors();
+                for (int j = 0; j < predecessors.size(); j++) {
+                    if (predecessors.get(j) != block) {
+                        continue;
+                    }
+                    for (Phi phi : phis.get(successor.getId())) {
+                        if (phi.getArgument(j) == null) {
+                            SSAValue argument = current(stacks, phi.getRegister());
+                            phi.setArgument(j, argument);
+                            argument.phiUsers.add(phi);
+                        }
+                    }
+                }
+            }
+            defined.push(definedHere);
+            work.push(block);
+            leaving.push(true);
+            for (BasicBlock child : dominators.getChildren(block)) {
+                work.push(child);
+                leaving.push(false);
+            }
+        }
+    }
+
+    public ControlFlowGraph getGraph() {
+        return cfg;
+    }
+
+    public DominatorTree getDominatorTree() {
+        return dominators;
+    }
+
+    /**
+     * @return all the values, indexed by their id
+     */
+    public List<SSAValue> getValues() {
+        return Collections.unmodifiableList(values);
+    }
+
+    /**
+     * @return the phi-functions at the beginning of block
+     */
+    public List<Phi> getPhis(BasicBlock block) {
+        return Collections.unmodifiableList(phis.get(block.getId()));
+    }
+
+    /**
+     * @return the value of register on entry of the body
+     */
+    public SSAValue getEntryValue(VirtualRegister register) {
+        SSAValue value = entryValues[register.getId()];
+        if (value == null) {
+            value = newValue(register, null, null);
+            entryValues[register.getId()] = value;
+        }
+        return value;
+    }
+
+    /**
+     * @return the value read by the source i of a reachable instruction, or
+     *         null if this source is a constant
+     */
+    public SSAValue getUse(IRInstruction instruction, int i) {
+        return uses.get(instruction)[i];
+    }
+
+    /**
+     * @return the value defined by a reachable instruction, or null
+     */
+    public SSAValue getDefinition(IRInstruction instruction) {
+        return definitions.get(instruction);
+    }
+
+    /**
+     * @return the block of a reachable instruction
+     */
+    public BasicBlock getBlock(IRInstruction instruction) {
+        return blocks.get(instruction);
+    }
+}
@@ -0,0 +1,74 @@
+package fr.ensimag.deca.ir;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Value of a virtual register in SSA form (see {@link SSAForm}): defined by
+ * an instruction, by a phi-function, or on entry of the body (the value of an
+ * uninitialized variable).
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class SSAValue {
+    private final int id;
+    private final VirtualRegister register;
+    private final IRInstruction definition;
+    private final Phi phi;
+    final List<IRInstruction> users = new ArrayList<IRInstruction>();
+    final List<Phi> phiUsers = new ArrayList<Phi>();
+
+    SSAValue(int id, VirtualRegister register, IRInstruction definition, Phi phi) {
+        this.id = id;
+        this.register = register;
+        this.definition = definition;
+        this.phi = phi;
+    }
+
+    /**
+     * @return the id of the value, unique in its SSA form
+     */
+    public int getId() {
+        return id;
+    }
+
+    public VirtualRegister getRegister() {
+        return register;
+    }
+
+    /**
+     * @return the instruction defining the value, or null
+     */
+    public IRInstruction getDefinition() {
+        return definition;
+    }
+
+    /**
+     * @return the phi-function defining the value, or null
+     */
+    public Phi getPhi() {
+        return phi;
+    }
+
+    /**
+     * @return the instructions using the value (an instruction appears once
+     *         per use)
+     */
+    public List<IRInstruction> getUsers() {
+        return Collections.unmodifiableList(users);
+    }
+
+    /**
+     * @return the phi-functions using the value
+     */
+    public List<Phi> getPhiUsers() {
+        return Collections.unmodifiableList(phiUsers);
+    }
+
+    @Override
+    public String toString() {
+        return register + "_" + id;
+    }
+}
@@ -0,0 +1,30 @@
+package fr.ensimag.deca.ir;
+
+import java.util.List;
+
+/**
+ * Last instruction of a basic block, which tells where the execution goes on.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public abstract class Terminator extends IRInstruction {
+    protected Terminator(Operand... srcs) {
+        super(null, srcs);
+    }
+
+    @Override
+    public boolean isTerminator() {
+        return true;
+    }
+
+    /**
+     * @return the blocks the execution can go on with
+     */
+    public abstract List<BasicBlock> getSuccessors();
+
+    /**
+     * Make the terminator go to replacement instead of target.
+     */
+    public abstract void replaceSuccessor(BasicBlock target, BasicBlock replacement);
+}
@@ -0,0 +1,103 @@
+package fr.ensimag.deca.ir;
+
+import fr.ensimag.arm.pseudocode.ARMImmediateInteger;
+import fr.ensimag.arm.pseudocode.ARMLiteral;
+import fr.ensimag.arm.pseudocode.ARMRegister;
+import fr.ensimag.arm.pseudocode.instructions.ARM_ADD;
+import fr.ensimag.arm.pseudocode.instructions.ARM_LDR;
+import fr.ensimag.arm.pseudocode.instructions.ARM_MOV;
+import fr.ensimag.arm.pseudocode.instructions.ARM_SUB;
+import fr.ensimag.arm.pseudocode.instructions.ARM_VCVTF32S32;
+import fr.ensimag.arm.pseudocode.instructions.ARM_VMOV;
+import fr.ensimag.deca.DecacCompiler;
+import fr.ensimag.ima.pseudocode.GPRegister;
+import fr.ensimag.ima.pseudocode.Register;
+import fr.ensimag.ima.pseudocode.instructions.FLOAT;
+import fr.ensimag.ima.pseudocode.instructions.LOAD;
+import fr.ensimag.ima.pseudocode.instructions.OPP;
+import fr.ensimag.ima.pseudocode.instructions.SUB;
+
+/**
+ * dst = op src
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class UnaryOp extends IRInstruction {
+    private final UnaryOperator operator;
+
+    public UnaryOp(UnaryOperator operator, VirtualRegister dst, Operand src) {
+        super(dst, src);
+        this.operator = operator;
+    }
+
+    public UnaryOperator getOperator() {
+        return operator;
+    }
+
+    @Override
+    public Operand fold(Operand[] srcs) {
+        return ConstantFolder.fold(operator, srcs[0]);
+    }
+
+    @Override
+    protected void codeGenIMA(IMASelector selector) {
+        DecacCompiler compiler = selector.getCompiler();
+        GPRegister target = selector.target(getDst());
+        switch (operator) {
+            case NEG:
+                compiler.addInstruction(new OPP(selector.dval(getSrc(0)), target));
+                break;
+            case NOT:
+                if (selector.dval(getSrc(0)) == target) {
+                    target = Register.R0;
+                }
+                compiler.addInstruction(new LOAD(1, target));
+                compiler.addInstruction(new SUB(selector.dval(getSrc(0)), target));
+                break;
+            case FLOAT:
+                compiler.addInstruction(new FLOAT(selector.dval(getSrc(0)), target));
+                break;
+            default:
+                throw new IllegalStateException(operator.toString());
+        }
+        selector.store(target, getDst());
+    }
+
+    @Override
+    protected void codeGenARM(ARMSelector selector) {
+        DecacCompiler compiler = selector.getCompiler();
+        switch (operator) {
+            case NEG:
+                selector.load(getSrc(0), ARMRegister.R1);
+                if (getSrc(0).getType() == IRType.FLOAT) {
+                    // flip the sign bit
+                    compiler.addARMInstruction(new ARM_LDR(ARMRegister.R0, new ARMLiteral("0x80000000")));
+                    compiler.addARMInstruction(new ARM_ADD(ARMRegister.R0, ARMRegister.R0, ARMRegister.R1));
+                } else {
+                    compiler.addARMInstruction(new ARM_MOV(ARMRegister.R0, new ARMImmediateInteger(0)));
+                    compiler.addARMInstruction(new ARM_SUB(ARMRegister.R0, ARMRegister.R0, ARMRegister.R1));
+                }
+                break;
+            case NOT:
+                selector.load(getSrc(0), ARMRegister.R1);
+                compiler.addARMInstruction(new ARM_MOV(ARMRegister.R0, new ARMImmediateInteger(1)));
+                compiler.addARMInstruction(new ARM_SUB(ARMRegister.R0, ARMRegister.R0, ARMRegister.R1));
+                break;
+            case FLOAT:
+                selector.load(getSrc(0), ARMRegister.R0);
+                compiler.addARMInstruction(new ARM_VMOV(ARMSelector.S0, ARMRegister.R0));
+                compiler.addARMInstruction(new ARM_VCVTF32S32(ARMSelector.S0, ARMSelector.S0));
+                compiler.addARMInstruction(new ARM_VMOV(ARMRegister.R0, ARMSelector.S0));
+                break;
+            default:
+                throw new IllegalStateException(operator.toString());
+        }
+        selector.store(ARMRegister.R0, getDst());
+    }
+
+    @Override
+    protected String describe() {
+        return operator + " " + getSrc(0);
+    }
+}
@@ -0,0 +1,27 @@
+package fr.ensimag.deca.ir;
+
+/**
+ * Operators of {@link UnaryOp}.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public enum UnaryOperator {
+    /** opposite of an int or a float */
+    NEG("neg"),
+    /** negation of a boolean */
+    NOT("not"),
+    /** conversion of an int to a float */
+    FLOAT("float");
+
+    private final String name;
+
+    UnaryOperator(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,16 @@
+package fr.ensimag.deca.ir;
+
+/**
+ * Raised while lowering a body which uses a construction the IR does not
+ * cover. The code of the body is then generated from the tree.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class UnsupportedLoweringException extends RuntimeException {
+    private static final long serialVersionUID = 3154237926402137740L;
+
+    public UnsupportedLoweringException(String construction) {
+        super("not supported by the IR: " + construction);
+    }
+}
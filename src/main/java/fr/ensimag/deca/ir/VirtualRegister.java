@@ -0,0 +1,46 @@
+package fr.ensimag.deca.ir;
+
+/**
+ * Register of the IR. A control-flow graph has as many as it needs: one for
+ * each variable of the body, and one for each intermediate value.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class VirtualRegister extends Operand {
+    private final int id;
+    private final IRType type;
+    private final String name;
+
+    /**
+     * @param id   number of the register in its graph (0, 1, 2...)
+     * @param name name of the variable held by the register, null for an
+     *             intermediate value
+     */
+    VirtualRegister(int id, IRType type, String name) {
+        this.id = id;
+        this.type = type;
+        this.name = name;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public IRType getType() {
+        return type;
+    }
+
+    /**
+     * @return the name of the variable held by the register, or null
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name == null ? "%" + id : "%" + name + "." + id;
+    }
+}
@@ -0,0 +1,20 @@
+/**
+ * Three-address intermediate representation (IR) between the decorated tree
+ * and the IMA and ARM backends, used with the -ir option.
+ *
+ * The bodies of the main program and of the methods are lowered by the tree
+ * (see {@link fr.ensimag.deca.ir.IRBuilder}) into a
+ * {@link fr.ensimag.deca.ir.ControlFlowGraph} of
+ * {@link fr.ensimag.deca.ir.BasicBlock}s, whose instructions work on typed
+ * {@link fr.ensimag.deca.ir.VirtualRegister}s and constants. The instructions
+ * are then translated by {@link fr.ensimag.deca.ir.IMASelector} or
+ * {@link fr.ensimag.deca.ir.ARMSelector}; from -O1, the IMA selector keeps the
+ * virtual registers in the registers allocated by
+ * {@link fr.ensimag.deca.ir.LinearScan}. A body using constructions the IR
+ * does not cover (objects, method calls...) is not lowered, and its code is
+ * generated from the tree as without -ir.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+package fr.ensimag.deca.ir;
@@ -1,9 +1,11 @@
 package fr.ensimag.deca.syntax;
 
 import java.io.File;
-import java.io.InputStreamReader;
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Stack;
 
 import org.antlr.v4.runtime.CharStream;
@@ -149,7 +151,7 @@ public abstract class AbstractDecaLexer extends Lexer {
         Validate.isTrue(args.length <= 1, "0 or 1 argument expected.");
         DecaLexer lex;
         if (args.length == 1) {
-            lex = new DecaLexer(CharStreams.fromFileName(args[0]));
+            lex = new DecaLexer(ByteCharStream.fromFileName(args[0]));
             lex.setSource(new File(args[0]));
         } else {
             System.err.println("Reading from stdin ...");
@@ -181,51 +183,100 @@ public abstract class AbstractDecaLexer extends Lexer {
         public CharStream input;
         /** Where in the stream was the <code>#include</code> */
         public int line, charPositionInLine;
+        /** The included stream */
+        public CharStream included;
+        /** Directory of the included file, null if it is a library file */
+        public File directory;
+        /**
+         * Tokens read from the included stream, recorded in
+         * {@link PrecompiledHeaders} at its end. null if it can't be recorded.
+         */
+        public List<Token> tokens = new ArrayList<Token>();
     }
 
     private final Stack<IncludeSaveStruct> includes = new Stack<IncludeSaveStruct>();
 
+    /** Tokens of a precompiled included file being replayed */
+    private Iterator<Token> replay;
+    private CharStream replayInput;
+
     /**
-     * Look up the file to include in the current directory, or in the
-     * $CLASSPATH (either a file or the content of a .jar file).
+     * Open the file to include: the file found in the directory of the file
+     * containing the directive, or else the file of the $CLASSPATH (either a
+     * file or the content of a .jar file).
      * 
+     * @param local the file found by {@link #localInclude}, or null
      * @return An ANTLR stream to read from
      * @throws IOException
      *                             when the file was found but could not be opened
      * @throws IncludeFileNotFound
      *                             when the file was not found.
      */
-    CharStream findFile(String name) throws IOException,
+    CharStream findFile(File local, String name) throws IOException,
             IncludeFileNotFound {
-        // Look in the directory containing the source file ...
-        String dir = "."; // default value used e.g. when reading from stdin
-        File src = getSource();
-        if (src != null && src.getParent() != null) {
-            dir = src.getParent();
-        }
-        String full = dir + "/" + name;
-        File f = new File(full);
-        if (f.exists()) {
-            LOG.debug("Using local file " + full);
-            return CharStreams.fromFileName(full);
+        // Use the file of the directory containing the including file ...
+        if (local != null) {
+            LOG.debug("Using local file " + local.getPath());
+            return ByteCharStream.fromFileName(local.getPath());
         }
 
         // ... and fall back to the standard library path if not found.
-        final URL url = ClassLoader.getSystemResource("include/" + name);
+        final URL url = libraryInclude(name);
         if (url != null) {
             LOG.debug("Using library " + url);
-            // Use fromReader(Reader, String) to catch the file name ---
-            // fromStream(InputStream) does not.
-            return CharStreams.fromReader(new InputStreamReader(url.openStream()), url.getFile());
+            return ByteCharStream.fromURL(url);
         }
 
         throw new IncludeFileNotFound(name, this, getInputStream());
     }
 
+    /**
+     * @return the directory in which the includes of the file being read are
+     *         looked up before the library: the directory of the source file
+     *         or of the included file, or null in a library file
+     */
+    File includeDirectory() {
+        if (!includes.empty()) {
+            return includes.peek().directory;
+        }
+        File src = getSource();
+        if (src != null && src.getParentFile() != null) {
+            return src.getParentFile();
+        }
+        return new File("."); // e.g. when reading from stdin
+    }
+
+    /**
+     * Look up a file to include in a directory.
+     *
+     * @param directory the directory of the including file (see
+     *                  {@link #includeDirectory()}), null for none
+     * @param name      the name given to the <code>#include</code> directive
+     * @return the file, or null if there is no such file
+     */
+    public static File localInclude(File directory, String name) {
+        if (directory == null) {
+            return null;
+        }
+        File f = new File(directory, name);
+        return f.exists() ? f : null;
+    }
+
+    /**
+     * Look up a file to include in the standard library path ($CLASSPATH).
+     *
+     * @param name the name given to the <code>#include</code> directive
+     * @return the location of the file, or null if there is no such file
+     */
+    public static URL libraryInclude(String name) {
+        return ClassLoader.getSystemResource("include/" + name);
+    }
+
     /**
      * Apply a <code>#include</code> directive.
      * 
-     * Look up the file "name" using {@link #findFile(String)}, and set the
+     * Look up the file "name" using {@link #localInclude} and
+     * {@link #findFile(File, String)}, and set the
      * input stream of the lexer to this object. The previous input stream is
      * saved an {@link #includes} and will be restored by {@link #nextToken()}.
      * 
@@ -240,9 +291,11 @@ public abstract class AbstractDecaLexer extends Lexer {
                 includeDirective.lastIndexOf('"'));
         Validate.notNull(name);
         Validate.notEmpty(name);
+        File directory = includeDirectory();
+        File local = localInclude(directory, name);
         CharStream newInput;
         try {
-            newInput = findFile(name);
+            newInput = findFile(local, name);
         } catch (IOException e1) {
             // The file is probably there but not readable.
             throw new IncludeFileNotFound(name, this, getInputStream());
@@ -252,8 +305,28 @@ public abstract class AbstractDecaLexer extends Lexer {
                 throw new CircularInclude(name, this, this.getInputStream());
             }
         }
+        if (getDecacCompiler() != null) {
+            getDecacCompiler().addIncludedFile(name, directory);
+        }
+        if (!includes.empty()) {
+            // the enclosing file depends on another file: don't record it
+            includes.peek().tokens = null;
+        }
+
+        List<Token> precompiled = PrecompiledHeaders.lookup(newInput);
+        if (precompiled != null) {
+            LOG.debug("Using precompiled " + newInput.getSourceName());
+            replay = precompiled.iterator();
+            replayInput = newInput;
+            throw new SkipANTLRPostAction();
+        }
+
         IncludeSaveStruct ss = new IncludeSaveStruct(getInputStream(),
                 getLine(), getCharPositionInLine());
+        ss.included = newInput;
+        if (local != null) {
+            ss.directory = directory;
+        }
         includes.push(ss);
         setInputStream(newInput);
         throw new SkipANTLRPostAction();
@@ -289,6 +362,14 @@ public abstract class AbstractDecaLexer extends Lexer {
     @Override
     @SuppressWarnings("InfiniteRecursion")
     public Token nextToken() {
+        if (replay != null) {
+            if (replay.hasNext()) {
+                return PrecompiledHeaders.copy(replay.next(), this, replayInput);
+            }
+            replay = null;
+            replayInput = null;
+        }
+
         Token token;
         try {
             token = super.nextToken();
@@ -297,10 +378,19 @@ public abstract class AbstractDecaLexer extends Lexer {
             return this.nextToken();
         }
 
+        if (!includes.empty() && includes.peek().tokens != null
+                && getInputStream() == includes.peek().included
+                && token.getType() != Token.EOF && token.getStartIndex() >= 0) {
+            includes.peek().tokens.add(token);
+        }
+
         if (token.getType() == Token.EOF && !includes.empty()) {
             // We've got EOF and have non empty stack.
             LOG.debug("End of file, poping include stack");
             IncludeSaveStruct ss = includes.pop();
+            if (ss.tokens != null) {
+                PrecompiledHeaders.store(ss.included, ss.tokens);
+            }
             setInputStream(ss.input);
             setLine(ss.line);
             setCharPositionInLine(ss.charPositionInLine);
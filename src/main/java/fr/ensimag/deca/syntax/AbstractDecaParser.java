@@ -8,8 +8,11 @@ import fr.ensimag.deca.tree.LocationException;
 import fr.ensimag.deca.tree.Tree;
 
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.atn.PredictionMode;
 import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.apache.log4j.Logger;
 
@@ -36,8 +39,16 @@ public abstract class AbstractDecaParser extends Parser {
     protected abstract AbstractProgram parseProgram();
     
     public AbstractProgram parseProgramAndManageErrors(PrintStream err) {
+        return parseProgramAndManageErrors(err, true);
+    }
+
+    /**
+     * @param twoStage false to parse with the full LL prediction only, as the
+     *                 tests do to compare the diagnostics of the two ways
+     */
+    AbstractProgram parseProgramAndManageErrors(PrintStream err, boolean twoStage) {
         try {
-            AbstractProgram result = parseProgram();
+            AbstractProgram result = twoStage ? parseProgramTwoStage() : parseProgram();
             assert(result != null);
             return result;
         } catch (ParseCancellationException e) {
@@ -54,6 +65,58 @@ public abstract class AbstractDecaParser extends Parser {
         }
     }
 
+    /**
+     * Parse the program in two stages: first with the faster SLL prediction,
+     * stopping at the first error without reporting it, then, only if it
+     * failed, again from the first token with the full LL prediction and the
+     * usual error reporting. Since SLL accepts a subset of what LL accepts and
+     * builds the same tree when it succeeds, the result and the error messages
+     * are the same as with LL only.
+     *
+     * The tokens are read from the lexer once: the second stage replays the
+     * tokens buffered by the token stream. An error of the lexer is therefore
+     * final, and is reported as if it had been met by the LL stage.
+     */
+    private AbstractProgram parseProgramTwoStage() {
+        ANTLRErrorStrategy errorHandler = getErrorHandler();
+        List<ANTLRErrorListener> listeners = new ArrayList<ANTLRErrorListener>(getErrorListeners());
+
+        getInterpreter().setPredictionMode(PredictionMode.SLL);
+        setErrorHandler(new BailErrorStrategy() {
+            @Override
+            public void reportError(Parser recognizer, RecognitionException e) {
+                // reported by the LL stage (the default implementation prints
+                // the errors raised by the actions of the grammar to stderr)
+            }
+        });
+        removeErrorListeners();
+        RecognitionException failure;
+        try {
+            return parseProgram();
+        } catch (ParseCancellationException e) {
+            if (!(e.getCause() instanceof RecognitionException)) {
+                // reported by the error listener of the lexer
+                throw e;
+            }
+            failure = (RecognitionException) e.getCause();
+        } finally {
+            setErrorHandler(errorHandler);
+            for (ANTLRErrorListener listener : listeners) {
+                addErrorListener(listener);
+            }
+        }
+        if (failure.getRecognizer() instanceof Lexer) {
+            // error raised by a lexer action: the tokens can't be read again,
+            // report it now (the error listener throws)
+            errorHandler.reportError(this, failure);
+            throw new ParseCancellationException(failure);
+        }
+        LOG.debug("SLL parsing failed, parsing again with full LL prediction");
+        reset();
+        getInterpreter().setPredictionMode(PredictionMode.LL);
+        return parseProgram();
+    }
+
     /**
      * Extract the Location of a token.
      */
@@ -63,13 +126,23 @@ public abstract class AbstractDecaParser extends Parser {
                 token.getInputStream().getSourceName());
     }
     
+    // id of the last source name met, tokens mostly come from the same file
+    private String lastSourceName;
+    private int lastFileId;
+
     /**
      * Sets the location of Tree to the one in Token.
      *
-     * This is a simple convenience wrapper around {@link Tree#setLocation(Location)}.
+     * The location is stored in its packed form, no {@link Location} is
+     * created (see {@link Tree#setPackedLocation(long)}).
      */
     protected void setLocation(Tree tree, Token token) {
-        tree.setLocation(tokenLocation(token));
+        String sourceName = token.getInputStream().getSourceName();
+        if (lastSourceName == null || !lastSourceName.equals(sourceName)) {
+            lastSourceName = sourceName;
+            lastFileId = Location.fileId(sourceName);
+        }
+        tree.setPackedLocation(Location.pack(token.getLine(), token.getCharPositionInLine(), lastFileId));
     }
 
     /**
@@ -0,0 +1,322 @@
+package fr.ensimag.deca.syntax;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.misc.Interval;
+
+/**
+ * Character stream reading the UTF-8 bytes of a source file directly.
+ *
+ * CharStreams.fromFileName decodes the whole file into a buffer of code points
+ * before lexing. This stream instead reads the bytes of the file, memory-mapped
+ * for large files: indexes are code points as for any CharStream, and are
+ * mapped to byte offsets directly for ASCII files, or through an offset
+ * recorded every {@link #CHECKPOINT} code points otherwise.
+ *
+ * Files which are not valid UTF-8 are read by CharStreams as before, so that
+ * malformed bytes are replaced the same way.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class ByteCharStream implements CharStream {
+    /** Files at least this large are memory-mapped, smaller ones are read */
+    static final int MAP_THRESHOLD = 64 * 1024;
+    /** Number of code points between two recorded byte offsets */
+    static final int CHECKPOINT = 64;
+    private static final int CHECKPOINT_SHIFT = 6;
+
+    private final ByteBuffer bytes;
+    private final String name;
+    /** Number of code points */
+    private final int size;
+    /** Byte offset of code points 0, CHECKPOINT, 2 * CHECKPOINT..., null for ASCII */
+    private final int[] checkpoints;
+
+    /** Current code point */
+    private int index = 0;
+    /** Byte offset of the current code point */
+    private int position = 0;
+
+    /**
+     * Open a source file.
+     *
+     * @param fileName name of the file, also used as the source name
+     */
+    public static CharStream fromFileName(String fileName) throws IOException {
+        ByteBuffer bytes;
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length > Integer.MAX_VALUE) {
+                return CharStreams.fromFileName(fileName);
+            }
+            if (length >= MAP_THRESHOLD) {
+                bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            } else {
+                bytes = ByteBuffer.allocate((int) length);
+                while (bytes.hasRemaining() && channel.read(bytes) >= 0) {
+                    // read the whole file
+                }
+                bytes.flip();
+            }
+        }
+        CharStream res = create(bytes, fileName, false);
+        return res != null ? res : CharStreams.fromFileName(fileName);
+    }
+
+    /**
+     * Open a file of the standard library. Only ASCII files are read as bytes,
+     * the others are decoded with the default charset as before.
+     */
+    public static CharStream fromURL(URL url) throws IOException {
+        byte[] content;
+        try (InputStream in = url.openStream()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+            }
+            content = out.toByteArray();
+        }
+        CharStream res = create(ByteBuffer.wrap(content), url.getFile(), true);
+        if (res != null) {
+            return res;
+        }
+        return CharStreams.fromReader(new InputStreamReader(new ByteArrayInputStream(content)), url.getFile());
+    }
+
+    /**
+     * @param bytes     content of the stream, from position 0 to its limit
+     * @param asciiOnly true to refuse non-ASCII content
+     * @return the stream, or null if the content is not valid UTF-8 (or not
+     *         ASCII when asciiOnly is true)
+     */
+    static ByteCharStream create(ByteBuffer bytes, String name, boolean asciiOnly) {
+        int length = bytes.limit();
+        int firstNonAscii = 0;
+        while (firstNonAscii < length && bytes.get(firstNonAscii) >= 0) {
+            firstNonAscii++;
+        }
+        if (firstNonAscii == length) {
+            return new ByteCharStream(bytes, name, length, null);
+        }
+        if (asciiOnly) {
+            return null;
+        }
+
+        int[] checkpoints = new int[(length >> CHECKPOINT_SHIFT) + 1];
+        int count = 0;
+        int p = 0;
+        while (p < length) {
+            if ((count & (CHECKPOINT - 1)) == 0) {
+                checkpoints[count >> CHECKPOINT_SHIFT] = p;
+            }
+            int n = validLength(bytes, p, length);
+            if (n == 0) {
+                return null;
+            }
+            p += n;
+            count++;
+        }
+        return new ByteCharStream(bytes, name, count, checkpoints);
+    }
+
+    private ByteCharStream(ByteBuffer bytes, String name, int size, int[] checkpoints) {
+        this.bytes = bytes;
+        this.name = name;
+        this.size = size;
+        this.checkpoints = checkpoints;
+    }
+
+    /**
+     * Add the bytes of the stream to digest, without decoding them.
+     */
+    void digest(MessageDigest digest) {
+        digest.update(bytes.duplicate());
+    }
+
+    /**
+     * @return the length of the well-formed UTF-8 sequence at offset p, or 0
+     *         if it is malformed
+     */
+    private static int validLength(ByteBuffer bytes, int p, int limit) {
+        int b = bytes.get(p) & 0xFF;
+        int n;
+        int min = 0x80, max = 0xBF; // allowed range of the second byte
+        if (b < 0x80) {
+            return 1;
+        } else if (b >= 0xC2 && b <= 0xDF) {
+            n = 2;
+        } else if (b >= 0xE0 && b <= 0xEF) {
+            n = 3;
+            if (b == 0xE0) {
+                min = 0xA0; // overlong
+            } else if (b == 0xED) {
+                max = 0x9F; // surrogate
+            }
+        } else if (b >= 0xF0 && b <= 0xF4) {
+            n = 4;
+            if (b == 0xF0) {
+                min = 0x90; // overlong
+            } else if (b == 0xF4) {
+                max = 0x8F; // above U+10FFFF
+            }
+        } else {
+            return 0;
+        }
+        if (p + n > limit) {
+            return 0;
+        }
+        int second = bytes.get(p + 1) & 0xFF;
+        if (second < min || second > max) {
+            return 0;
+        }
+        for (int i = 2; i < n; i++) {
+            if ((bytes.get(p + i) & 0xC0) != 0x80) {
+                return 0;
+            }
+        }
+        return n;
+    }
+
+    /** Length of the (valid) UTF-8 sequence at offset p */
+    private int length(int p) {
+        int b = bytes.get(p) & 0xFF;
+        return b < 0x80 ? 1 : b < 0xE0 ? 2 : b < 0xF0 ? 3 : 4;
+    }
+
+    /** Code point of the (valid) UTF-8 sequence at offset p */
+    private int decode(int p) {
+        int b = bytes.get(p) & 0xFF;
+        if (b < 0x80) {
+            return b;
+        } else if (b < 0xE0) {
+            return (b & 0x1F) << 6 | (bytes.get(p + 1) & 0x3F);
+        } else if (b < 0xF0) {
+            return (b & 0x0F) << 12 | (bytes.get(p + 1) & 0x3F) << 6 | (bytes.get(p + 2) & 0x3F);
+        } else {
+            return (b & 0x07) << 18 | (bytes.get(p + 1) & 0x3F) << 12 | (bytes.get(p + 2) & 0x3F) << 6
+                    | (bytes.get(p + 3) & 0x3F);
+        }
+    }
+
+    /** Byte offset of code point i, 0 &lt;= i &lt;= size */
+    private int offset(int i) {
+        if (checkpoints == null) {
+            return i;
+        }
+        if (i == index) {
+            return position;
+        }
+        if (i >= size) {
+            return bytes.limit();
+        }
+        int p = checkpoints[i >> CHECKPOINT_SHIFT];
+        for (int k = i & ~(CHECKPOINT - 1); k < i; k++) {
+            p += length(p);
+        }
+        return p;
+    }
+
+    @Override
+    public void consume() {
+        if (index >= size) {
+            assert LA(1) == IntStream.EOF;
+            throw new IllegalStateException("cannot consume EOF");
+        }
+        position += checkpoints == null ? 1 : length(position);
+        index++;
+    }
+
+    @Override
+    public int LA(int i) {
+        if (i == 0) {
+            return 0; // undefined
+        }
+        int target = i > 0 ? index + i - 1 : index + i;
+        if (target < 0 || target >= size) {
+            return IntStream.EOF;
+        }
+        if (checkpoints == null) {
+            return bytes.get(target) & 0xFF;
+        }
+        if (i > 0) {
+            int p = position;
+            for (int k = 1; k < i; k++) {
+                p += length(p);
+            }
+            return decode(p);
+        }
+        return decode(offset(target));
+    }
+
+    @Override
+    public int mark() {
+        return -1;
+    }
+
+    @Override
+    public void release(int marker) {
+    }
+
+    @Override
+    public int index() {
+        return index;
+    }
+
+    @Override
+    public void seek(int index) {
+        int target = Math.min(index, size);
+        position = offset(target);
+        this.index = target;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String getSourceName() {
+        if (name == null || name.isEmpty()) {
+            return IntStream.UNKNOWN_SOURCE_NAME;
+        }
+        return name;
+    }
+
+    @Override
+    public String getText(Interval interval) {
+        int start = Math.min(interval.a, size);
+        int length = Math.min(interval.b - interval.a + 1, size - start);
+        if (start < 0 || length <= 0) {
+            return "";
+        }
+        int from = offset(start);
+        int to = offset(start + length);
+        byte[] content = new byte[to - from];
+        for (int p = from; p < to; p++) {
+            content[p - from] = bytes.get(p);
+        }
+        return new String(content, checkpoints == null ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return getText(Interval.of(0, size - 1));
+    }
+}
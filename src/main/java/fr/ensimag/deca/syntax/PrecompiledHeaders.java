@@ -0,0 +1,163 @@
+package fr.ensimag.deca.syntax;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CommonToken;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenSource;
+import org.antlr.v4.runtime.misc.Pair;
+
+import fr.ensimag.deca.tools.DecacInternalError;
+
+/**
+ * Process-wide cache of the tokens of included files (e.g. Math.decah).
+ *
+ * The first compilation including a file lexes it as usual, and its tokens are
+ * recorded here; the following compilations of the same JVM (decac -P, the
+ * compile server) replay them instead of lexing the file again. Entries are
+ * invalidated when the content of the file changes: they keep a digest of the
+ * content, which is computed from the stream without decoding it to a String.
+ *
+ * Only files without nested <code>#include</code> are recorded, so that an
+ * entry depends on the content of one file only.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class PrecompiledHeaders {
+    private static final int MAX_ENTRIES = 256;
+
+    private static class Header {
+        Header(byte[] digest, List<Token> tokens) {
+            this.digest = digest;
+            this.tokens = tokens;
+        }
+
+        /** Digest of the content of the file when it was lexed */
+        final byte[] digest;
+        /** Tokens of the file, not bound to any lexer */
+        final List<Token> tokens;
+    }
+
+    /** Entries by source name, least recently used first */
+    private static final Map<String, Header> entries = new LinkedHashMap<String, Header>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Header> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+
+    public static long getHits() {
+        return hits.get();
+    }
+
+    public static long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the SHA-256 digest of the content of input: of its bytes for a
+     *         {@link ByteCharStream}, of its code points, read from its start,
+     *         otherwise; the position of input is restored
+     */
+    static byte[] digest(CharStream input) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new DecacInternalError("SHA-256 is not available");
+        }
+        if (input instanceof ByteCharStream) {
+            ((ByteCharStream) input).digest(digest);
+            return digest.digest();
+        }
+        int marker = input.mark();
+        int index = input.index();
+        input.seek(0);
+        byte[] buffer = new byte[4096];
+        int length = 0;
+        for (int i = input.size(); i > 0; i--) {
+            if (length == buffer.length) {
+                digest.update(buffer, 0, length);
+                length = 0;
+            }
+            int c = input.LA(1);
+            buffer[length++] = (byte) (c >> 24);
+            buffer[length++] = (byte) (c >> 16);
+            buffer[length++] = (byte) (c >> 8);
+            buffer[length++] = (byte) c;
+            input.consume();
+        }
+        digest.update(buffer, 0, length);
+        input.seek(index);
+        input.release(marker);
+        return digest.digest();
+    }
+
+    /**
+     * Get the tokens of an included file.
+     *
+     * @param input the content of the file
+     * @return the tokens recorded for this content (to be copied with
+     *         {@link #copy} before use), or null if there are none
+     */
+    static List<Token> lookup(CharStream input) {
+        Header entry;
+        synchronized (entries) {
+            entry = entries.get(input.getSourceName());
+        }
+        if (entry != null && Arrays.equals(entry.digest, digest(input))) {
+            hits.incrementAndGet();
+            return entry.tokens;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Record the tokens of an included file.
+     *
+     * @param input  the content of the file
+     * @param tokens the tokens produced by lexing input
+     */
+    static void store(CharStream input, List<Token> tokens) {
+        List<Token> templates = new ArrayList<Token>(tokens.size());
+        for (Token token : tokens) {
+            templates.add(copy(token, null, null));
+        }
+        Header entry = new Header(digest(input), Collections.unmodifiableList(templates));
+        synchronized (entries) {
+            entries.put(input.getSourceName(), entry);
+        }
+    }
+
+    /**
+     * Copy a token, binding it to a lexer.
+     *
+     * @param token  token to copy
+     * @param source lexer producing the copy
+     * @param input  stream the token was read from
+     */
+    static CommonToken copy(Token token, TokenSource source, CharStream input) {
+        CommonToken res = new CommonToken(new Pair<TokenSource, CharStream>(source, input), token.getType(),
+                token.getChannel(), token.getStartIndex(), token.getStopIndex());
+        res.setText(token.getText());
+        res.setLine(token.getLine());
+        res.setCharPositionInLine(token.getCharPositionInLine());
+        return res;
+    }
+}
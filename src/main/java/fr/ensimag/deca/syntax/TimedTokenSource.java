@@ -0,0 +1,68 @@
+package fr.ensimag.deca.syntax;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenFactory;
+import org.antlr.v4.runtime.TokenSource;
+
+import fr.ensimag.deca.tools.PhaseTimer;
+
+/**
+ * Token source recording the time spent in a lexer (decac -T).
+ *
+ * The parser pulls the tokens from the lexer on demand, so lexing and parsing
+ * are interleaved: each call to the lexer is timed as a "lexing" phase nested
+ * in the parsing phase.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class TimedTokenSource implements TokenSource {
+    private final TokenSource lexer;
+    private final PhaseTimer timer;
+
+    public TimedTokenSource(TokenSource lexer, PhaseTimer timer) {
+        this.lexer = lexer;
+        this.timer = timer;
+    }
+
+    @Override
+    public Token nextToken() {
+        PhaseTimer.Phase lexing = timer.start("lexing");
+        try {
+            return lexer.nextToken();
+        } finally {
+            lexing.close();
+        }
+    }
+
+    @Override
+    public int getLine() {
+        return lexer.getLine();
+    }
+
+    @Override
+    public int getCharPositionInLine() {
+        return lexer.getCharPositionInLine();
+    }
+
+    @Override
+    public CharStream getInputStream() {
+        return lexer.getInputStream();
+    }
+
+    @Override
+    public String getSourceName() {
+        return lexer.getSourceName();
+    }
+
+    @Override
+    public void setTokenFactory(TokenFactory<?> factory) {
+        lexer.setTokenFactory(factory);
+    }
+
+    @Override
+    public TokenFactory<?> getTokenFactory() {
+        return lexer.getTokenFactory();
+    }
+}
@@ -0,0 +1,219 @@
+package fr.ensimag.deca.tools;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Events emitted around the phases of a compilation, for profilers.
+ *
+ * The events are sent to a {@link Sink}. By default, a sink emitting Java
+ * Flight Recorder events is installed when a flight recording was started with
+ * the JVM (-XX:StartFlightRecording), or when the decac.jfr system property is
+ * true (e.g. for a compile server whose recording is started later with jcmd).
+ * Otherwise there is no sink, and {@link #begin} costs one field read.
+ *
+ * Typical use:
+ *
+ * <pre>
+ * CompilerEvents.Event event = CompilerEvents.begin(CompilerEvents.Kind.EMISSION);
+ * ... // the phase
+ * if (event != null) {
+ *     event.set(CompilerEvents.Field.FILE, fileName);
+ *     event.commit();
+ * }
+ * </pre>
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class CompilerEvents {
+    private static final Logger LOG = Logger.getLogger(CompilerEvents.class);
+
+    /**
+     * Fields of the events.
+     */
+    public enum Field {
+        FILE("file", "File", String.class, false),
+        CLASS("className", "Class", String.class, false),
+        METHOD("methodName", "Method", String.class, false),
+        INSTRUCTIONS("instructions", "Instructions", int.class, false),
+        TOKENS("tokens", "Tokens", int.class, false),
+        LEXING_TIME("lexingTime", "Lexing Time", long.class, true);
+
+        Field(String name, String label, Class<?> type, boolean nanos) {
+            this.name = name;
+            this.label = label;
+            this.type = type;
+            this.nanos = nanos;
+        }
+
+        /** Name of the field in the event */
+        public final String name;
+        /** Human-readable name */
+        public final String label;
+        /** Type of the values of the field */
+        public final Class<?> type;
+        /** True if the field is a duration in nanoseconds */
+        public final boolean nanos;
+    }
+
+    /**
+     * Kinds of events, with their fields.
+     */
+    public enum Kind {
+        /**
+         * Lexing and parsing of a source file. The lexer runs on demand while
+         * parsing, the time it took is given by {@link Field#LEXING_TIME}.
+         */
+        PARSING("Parsing", "Lexing and parsing of a source file",
+                Field.FILE, Field.TOKENS, Field.LEXING_TIME),
+        /** Pass 1 of the contextual verification: class names and hierarchy */
+        VERIFY_CLASSES("Verification Pass 1", "Verification of the class declarations", Field.FILE),
+        /** Pass 2 of the contextual verification: fields and method signatures */
+        VERIFY_MEMBERS("Verification Pass 2", "Verification of the fields and method signatures", Field.FILE),
+        /** Pass 3 of the contextual verification: field initializations and method bodies */
+        VERIFY_BODIES("Verification Pass 3", "Verification of the method bodies and the main program",
+                Field.FILE),
+        /** Code generation of the body of a method */
+        METHOD_CODEGEN("Method Code Generation", "Code generation of a method body",
+                Field.FILE, Field.CLASS, Field.METHOD, Field.INSTRUCTIONS),
+        /** Writing of the end of the assembly file */
+        EMISSION("Emission", "Writing of the assembly file", Field.FILE);
+
+        Kind(String label, String description, Field... fields) {
+            this.label = label;
+            this.description = description;
+            this.fields = fields;
+        }
+
+        /** Human-readable name */
+        public final String label;
+        public final String description;
+        private final Field[] fields;
+
+        public Field[] getFields() {
+            return fields.clone();
+        }
+
+        /** Name of the event type, e.g. fr.ensimag.deca.MethodCodeGeneration */
+        public String getEventName() {
+            return "fr.ensimag.deca." + label.replace(" ", "");
+        }
+
+        /**
+         * @return the index of a field in {@link #getFields()}, or -1 if the
+         *         events of this kind don't have this field
+         */
+        public int indexOf(Field field) {
+            for (int i = 0; i < fields.length; i++) {
+                if (fields[i] == field) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Receiver of the events.
+     */
+    public interface Sink {
+        /**
+         * @return true if the events of this kind are currently recorded
+         */
+        boolean isEnabled(Kind kind);
+
+        /**
+         * Start an event.
+         *
+         * @return the event, passed to {@link #set} and {@link #commit}
+         */
+        Object begin(Kind kind);
+
+        /**
+         * Set a field of an event.
+         *
+         * @param index index of the field in the fields of the kind of the event
+         */
+        void set(Object event, int index, Object value);
+
+        /**
+         * End and record an event.
+         */
+        void commit(Object event);
+    }
+
+    /**
+     * A started event.
+     */
+    public static class Event {
+        private final Sink sink;
+        private final Kind kind;
+        private final Object event;
+
+        private Event(Sink sink, Kind kind, Object event) {
+            this.sink = sink;
+            this.kind = kind;
+            this.event = event;
+        }
+
+        /**
+         * Set a field of the event. Fields which are not part of the kind of
+         * the event are ignored.
+         */
+        public Event set(Field field, Object value) {
+            int index = kind.indexOf(field);
+            if (index >= 0) {
+                sink.set(event, index, value);
+            }
+            return this;
+        }
+
+        /**
+         * End and record the event.
+         */
+        public void commit() {
+            sink.commit(event);
+        }
+    }
+
+    private static volatile Sink sink = defaultSink();
+
+    private static Sink defaultSink() {
+        String property = System.getProperty("decac.jfr");
+        if (property != null ? Boolean.parseBoolean(property) : JfrEventSink.isRecorderInitialized()) {
+            try {
+                return new JfrEventSink();
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                LOG.warn("Flight Recorder events are not available: " + e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Replace the receiver of the events.
+     *
+     * @param newSink the new receiver, or null to disable the events
+     */
+    public static void setSink(Sink newSink) {
+        sink = newSink;
+    }
+
+    public static Sink getSink() {
+        return sink;
+    }
+
+    /**
+     * Start an event.
+     *
+     * @return the started event, or null if the events of this kind are not
+     *         recorded
+     */
+    public static Event begin(Kind kind) {
+        Sink s = sink;
+        if (s == null || !s.isEnabled(kind)) {
+            return null;
+        }
+        return new Event(s, kind, s.begin(kind));
+    }
+}
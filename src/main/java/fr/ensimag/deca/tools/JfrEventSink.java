@@ -0,0 +1,130 @@
+package fr.ensimag.deca.tools;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import fr.ensimag.deca.tools.CompilerEvents.Field;
+import fr.ensimag.deca.tools.CompilerEvents.Kind;
+
+/**
+ * Sink emitting the compiler events as Java Flight Recorder events.
+ *
+ * The compiler is built for Java 8, whose class library has no jdk.jfr API,
+ * so the event types are created at run time with jdk.jfr.EventFactory,
+ * through reflection. They appear in the "Deca Compiler" category of the
+ * recordings, named after {@link Kind#getEventName()}.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+class JfrEventSink implements CompilerEvents.Sink {
+    private static final String CATEGORY = "Deca Compiler";
+
+    /** EventFactory.newEvent() */
+    private final Method newEvent;
+    /** EventType.isEnabled() */
+    private final Method isEnabled;
+    /** Event.begin(), Event.set(int, Object), Event.commit() */
+    private final Method begin, set, commit;
+
+    /** Event factory of each kind */
+    private final Object[] factories = new Object[Kind.values().length];
+    /** Event type of each kind */
+    private final Object[] types = new Object[Kind.values().length];
+
+    /**
+     * @return true if the flight recorder of this JVM has been started
+     */
+    static boolean isRecorderInitialized() {
+        try {
+            return (Boolean) Class.forName("jdk.jfr.FlightRecorder").getMethod("isInitialized").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Register the event types.
+     *
+     * @throws ReflectiveOperationException if the flight recorder is not
+     *                                      available in this JVM
+     */
+    JfrEventSink() throws ReflectiveOperationException {
+        Class<?> factoryClass = Class.forName("jdk.jfr.EventFactory");
+        Class<?> eventClass = Class.forName("jdk.jfr.Event");
+        Method create = factoryClass.getMethod("create", List.class, List.class);
+        newEvent = factoryClass.getMethod("newEvent");
+        Method getEventType = factoryClass.getMethod("getEventType");
+        isEnabled = Class.forName("jdk.jfr.EventType").getMethod("isEnabled");
+        begin = eventClass.getMethod("begin");
+        set = eventClass.getMethod("set", int.class, Object.class);
+        commit = eventClass.getMethod("commit");
+
+        Constructor<?> newAnnotation = Class.forName("jdk.jfr.AnnotationElement")
+                .getConstructor(Class.class, Object.class);
+        Constructor<?> newValue = Class.forName("jdk.jfr.ValueDescriptor")
+                .getConstructor(Class.class, String.class, List.class);
+
+        for (Kind kind : Kind.values()) {
+            List<Object> annotations = Arrays.asList(
+                    newAnnotation.newInstance(annotation("Name"), kind.getEventName()),
+                    newAnnotation.newInstance(annotation("Label"), kind.label),
+                    newAnnotation.newInstance(annotation("Description"), kind.description),
+                    newAnnotation.newInstance(annotation("Category"), new String[] { CATEGORY }),
+                    newAnnotation.newInstance(annotation("StackTrace"), false));
+            List<Object> fields = new ArrayList<Object>();
+            for (Field field : kind.getFields()) {
+                List<Object> fieldAnnotations = new ArrayList<Object>();
+                fieldAnnotations.add(newAnnotation.newInstance(annotation("Label"), field.label));
+                if (field.nanos) {
+                    fieldAnnotations.add(newAnnotation.newInstance(annotation("Timespan"), "NANOSECONDS"));
+                }
+                fields.add(newValue.newInstance(field.type, field.name, fieldAnnotations));
+            }
+            Object factory = create.invoke(null, annotations, Collections.unmodifiableList(fields));
+            factories[kind.ordinal()] = factory;
+            types[kind.ordinal()] = getEventType.invoke(factory);
+        }
+    }
+
+    private static Class<?> annotation(String name) throws ClassNotFoundException {
+        return Class.forName("jdk.jfr." + name);
+    }
+
+    @Override
+    public boolean isEnabled(Kind kind) {
+        return (Boolean) invoke(isEnabled, types[kind.ordinal()]);
+    }
+
+    @Override
+    public Object begin(Kind kind) {
+        Object event = invoke(newEvent, factories[kind.ordinal()]);
+        invoke(begin, event);
+        return event;
+    }
+
+    @Override
+    public void set(Object event, int index, Object value) {
+        invoke(set, event, index, value);
+    }
+
+    @Override
+    public void commit(Object event) {
+        invoke(commit, event);
+    }
+
+    private static Object invoke(Method method, Object target, Object... args) {
+        try {
+            return method.invoke(target, args);
+        } catch (IllegalAccessException e) {
+            throw new DecacInternalError("Flight Recorder API not accessible: " + e);
+        } catch (InvocationTargetException e) {
+            throw new DecacInternalError("Flight Recorder call failed: " + e.getCause());
+        }
+    }
+}
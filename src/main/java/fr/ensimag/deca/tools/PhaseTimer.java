@@ -0,0 +1,288 @@
+package fr.ensimag.deca.tools;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Time spent by one compilation in each of its phases (decac -T).
+ *
+ * For each phase, the wall-clock time, the CPU time and the bytes allocated by
+ * the compiling thread are recorded. Phases may be nested (e.g. lexing happens
+ * on demand, while parsing): the measures of a nested phase are not counted in
+ * the enclosing one, so that the phases of a compilation add up.
+ *
+ * A disabled timer (the default) records nothing.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class PhaseTimer {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME = THREADS.isCurrentThreadCpuTimeSupported();
+    private static final com.sun.management.ThreadMXBean ALLOCATIONS = allocationsBean();
+
+    private static com.sun.management.ThreadMXBean allocationsBean() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) THREADS;
+            if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+                return bean;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Measures accumulated by a phase.
+     */
+    public static class Measure {
+        private long wallNanos;
+        private long cpuNanos;
+        private long allocatedBytes;
+
+        public long getWallNanos() {
+            return wallNanos;
+        }
+
+        public long getCpuNanos() {
+            return cpuNanos;
+        }
+
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        void add(long wall, long cpu, long allocated) {
+            wallNanos += wall;
+            cpuNanos += cpu;
+            allocatedBytes += allocated;
+        }
+
+        void add(Measure other) {
+            add(other.wallNanos, other.cpuNanos, other.allocatedBytes);
+        }
+    }
+
+    /**
+     * A running phase, to be closed when the phase is over.
+     */
+    public class Phase implements AutoCloseable {
+        private final String name;
+        private final long wall;
+        private final long cpu;
+        private final long allocated;
+        /** Measures of the phases nested in this one */
+        private long nestedWall, nestedCpu, nestedAllocated;
+
+        private Phase(String name) {
+            this.name = name;
+            // read last, so that the bookkeeping is not counted in the phase
+            this.allocated = allocatedBytes();
+            this.cpu = cpuTime();
+            this.wall = System.nanoTime();
+        }
+
+        @Override
+        public void close() {
+            long wall = System.nanoTime() - this.wall;
+            long cpu = cpuTime() - this.cpu;
+            long allocated = allocatedBytes() - this.allocated;
+            running.pop();
+            measure(name).add(wall - nestedWall, cpu - nestedCpu, allocated - nestedAllocated);
+            Phase parent = running.peek();
+            if (parent != null) {
+                parent.nestedWall += wall;
+                parent.nestedCpu += cpu;
+                parent.nestedAllocated += allocated;
+            }
+        }
+    }
+
+    /** Phase returned by a disabled timer */
+    private static final Phase NO_PHASE = new PhaseTimer("", false).new Phase("") {
+        @Override
+        public void close() {
+        }
+    };
+
+    private final String name;
+    private final boolean enabled;
+    private final Map<String, Measure> phases = new LinkedHashMap<String, Measure>();
+    private final Deque<Phase> running = new ArrayDeque<Phase>();
+
+    /**
+     * @param name    name of the timed compilation (e.g. its source file)
+     * @param enabled false to get a timer which records nothing
+     */
+    public PhaseTimer(String name, boolean enabled) {
+        this.name = name;
+        this.enabled = enabled;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Start a phase. Must be called by the thread running the compilation.
+     *
+     * @param phase name of the phase; a phase may be started several times,
+     *              its measures are then summed
+     * @return the running phase, to be closed at the end of the phase
+     */
+    public Phase start(String phase) {
+        if (!enabled) {
+            return NO_PHASE;
+        }
+        Phase res = new Phase(phase);
+        running.push(res);
+        return res;
+    }
+
+    /**
+     * @return the measures of the phases, in the order they were first started
+     */
+    public Map<String, Measure> getPhases() {
+        return phases;
+    }
+
+    private Measure measure(String phase) {
+        Measure res = phases.get(phase);
+        if (res == null) {
+            res = new Measure();
+            phases.put(phase, res);
+        }
+        return res;
+    }
+
+    private static long cpuTime() {
+        return CPU_TIME ? THREADS.getCurrentThreadCpuTime() : 0;
+    }
+
+    private static long allocatedBytes() {
+        return ALLOCATIONS == null ? 0 : ALLOCATIONS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Sum the measures of several compilations, phase by phase.
+     */
+    public static Map<String, Measure> total(List<PhaseTimer> timers) {
+        Map<String, Measure> res = new LinkedHashMap<String, Measure>();
+        for (PhaseTimer timer : timers) {
+            for (Map.Entry<String, Measure> phase : timer.phases.entrySet()) {
+                Measure sum = res.get(phase.getKey());
+                if (sum == null) {
+                    sum = new Measure();
+                    res.put(phase.getKey(), sum);
+                }
+                sum.add(phase.getValue());
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Print the measures of several compilations as a table, followed by their
+     * total when there are several of them.
+     *
+     * @param timers      timers of the compilations
+     * @param elapsedNanos wall-clock time of the whole command (smaller than
+     *                    the total with decac -P)
+     * @param out         stream to print to
+     */
+    public static void printTable(List<PhaseTimer> timers, long elapsedNanos, PrintStream out) {
+        out.println(String.format("%-40s %-14s %10s %10s %12s", "file", "phase", "wall (ms)", "cpu (ms)",
+                "alloc (KiB)"));
+        for (PhaseTimer timer : timers) {
+            printRows(timer.name, timer.phases, out);
+        }
+        if (timers.size() > 1) {
+            printRows("total (" + timers.size() + " files)", total(timers), out);
+        }
+        out.println(String.format("elapsed: %.3f ms", elapsedNanos / 1e6));
+        if (!CPU_TIME || ALLOCATIONS == null) {
+            out.println("(CPU time or allocations are not supported by this JVM and are reported as 0)");
+        }
+    }
+
+    private static void printRows(String file, Map<String, Measure> phases, PrintStream out) {
+        Measure sum = new Measure();
+        for (Map.Entry<String, Measure> phase : phases.entrySet()) {
+            printRow(file, phase.getKey(), phase.getValue(), out);
+            sum.add(phase.getValue());
+        }
+        printRow(file, "all", sum, out);
+    }
+
+    private static void printRow(String file, String phase, Measure measure, PrintStream out) {
+        out.println(String.format("%-40s %-14s %10.3f %10.3f %12d", file, phase, measure.wallNanos / 1e6,
+                measure.cpuNanos / 1e6, measure.allocatedBytes / 1024));
+    }
+
+    /**
+     * Write the measures of several compilations as a JSON document:
+     * <code>{"elapsedNanos": n, "files": [{"file": name, "phases": {phase:
+     * measure, ...}}, ...], "total": {phase: measure, ...}}</code>, where a
+     * measure is <code>{"wallNanos": n, "cpuNanos": n, "allocatedBytes":
+     * n}</code>.
+     *
+     * @param timers       timers of the compilations
+     * @param elapsedNanos wall-clock time of the whole command
+     * @param out          stream to write to
+     */
+    public static void printJson(List<PhaseTimer> timers, long elapsedNanos, PrintStream out) {
+        StringBuilder res = new StringBuilder();
+        res.append("{\n  \"elapsedNanos\": ").append(elapsedNanos).append(",\n  \"files\": [");
+        for (int i = 0; i < timers.size(); i++) {
+            res.append(i == 0 ? "\n" : ",\n").append("    {\"file\": ");
+            appendString(res, timers.get(i).name);
+            res.append(", \"phases\": ");
+            appendPhases(res, timers.get(i).phases);
+            res.append("}");
+        }
+        res.append("\n  ],\n  \"total\": ");
+        appendPhases(res, total(timers));
+        res.append("\n}");
+        out.println(res);
+    }
+
+    private static void appendPhases(StringBuilder res, Map<String, Measure> phases) {
+        res.append("{");
+        boolean first = true;
+        for (Map.Entry<String, Measure> phase : phases.entrySet()) {
+            if (!first) {
+                res.append(", ");
+            }
+            first = false;
+            appendString(res, phase.getKey());
+            Measure measure = phase.getValue();
+            res.append(": {\"wallNanos\": ").append(measure.wallNanos)
+                    .append(", \"cpuNanos\": ").append(measure.cpuNanos)
+                    .append(", \"allocatedBytes\": ").append(measure.allocatedBytes).append("}");
+        }
+        res.append("}");
+    }
+
+    private static void appendString(StringBuilder res, String s) {
+        res.append('"');
+        for (char c : s.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                res.append('\\').append(c);
+            } else if (c < 0x20) {
+                res.append(String.format("\\u%04x", (int) c));
+            } else {
+                res.append(c);
+            }
+        }
+        res.append('"');
+    }
+}
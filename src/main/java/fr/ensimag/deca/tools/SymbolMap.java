@@ -0,0 +1,171 @@
+package fr.ensimag.deca.tools;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+import fr.ensimag.deca.tools.SymbolTable.Symbol;
+
+/**
+ * Map from symbols to values, hashed on the ids of the symbols and compared by
+ * reference (symbols are unique).
+ *
+ * The entries are stored in two arrays in insertion order, which are indexed
+ * by an open addressing table of ints: a lookup costs a multiplication and a
+ * few array reads, without calling hashCode() or equals(). Entries cannot be
+ * removed, which environments never need.
+ *
+ * @param <V> type of the values
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class SymbolMap<V> {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private Symbol[] keys = new Symbol[INITIAL_CAPACITY];
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /**
+     * Open addressing table: position + 1 in keys/values of the entries, 0 for
+     * an empty slot. Its length is a power of 2, at least twice the capacity
+     * of keys.
+     */
+    private int[] table = new int[2 * INITIAL_CAPACITY];
+    private int shift = 32 - 4;
+
+    private int slot(Symbol key) {
+        // Fibonacci hashing, ids are consecutive
+        return (key.getId() * 0x9E3779B9) >>> shift;
+    }
+
+    /**
+     * @return the position of key in keys/values, or -1
+     */
+    private int indexOf(Symbol key) {
+        int mask = table.length - 1;
+        for (int i = slot(key);; i = (i + 1) & mask) {
+            int entry = table[i];
+            if (entry == 0) {
+                return -1;
+            }
+            if (keys[entry - 1] == key) {
+                return entry - 1;
+            }
+        }
+    }
+
+    /**
+     * @return the value associated to key, or null
+     */
+    @SuppressWarnings("unchecked")
+    public V get(Symbol key) {
+        int index = indexOf(key);
+        return index < 0 ? null : (V) values[index];
+    }
+
+    public boolean containsKey(Symbol key) {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * Associate a value to key, replacing the previous one.
+     *
+     * @return the previous value associated to key, or null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(Symbol key, V value) {
+        if (key == null) {
+            throw new NullPointerException("key is null");
+        }
+        int index = indexOf(key);
+        if (index >= 0) {
+            V previous = (V) values[index];
+            values[index] = value;
+            return previous;
+        }
+        if (size == keys.length) {
+            grow();
+        }
+        keys[size] = key;
+        values[size] = value;
+        size++;
+        insert(key, size);
+        return null;
+    }
+
+    private void insert(Symbol key, int entry) {
+        int mask = table.length - 1;
+        int i = slot(key);
+        while (table[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        table[i] = entry;
+    }
+
+    private void grow() {
+        keys = Arrays.copyOf(keys, 2 * keys.length);
+        values = Arrays.copyOf(values, 2 * values.length);
+        table = new int[2 * keys.length];
+        shift--;
+        for (int i = 0; i < size; i++) {
+            insert(keys[i], i + 1);
+        }
+    }
+
+    /**
+     * Add all the entries of another map, replacing the values of the keys
+     * already present.
+     */
+    @SuppressWarnings("unchecked")
+    public void putAll(SymbolMap<? extends V> map) {
+        for (int i = 0; i < map.size; i++) {
+            put(map.keys[i], (V) map.values[i]);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the keys, in insertion order
+     */
+    public List<Symbol> keys() {
+        return new AbstractList<Symbol>() {
+            @Override
+            public Symbol get(int index) {
+                if (index >= size) {
+                    throw new IndexOutOfBoundsException(Integer.toString(index));
+                }
+                return keys[index];
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * @return the values, in insertion order
+     */
+    public List<V> values() {
+        return new AbstractList<V>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public V get(int index) {
+                if (index >= size) {
+                    throw new IndexOutOfBoundsException(Integer.toString(index));
+                }
+                return (V) values[index];
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
@@ -1,26 +1,55 @@
 package fr.ensimag.deca.tools;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Manage unique symbols.
- * 
+ *
  * A Symbol contains the same information as a String, but the SymbolTable
  * ensures the uniqueness of a Symbol for a given String value. Therefore,
  * Symbol comparison can be done by comparing references, and the hashCode()
  * method of Symbols can be used to define efficient HashMap (no string
  * comparison or hashing required).
- * 
+ *
+ * Each symbol of a table also has a dense integer id (0, 1, 2... in creation
+ * order), used by {@link SymbolMap}.
+ *
+ * Symbols can be created concurrently: the compilations of a process share
+ * the table returned by {@link #getShared()} (see DecacCompiler), so that the
+ * predefined identifiers and the identifiers common to several files are
+ * only interned once, including in the server mode. The compile server
+ * replaces it by an empty table when it has grown too large (see
+ * {@link #resetShared()}).
+ *
  * @author gl13
  * @date 01/01/2025
  */
 public class SymbolTable {
-    private final Map<String, Symbol> map = new HashMap<String, Symbol>();
+    private static volatile SymbolTable shared = new SymbolTable();
+
+    /**
+     * @return the table shared by the compilations of the process
+     */
+    public static SymbolTable getShared() {
+        return shared;
+    }
+
+    /**
+     * Replace the shared table by an empty one. The compilations started
+     * before keep the previous table, but their symbols must not be mixed with
+     * the ones of the compilations started after.
+     */
+    public static void resetShared() {
+        shared = new SymbolTable();
+    }
+
+    private final ConcurrentHashMap<String, Symbol> map = new ConcurrentHashMap<String, Symbol>();
+    private final AtomicInteger nextId = new AtomicInteger();
 
     /**
      * Create or reuse a symbol.
-     * 
+     *
      * If a symbol already exists with the same name in this table, then return
      * this Symbol. Otherwise, create a new Symbol and add it to the table.
      */
@@ -28,33 +57,54 @@ public class SymbolTable {
         if (name == null) {
             throw new NullPointerException("name is null");
         }
+        // get does not lock, most symbols already exist
         Symbol symbol = map.get(name);
         if (symbol == null) {
-            symbol = new Symbol(name);
-            map.put(name, symbol);
+            symbol = map.computeIfAbsent(name, n -> new Symbol(n, nextId.getAndIncrement()));
         }
         return symbol;
 
     }
 
+    /**
+     * @return the number of symbols of the table, all their ids are lower
+     */
+    public int size() {
+        return nextId.get();
+    }
+
     public class Symbol {
         // Constructor is private, so that Symbol instances can only be created
         // through SymbolTable.create factory (which thus ensures uniqueness
         // of symbols).
-        private Symbol(String name) {
+        private Symbol(String name, int id) {
             super();
             this.name = name;
+            this.id = id;
         }
 
         public String getName() {
             return name;
         }
 
+        /**
+         * @return the id of the symbol, unique in its table
+         */
+        public int getId() {
+            return id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id;
+        }
+
         @Override
         public String toString() {
             return name;
         }
 
-        private String name;
+        private final String name;
+        private final int id;
     }
 }
@@ -3,6 +3,12 @@ package fr.ensimag.deca.tree;
 import fr.ensimag.deca.tools.IndentPrintStream;
 import java.io.PrintStream;
 import org.apache.commons.lang.Validate;
+import fr.ensimag.deca.DecacCompiler;
+import fr.ensimag.ima.pseudocode.DVal;
+import fr.ensimag.ima.pseudocode.GPRegister;
+import fr.ensimag.ima.pseudocode.Register;
+import fr.ensimag.ima.pseudocode.instructions.POP;
+import fr.ensimag.ima.pseudocode.instructions.PUSH;
 
 /**
  * Binary expressions.
@@ -66,4 +72,60 @@ public abstract class AbstractBinaryExpr extends AbstractExpr {
         rightOperand.prettyPrint(s, prefix, true);
     }
 
+    @Override
+    protected int getRegisterNeed() {
+        int left = leftOperand.getRegisterNeed();
+        int right = rightOperand.getRegisterNeed();
+        return left == right ? left + 1 : Math.max(left, right);
+    }
+
+    @Override
+    protected boolean isReorderable() {
+        return leftOperand.isReorderable() && rightOperand.isReorderable();
+    }
+
+    /**
+     * Generate the code of the two operands (Sethi-Ullman ordering): the
+     * operand needing the most registers is computed first, while the
+     * registers are free, unless the order of evaluation is observable. Either
+     * way, when both operands end up on the stack, the right one is on top.
+     *
+     * @return the positions of the left and right operands: a register or SP
+     */
+    protected DVal[] codeGenOperands(DecacCompiler compiler) {
+        boolean rightFirst = rightOperand.getRegisterNeed() > leftOperand.getRegisterNeed() && isReorderable();
+        AbstractExpr first = rightFirst ? rightOperand : leftOperand;
+        AbstractExpr second = rightFirst ? leftOperand : rightOperand;
+
+        first.codeGenInst(compiler);
+        DVal firstPos = compiler.getRegisterManager().getLastExprPos();
+        if (!firstPos.equals(Register.SP)) {
+            compiler.getRegisterManager().setUsed((GPRegister) firstPos);
+        }
+
+        second.codeGenInst(compiler);
+        DVal secondPos = compiler.getRegisterManager().getLastExprPos();
+        if (!firstPos.equals(Register.SP)) {
+            compiler.getRegisterManager().setUnused((GPRegister) firstPos);
+        }
+
+        if (!rightFirst) {
+            return new DVal[] { firstPos, secondPos };
+        }
+        if (firstPos.equals(Register.SP) && secondPos.equals(Register.SP)) {
+            // the left operand is on top of the right one
+            compiler.addInstruction(new POP(Register.R0));
+            compiler.addInstruction(new POP(Register.R1));
+            compiler.addInstruction(new PUSH(Register.R0));
+            compiler.addInstruction(new PUSH(Register.R1));
+        }
+        return new DVal[] { secondPos, firstPos };
+    }
+
+    @Override
+    protected AbstractExpr foldExpr(DecacCompiler compiler) {
+        setLeftOperand(getLeftOperand().foldExpr(compiler));
+        setRightOperand(getRightOperand().foldExpr(compiler));
+        return this;
+    }
 }
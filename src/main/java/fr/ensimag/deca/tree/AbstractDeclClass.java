@@ -1,6 +1,9 @@
 package fr.ensimag.deca.tree;
 
+import java.util.List;
+
 import fr.ensimag.deca.DecacCompiler;
+import fr.ensimag.deca.codegen.CodeGenUnits;
 import fr.ensimag.deca.context.ContextualError;
 import fr.ensimag.deca.context.EnvironmentExp;
 
@@ -26,11 +29,20 @@ public abstract class AbstractDeclClass extends Tree {
             throws ContextualError;
 
     /**
-     * Pass 3 of [SyntaxeContextuelle]. Verify that instructions and expressions
-     * contained in the class are OK.
+     * Part of pass 3 of [SyntaxeContextuelle] (e.g. the verification of a
+     * method body).
      */
-    protected abstract void verifyClassBody(DecacCompiler compiler)
-            throws ContextualError;
+    public interface BodyVerification {
+        void verify() throws ContextualError;
+    }
+
+    /**
+     * Pass 3 of [SyntaxeContextuelle]. Adds the verifications that instructions
+     * and expressions contained in the class are OK, in source order. They only
+     * read the environments built by passes 1 and 2, so that they can be run
+     * concurrently.
+     */
+    protected abstract void verifyClassBody(DecacCompiler compiler, List<BodyVerification> verifications);
 
     /**
      * Generates the method and field tables for the class, ensuring proper
@@ -49,12 +61,12 @@ public abstract class AbstractDeclClass extends Tree {
     public abstract void ARMCodeGenTable(DecacCompiler compiler);
 
     /**
-     * Generates the assembly code for the class, including its methods and field
-     * initializations, as well as its constructor.
+     * Adds the units generating the assembly code for the class, that is its
+     * constructor (field initializations) and its methods.
      *
-     * @param compiler The compiler instance used to generate the code.
+     * @param units The units of the program, in order.
      */
-    public abstract void codeGenClass(DecacCompiler compiler);
+    public abstract void codeGenClass(CodeGenUnits units);
 
     /**
      * Generates the assembly code for the class, including its methods and field
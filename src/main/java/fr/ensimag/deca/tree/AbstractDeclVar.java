@@ -5,6 +5,7 @@ import fr.ensimag.deca.DecacCompiler;
 import fr.ensimag.deca.context.ClassDefinition;
 import fr.ensimag.deca.context.ContextualError;
 import fr.ensimag.deca.context.EnvironmentExp;
+import fr.ensimag.deca.ir.IRBuilder;
 
 /**
  * Variable declaration
@@ -46,4 +47,10 @@ public abstract class AbstractDeclVar extends Tree {
      * @param compiler
      */
     public abstract void ARMCodeGenDeclVar(DecacCompiler compiler);
+
+    /**
+     * Lower the initialization of the variable to the intermediate
+     * representation.
+     */
+    protected abstract void lowerDeclVar(IRBuilder builder);
 }
@@ -13,14 +13,20 @@ import fr.ensimag.deca.context.Type;
 import fr.ensimag.deca.tools.DecacInternalError;
 import fr.ensimag.deca.tools.IndentPrintStream;
 import fr.ensimag.ima.pseudocode.DVal;
+import fr.ensimag.ima.pseudocode.GPRegister;
+import fr.ensimag.ima.pseudocode.Label;
 import fr.ensimag.ima.pseudocode.Register;
+import fr.ensimag.ima.pseudocode.RegisterOffset;
+import fr.ensimag.ima.pseudocode.instructions.BEQ;
+import fr.ensimag.ima.pseudocode.instructions.BNE;
+import fr.ensimag.ima.pseudocode.instructions.BRA;
+import fr.ensimag.ima.pseudocode.instructions.CMP;
 import fr.ensimag.ima.pseudocode.instructions.LOAD;
 import fr.ensimag.ima.pseudocode.instructions.POP;
+import fr.ensimag.ima.pseudocode.instructions.PUSH;
 import fr.ensimag.ima.pseudocode.instructions.WFLOAT;
 import fr.ensimag.ima.pseudocode.instructions.WFLOATX;
 import fr.ensimag.ima.pseudocode.instructions.WINT;
-import fr.ensimag.deca.codegen.StackCount;
-import fr.ensimag.deca.codegen.ARMDataSection;
 
 import fr.ensimag.arm.pseudocode.instructions.ARM_POP;
 import fr.ensimag.arm.pseudocode.instructions.ARM_PUSH;
@@ -36,6 +42,19 @@ import fr.ensimag.arm.pseudocode.ARMRegisterOffset;
 import fr.ensimag.arm.pseudocode.ARMDVal;
 import fr.ensimag.arm.pseudocode.ARMLiteral;
 import fr.ensimag.arm.pseudocode.ARMLabel;
+import fr.ensimag.deca.ir.BasicBlock;
+import fr.ensimag.deca.ir.BinaryOperator;
+import fr.ensimag.deca.ir.Branch;
+import fr.ensimag.deca.ir.Copy;
+import fr.ensimag.deca.ir.IRBuilder;
+import fr.ensimag.deca.ir.IRType;
+import fr.ensimag.deca.ir.IntConstant;
+import fr.ensimag.deca.ir.Jump;
+import fr.ensimag.deca.ir.Operand;
+import fr.ensimag.deca.ir.Print;
+import fr.ensimag.deca.ir.UnsupportedLoweringException;
+import fr.ensimag.deca.ir.VirtualRegister;
+import fr.ensimag.deca.ir.FloatConstant;
 
 /**
  * Expression, i.e. anything that has a value.
@@ -164,12 +183,13 @@ public abstract class AbstractExpr extends AbstractInst {
 
         // in R1, we load the value of the expression if it's in a GPRegister, and POP
         // it from the stack otherwise
-        DVal lastExprPos = Register.getLastExprPos();
+        DVal lastExprPos = compiler.getRegisterManager().getLastExprPos();
         if (lastExprPos.equals(Register.SP)) {
             compiler.addInstruction(new POP(Register.R1));
-            StackCount.countPop();
+            compiler.getStackCount().countPop();
         } else {
             compiler.addInstruction(new LOAD(lastExprPos, Register.R1));
+            compiler.getRegisterManager().setUnused((GPRegister) lastExprPos);
         }
 
         if (getType().isInt()) {
@@ -188,24 +208,24 @@ public abstract class AbstractExpr extends AbstractInst {
         ARMCodeGenInst(compiler);
 
         // Save R1 if need be
-        if (ARMRegister.isUsed(1)) {
+        if (compiler.getARMRegisterManager().isUsed(1)) {
             compiler.addARMInstruction(new ARM_PUSH(ARMRegister.R1));
         }
 
-        ARMDVal lastExprPos = ARMRegister.getLastExprPos();
+        ARMDVal lastExprPos = compiler.getARMRegisterManager().getLastExprPos();
         if (lastExprPos.equals(ARMRegister.SP)) {
             compiler.addARMInstruction(new ARM_POP(ARMRegister.R1));
-            StackCount.countPop();
+            compiler.getStackCount().countPop();
         } else {
             compiler.addARMInstruction(new ARM_MOV(ARMRegister.R1, lastExprPos));
         }
 
         if (getType().isInt()) {
             // Account for incoming int printing
-            ARMDataSection.setIntPrint();
+            compiler.getARMDataSection().setIntPrint();
 
             // Load int_format data into R0 (if used, push then pop)
-            if (ARMRegister.isUsed(0)) {
+            if (compiler.getARMRegisterManager().isUsed(0)) {
                 compiler.addARMInstruction(new ARM_PUSH(ARMRegister.R0));
             }
 
@@ -214,22 +234,22 @@ public abstract class AbstractExpr extends AbstractInst {
             // Call printf with BL instruction
             compiler.addARMInstruction(new ARM_BL(new ARMLabel("printf")));
 
-            if (ARMRegister.isUsed(0)) {
+            if (compiler.getARMRegisterManager().isUsed(0)) {
                 compiler.addARMInstruction(new ARM_POP(ARMRegister.R0));
             }
         } else if (getType().isFloat()) {
 
             // Account for incoming int printing
-            ARMDataSection.setFloatPrint();
+            compiler.getARMDataSection().setFloatPrint();
 
             // Store R0, R2 and R3 if need be
-            if (ARMRegister.isUsed(0)) {
+            if (compiler.getARMRegisterManager().isUsed(0)) {
                 compiler.addARMInstruction(new ARM_PUSH(ARMRegister.R0));
             }
-            if (ARMRegister.isUsed(2)) {
+            if (compiler.getARMRegisterManager().isUsed(2)) {
                 compiler.addARMInstruction(new ARM_PUSH(ARMRegister.R2));
             }
-            if (ARMRegister.isUsed(3)) {
+            if (compiler.getARMRegisterManager().isUsed(3)) {
                 compiler.addARMInstruction(new ARM_PUSH(ARMRegister.R3));
             }
 
@@ -243,19 +263,19 @@ public abstract class AbstractExpr extends AbstractInst {
             compiler.addARMInstruction(new ARM_BL(new ARMLabel("printf")));
 
             // Restore R0, R2 and R3 if need be
-            if (ARMRegister.isUsed(3)) {
+            if (compiler.getARMRegisterManager().isUsed(3)) {
                 compiler.addARMInstruction(new ARM_POP(ARMRegister.R3));
             }
-            if (ARMRegister.isUsed(2)) {
+            if (compiler.getARMRegisterManager().isUsed(2)) {
                 compiler.addARMInstruction(new ARM_POP(ARMRegister.R2));
             }
-            if (ARMRegister.isUsed(0)) {
+            if (compiler.getARMRegisterManager().isUsed(0)) {
                 compiler.addARMInstruction(new ARM_POP(ARMRegister.R0));
             }
         }
 
         // Restore R1 if need be
-        if (ARMRegister.isUsed(1)) {
+        if (compiler.getARMRegisterManager().isUsed(1)) {
             compiler.addARMInstruction(new ARM_POP(ARMRegister.R1));
         }
     }
@@ -264,6 +284,71 @@ public abstract class AbstractExpr extends AbstractInst {
     protected void codeGenInst(DecacCompiler compiler) {
     }
 
+    /**
+     * Generate the code of a boolean expression in a control-flow position:
+     * jump to label if its value is jumpIf, go on with the next instruction
+     * otherwise. By default, the value is computed and compared to 0.
+     */
+    protected void codeGenCondition(DecacCompiler compiler, boolean jumpIf, Label label) {
+        codeGenInst(compiler);
+        DVal conditionPos = compiler.getRegisterManager().getLastExprPos();
+        GPRegister conditionRegister;
+        if (conditionPos.equals(Register.SP)) {
+            conditionRegister = Register.R1;
+            compiler.addInstruction(new POP(conditionRegister));
+            compiler.getStackCount().countPop();
+        } else {
+            conditionRegister = (GPRegister) conditionPos;
+            compiler.getRegisterManager().setUnused(conditionRegister);
+        }
+        compiler.addInstruction(new CMP(0, conditionRegister));
+        compiler.addInstruction(jumpIf ? new BNE(label) : new BEQ(label));
+    }
+
+    /**
+     * Compute the value of a boolean expression from its code in a
+     * control-flow position: 1 or 0 is loaded in a register, or pushed if
+     * none is free.
+     */
+    protected void codeGenConditionValue(DecacCompiler compiler) {
+        Label falseLabel = compiler.createLabel("false");
+        Label endLabel = compiler.createLabel("end_bool");
+        codeGenCondition(compiler, false, falseLabel);
+        GPRegister valueRegister = compiler.getRegisterManager().getUnusedR();
+        GPRegister target = valueRegister != null ? valueRegister : Register.R1;
+        compiler.addInstruction(new LOAD(1, target));
+        compiler.addInstruction(new BRA(endLabel));
+        compiler.addLabel(falseLabel);
+        compiler.addInstruction(new LOAD(0, target));
+        compiler.addLabel(endLabel);
+        if (valueRegister != null) {
+            compiler.getRegisterManager().setLastExprPos(new RegisterOffset(0, valueRegister));
+        } else {
+            compiler.addInstruction(new PUSH(Register.R1));
+            compiler.getStackCount().countPush();
+            compiler.getRegisterManager().setLastExprPos(new RegisterOffset(0, Register.SP));
+        }
+    }
+
+    /**
+     * @return the number of registers needed to compute the expression
+     *         without saving an intermediate value on the stack (its Ershov
+     *         number)
+     */
+    protected int getRegisterNeed() {
+        return 1;
+    }
+
+    /**
+     * @return true if the evaluation of the expression can be moved before or
+     *         after the evaluation of another such expression without changing
+     *         the behaviour of the program: it calls no method, reads no input,
+     *         writes no memory and its only possible error is an overflow
+     */
+    protected boolean isReorderable() {
+        return false;
+    }
+
     @Override
     protected void ARMCodeGenInst(DecacCompiler compiler) {
     }
@@ -284,4 +369,102 @@ public abstract class AbstractExpr extends AbstractInst {
             s.println();
         }
     }
+
+    @Override
+    protected void lowerInst(IRBuilder builder) {
+        lowerExpr(builder);
+    }
+
+    /**
+     * Lower the computation of the value of the expression.
+     *
+     * @return the operand holding the value
+     * @throws UnsupportedLoweringException if the IR does not cover the
+     *                                      expression
+     */
+    protected Operand lowerExpr(IRBuilder builder) {
+        throw new UnsupportedLoweringException(getClass().getSimpleName());
+    }
+
+    /**
+     * Lower the expression as the condition of a branch: the execution goes
+     * on with ifTrue if its value is true, with ifFalse otherwise.
+     */
+    protected void lowerCondition(IRBuilder builder, BasicBlock ifTrue, BasicBlock ifFalse) {
+        Operand value = lowerExpr(builder);
+        builder.emit(new Branch(BinaryOperator.NE, value, IntConstant.FALSE, ifTrue, ifFalse));
+    }
+
+    /**
+     * Lower a boolean expression whose value is computed by
+     * {@link #lowerCondition}.
+     *
+     * @return the register holding the value
+     */
+    protected VirtualRegister lowerConditionValue(IRBuilder builder) {
+        VirtualRegister value = builder.newTemp(IRType.BOOLEAN);
+        BasicBlock ifTrue = builder.newBlock();
+        BasicBlock ifFalse = builder.newBlock();
+        BasicBlock end = builder.newBlock();
+        lowerCondition(builder, ifTrue, ifFalse);
+        builder.startBlock(ifTrue);
+        builder.emit(new Copy(value, IntConstant.TRUE));
+        builder.emit(new Jump(end));
+        builder.startBlock(ifFalse);
+        builder.emit(new Copy(value, IntConstant.FALSE));
+        builder.emit(new Jump(end));
+        builder.startBlock(end);
+        return value;
+    }
+
+    /**
+     * Lower the printing of the value of the expression.
+     */
+    protected void lowerPrint(IRBuilder builder, boolean printHex) {
+        builder.emit(new Print(lowerExpr(builder), printHex));
+    }
+
+    @Override
+    protected AbstractInst foldInst(DecacCompiler compiler) {
+        return foldExpr(compiler);
+    }
+
+    /**
+     * Fold the constant subexpressions and simplify the expression: the
+     * result is equivalent, with the same type. The operations whose result
+     * depends on the execution (overflows, divisions by zero) are kept, see
+     * {@link fr.ensimag.deca.ir.ConstantFolder}.
+     *
+     * @return the expression to use instead of this one (possibly this one)
+     */
+    protected AbstractExpr foldExpr(DecacCompiler compiler) {
+        return this;
+    }
+
+    /**
+     * @return the value of a literal, or null for another expression
+     */
+    protected Operand getConstantValue() {
+        return null;
+    }
+
+    /**
+     * @return a literal of the given value, at the location of this
+     *         expression
+     */
+    protected AbstractExpr literal(DecacCompiler compiler, Operand value) {
+        AbstractExpr literal;
+        if (value instanceof FloatConstant) {
+            literal = new FloatLiteral(((FloatConstant) value).getValue());
+            literal.setType(compiler.environmentType.FLOAT);
+        } else if (value.getType() == IRType.BOOLEAN) {
+            literal = new BooleanLiteral(((IntConstant) value).getValue() != 0);
+            literal.setType(compiler.environmentType.BOOLEAN);
+        } else {
+            literal = new IntLiteral(((IntConstant) value).getValue());
+            literal.setType(compiler.environmentType.INT);
+        }
+        literal.setPackedLocation(getPackedLocation());
+        return literal;
+    }
 }
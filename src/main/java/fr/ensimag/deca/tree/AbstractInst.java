@@ -7,6 +7,8 @@ import fr.ensimag.deca.context.ContextualError;
 import fr.ensimag.deca.context.EnvironmentExp;
 import fr.ensimag.deca.tools.IndentPrintStream;
 import fr.ensimag.ima.pseudocode.Label;
+import fr.ensimag.deca.ir.IRBuilder;
+import fr.ensimag.deca.ir.UnsupportedLoweringException;
 
 /**
  * Instruction
@@ -54,4 +56,22 @@ public abstract class AbstractInst extends Tree {
     protected void decompileInst(IndentPrintStream s) {
         decompile(s);
     }
+
+    /**
+     * Lower the instruction to the intermediate representation.
+     *
+     * @throws UnsupportedLoweringException if the IR does not cover the
+     *                                      instruction
+     */
+    protected void lowerInst(IRBuilder builder) {
+        throw new UnsupportedLoweringException(getClass().getSimpleName());
+    }
+
+    /**
+     * @return the instruction with its constant expressions folded
+     * @see AbstractExpr#foldExpr
+     */
+    protected AbstractInst foldInst(DecacCompiler compiler) {
+        return this;
+    }
 }
@@ -6,6 +6,9 @@ import fr.ensimag.deca.context.ClassDefinition;
 import fr.ensimag.deca.context.ContextualError;
 import fr.ensimag.deca.context.Definition;
 import fr.ensimag.deca.context.EnvironmentExp;
+import fr.ensimag.deca.ir.IRBuilder;
+import fr.ensimag.deca.ir.UnsupportedLoweringException;
+import fr.ensimag.deca.ir.VirtualRegister;
 
 /**
  * Left-hand side value of an assignment.
@@ -15,4 +18,13 @@ import fr.ensimag.deca.context.EnvironmentExp;
  */
 public abstract class AbstractLValue extends AbstractExpr {
     public abstract Definition getDefinition();
+
+    /**
+     * @return the register of the variable designated by the lvalue
+     * @throws UnsupportedLoweringException if it is not a variable or a
+     *                                      parameter
+     */
+    protected VirtualRegister lowerLValue(IRBuilder builder) {
+        throw new UnsupportedLoweringException(getClass().getSimpleName());
+    }
 }
@@ -39,7 +39,13 @@ import fr.ensimag.arm.pseudocode.instructions.ARM_VMOV;
 import fr.ensimag.arm.pseudocode.instructions.ARM_MOV;
 import fr.ensimag.arm.pseudocode.instructions.ARM_MLS;
 import fr.ensimag.arm.pseudocode.instructions.ARM_BL;
-import fr.ensimag.deca.codegen.StackCount;
+import fr.ensimag.deca.ir.BinaryOperator;
+import fr.ensimag.deca.ir.IRBuilder;
+import fr.ensimag.deca.ir.Operand;
+import fr.ensimag.deca.ir.ConstantFolder;
+import fr.ensimag.deca.ir.FloatConstant;
+import fr.ensimag.deca.ir.IntConstant;
+import fr.ensimag.deca.ir.IRType;
 
 /**
  * Arithmetic binary operations (+, -, /, ...)
@@ -85,56 +91,48 @@ public abstract class AbstractOpArith extends AbstractBinaryExpr {
 
     @Override
     protected void codeGenInst(DecacCompiler compiler) {
-        getLeftOperand().codeGenInst(compiler);
-        DVal leftOperandPos = Register.getLastExprPos();
-        if (!leftOperandPos.equals(Register.SP)) {
-            Register.setUsed((GPRegister) leftOperandPos);
-        }
-
-        getRightOperand().codeGenInst(compiler);
-        DVal rightOperandPos = Register.getLastExprPos();
-        if (!leftOperandPos.equals(Register.SP)) {
-            Register.setUnused((GPRegister) leftOperandPos);
-        }
+        DVal[] operands = codeGenOperands(compiler);
+        DVal leftOperandPos = operands[0];
+        DVal rightOperandPos = operands[1];
 
         if (rightOperandPos.equals(Register.SP) && leftOperandPos.equals(Register.SP)) {
             // if both operands are stored in the stack as temorary variables
             compiler.addInstruction(new POP(Register.R1));
-            StackCount.countPop();
+            compiler.getStackCount().countPop();
 
             compiler.addInstruction(new POP(Register.R0));
-            StackCount.countPop();
+            compiler.getStackCount().countPop();
 
             opArithInstruction(Register.R1, Register.R0, compiler);
-            compiler.addInstruction(new PUSH(Register.R1));
-            StackCount.countPush();
-            Register.setLastExprPos(new RegisterOffset(0, Register.SP));
+            compiler.addInstruction(new PUSH(Register.R0));
+            compiler.getStackCount().countPush();
+            compiler.getRegisterManager().setLastExprPos(new RegisterOffset(0, Register.SP));
 
         } else if (rightOperandPos.equals(Register.SP)) {
             // if rightOperand is stored in the stack as a temporary variable
             compiler.addInstruction(new POP(Register.R1));
-            StackCount.countPop();
+            compiler.getStackCount().countPop();
 
+            // the result is in the register of the left operand
             opArithInstruction(Register.R1, (GPRegister) leftOperandPos, compiler);
-            compiler.addInstruction(new PUSH(Register.R1));
-            StackCount.countPush();
-            Register.setLastExprPos(new RegisterOffset(0, Register.SP));
-
-            Register.setUnused((GPRegister) leftOperandPos);
-        } else if (leftOperandPos.equals(Register.SP) && !rightOperandPos.equals(Register.SP)) {
+            compiler.getRegisterManager().setLastExprPos(new RegisterOffset(0, (GPRegister) leftOperandPos));
+        } else if (leftOperandPos.equals(Register.SP)) {
+            // if leftOperand is stored in the stack as a temporary variable
             compiler.addInstruction(new POP(Register.R1));
-            StackCount.countPop();
+            compiler.getStackCount().countPop();
 
             opArithInstruction((GPRegister) rightOperandPos, Register.R1, compiler);
             compiler.addInstruction(new PUSH(Register.R1));
-            StackCount.countPush();
-            Register.setLastExprPos(new RegisterOffset(0, Register.SP));
+            compiler.getStackCount().countPush();
+            compiler.getRegisterManager().setLastExprPos(new RegisterOffset(0, Register.SP));
+
+            compiler.getRegisterManager().setUnused((GPRegister) rightOperandPos);
         } else {
             // if both operands are stored in GPRegisters
             opArithInstruction(rightOperandPos, (GPRegister) leftOperandPos, compiler);
-            Register.setLastExprPos(new RegisterOffset(0, (GPRegister) leftOperandPos));
+            compiler.getRegisterManager().setLastExprPos(new RegisterOffset(0, (GPRegister) leftOperandPos));
 
-            Register.setUnused((GPRegister) rightOperandPos);
+            compiler.getRegisterManager().setUnused((GPRegister) rightOperandPos);
         }
     }
 
@@ -184,22 +182,22 @@ public abstract class AbstractOpArith extends AbstractBinaryExpr {
     protected void ARMCodeGenInst(DecacCompiler compiler) {
         // TODO Auto-generated method stub
         getLeftOperand().ARMCodeGenInst(compiler);
-        ARMDVal leftOperandPos = ARMRegister.getLastExprPos();
+        ARMDVal leftOperandPos = compiler.getARMRegisterManager().getLastExprPos();
         if (!leftOperandPos.equals(ARMRegister.SP)) {
             if (leftOperandPos instanceof ARMSPRegister) {
-                ARMRegister.VFPSsetUsed((ARMSPRegister) leftOperandPos);
+                compiler.getARMRegisterManager().VFPSsetUsed((ARMSPRegister) leftOperandPos);
             } else if (leftOperandPos instanceof ARMGPRegister) {
-                ARMRegister.setUsed((ARMGPRegister) leftOperandPos);
+                compiler.getARMRegisterManager().setUsed((ARMGPRegister) leftOperandPos);
             }
         }
 
         getRightOperand().ARMCodeGenInst(compiler);
-        ARMDVal rightOperandPos = ARMRegister.getLastExprPos();
+        ARMDVal rightOperandPos = compiler.getARMRegisterManager().getLastExprPos();
         if (!leftOperandPos.equals(ARMRegister.SP)) {
             if (leftOperandPos instanceof ARMSPRegister) {
-                ARMRegister.VFPSsetUnused((ARMSPRegister) leftOperandPos);
+                compiler.getARMRegisterManager().VFPSsetUnused((ARMSPRegister) leftOperandPos);
             } else if (leftOperandPos instanceof ARMGPRegister) {
-                ARMRegister.setUnused((ARMGPRegister) leftOperandPos);
+                compiler.getARMRegisterManager().setUnused((ARMGPRegister) leftOperandPos);
             }
         }
 
@@ -214,12 +212,12 @@ public abstract class AbstractOpArith extends AbstractBinaryExpr {
         } else {
             // if both operands are stored in GPRegisters
             opArithARMInstruction((ARMRegister) leftOperandPos, rightOperandPos, compiler);
-            ARMRegister.setLastExprPos(new ARMRegisterOffset(0, (ARMRegister) leftOperandPos));
+            compiler.getARMRegisterManager().setLastExprPos(new ARMRegisterOffset(0, (ARMRegister) leftOperandPos));
 
             if (rightOperandPos instanceof ARMGPRegister) {
-                ARMRegister.setUnused((ARMGPRegister) rightOperandPos);
+                compiler.getARMRegisterManager().setUnused((ARMGPRegister) rightOperandPos);
             } else if (rightOperandPos instanceof ARMSPRegister) {
-                ARMRegister.VFPSsetUnused((ARMSPRegister) rightOperandPos);
+                compiler.getARMRegisterManager().VFPSsetUnused((ARMSPRegister) rightOperandPos);
             }
         }
 
@@ -233,8 +231,8 @@ public abstract class AbstractOpArith extends AbstractBinaryExpr {
                 compiler.addARMInstruction(new ARM_ADD((ARMGPRegister) leftReg, (ARMGPRegister) leftReg, rightDVal));
             } else if (getType().isFloat()) {
                 // put values in s registers, compute, put back in r register
-                ARMSPRegister leftSReg = ARMRegister.VFPgetUnusedS();
-                ARMSPRegister rightSReg = ARMRegister.VFPgetUnusedS();
+                ARMSPRegister leftSReg = compiler.getARMRegisterManager().VFPgetUnusedS();
+                ARMSPRegister rightSReg = compiler.getARMRegisterManager().VFPgetUnusedS();
                 compiler.addARMInstruction(new ARM_VLDR(leftSReg, new ARMRegisterOffset(0, leftReg)));
                 compiler.addARMInstruction(
                         new ARM_VLDR(rightSReg, new ARMRegisterOffset(0, (ARMGPRegister) rightDVal)));
@@ -245,8 +243,8 @@ public abstract class AbstractOpArith extends AbstractBinaryExpr {
                 compiler.addARMInstruction(new ARM_VMOV((ARMGPRegister) leftReg, leftSReg));
 
                 // set s registers as unused
-                ARMRegister.VFPSsetUnused(leftSReg);
-                ARMRegister.VFPSsetUnused(rightSReg);
+                compiler.getARMRegisterManager().VFPSsetUnused(leftSReg);
+                compiler.getARMRegisterManager().VFPSsetUnused(rightSReg);
             }
 
         } else if (op.equals("-")) {
@@ -254,8 +252,8 @@ public abstract class AbstractOpArith extends AbstractBinaryExpr {
                 compiler.addARMInstruction(new ARM_SUB((ARMGPRegister) leftReg, (ARMGPRegister) leftReg, rightDVal));
             } else if (getType().isFloat()) {
                 // put values in s registers, compute, put back in r register
-                ARMSPRegister leftSReg = ARMRegister.VFPgetUnusedS();
-                ARMSPRegister rightSReg = ARMRegister.VFPgetUnusedS();
+                ARMSPRegister leftSReg = compiler.getARMRegisterManager().VFPgetUnusedS();
+                ARMSPRegister rightSReg = compiler.getARMRegisterManager().VFPgetUnusedS();
                 compiler.addARMInstruction(new ARM_VLDR(leftSReg, new ARMRegisterOffset(0, leftReg)));
                 compiler.addARMInstruction(
                         new ARM_VLDR(rightSReg, new ARMRegisterOffset(0, (ARMGPRegister) rightDVal)));
@@ -266,8 +264,8 @@ public abstract class AbstractOpArith extends AbstractBinaryExpr {
                 compiler.addARMInstruction(new ARM_VMOV((ARMGPRegister) leftReg, leftSReg));
 
                 // set s registers as unused
-                ARMRegister.VFPSsetUnused(leftSReg);
-                ARMRegister.VFPSsetUnused(rightSReg);
+                compiler.getARMRegisterManager().VFPSsetUnused(leftSReg);
+                compiler.getARMRegisterManager().VFPSsetUnused(rightSReg);
             }
 
         } else if (op.equals("*")) {
@@ -275,8 +273,8 @@ public abstract class AbstractOpArith extends AbstractBinaryExpr {
                 compiler.addARMInstruction(new ARM_MUL((ARMGPRegister) leftReg, (ARMGPRegister) leftReg, rightDVal));
             } else if (getType().isFloat()) {
                 // put values in s registers, compute, put back in r register
-                ARMSPRegister leftSReg = ARMRegister.VFPgetUnusedS();
-                ARMSPRegister rightSReg = ARMRegister.VFPgetUnusedS();
+                ARMSPRegister leftSReg = compiler.getARMRegisterManager().VFPgetUnusedS();
+                ARMSPRegister rightSReg = compiler.getARMRegisterManager().VFPgetUnusedS();
                 compiler.addARMInstruction(new ARM_VLDR(leftSReg, new ARMRegisterOffset(0, leftReg)));
                 compiler.addARMInstruction(
                         new ARM_VLDR(rightSReg, new ARMRegisterOffset(0, (ARMGPRegister) rightDVal)));
@@ -287,8 +285,8 @@ public abstract class AbstractOpArith extends AbstractBinaryExpr {
                 compiler.addARMInstruction(new ARM_VMOV((ARMGPRegister) leftReg, leftSReg));
 
                 // set s registers as unused
-                ARMRegister.VFPSsetUnused(leftSReg);
-                ARMRegister.VFPSsetUnused(rightSReg);
+                compiler.getARMRegisterManager().VFPSsetUnused(leftSReg);
+                compiler.getARMRegisterManager().VFPSsetUnused(rightSReg);
             }
 
         } else if (op.equals("/")) {
@@ -309,7 +307,7 @@ public abstract class AbstractOpArith extends AbstractBinaryExpr {
                         compiler.addARMInstruction(new ARM_MOV(ARMRegister.R0, leftReg));
                     } else {
                         // save R0 if needed
-                        if (ARMRegister.isUsed(0)) {
+                        if (compiler.getARMRegisterManager().isUsed(0)) {
                             compiler.addARMInstruction(new ARM_PUSH(ARMRegister.R0));
                         }
 
@@ -327,7 +325,7 @@ public abstract class AbstractOpArith extends AbstractBinaryExpr {
                         compiler.addARMInstruction(new ARM_MOV(ARMRegister.R1, rightDVal));
                     } else {
                         // save R1 if needed
-                        if (ARMRegister.isUsed(1)) {
+                        if (compiler.getARMRegisterManager().isUsed(1)) {
                             compiler.addARMInstruction(new ARM_PUSH(ARMRegister.R1));
                         }
 
@@ -342,20 +340,20 @@ public abstract class AbstractOpArith extends AbstractBinaryExpr {
 
                 if (movedRightDVal) {
                     compiler.addARMInstruction(new ARM_MOV(ARMRegister.R0, ARMRegister.R12));
-                } else if (ARMRegister.isUsed(0) && !leftReg.equals(ARMRegister.R0)) {
+                } else if (compiler.getARMRegisterManager().isUsed(0) && !leftReg.equals(ARMRegister.R0)) {
                     // restore R0 if needed
                     compiler.addARMInstruction(new ARM_POP(ARMRegister.R0));
                 }
                 if (movedLeftReg) {
                     compiler.addARMInstruction(new ARM_MOV(ARMRegister.R1, ARMRegister.R12));
-                } else if (ARMRegister.isUsed(1) && !rightDVal.equals(ARMRegister.R1)) {
+                } else if (compiler.getARMRegisterManager().isUsed(1) && !rightDVal.equals(ARMRegister.R1)) {
                     // restore R1 if needed
                     compiler.addARMInstruction(new ARM_POP(ARMRegister.R1));
                 }
             } else if (getType().isFloat()) {
                 // put values in s registers, compute, put back in r register
-                ARMSPRegister leftSReg = ARMRegister.VFPgetUnusedS();
-                ARMSPRegister rightSReg = ARMRegister.VFPgetUnusedS();
+                ARMSPRegister leftSReg = compiler.getARMRegisterManager().VFPgetUnusedS();
+                ARMSPRegister rightSReg = compiler.getARMRegisterManager().VFPgetUnusedS();
                 compiler.addARMInstruction(new ARM_VLDR(leftSReg, new ARMRegisterOffset(0, leftReg)));
                 compiler.addARMInstruction(
                         new ARM_VLDR(rightSReg, new ARMRegisterOffset(0, (ARMGPRegister) rightDVal)));
@@ -366,8 +364,8 @@ public abstract class AbstractOpArith extends AbstractBinaryExpr {
                 compiler.addARMInstruction(new ARM_VMOV((ARMGPRegister) leftReg, leftSReg));
 
                 // set s registers as unused
-                ARMRegister.VFPSsetUnused(leftSReg);
-                ARMRegister.VFPSsetUnused(rightSReg);
+                compiler.getARMRegisterManager().VFPSsetUnused(leftSReg);
+                compiler.getARMRegisterManager().VFPSsetUnused(rightSReg);
             }
 
         } else if (op.equals("%")) {
@@ -382,7 +380,7 @@ public abstract class AbstractOpArith extends AbstractBinaryExpr {
             ARMGPRegister leftRegStore = null;
 
             if (!leftReg.equals(ARMRegister.R0) && !rightDVal.equals(ARMRegister.R0)) {
-                leftRegStore = ARMRegister.getUnusedSavedR();
+                leftRegStore = compiler.getARMRegisterManager().getUnusedSavedR();
                 compiler.addARMInstruction(new ARM_MOV(leftRegStore, leftReg));
             }
 
@@ -395,7 +393,7 @@ public abstract class AbstractOpArith extends AbstractBinaryExpr {
                     compiler.addARMInstruction(new ARM_MOV(ARMRegister.R0, leftReg));
                 } else {
                     // save R0 if needed
-                    if (ARMRegister.isUsed(0)) {
+                    if (compiler.getARMRegisterManager().isUsed(0)) {
                         compiler.addARMInstruction(new ARM_PUSH(ARMRegister.R0));
                     }
 
@@ -403,7 +401,7 @@ public abstract class AbstractOpArith extends AbstractBinaryExpr {
 
                 }
             } else {
-                leftRegStore = ARMRegister.getUnusedSavedR();
+                leftRegStore = compiler.getARMRegisterManager().getUnusedSavedR();
                 compiler.addARMInstruction(new ARM_MOV(leftRegStore, leftReg));
             }
 
@@ -416,7 +414,7 @@ public abstract class AbstractOpArith extends AbstractBinaryExpr {
                     compiler.addARMInstruction(new ARM_MOV(ARMRegister.R1, rightDVal));
                 } else {
                     // save R1 if needed
-                    if (ARMRegister.isUsed(1)) {
+                    if (compiler.getARMRegisterManager().isUsed(1)) {
                         compiler.addARMInstruction(new ARM_PUSH(ARMRegister.R1));
                     }
 
@@ -431,12 +429,12 @@ public abstract class AbstractOpArith extends AbstractBinaryExpr {
                 compiler.addARMInstruction(
                         new ARM_MLS((ARMGPRegister) leftReg, ARMRegister.R0, (ARMGPRegister) rightDVal,
                                 leftRegStore));
-                ARMRegister.setUnused(leftRegStore);
+                compiler.getARMRegisterManager().setUnused(leftRegStore);
             } else if (leftReg.equals(ARMRegister.R0)) {
                 compiler.addARMInstruction(
                         new ARM_MLS((ARMGPRegister) leftReg, ARMRegister.R0, (ARMGPRegister) rightDVal,
                                 leftRegStore));
-                ARMRegister.setUnused(leftRegStore);
+                compiler.getARMRegisterManager().setUnused(leftRegStore);
             } else if (rightDVal.equals(ARMRegister.R0)) {
                 compiler.addARMInstruction(
                         new ARM_MLS((ARMGPRegister) leftReg, ARMRegister.R0, ARMRegister.R12,
@@ -445,13 +443,13 @@ public abstract class AbstractOpArith extends AbstractBinaryExpr {
 
             if (movedRightDVal) {
                 compiler.addARMInstruction(new ARM_MOV(ARMRegister.R0, ARMRegister.R12));
-            } else if (ARMRegister.isUsed(0) && !leftReg.equals(ARMRegister.R0)) {
+            } else if (compiler.getARMRegisterManager().isUsed(0) && !leftReg.equals(ARMRegister.R0)) {
                 // restore R0 if needed
                 compiler.addARMInstruction(new ARM_POP(ARMRegister.R0));
             }
             if (movedLeftReg) {
                 compiler.addARMInstruction(new ARM_MOV(ARMRegister.R1, ARMRegister.R12));
-            } else if (ARMRegister.isUsed(1) && !rightDVal.equals(ARMRegister.R1)) {
+            } else if (compiler.getARMRegisterManager().isUsed(1) && !rightDVal.equals(ARMRegister.R1)) {
                 // restore R1 if needed
                 compiler.addARMInstruction(new ARM_POP(ARMRegister.R1));
             }
@@ -467,4 +465,72 @@ public abstract class AbstractOpArith extends AbstractBinaryExpr {
 
     }
 
+    /**
+     * @return the operator of the IR corresponding to the operator
+     */
+    protected BinaryOperator getIROperator() {
+        switch (getOperatorName()) {
+            case "+":
+                return BinaryOperator.ADD;
+            case "-":
+                return BinaryOperator.SUB;
+            case "*":
+                return BinaryOperator.MUL;
+            case "/":
+                return getType().isInt() ? BinaryOperator.QUO : BinaryOperator.DIV;
+            case "%":
+                return BinaryOperator.REM;
+            default:
+                throw new IllegalStateException("Undefined binary arithmetic operation " + getOperatorName());
+        }
+    }
+
+    @Override
+    protected Operand lowerExpr(IRBuilder builder) {
+        Operand left = getLeftOperand().lowerExpr(builder);
+        Operand right = getRightOperand().lowerExpr(builder);
+        return builder.emitBinary(getIROperator(), left, right);
+    }
+
+    /**
+     * @return true if value is 0 (int) or 1 (int or float)
+     */
+    private static boolean is(Operand value, int n) {
+        if (value instanceof IntConstant) {
+            return value.getType() == IRType.INT && ((IntConstant) value).getValue() == n;
+        }
+        // x + 0.0 is not x when x is -0.0, only 1.0 is kept as a neutral element
+        return n == 1 && value instanceof FloatConstant && ((FloatConstant) value).getValue() == 1;
+    }
+
+    @Override
+    protected AbstractExpr foldExpr(DecacCompiler compiler) {
+        super.foldExpr(compiler);
+        Operand left = getLeftOperand().getConstantValue();
+        Operand right = getRightOperand().getConstantValue();
+        BinaryOperator operator = getIROperator();
+        if (left != null && right != null) {
+            Operand value = ConstantFolder.fold(operator, left, right);
+            return value == null ? this : literal(compiler, value);
+        }
+        switch (operator) {
+            case ADD:
+                if (is(left, 0)) {
+                    return getRightOperand();
+                }
+                return is(right, 0) ? getLeftOperand() : this;
+            case SUB:
+                return is(right, 0) ? getLeftOperand() : this;
+            case MUL:
+                if (is(left, 1)) {
+                    return getRightOperand();
+                }
+                return is(right, 1) ? getLeftOperand() : this;
+            case QUO:
+            case DIV:
+                return is(right, 1) ? getLeftOperand() : this;
+            default:
+                return this;
+        }
+    }
 }
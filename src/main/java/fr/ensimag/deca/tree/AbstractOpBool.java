@@ -6,6 +6,8 @@ import fr.ensimag.deca.context.ContextualError;
 import fr.ensimag.deca.context.EnvironmentExp;
 import fr.ensimag.deca.context.Type;
 import fr.ensimag.deca.context.VariableDefinition;
+import fr.ensimag.deca.ir.IRBuilder;
+import fr.ensimag.deca.ir.Operand;
 
 /**
  *
@@ -50,4 +52,9 @@ public abstract class AbstractOpBool extends AbstractBinaryExpr {
     protected abstract void codeGenInst(DecacCompiler compiler);
 
     protected abstract void ARMCodeGenInst(DecacCompiler compiler);
+
+    @Override
+    protected Operand lowerExpr(IRBuilder builder) {
+        return lowerConditionValue(builder);
+    }
 }
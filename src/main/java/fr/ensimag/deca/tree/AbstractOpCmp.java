@@ -8,8 +8,15 @@ import fr.ensimag.deca.context.Type;
 import fr.ensimag.ima.pseudocode.DVal;
 import fr.ensimag.ima.pseudocode.GPRegister;
 import fr.ensimag.ima.pseudocode.Instruction;
+import fr.ensimag.ima.pseudocode.Label;
 import fr.ensimag.ima.pseudocode.Register;
 import fr.ensimag.ima.pseudocode.RegisterOffset;
+import fr.ensimag.ima.pseudocode.instructions.BEQ;
+import fr.ensimag.ima.pseudocode.instructions.BGE;
+import fr.ensimag.ima.pseudocode.instructions.BGT;
+import fr.ensimag.ima.pseudocode.instructions.BLE;
+import fr.ensimag.ima.pseudocode.instructions.BLT;
+import fr.ensimag.ima.pseudocode.instructions.BNE;
 import fr.ensimag.ima.pseudocode.instructions.CMP;
 import fr.ensimag.ima.pseudocode.instructions.POP;
 import fr.ensimag.ima.pseudocode.instructions.PUSH;
@@ -19,7 +26,12 @@ import fr.ensimag.ima.pseudocode.instructions.SGT;
 import fr.ensimag.ima.pseudocode.instructions.SLE;
 import fr.ensimag.ima.pseudocode.instructions.SLT;
 import fr.ensimag.ima.pseudocode.instructions.SNE;
-import fr.ensimag.deca.codegen.StackCount;
+import fr.ensimag.deca.ir.BasicBlock;
+import fr.ensimag.deca.ir.BinaryOperator;
+import fr.ensimag.deca.ir.Branch;
+import fr.ensimag.deca.ir.IRBuilder;
+import fr.ensimag.deca.ir.Operand;
+import fr.ensimag.deca.ir.ConstantFolder;
 
 /**
  *
@@ -83,91 +95,194 @@ public abstract class AbstractOpCmp extends AbstractBinaryExpr {
     }
 
     protected void codeGenInst(DecacCompiler compiler) {
-        getLeftOperand().codeGenInst(compiler);
-        DVal leftOperandPos = Register.getLastExprPos();
-        if (!leftOperandPos.equals(Register.SP)) {
-            Register.setUsed((GPRegister) leftOperandPos);
-        }
+        codeGenValue(compiler, false);
+    }
 
-        getRightOperand().codeGenInst(compiler);
-        DVal rightOperandPos = Register.getLastExprPos();
-        if (!leftOperandPos.equals(Register.SP)) {
-            Register.setUnused((GPRegister) leftOperandPos);
-        }
+    /**
+     * Compute the value of the comparison, or of its negation if negated, with
+     * the Scc instruction of the comparison.
+     */
+    protected void codeGenValue(DecacCompiler compiler, boolean negated) {
+        BinaryOperator comparison = negated ? getComparison().negate() : getComparison();
+        DVal[] operands = codeGenOperands(compiler);
+        DVal leftOperandPos = operands[0];
+        DVal rightOperandPos = operands[1];
 
         if (rightOperandPos.equals(Register.SP) && leftOperandPos.equals(Register.SP)) {
             // if both operands are stored in the stack as temorary variables
             compiler.addInstruction(new POP(Register.R1));
-            StackCount.countPop();
+            compiler.getStackCount().countPop();
 
             compiler.addInstruction(new POP(Register.R0));
-            StackCount.countPop();
+            compiler.getStackCount().countPop();
 
             compiler.addInstruction(new CMP(Register.R1, Register.R0));
-            compiler.addInstruction(opCmpInstruction(Register.R1));
+            compiler.addInstruction(opCmpInstruction(comparison, Register.R1));
 
             compiler.addInstruction(new PUSH(Register.R1));
-            StackCount.countPush();
-            Register.setLastExprPos(new RegisterOffset(0, Register.SP));
+            compiler.getStackCount().countPush();
+            compiler.getRegisterManager().setLastExprPos(new RegisterOffset(0, Register.SP));
 
-        } else if (leftOperandPos.equals(Register.SP) && !rightOperandPos.equals(Register.SP)) {
+        } else if (leftOperandPos.equals(Register.SP)) {
+            // if leftOperand is stored in the stack as a temporary variable, the
+            // result goes to the register of rightOperand
             compiler.addInstruction(new POP(Register.R1));
-            StackCount.countPop();
-
-            compiler.addInstruction(new CMP(rightOperandPos, Register.R1));
-            compiler.addInstruction(opCmpInstruction(Register.R1));
-
-            compiler.addInstruction(new PUSH(Register.R1));
-            StackCount.countPush();
-            Register.setLastExprPos(new RegisterOffset(0, Register.SP));
-
-            Register.setUnused((GPRegister) leftOperandPos);
-        } else if (leftOperandPos.equals(Register.SP) && !rightOperandPos.equals(Register.SP)) {
-            // leftOperand is stored in the stack as a temporary variable and rightOperand
-            // is stored in a GPRegister, this should never happen!
+            compiler.getStackCount().countPop();
 
+            compiler.addInstruction(new CMP((GPRegister) rightOperandPos, Register.R1));
+            compiler.addInstruction(opCmpInstruction(comparison, (GPRegister) rightOperandPos));
+            compiler.getRegisterManager().setLastExprPos(new RegisterOffset(0, (GPRegister) rightOperandPos));
+        } else if (rightOperandPos.equals(Register.SP)) {
+            // if rightOperand is stored in the stack as a temporary variable, the
+            // result goes to the register of leftOperand
             compiler.addInstruction(new POP(Register.R1));
-            StackCount.countPop();
+            compiler.getStackCount().countPop();
 
-            compiler.addInstruction(opCmpInstruction(Register.R1));
-            compiler.addInstruction(new PUSH(Register.R1));
-            StackCount.countPush();
-            Register.setLastExprPos(new RegisterOffset(0, Register.SP));
+            compiler.addInstruction(new CMP(Register.R1, (GPRegister) leftOperandPos));
+            compiler.addInstruction(opCmpInstruction(comparison, (GPRegister) leftOperandPos));
+            compiler.getRegisterManager().setUsed((GPRegister) leftOperandPos);
+            compiler.getRegisterManager().setLastExprPos(new RegisterOffset(0, (GPRegister) leftOperandPos));
         } else {
             // if both operands are stored in GPRegisters
             compiler.addInstruction(new CMP(rightOperandPos, (GPRegister) leftOperandPos));
-            compiler.addInstruction(opCmpInstruction((GPRegister) rightOperandPos));
-            Register.setLastExprPos(new RegisterOffset(0, (GPRegister) rightOperandPos));
+            compiler.addInstruction(opCmpInstruction(comparison, (GPRegister) rightOperandPos));
+            compiler.getRegisterManager().setLastExprPos(new RegisterOffset(0, (GPRegister) rightOperandPos));
 
-            Register.setUnused((GPRegister) leftOperandPos);
+            compiler.getRegisterManager().setUnused((GPRegister) leftOperandPos);
         }
     }
 
+    @Override
+    protected void codeGenCondition(DecacCompiler compiler, boolean jumpIf, Label label) {
+        DVal[] operands = codeGenOperands(compiler);
+        DVal leftOperandPos = operands[0];
+        DVal rightOperandPos = operands[1];
+
+        // the condition codes of the comparison feed the branch directly
+        if (rightOperandPos.equals(Register.SP) && leftOperandPos.equals(Register.SP)) {
+            compiler.addInstruction(new POP(Register.R1));
+            compiler.getStackCount().countPop();
+            compiler.addInstruction(new POP(Register.R0));
+            compiler.getStackCount().countPop();
+            compiler.addInstruction(new CMP(Register.R1, Register.R0));
+        } else if (leftOperandPos.equals(Register.SP)) {
+            compiler.addInstruction(new POP(Register.R1));
+            compiler.getStackCount().countPop();
+            compiler.addInstruction(new CMP(rightOperandPos, Register.R1));
+            compiler.getRegisterManager().setUnused((GPRegister) rightOperandPos);
+        } else if (rightOperandPos.equals(Register.SP)) {
+            compiler.addInstruction(new POP(Register.R1));
+            compiler.getStackCount().countPop();
+            compiler.addInstruction(new CMP(Register.R1, (GPRegister) leftOperandPos));
+            compiler.getRegisterManager().setUnused((GPRegister) leftOperandPos);
+        } else {
+            compiler.addInstruction(new CMP(rightOperandPos, (GPRegister) leftOperandPos));
+            compiler.getRegisterManager().setUnused((GPRegister) leftOperandPos);
+            compiler.getRegisterManager().setUnused((GPRegister) rightOperandPos);
+        }
+        BinaryOperator comparison = jumpIf ? getComparison() : getComparison().negate();
+        compiler.addInstruction(branchInstruction(comparison, label));
+    }
+
     @Override
     protected void ARMCodeGenInst(DecacCompiler compiler) {
         // TODO Auto-generated method stub
 
     }
 
-    private Instruction opCmpInstruction(GPRegister storeTarget) {
-        String op = getOperatorName();
-
-        if (op.equals("==")) {
-            return new SEQ(storeTarget);
-        } else if (op.equals("!=")) {
-            return new SNE(storeTarget);
-        } else if (op.equals(">")) {
-            return new SGT(storeTarget);
-        } else if (op.equals(">=")) {
-            return new SGE(storeTarget);
-        } else if (op.equals("<")) {
-            return new SLT(storeTarget);
-        } else if (op.equals("<=")) {
-            return new SLE(storeTarget);
-        } else {
-            System.err.println("Undefined binary arithmetic operation, this should NEVER happen\n");
-            System.exit(1);
-            return null;
+    /**
+     * @return the instruction setting storeTarget to 1 if the condition codes
+     *         of a CMP satisfy comparison, to 0 otherwise
+     */
+    private Instruction opCmpInstruction(BinaryOperator comparison, GPRegister storeTarget) {
+        switch (comparison) {
+            case EQ:
+                return new SEQ(storeTarget);
+            case NE:
+                return new SNE(storeTarget);
+            case LT:
+                return new SLT(storeTarget);
+            case LE:
+                return new SLE(storeTarget);
+            case GT:
+                return new SGT(storeTarget);
+            case GE:
+                return new SGE(storeTarget);
+            default:
+                throw new IllegalArgumentException(comparison + " is not a comparison");
+        }
+    }
+
+    /**
+     * @return the branch to label taken when the condition codes of a CMP
+     *         satisfy comparison
+     */
+    private Instruction branchInstruction(BinaryOperator comparison, Label label) {
+        switch (comparison) {
+            case EQ:
+                return new BEQ(label);
+            case NE:
+                return new BNE(label);
+            case LT:
+                return new BLT(label);
+            case LE:
+                return new BLE(label);
+            case GT:
+                return new BGT(label);
+            case GE:
+                return new BGE(label);
+            default:
+                throw new IllegalArgumentException(comparison + " is not a comparison");
+        }
+    }
+
+    /**
+     * @return the comparison of the IR corresponding to the operator
+     */
+    protected BinaryOperator getComparison() {
+        switch (getOperatorName()) {
+            case "==":
+                return BinaryOperator.EQ;
+            case "!=":
+                return BinaryOperator.NE;
+            case "<":
+                return BinaryOperator.LT;
+            case "<=":
+                return BinaryOperator.LE;
+            case ">":
+                return BinaryOperator.GT;
+            case ">=":
+                return BinaryOperator.GE;
+            default:
+                throw new IllegalStateException("Undefined comparison " + getOperatorName());
+        }
+    }
+
+    @Override
+    protected Operand lowerExpr(IRBuilder builder) {
+        Operand left = getLeftOperand().lowerExpr(builder);
+        Operand right = getRightOperand().lowerExpr(builder);
+        return builder.emitBinary(getComparison(), left, right);
+    }
+
+    @Override
+    protected void lowerCondition(IRBuilder builder, BasicBlock ifTrue, BasicBlock ifFalse) {
+        Operand left = getLeftOperand().lowerExpr(builder);
+        Operand right = getRightOperand().lowerExpr(builder);
+        builder.emit(new Branch(getComparison(), left, right, ifTrue, ifFalse));
+    }
+
+    @Override
+    protected AbstractExpr foldExpr(DecacCompiler compiler) {
+        super.foldExpr(compiler);
+        Operand left = getLeftOperand().getConstantValue();
+        Operand right = getRightOperand().getConstantValue();
+        if (left != null && right != null) {
+            Operand value = ConstantFolder.fold(getComparison(), left, right);
+            if (value != null) {
+                return literal(compiler, value);
+            }
         }
+        return this;
     }
 }
@@ -10,6 +10,7 @@ import fr.ensimag.deca.context.ContextualError;
 import fr.ensimag.deca.context.EnvironmentExp;
 import fr.ensimag.deca.context.Type;
 import fr.ensimag.deca.tools.IndentPrintStream;
+import fr.ensimag.deca.ir.IRBuilder;
 
 /**
  * Print statement (print, println, ...).
@@ -95,4 +96,17 @@ public abstract class AbstractPrint extends AbstractInst {
         arguments.prettyPrint(s, prefix, true);
     }
 
+    @Override
+    protected void lowerInst(IRBuilder builder) {
+        for (AbstractExpr a : getArguments().getList()) {
+            a.lowerPrint(builder, getPrintHex());
+        }
+    }
+
+    @Override
+    protected void foldConstants(DecacCompiler compiler) {
+        for (int i = 0; i < arguments.size(); i++) {
+            arguments.set(i, arguments.getList().get(i).foldExpr(compiler));
+        }
+    }
 }
@@ -3,6 +3,7 @@ package fr.ensimag.deca.tree;
 import fr.ensimag.deca.tools.IndentPrintStream;
 import java.io.PrintStream;
 import org.apache.commons.lang.Validate;
+import fr.ensimag.deca.DecacCompiler;
 
 /**
  * Unary expression.
@@ -16,6 +17,12 @@ public abstract class AbstractUnaryExpr extends AbstractExpr {
         return operand;
     }
     private AbstractExpr operand;
+
+    protected void setOperand(AbstractExpr operand) {
+        Validate.notNull(operand);
+        this.operand = operand;
+    }
+
     public AbstractUnaryExpr(AbstractExpr operand) {
         Validate.notNull(operand);
         this.operand = operand;
@@ -42,4 +49,19 @@ public abstract class AbstractUnaryExpr extends AbstractExpr {
         operand.prettyPrint(s, prefix, true);
     }
 
+    @Override
+    protected int getRegisterNeed() {
+        return operand.getRegisterNeed();
+    }
+
+    @Override
+    protected boolean isReorderable() {
+        return operand.isReorderable();
+    }
+
+    @Override
+    protected AbstractExpr foldExpr(DecacCompiler compiler) {
+        setOperand(getOperand().foldExpr(compiler));
+        return this;
+    }
 }
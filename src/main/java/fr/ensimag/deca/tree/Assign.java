@@ -14,13 +14,16 @@ import fr.ensimag.ima.pseudocode.RegisterOffset;
 import fr.ensimag.ima.pseudocode.instructions.LOAD;
 import fr.ensimag.ima.pseudocode.instructions.POP;
 import fr.ensimag.ima.pseudocode.instructions.STORE;
-import fr.ensimag.deca.codegen.StackCount;
 import fr.ensimag.arm.pseudocode.ARMDAddr;
 import fr.ensimag.arm.pseudocode.ARMDVal;
 import fr.ensimag.arm.pseudocode.ARMRegister;
 import fr.ensimag.arm.pseudocode.ARMGPRegister;
 import fr.ensimag.arm.pseudocode.instructions.ARM_POP;
 import fr.ensimag.arm.pseudocode.instructions.ARM_STR;
+import fr.ensimag.deca.ir.Copy;
+import fr.ensimag.deca.ir.IRBuilder;
+import fr.ensimag.deca.ir.Operand;
+import fr.ensimag.deca.ir.VirtualRegister;
 
 /**
  * Assignment, i.e. lvalue = expr.
@@ -77,6 +80,11 @@ public class Assign extends AbstractBinaryExpr {
         return lVar.getType();
     }
 
+    @Override
+    protected boolean isReorderable() {
+        return false;
+    }
+
     @Override
     protected void codeGenInst(DecacCompiler compiler) {
         DAddr lOperand = null;
@@ -108,15 +116,15 @@ public class Assign extends AbstractBinaryExpr {
         rValue.codeGenInst(compiler);
 
         // get right expression location
-        DVal lastExprPos = Register.getLastExprPos();
+        DVal lastExprPos = compiler.getRegisterManager().getLastExprPos();
         if (!lastExprPos.equals(Register.SP)) {
-            Register.setUsed((GPRegister) lastExprPos);
+            compiler.getRegisterManager().setUsed((GPRegister) lastExprPos);
         }
 
         if (lastExprPos.equals(Register.SP)) {
             // if expression to be assigned is stored in a temporary variable on the stack
             compiler.addInstruction(new POP(Register.R1));
-            StackCount.countPop();
+            compiler.getStackCount().countPop();
             compiler.addInstruction(new STORE(Register.R1, lOperand));
         } else {
             // if expression to be assigned is stored in a GPRegister
@@ -124,19 +132,19 @@ public class Assign extends AbstractBinaryExpr {
 
             // handle case where a field is being assigned to
             if (isField) {
-                GPRegister unusedReg = Register.getUnusedR();
+                GPRegister unusedReg = compiler.getRegisterManager().getUnusedR();
                 compiler.addInstruction(new LOAD(lOperand, unusedReg));
                 compiler.addInstruction(new STORE(loadTarget, new RegisterOffset(fieldOffset, unusedReg)));
-                Register.setUnused(unusedReg);
-                Register.setUnused(loadTarget);
+                compiler.getRegisterManager().setUnused(unusedReg);
+                compiler.getRegisterManager().setUnused(loadTarget);
                 if (!lastExprPos.equals(Register.SP)) {
-                    Register.setUnused((GPRegister) lastExprPos);
+                    compiler.getRegisterManager().setUnused((GPRegister) lastExprPos);
                 }
                 return;
             }
 
             compiler.addInstruction(new STORE(loadTarget, lOperand));
-            Register.setUnused(loadTarget);
+            compiler.getRegisterManager().setUnused(loadTarget);
         }
 
     }
@@ -174,15 +182,15 @@ public class Assign extends AbstractBinaryExpr {
         rValue.ARMCodeGenInst(compiler);
 
         // get right expression location
-        ARMDVal lastExprPos = ARMRegister.getLastExprPos();
+        ARMDVal lastExprPos = compiler.getARMRegisterManager().getLastExprPos();
         if (!lastExprPos.equals(ARMRegister.SP)) {
-            ARMRegister.setUsed((ARMGPRegister) lastExprPos);
+            compiler.getARMRegisterManager().setUsed((ARMGPRegister) lastExprPos);
         }
 
         if (lastExprPos.equals(ARMRegister.SP)) {
             // if expression to be assigned is stored in a temporary variable on the stack
             compiler.addARMInstruction(new ARM_POP(ARMRegister.R1));
-            StackCount.countPop();
+            compiler.getStackCount().countPop();
             compiler.addARMInstruction(new ARM_STR(ARMRegister.R1, lOperand));
         } else {
             // if expression to be assigned is stored in a GPRegister
@@ -190,20 +198,20 @@ public class Assign extends AbstractBinaryExpr {
 
             // handle case where a field is being assigned to
             // if (isField) {
-            // GPRegister unusedReg = Register.getUnusedR();
+            // GPRegister unusedReg = compiler.getRegisterManager().getUnusedR();
             // compiler.addInstruction(new LOAD(lOperand, unusedReg));
             // compiler.addInstruction(new STORE(loadTarget, new RegisterOffset(fieldOffset,
             // unusedReg)));
-            // Register.setUnused(unusedReg);
-            // Register.setUnused(loadTarget);
+            // compiler.getRegisterManager().setUnused(unusedReg);
+            // compiler.getRegisterManager().setUnused(loadTarget);
             // if (!lastExprPos.equals(Register.SP)) {
-            // Register.setUnused((GPRegister) lastExprPos);
+            // compiler.getRegisterManager().setUnused((GPRegister) lastExprPos);
             // }
             // return;
             // }
 
             compiler.addARMInstruction(new ARM_STR(loadTarget, lOperand));
-            ARMRegister.setUnused(loadTarget);
+            compiler.getARMRegisterManager().setUnused(loadTarget);
         }
     }
 
@@ -212,4 +220,11 @@ public class Assign extends AbstractBinaryExpr {
         return "=";
     }
 
+    @Override
+    protected Operand lowerExpr(IRBuilder builder) {
+        VirtualRegister variable = getLeftOperand().lowerLValue(builder);
+        Operand value = getRightOperand().lowerExpr(builder);
+        builder.emit(new Copy(variable, value));
+        return variable;
+    }
 }
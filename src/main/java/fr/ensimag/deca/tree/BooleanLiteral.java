@@ -13,11 +13,17 @@ import fr.ensimag.deca.tools.IndentPrintStream;
 import fr.ensimag.ima.pseudocode.DVal;
 import fr.ensimag.ima.pseudocode.GPRegister;
 import fr.ensimag.ima.pseudocode.ImmediateInteger;
+import fr.ensimag.ima.pseudocode.Label;
 import fr.ensimag.ima.pseudocode.Register;
 import fr.ensimag.ima.pseudocode.RegisterOffset;
+import fr.ensimag.ima.pseudocode.instructions.BRA;
 import fr.ensimag.ima.pseudocode.instructions.LOAD;
 import fr.ensimag.ima.pseudocode.instructions.PUSH;
-import fr.ensimag.deca.codegen.StackCount;
+import fr.ensimag.deca.ir.BasicBlock;
+import fr.ensimag.deca.ir.IRBuilder;
+import fr.ensimag.deca.ir.IntConstant;
+import fr.ensimag.deca.ir.Jump;
+import fr.ensimag.deca.ir.Operand;
 
 /**
  *
@@ -43,6 +49,18 @@ public class BooleanLiteral extends AbstractExpr {
         return compiler.environmentType.BOOLEAN;
     }
 
+    @Override
+    protected boolean isReorderable() {
+        return true;
+    }
+
+    @Override
+    protected void codeGenCondition(DecacCompiler compiler, boolean jumpIf, Label label) {
+        if (value == jumpIf) {
+            compiler.addInstruction(new BRA(label));
+        }
+    }
+
     @Override
     protected void codeGenInst(DecacCompiler compiler) {
         DVal loadValue;
@@ -52,41 +70,41 @@ public class BooleanLiteral extends AbstractExpr {
             loadValue = new ImmediateInteger(0);
         }
 
-        GPRegister unusedReg = Register.getUnusedR();
+        GPRegister unusedReg = compiler.getRegisterManager().getUnusedR();
         if (unusedReg != null) {
-            Register.setLastExprPos(new RegisterOffset(0, unusedReg));
+            compiler.getRegisterManager().setLastExprPos(new RegisterOffset(0, unusedReg));
             compiler.addInstruction(new LOAD(loadValue, unusedReg));
         } else {
-            Register.setLastExprPos(new RegisterOffset(0, Register.SP));
+            compiler.getRegisterManager().setLastExprPos(new RegisterOffset(0, Register.SP));
             compiler.addInstruction(new LOAD(loadValue, Register.R1));
             compiler.addInstruction(new PUSH(Register.R1));
-            StackCount.countPush();
+            compiler.getStackCount().countPush();
         }
     }
 
     @Override
     protected void ARMCodeGenInst(DecacCompiler compiler) {
-        if (ARMRegister.getLastExprPos() == null) {
-            ARMRegister.setLastExprPos(new ARMRegisterOffset(0, ARMRegister.R0));
+        if (compiler.getARMRegisterManager().getLastExprPos() == null) {
+            compiler.getARMRegisterManager().setLastExprPos(new ARMRegisterOffset(0, ARMRegister.R0));
         }
 
         ARMImmediateInteger loadValue = new ARMImmediateInteger(value ? 1 : 0);
 
-        ARMGPRegister unusedReg = ARMRegister.getUnusedR();
+        ARMGPRegister unusedReg = compiler.getARMRegisterManager().getUnusedR();
         if (unusedReg != null) {
-            ARMRegister.setLastExprPos(new ARMRegisterOffset(0, unusedReg));
+            compiler.getARMRegisterManager().setLastExprPos(new ARMRegisterOffset(0, unusedReg));
             compiler.addARMInstruction(new ARM_MOV(unusedReg, loadValue));
         } else {
-            ARMRegister.setLastExprPos(new ARMRegisterOffset(0, ARMRegister.SP));
+            compiler.getARMRegisterManager().setLastExprPos(new ARMRegisterOffset(0, ARMRegister.SP));
             compiler.addARMInstruction(new ARM_MOV(ARMRegister.R12, loadValue));
             compiler.addARMInstruction(new ARM_PUSH(ARMRegister.R12));
-            StackCount.countPush();
+            compiler.getStackCount().countPush();
         }
     }
 
     @Override
     protected void ARMCodeGenPrint(DecacCompiler compiler, boolean printHex) {
-        if (ARMRegister.isUsed(0)) {
+        if (compiler.getARMRegisterManager().isUsed(0)) {
             compiler.addARMInstruction(new ARM_PUSH(ARMRegister.R0));
         }
 
@@ -95,7 +113,7 @@ public class BooleanLiteral extends AbstractExpr {
 
         compiler.addARMInstruction(new ARM_BL(new ARMLabel("printf")));
 
-        if (ARMRegister.isUsed(0)) {
+        if (compiler.getARMRegisterManager().isUsed(0)) {
             compiler.addARMInstruction(new ARM_POP(ARMRegister.R0));
         }
     }
@@ -120,4 +138,18 @@ public class BooleanLiteral extends AbstractExpr {
         return "BooleanLiteral (" + value + ")";
     }
 
+    @Override
+    protected Operand getConstantValue() {
+        return IntConstant.of(value);
+    }
+
+    @Override
+    protected Operand lowerExpr(IRBuilder builder) {
+        return getConstantValue();
+    }
+
+    @Override
+    protected void lowerCondition(IRBuilder builder, BasicBlock ifTrue, BasicBlock ifFalse) {
+        builder.emit(new Jump(value ? ifTrue : ifFalse));
+    }
 }
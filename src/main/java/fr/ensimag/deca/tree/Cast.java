@@ -15,7 +15,6 @@ import fr.ensimag.ima.pseudocode.instructions.FLOAT;
 import fr.ensimag.ima.pseudocode.instructions.INT;
 import fr.ensimag.ima.pseudocode.instructions.POP;
 import fr.ensimag.ima.pseudocode.instructions.PUSH;
-import fr.ensimag.deca.codegen.StackCount;
 
 /**
  * Represents a cast (explicit type conversion) in Deca, e.g., (float)(x).
@@ -62,18 +61,18 @@ public class Cast extends AbstractUnaryExpr {
     protected void codeGenInst(DecacCompiler compiler) {
         // NOTE : Only works for casting from int to float or float to int
         this.getOperand().codeGenInst(compiler);
-        DVal loadTarget = Register.getLastExprPos();
+        DVal loadTarget = compiler.getRegisterManager().getLastExprPos();
 
         if (loadTarget.equals(Register.SP)) {
             compiler.addInstruction(new POP(Register.R1));
-            StackCount.countPop();
+            compiler.getStackCount().countPop();
             if (getType().isFloat()) {
                 compiler.addInstruction(new FLOAT(Register.R1, Register.R1));
             } else if (getType().isInt()) {
                 compiler.addInstruction(new INT(Register.R1, Register.R1));
             }
             compiler.addInstruction(new PUSH(Register.R1));
-            StackCount.countPush();
+            compiler.getStackCount().countPush();
 
         } else {
             if (getType().isFloat()) {
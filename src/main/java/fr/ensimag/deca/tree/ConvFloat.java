@@ -10,7 +10,10 @@ import fr.ensimag.deca.DecacCompiler;
 import fr.ensimag.deca.context.ClassDefinition;
 import fr.ensimag.deca.context.EnvironmentExp;
 import fr.ensimag.ima.pseudocode.Register;
-import fr.ensimag.deca.codegen.StackCount;
+import fr.ensimag.deca.ir.IRBuilder;
+import fr.ensimag.deca.ir.Operand;
+import fr.ensimag.deca.ir.UnaryOperator;
+import fr.ensimag.deca.ir.ConstantFolder;
 
 /**
  * Conversion of an int into a float. Used for implicit conversions.
@@ -32,14 +35,14 @@ public class ConvFloat extends AbstractUnaryExpr {
     @Override
     protected void codeGenInst(DecacCompiler compiler) {
         this.getOperand().codeGenInst(compiler);
-        DVal loadTarget = Register.getLastExprPos();
+        DVal loadTarget = compiler.getRegisterManager().getLastExprPos();
 
         if (loadTarget.equals(Register.SP)) {
             compiler.addInstruction(new POP(Register.R1));
-            StackCount.countPop();
+            compiler.getStackCount().countPop();
             compiler.addInstruction(new FLOAT(Register.R1, Register.R1));
             compiler.addInstruction(new PUSH(Register.R1));
-            StackCount.countPush();
+            compiler.getStackCount().countPush();
 
         } else {
             compiler.addInstruction(new FLOAT(loadTarget, (GPRegister) loadTarget));
@@ -56,4 +59,15 @@ public class ConvFloat extends AbstractUnaryExpr {
         // ConvFloat has no decorations
     }
 
+    @Override
+    protected Operand lowerExpr(IRBuilder builder) {
+        return builder.emitUnary(UnaryOperator.FLOAT, getOperand().lowerExpr(builder));
+    }
+
+    @Override
+    protected AbstractExpr foldExpr(DecacCompiler compiler) {
+        super.foldExpr(compiler);
+        Operand value = getOperand().getConstantValue();
+        return value == null ? this : literal(compiler, ConstantFolder.fold(UnaryOperator.FLOAT, value));
+    }
 }
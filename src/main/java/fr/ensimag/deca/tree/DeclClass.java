@@ -1,9 +1,10 @@
 package fr.ensimag.deca.tree;
 
 import java.io.PrintStream;
+import java.util.List;
 
 import fr.ensimag.deca.DecacCompiler;
-import fr.ensimag.deca.codegen.StackCount;
+import fr.ensimag.deca.codegen.CodeGenUnits;
 import fr.ensimag.deca.context.ClassDefinition;
 import fr.ensimag.deca.context.ClassType;
 import fr.ensimag.deca.context.ContextualError;
@@ -71,8 +72,9 @@ public class DeclClass extends AbstractDeclClass {
         ClassType classType = new ClassType(name.getName(), getLocation(),
                 superClassDef);
 
-        // Make class definition
-        ClassDefinition classDef = new ClassDefinition(classType, getLocation(), superClassDef);
+        // The class definition is the one of the type, so that the class tree
+        // numbered in the environment is the one seen through the types
+        ClassDefinition classDef = classType.getDefinition();
 
         // Define with class definition, handle case where class of same name has
         // already been defined
@@ -93,28 +95,17 @@ public class DeclClass extends AbstractDeclClass {
             throws ContextualError {
         fields.verifyListField(compiler, name.getClassDefinition());
         methods.verifyListMethod(compiler, name.getClassDefinition());
+        // all the members of the class and of its superclasses are declared
+        name.getClassDefinition().buildMemberTables();
     }
 
     @Override
-    protected void verifyClassBody(DecacCompiler compiler) throws ContextualError {
-        fields.verifyListFieldBody(compiler, name.getClassDefinition());
-        methods.verifyListMethodBody(compiler, name.getClassDefinition());
-    }
-
-    /** Represents the current offset for the GB register in the VTable */
-    private static int currentGBOffset = 2;
-
-    public static int getVTableSize() {
-        return currentGBOffset;
-    }
-
-    /**
-     * Get the next GB offset to be used in creation of VTable
-     * 
-     * @return the next value of the GB offset for the VTable creation
-     */
-    private static int getNextGBOffset() {
-        return ++currentGBOffset;
+    protected void verifyClassBody(DecacCompiler compiler, List<BodyVerification> verifications) {
+        ClassDefinition classDef = name.getClassDefinition();
+        verifications.add(() -> fields.verifyListFieldBody(compiler, classDef));
+        for (AbstractDeclMethod method : methods.getList()) {
+            verifications.add(() -> method.verifyMethodBody(compiler, classDef));
+        }
     }
 
     @Override
@@ -129,13 +120,13 @@ public class DeclClass extends AbstractDeclClass {
 
         // Step 2: Store the address in the current class's method table and set the
         // current class's VBTableOffset
-        RegisterOffset classOffset = new RegisterOffset(getNextGBOffset(), Register.GB);
+        RegisterOffset classOffset = new RegisterOffset(compiler.getHelperInfo().getNextGBOffset(), Register.GB);
         compiler.addInstruction(new STORE(Register.R0, classOffset));
         classDef.setVBTablePos(classOffset);
 
         // Step 3: Process the methods of the current class
         for (int methodIndex = 0; methodIndex < classDef.getNumberOfMethods(); methodIndex++) {
-            MethodDefinition methodOfIndex = classDef.getMembers().getMethodOfIndex(methodIndex);
+            MethodDefinition methodOfIndex = classDef.getMethodOfIndex(methodIndex);
 
             // Get the method's label
             Label methodLabel = methodOfIndex.getLabel();
@@ -144,7 +135,7 @@ public class DeclClass extends AbstractDeclClass {
             compiler.addInstruction(new LOAD(new LabelOperand(methodLabel), Register.R0));
 
             // Store the method's address in the table at its respective index
-            RegisterOffset methodOffset = new RegisterOffset(getNextGBOffset(), Register.GB);
+            RegisterOffset methodOffset = new RegisterOffset(compiler.getHelperInfo().getNextGBOffset(), Register.GB);
             compiler.addInstruction(new STORE(Register.R0, methodOffset));
         }
     }
@@ -178,11 +169,11 @@ public class DeclClass extends AbstractDeclClass {
         }
 
         // generate code for saving and restoring any used R2 - R15 registers
-        StackCount.genCodeSaveRegisters(compiler);
-        StackCount.genCodeRestoreRegisters(compiler);
+        compiler.getStackCount().genCodeSaveRegisters(compiler);
+        compiler.getStackCount().genCodeRestoreRegisters(compiler);
 
         // add stack overflow management and reset count
-        StackCount.genCodeAllocateStack(compiler);
+        compiler.getStackCount().genCodeAllocateStack(compiler);
         compiler.addFirst(new Line(String.format("init.%s program stack allocation", name.getName().getName())));
 
         // add init.<ClassName> label at the start of the block
@@ -196,24 +187,19 @@ public class DeclClass extends AbstractDeclClass {
     }
 
     @Override
-    public void codeGenClass(DecacCompiler compiler) {
-        codeGenMethods(compiler);
-    }
-
-    /**
-     * Generates the code for all methods in a class.
-     * 
-     * @param compiler The Decac compiler.
-     */
-    private void codeGenMethods(DecacCompiler compiler) {
-        compiler.addComment("--- Generating methods for class " + name.getName() + " ---");
+    public void codeGenClass(CodeGenUnits units) {
+        String className = name.getName().getName();
 
         // generate init.<ClassName> here
-        codeGenClassInit(compiler);
+        units.add("." + className, compiler -> {
+            compiler.addComment("--- Generating methods for class " + name.getName() + " ---");
+            codeGenClassInit(compiler);
+        });
 
         // generate methods
         for (AbstractDeclMethod abstractMethod : methods.getList()) {
-            abstractMethod.codeGenMethodBody(compiler);
+            String methodName = ((DeclMethod) abstractMethod).getMethodName().getName().getName();
+            units.add("." + className + "." + methodName, abstractMethod::codeGenMethodBody);
         }
     }
 
@@ -1,7 +1,6 @@
 package fr.ensimag.deca.tree;
 
 import fr.ensimag.deca.DecacCompiler;
-import fr.ensimag.deca.codegen.StackCount;
 import fr.ensimag.deca.context.ClassDefinition;
 import fr.ensimag.deca.context.ContextualError;
 import fr.ensimag.deca.context.FieldDefinition;
@@ -90,7 +89,7 @@ public class DeclField extends AbstractDeclField {
     @Override
     public void codeGenDeclField(DecacCompiler compiler) {
         // attribute local stack position of variable
-        fieldDef.setOperand(new RegisterOffset(StackCount.incVarCount(), Register.GB));
+        fieldDef.setOperand(new RegisterOffset(compiler.getStackCount().incVarCount(), Register.GB));
 
         // generate the initialization code if field has been initialized
         if (initialization.isInitialized()) {
@@ -108,10 +107,10 @@ public class DeclField extends AbstractDeclField {
 
         // TODO : adapt for POP and PUSH?
 
-        DVal loadTarget = Register.getLastExprPos();
+        DVal loadTarget = compiler.getRegisterManager().getLastExprPos();
         compiler.addInstruction(new STORE((Register) loadTarget,
                 new RegisterOffset(fieldDef.getIndex(), Register.R1)));
-        Register.setUnused((GPRegister) loadTarget);
+        compiler.getRegisterManager().setUnused((GPRegister) loadTarget);
     }
 
     @Override
@@ -5,8 +5,6 @@ import java.io.PrintStream;
 import org.apache.commons.lang.Validate;
 
 import fr.ensimag.deca.DecacCompiler;
-import fr.ensimag.deca.codegen.StackCount;
-import fr.ensimag.deca.codegen.HelperInfo;
 import fr.ensimag.deca.context.ClassDefinition;
 import fr.ensimag.deca.context.ContextualError;
 import fr.ensimag.deca.context.EnvironmentExp;
@@ -14,6 +12,7 @@ import fr.ensimag.deca.context.EnvironmentExp.DoubleDefException;
 import fr.ensimag.deca.context.MethodDefinition;
 import fr.ensimag.deca.context.Signature;
 import fr.ensimag.deca.context.Type;
+import fr.ensimag.deca.tools.CompilerEvents;
 import fr.ensimag.deca.tools.IndentPrintStream;
 import fr.ensimag.deca.tools.SymbolTable.Symbol;
 import fr.ensimag.ima.pseudocode.DVal;
@@ -35,6 +34,8 @@ public class DeclMethod extends AbstractDeclMethod {
     private final ListDeclParam params;
     private final AbstractMethodBody body;
     private MethodDefinition definition;
+    /** Class declaring the method, set by the verification */
+    private ClassDefinition containingClass;
 
     public DeclMethod(AbstractIdentifier returnIdentifier, AbstractIdentifier methodName, ListDeclParam params,
             AbstractMethodBody body) {
@@ -139,7 +140,7 @@ public class DeclMethod extends AbstractDeclMethod {
         try {
             // method is defined in parent class
             Symbol methodSym = compiler.createSymbol(methodName.getName().getName() + ".m");
-            parentMethod = (MethodDefinition) parentEnvExp.get(methodSym, getLocation());
+            parentMethod = (MethodDefinition) parentEnvExp.get(methodSym, getPackedLocation());
 
         } catch (ContextualError e) {
             // method is not defined in parent class
@@ -185,6 +186,7 @@ public class DeclMethod extends AbstractDeclMethod {
 
         // set useful fields
         definition = methodDef;
+        containingClass = classDef;
         index = definition.getIndex();
 
         methodName.setDefinition(definition);
@@ -226,23 +228,25 @@ public class DeclMethod extends AbstractDeclMethod {
 
     @Override
     public void codeGenMethodBody(DecacCompiler compiler) {
+        CompilerEvents.Event event = CompilerEvents.begin(CompilerEvents.Kind.METHOD_CODEGEN);
         IMAProgram block = new IMAProgram();
         compiler.setCurrentBlock(block);
 
         Label methodLabel = getMethodDefinition().getLabel();
-        Label methodEndLabel = new Label(getMethodDefinition().getLabel().toString().replace("code", "end"));
+        Label methodEndLabel = compiler.declareLocalLabel(
+                new Label(getMethodDefinition().getLabel().toString().replace("code", "end")));
 
         // set current method for information for the label needed for return statements
-        HelperInfo.setCurrentMethod(this);
+        compiler.getHelperInfo().setCurrentMethod(this);
 
         // generate code for instructions, last instruction is return
         body.codeGenInst(compiler);
 
         // save any used R2 - R15 registers
-        StackCount.genCodeSaveRegisters(compiler);
+        compiler.getStackCount().genCodeSaveRegisters(compiler);
 
         // add stack overflow management and reset count
-        StackCount.genCodeAllocateStack(compiler);
+        compiler.getStackCount().genCodeAllocateStack(compiler);
 
         // if method is non-void but terminates without a return
         if (!getMethodDefinition().getSignature().getReturnType().isVoid()) {
@@ -257,13 +261,22 @@ public class DeclMethod extends AbstractDeclMethod {
         compiler.addLabel(methodEndLabel);
 
         // restore any used R2 - R15 registers
-        StackCount.genCodeRestoreRegisters(compiler);
+        compiler.getStackCount().genCodeRestoreRegisters(compiler);
         compiler.addInstruction(new RTS());
 
         // add method's label at the start of the block
         compiler.addLabelFirst(methodLabel);
 
+        if (event != null) {
+            event.set(CompilerEvents.Field.FILE, compiler.getSourceName())
+                    .set(CompilerEvents.Field.CLASS, containingClass.getType().getName().getName())
+                    .set(CompilerEvents.Field.METHOD, methodName.getName().getName())
+                    .set(CompilerEvents.Field.INSTRUCTIONS, block.getInstructionCount());
+        }
         compiler.appendBlock(block);
+        if (event != null) {
+            event.commit();
+        }
     }
 
     @Override
@@ -11,7 +11,6 @@ import fr.ensimag.ima.pseudocode.Register;
 import fr.ensimag.ima.pseudocode.GPRegister;
 import fr.ensimag.ima.pseudocode.RegisterOffset;
 import fr.ensimag.ima.pseudocode.instructions.LOAD;
-import fr.ensimag.deca.codegen.StackCount;
 
 import java.io.PrintStream;
 
@@ -109,9 +108,9 @@ public class DeclParam extends AbstractDeclParam {
     protected void codeGenDeclParam(DecacCompiler compiler) {
         // TODO : account for no register
         // generate code
-        GPRegister loadTarget = Register.getUnusedR();
+        GPRegister loadTarget = compiler.getRegisterManager().getUnusedR();
         compiler.addInstruction(new LOAD(paramDef.getOperand(), loadTarget));
-        Register.setLastExprPos(new RegisterOffset(0, loadTarget));
+        compiler.getRegisterManager().setLastExprPos(new RegisterOffset(0, loadTarget));
     }
 
     @Override
@@ -5,7 +5,6 @@ import java.io.PrintStream;
 import org.apache.commons.lang.Validate;
 
 import fr.ensimag.deca.DecacCompiler;
-import fr.ensimag.deca.codegen.StackCount;
 import fr.ensimag.deca.context.ClassDefinition;
 import fr.ensimag.deca.context.ContextualError;
 import fr.ensimag.deca.context.EnvironmentExp;
@@ -27,6 +26,9 @@ import fr.ensimag.arm.pseudocode.ARMSPRegister;
 
 import fr.ensimag.arm.pseudocode.instructions.ARM_STR;
 import fr.ensimag.arm.pseudocode.instructions.ARM_VSTR;
+import fr.ensimag.deca.ir.Copy;
+import fr.ensimag.deca.ir.IRBuilder;
+import fr.ensimag.deca.ir.VirtualRegister;
 
 /**
  * @author gl13
@@ -92,7 +94,7 @@ public class DeclVar extends AbstractDeclVar {
     @Override
     public void codeGenDeclVar(DecacCompiler compiler) {
         // attribute global stack position of variable
-        this.varDef.setOperand(new RegisterOffset(StackCount.incVarCount(), Register.GB));
+        this.varDef.setOperand(new RegisterOffset(compiler.getStackCount().incVarCount(), Register.GB));
 
         // generate the initialization code if variable has been initialized
         if (this.initialization.isInitialized()) {
@@ -109,15 +111,15 @@ public class DeclVar extends AbstractDeclVar {
 
         // TODO : adapt for POP and PUSH
 
-        DVal loadTarget = Register.getLastExprPos();
+        DVal loadTarget = compiler.getRegisterManager().getLastExprPos();
         compiler.addInstruction(new STORE((Register) loadTarget, (DAddr) varDef.getOperand()));
-        Register.setUnused((GPRegister) loadTarget);
+        compiler.getRegisterManager().setUnused((GPRegister) loadTarget);
     }
 
     @Override
     public void ARMCodeGenDeclVar(DecacCompiler compiler) {
         // attribute global stack position of variable
-        this.varDef.setARMOperand(new ARMRegisterOffset(StackCount.incVarCount() * 4,
+        this.varDef.setARMOperand(new ARMRegisterOffset(compiler.getStackCount().incVarCount() * 4,
                 ARMRegister.SB));
 
         // generate the initialization code if variable has been initialized
@@ -130,9 +132,9 @@ public class DeclVar extends AbstractDeclVar {
         AbstractExpr varExpr = ((Initialization) this.initialization).getExpression();
         varExpr.ARMCodeGenInst(compiler);
 
-        ARMDVal loadTarget = ARMRegister.getLastExprPos();
+        ARMDVal loadTarget = compiler.getARMRegisterManager().getLastExprPos();
         compiler.addARMInstruction(new ARM_STR((ARMRegister) loadTarget, (ARMDAddr) varDef.getARMOperand()));
-        ARMRegister.setUnused((ARMRegister) loadTarget);
+        compiler.getARMRegisterManager().setUnused((ARMRegister) loadTarget);
     }
 
     @Override
@@ -159,4 +161,13 @@ public class DeclVar extends AbstractDeclVar {
         varName.prettyPrint(s, prefix, false);
         initialization.prettyPrint(s, prefix, true);
     }
+
+    @Override
+    protected void lowerDeclVar(IRBuilder builder) {
+        VirtualRegister variable = builder.variable(varDef, varName.getName().getName());
+        if (initialization.isInitialized()) {
+            AbstractExpr value = ((Initialization) initialization).getExpression();
+            builder.emit(new Copy(variable, value.lowerExpr(builder)));
+        }
+    }
 }
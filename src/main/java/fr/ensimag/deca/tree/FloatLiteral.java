@@ -18,7 +18,6 @@ import fr.ensimag.ima.pseudocode.instructions.LOAD;
 import fr.ensimag.ima.pseudocode.instructions.PUSH;
 import fr.ensimag.ima.pseudocode.instructions.WFLOAT;
 import fr.ensimag.ima.pseudocode.instructions.WFLOATX;
-import fr.ensimag.deca.codegen.StackCount;
 import fr.ensimag.arm.pseudocode.ARMSPRegister;
 import fr.ensimag.arm.pseudocode.ARMLiteral;
 import fr.ensimag.arm.pseudocode.ARMRegister;
@@ -33,8 +32,10 @@ import fr.ensimag.arm.pseudocode.instructions.ARM_PUSH;
 import fr.ensimag.arm.pseudocode.instructions.ARM_POP;
 import fr.ensimag.arm.pseudocode.instructions.ARM_LDR;
 import fr.ensimag.arm.pseudocode.instructions.ARM_BL;
+import fr.ensimag.deca.ir.FloatConstant;
+import fr.ensimag.deca.ir.IRBuilder;
+import fr.ensimag.deca.ir.Operand;
 
-import fr.ensimag.deca.codegen.ARMDataSection;
 
 /**
  * Single precision, floating-point literal
@@ -79,16 +80,16 @@ public class FloatLiteral extends AbstractExpr {
     @Override
     protected void ARMCodeGenPrint(DecacCompiler compiler, boolean printHex) {
         // Account for incoming int printing
-        ARMDataSection.setFloatPrint();
+        compiler.getARMDataSection().setFloatPrint();
 
         // Store R0, R2 and R3 if need be
-        if (ARMRegister.isUsed(0)) {
+        if (compiler.getARMRegisterManager().isUsed(0)) {
             compiler.addARMInstruction(new ARM_PUSH(ARMRegister.R0));
         }
-        if (ARMRegister.isUsed(2)) {
+        if (compiler.getARMRegisterManager().isUsed(2)) {
             compiler.addARMInstruction(new ARM_PUSH(ARMRegister.R2));
         }
-        if (ARMRegister.isUsed(3)) {
+        if (compiler.getARMRegisterManager().isUsed(3)) {
             compiler.addARMInstruction(new ARM_PUSH(ARMRegister.R3));
         }
 
@@ -97,7 +98,7 @@ public class FloatLiteral extends AbstractExpr {
 
         // Create an entry for the float in the data section, load it then put it in R2
         // and R3
-        String floatDataEntry = ARMDataSection.createFloatDataEntry(value);
+        String floatDataEntry = compiler.getARMDataSection().createFloatDataEntry(value);
         compiler.addARMInstruction(new ARM_LDR(ARMRegister.R3, new ARMLiteral(floatDataEntry)));
         compiler.addARMInstruction(new ARM_VLDR(ARMRegister.S31, new ARMRegisterOffset(0, ARMRegister.R3)));
         compiler.addARMInstruction(new ARM_VCVTF64F32(ARMRegister.D15, ARMRegister.S31));
@@ -107,13 +108,13 @@ public class FloatLiteral extends AbstractExpr {
         compiler.addARMInstruction(new ARM_BL(new ARMLabel("printf")));
 
         // Restore R0, R2 and R3 if need be
-        if (ARMRegister.isUsed(3)) {
+        if (compiler.getARMRegisterManager().isUsed(3)) {
             compiler.addARMInstruction(new ARM_POP(ARMRegister.R3));
         }
-        if (ARMRegister.isUsed(2)) {
+        if (compiler.getARMRegisterManager().isUsed(2)) {
             compiler.addARMInstruction(new ARM_POP(ARMRegister.R2));
         }
-        if (ARMRegister.isUsed(0)) {
+        if (compiler.getARMRegisterManager().isUsed(0)) {
             compiler.addARMInstruction(new ARM_POP(ARMRegister.R0));
         }
     }
@@ -122,34 +123,39 @@ public class FloatLiteral extends AbstractExpr {
         this.hex = hexFormat;
     }
 
+    @Override
+    protected boolean isReorderable() {
+        return true;
+    }
+
     @Override
     protected void codeGenInst(DecacCompiler compiler) {
-        GPRegister unusedReg = Register.getUnusedR();
+        GPRegister unusedReg = compiler.getRegisterManager().getUnusedR();
         if (unusedReg != null) {
-            Register.setLastExprPos(new RegisterOffset(0, unusedReg));
+            compiler.getRegisterManager().setLastExprPos(new RegisterOffset(0, unusedReg));
             compiler.addInstruction(new LOAD(new ImmediateFloat(value), unusedReg));
         } else {
-            Register.setLastExprPos(new RegisterOffset(0, Register.SP));
+            compiler.getRegisterManager().setLastExprPos(new RegisterOffset(0, Register.SP));
             compiler.addInstruction(new LOAD(new ImmediateFloat(value), Register.R1));
             compiler.addInstruction(new PUSH(Register.R1));
-            StackCount.countPush();
+            compiler.getStackCount().countPush();
         }
     }
 
     @Override
     protected void ARMCodeGenInst(DecacCompiler compiler) {
         // Create entry in data section, load this same entry here as a literal
-        String dataEntry = ARMDataSection.createFloatDataEntry(value);
+        String dataEntry = compiler.getARMDataSection().createFloatDataEntry(value);
 
-        ARMGPRegister unusedReg = ARMRegister.getUnusedR();
+        ARMGPRegister unusedReg = compiler.getARMRegisterManager().getUnusedR();
         if (unusedReg != null) {
-            ARMRegister.setLastExprPos(new ARMRegisterOffset(0, unusedReg));
+            compiler.getARMRegisterManager().setLastExprPos(new ARMRegisterOffset(0, unusedReg));
             compiler.addARMInstruction(new ARM_LDR(unusedReg, new ARMLiteral(dataEntry)));
         } else {
-            ARMRegister.setLastExprPos(new ARMRegisterOffset(0, ARMRegister.SP));
+            compiler.getARMRegisterManager().setLastExprPos(new ARMRegisterOffset(0, ARMRegister.SP));
             compiler.addARMInstruction(new ARM_LDR(ARMRegister.R12, new ARMLiteral(dataEntry)));
             compiler.addARMInstruction(new ARM_PUSH(ARMRegister.R12));
-            StackCount.countPush();
+            compiler.getStackCount().countPush();
         }
     }
 
@@ -177,4 +183,13 @@ public class FloatLiteral extends AbstractExpr {
         // leaf node => nothing to do
     }
 
+    @Override
+    protected Operand getConstantValue() {
+        return new FloatConstant(value);
+    }
+
+    @Override
+    protected Operand lowerExpr(IRBuilder builder) {
+        return getConstantValue();
+    }
 }
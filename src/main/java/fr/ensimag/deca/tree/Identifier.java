@@ -17,8 +17,6 @@ import fr.ensimag.arm.pseudocode.instructions.ARM_TVMOV;
 import fr.ensimag.arm.pseudocode.instructions.ARM_VCVTF64F32;
 import fr.ensimag.arm.pseudocode.instructions.ARM_VLDR;
 import fr.ensimag.deca.DecacCompiler;
-import fr.ensimag.deca.codegen.ARMDataSection;
-import fr.ensimag.deca.codegen.StackCount;
 import fr.ensimag.deca.context.ClassDefinition;
 import fr.ensimag.deca.context.ContextualError;
 import fr.ensimag.deca.context.Definition;
@@ -41,6 +39,10 @@ import fr.ensimag.ima.pseudocode.instructions.PUSH;
 import fr.ensimag.ima.pseudocode.instructions.WFLOAT;
 import fr.ensimag.ima.pseudocode.instructions.WFLOATX;
 import fr.ensimag.ima.pseudocode.instructions.WINT;
+import fr.ensimag.deca.ir.IRBuilder;
+import fr.ensimag.deca.ir.Operand;
+import fr.ensimag.deca.ir.UnsupportedLoweringException;
+import fr.ensimag.deca.ir.VirtualRegister;
 
 /**
  * Deca Identifier
@@ -224,7 +226,7 @@ public class Identifier extends AbstractIdentifier {
 
         // when identifier is field, we need more information (similar to selection)
 
-        setDefinition(localEnv.get(getName(), getLocation()));
+        setDefinition(localEnv.get(getName(), getPackedLocation()));
         setType(getDefinition().getType());
 
         if (definition.isField()) {
@@ -245,7 +247,7 @@ public class Identifier extends AbstractIdentifier {
         }
         Symbol methodSymb = compiler.createSymbol(getName().getName() + ".m");
 
-        setDefinition(localEnv.get(methodSymb, getLocation()));
+        setDefinition(localEnv.get(methodSymb, getPackedLocation()));
         setType(getDefinition().getType());
 
         // else {
@@ -317,20 +319,20 @@ public class Identifier extends AbstractIdentifier {
         if (getDefinition().isParam()) {
             loadTarget = new RegisterOffset(-2 - getParamDefinition().getIndex(), Register.LB);
         } else if (getDefinition().isField()) {
-            loadTarget = Register.getUnusedR();
+            loadTarget = compiler.getRegisterManager().getUnusedR();
 
             compiler.addInstruction(new LOAD(new RegisterOffset(-2, Register.LB), (GPRegister) loadTarget));
 
             DVal fieldPos = new RegisterOffset(getFieldDefinition().getIndex(), (GPRegister) loadTarget);
             compiler.addInstruction(new LOAD(fieldPos, (GPRegister) loadTarget));
-            Register.setLastExprPos(new RegisterOffset(0, (GPRegister) loadTarget));
+            compiler.getRegisterManager().setLastExprPos(new RegisterOffset(0, (GPRegister) loadTarget));
         } else {
             loadTarget = getVariableDefinition().getOperand();
         }
         compiler.addInstruction(new LOAD(loadTarget, Register.R1));
 
         // in case of a ConvFloat
-        Register.setLastExprPos(new RegisterOffset(0, Register.R1));
+        compiler.getRegisterManager().setLastExprPos(new RegisterOffset(0, Register.R1));
 
         if (getType().isInt()) {
             compiler.addInstruction(new WINT());
@@ -358,13 +360,13 @@ public class Identifier extends AbstractIdentifier {
 
         // Print in case of int
         if (getType().isInt()) {
-            ARMDataSection.setIntPrint();
+            compiler.getARMDataSection().setIntPrint();
 
             // Store R0 and R1 if need be
-            if (ARMRegister.isUsed(0)) {
+            if (compiler.getARMRegisterManager().isUsed(0)) {
                 compiler.addARMInstruction(new ARM_PUSH(ARMRegister.R0));
             }
-            if (ARMRegister.isUsed(1)) {
+            if (compiler.getARMRegisterManager().isUsed(1)) {
                 compiler.addARMInstruction(new ARM_PUSH(ARMRegister.R1));
             }
 
@@ -373,23 +375,23 @@ public class Identifier extends AbstractIdentifier {
             compiler.addARMInstruction(new ARM_BL(new ARMLabel("printf")));
 
             // Restore R0 and R1 if need be
-            if (ARMRegister.isUsed(0)) {
+            if (compiler.getARMRegisterManager().isUsed(0)) {
                 compiler.addARMInstruction(new ARM_POP(ARMRegister.R0));
             }
-            if (ARMRegister.isUsed(1)) {
+            if (compiler.getARMRegisterManager().isUsed(1)) {
                 compiler.addARMInstruction(new ARM_POP(ARMRegister.R1));
             }
         } else if (getType().isFloat()) {
-            ARMDataSection.setFloatPrint();
+            compiler.getARMDataSection().setFloatPrint();
 
             // Store R0, R2 and R3 if need be
-            if (ARMRegister.isUsed(0)) {
+            if (compiler.getARMRegisterManager().isUsed(0)) {
                 compiler.addARMInstruction(new ARM_PUSH(ARMRegister.R0));
             }
-            if (ARMRegister.isUsed(2)) {
+            if (compiler.getARMRegisterManager().isUsed(2)) {
                 compiler.addARMInstruction(new ARM_PUSH(ARMRegister.R2));
             }
-            if (ARMRegister.isUsed(3)) {
+            if (compiler.getARMRegisterManager().isUsed(3)) {
                 compiler.addARMInstruction(new ARM_PUSH(ARMRegister.R3));
             }
 
@@ -401,18 +403,23 @@ public class Identifier extends AbstractIdentifier {
             compiler.addARMInstruction(new ARM_BL(new ARMLabel("printf")));
 
             // Restore R0, R2 and R3 if need be
-            if (ARMRegister.isUsed(0)) {
+            if (compiler.getARMRegisterManager().isUsed(0)) {
                 compiler.addARMInstruction(new ARM_POP(ARMRegister.R0));
             }
-            if (ARMRegister.isUsed(2)) {
+            if (compiler.getARMRegisterManager().isUsed(2)) {
                 compiler.addARMInstruction(new ARM_POP(ARMRegister.R2));
             }
-            if (ARMRegister.isUsed(3)) {
+            if (compiler.getARMRegisterManager().isUsed(3)) {
                 compiler.addARMInstruction(new ARM_POP(ARMRegister.R3));
             }
         }
     }
 
+    @Override
+    protected boolean isReorderable() {
+        return true;
+    }
+
     @Override
     protected void codeGenInst(DecacCompiler compiler) {
         if (getDefinition().isField()) {
@@ -420,7 +427,7 @@ public class Identifier extends AbstractIdentifier {
             return;
         }
 
-        GPRegister unusedReg = Register.getUnusedR();
+        GPRegister unusedReg = compiler.getRegisterManager().getUnusedR();
 
         DVal loadTarget;
         if (getDefinition().isParam()) {
@@ -433,25 +440,25 @@ public class Identifier extends AbstractIdentifier {
 
         if (unusedReg != null) {
             // try to use an unused GPRegister
-            Register.setLastExprPos(new RegisterOffset(0, unusedReg));
+            compiler.getRegisterManager().setLastExprPos(new RegisterOffset(0, unusedReg));
             compiler.addInstruction(new LOAD(loadTarget, unusedReg));
         } else {
             // if no GPRegister is unused, push to stack as a temp variable
-            Register.setLastExprPos(new RegisterOffset(0, Register.SP));
+            compiler.getRegisterManager().setLastExprPos(new RegisterOffset(0, Register.SP));
             compiler.addInstruction(new LOAD(loadTarget, Register.R1));
             compiler.addInstruction(new PUSH(Register.R1));
-            StackCount.countPush();
+            compiler.getStackCount().countPush();
         }
     }
 
     private void codeGenInstField(DecacCompiler compiler) {
-        GPRegister loadTarget = Register.getUnusedR();
+        GPRegister loadTarget = compiler.getRegisterManager().getUnusedR();
 
         compiler.addInstruction(new LOAD(new RegisterOffset(-2, Register.LB), loadTarget));
 
         DVal fieldPos = new RegisterOffset(getFieldDefinition().getIndex(), (GPRegister) loadTarget);
         compiler.addInstruction(new LOAD(fieldPos, loadTarget));
-        Register.setLastExprPos(new RegisterOffset(0, loadTarget));
+        compiler.getRegisterManager().setLastExprPos(new RegisterOffset(0, loadTarget));
     }
 
     private Definition definition;
@@ -479,7 +486,7 @@ public class Identifier extends AbstractIdentifier {
 
     @Override
     String prettyPrintNode() {
-        if (getDefinition() != null && getLocation().getFilename().equals("<builtin>")) {
+        if (getDefinition() != null && getPackedLocation() == Location.BUILTIN_PACKED) {
             return "[builtin] Identifier (" + getName() + ")";
         }
         return "Identifier (" + getName() + ")";
@@ -497,4 +504,16 @@ public class Identifier extends AbstractIdentifier {
         }
     }
 
+    @Override
+    protected VirtualRegister lowerLValue(IRBuilder builder) {
+        if (getDefinition().isField()) {
+            throw new UnsupportedLoweringException("fields");
+        }
+        return builder.variable(getExpDefinition(), getName().getName());
+    }
+
+    @Override
+    protected Operand lowerExpr(IRBuilder builder) {
+        return lowerLValue(builder);
+    }
 }
@@ -11,20 +11,15 @@ import fr.ensimag.deca.context.ClassDefinition;
 import fr.ensimag.deca.context.ContextualError;
 import fr.ensimag.deca.context.EnvironmentExp;
 import fr.ensimag.deca.tools.IndentPrintStream;
-import fr.ensimag.ima.pseudocode.DVal;
-import fr.ensimag.ima.pseudocode.GPRegister;
-import fr.ensimag.ima.pseudocode.ImmediateInteger;
 import fr.ensimag.ima.pseudocode.Label;
-import fr.ensimag.ima.pseudocode.Register;
-import fr.ensimag.ima.pseudocode.instructions.BEQ;
 import fr.ensimag.ima.pseudocode.instructions.BRA;
-import fr.ensimag.ima.pseudocode.instructions.CMP;
-import fr.ensimag.ima.pseudocode.instructions.POP;
-import fr.ensimag.deca.codegen.StackCount;
 
 import java.io.PrintStream;
 
 import org.apache.commons.lang.Validate;
+import fr.ensimag.deca.ir.BasicBlock;
+import fr.ensimag.deca.ir.IRBuilder;
+import fr.ensimag.deca.ir.Jump;
 
 /**
  * Full if/else if/else statement.
@@ -34,8 +29,7 @@ import org.apache.commons.lang.Validate;
  */
 public class IfThenElse extends AbstractInst {
 
-    private static int ifClauseCount = -1;
-    private final AbstractExpr condition;
+    private AbstractExpr condition;
     private final ListInst thenBranch;
     private ListInst elseBranch;
     // private List<IfThenElse> elseIfBranches = new ArrayList<>();
@@ -78,54 +72,40 @@ public class IfThenElse extends AbstractInst {
     @Override
     protected void codeGenInst(DecacCompiler compiler) {
         // update numbering for labels
-        ifClauseCount++;
+        int ifClauseCount = compiler.getHelperInfo().nextIfClauseCount();
+        String labelSuffix = compiler.getHelperInfo().getLabelSuffix();
 
         // ------------ Generate branch conditions
-        // if condition
-        Label ifLabel = new Label(String.format("if.%h", ifClauseCount));
-
-        condition.codeGenInst(compiler);
-        DVal ifConditionResult = Register.getLastExprPos();
-
-        if (ifConditionResult.equals(Register.SP)) {
-            compiler.addInstruction(new POP(Register.R1));
-            StackCount.countPop();
-            compiler.addInstruction(new CMP(new ImmediateInteger(1), Register.R1));
-        } else {
-            compiler.addInstruction(new CMP(new ImmediateInteger(1), (GPRegister) ifConditionResult));
-            Register.setUnused((GPRegister) ifConditionResult);
-        }
-
-        compiler.addInstruction(new BEQ(ifLabel));
-
-        // else (conditionless)
-        Label elseLabel = new Label(String.format("else.%h", ifClauseCount));
-        compiler.addInstruction(new BRA(elseLabel));
+        // the condition jumps to the else branch when it is false, and falls
+        // through to the then branch otherwise
+        Label elseLabel = compiler.declareLocalLabel(
+                new Label(String.format("else.%h", ifClauseCount) + labelSuffix));
+        condition.codeGenCondition(compiler, false, elseLabel);
 
         // ------------ Generate instructions for branches
 
-        // end_if label, every branch jumps to this label after all its instructions are
-        // executed
-        Label endIfLabel = new Label(String.format("end_if.%h", ifClauseCount));
-
-        // labels and their instructions
-
         // if instructions
-        compiler.addLabel(ifLabel);
         thenBranch.codeGenListInst(compiler);
+        if (elseBranch.isEmpty()) {
+            compiler.addLabel(elseLabel);
+            return;
+        }
+
+        // end_if label, the then branch jumps over the else branch
+        Label endIfLabel = compiler.declareLocalLabel(
+                new Label(String.format("end_if.%h", ifClauseCount) + labelSuffix));
         compiler.addInstruction(new BRA(endIfLabel));
 
         // else instructions
         compiler.addLabel(elseLabel);
         elseBranch.codeGenListInst(compiler);
-        compiler.addInstruction(new BRA(endIfLabel));
 
         compiler.addLabel(endIfLabel);
     }
 
     @Override
     protected void ARMCodeGenInst(DecacCompiler compiler) {
-        ifClauseCount++;
+        int ifClauseCount = compiler.getHelperInfo().nextIfClauseCount();
 
         ARMLabel thenLabel = new ARMLabel("if." + Integer.toHexString(ifClauseCount));
         ARMLabel elseLabel = new ARMLabel("else." + Integer.toHexString(ifClauseCount));
@@ -134,19 +114,19 @@ public class IfThenElse extends AbstractInst {
         condition.ARMCodeGenInst(compiler);
         ARMGPRegister conditionReg;
 
-        if (ARMRegister.getLastExprPos() instanceof fr.ensimag.arm.pseudocode.ARMRegisterOffset) {
+        if (compiler.getARMRegisterManager().getLastExprPos() instanceof fr.ensimag.arm.pseudocode.ARMRegisterOffset) {
             compiler.addARMInstruction(new ARM_POP(ARMRegister.R1));
-            StackCount.countPop();
+            compiler.getStackCount().countPop();
             conditionReg = ARMRegister.R1;
         } else {
-            conditionReg = (ARMGPRegister) ARMRegister.getLastExprPos();
+            conditionReg = (ARMGPRegister) compiler.getARMRegisterManager().getLastExprPos();
         }
 
         compiler.addARMInstruction(new ARM_CMP(conditionReg, new ARMImmediateInteger(0)));
         compiler.addARMInstruction(new ARM_BEQ(elseLabel));
 
         if (!(conditionReg.equals(ARMRegister.R1))) {
-            ARMRegister.setUnused(conditionReg);
+            compiler.getARMRegisterManager().setUnused(conditionReg);
         }
 
         thenBranch.ARMCodeGenListInst(compiler);
@@ -204,4 +184,26 @@ public class IfThenElse extends AbstractInst {
         // }
         elseBranch.prettyPrint(s, prefix, true);
     }
+
+    @Override
+    protected void lowerInst(IRBuilder builder) {
+        BasicBlock thenBlock = builder.newBlock();
+        BasicBlock end = builder.newBlock();
+        BasicBlock elseBlock = elseBranch.isEmpty() ? end : builder.newBlock();
+        condition.lowerCondition(builder, thenBlock, elseBlock);
+        builder.startBlock(thenBlock);
+        thenBranch.lowerListInst(builder);
+        builder.emit(new Jump(end));
+        if (elseBlock != end) {
+            builder.startBlock(elseBlock);
+            elseBranch.lowerListInst(builder);
+            builder.emit(new Jump(end));
+        }
+        builder.startBlock(end);
+    }
+
+    @Override
+    protected void foldConstants(DecacCompiler compiler) {
+        condition = condition.foldExpr(compiler);
+    }
 }
@@ -60,4 +60,9 @@ public class Initialization extends AbstractInitialization {
     protected void prettyPrintChildren(PrintStream s, String prefix) {
         expression.prettyPrint(s, prefix, true);
     }
+
+    @Override
+    protected void foldConstants(DecacCompiler compiler) {
+        expression = expression.foldExpr(compiler);
+    }
 }
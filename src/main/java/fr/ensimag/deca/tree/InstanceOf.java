@@ -21,7 +21,7 @@ import fr.ensimag.ima.pseudocode.instructions.WNL;
  * Represents an instanceof expression in Deca.
  */
 public class InstanceOf extends AbstractExpr {
-    private final AbstractExpr expr;
+    private AbstractExpr expr;
     private final AbstractIdentifier targetIdentifier;
 
     public InstanceOf(AbstractExpr expr, AbstractIdentifier targetIdentifier) {
@@ -49,19 +49,22 @@ public class InstanceOf extends AbstractExpr {
         return compiler.environmentType.BOOLEAN;
     }
 
-    private static int instanceOfCount = 0;
-
     @Override
     protected void codeGenInst(DecacCompiler compiler) {
-        instanceOfCount++;
-        Label checkSuperClassLabel = new Label(String.format("loop_instanceof.%d", instanceOfCount));
-        Label notInstanceOfLabel = new Label(String.format("not_instanceof.%d", instanceOfCount));
-        Label instanceOfLabel = new Label(String.format("is_instanceof.%d", instanceOfCount));
-        Label endLabel = new Label(String.format("end_instanceof.%d", instanceOfCount));
+        int instanceOfCount = compiler.getHelperInfo().nextInstanceOfCount();
+        String labelSuffix = compiler.getHelperInfo().getLabelSuffix();
+        Label checkSuperClassLabel = compiler.declareLocalLabel(
+                new Label(String.format("loop_instanceof.%d", instanceOfCount) + labelSuffix));
+        Label notInstanceOfLabel = compiler.declareLocalLabel(
+                new Label(String.format("not_instanceof.%d", instanceOfCount) + labelSuffix));
+        Label instanceOfLabel = compiler.declareLocalLabel(
+                new Label(String.format("is_instanceof.%d", instanceOfCount) + labelSuffix));
+        Label endLabel = compiler.declareLocalLabel(
+                new Label(String.format("end_instanceof.%d", instanceOfCount) + labelSuffix));
 
         // instance address (verified correct, trust)
         expr.codeGenInst(compiler);
-        compiler.addInstruction(new LOAD(Register.getLastExprPos(), Register.R1));
+        compiler.addInstruction(new LOAD(compiler.getRegisterManager().getLastExprPos(), Register.R1));
         compiler.addInstruction(new LOAD(new RegisterOffset(0, Register.R1), Register.R1));
 
         // target VTable entry address
@@ -90,7 +93,7 @@ public class InstanceOf extends AbstractExpr {
         compiler.addInstruction(new LOAD(new ImmediateInteger(0), Register.R0));
 
         compiler.addLabel(endLabel);
-        Register.setLastExprPos(new RegisterOffset(0, Register.R0));
+        compiler.getRegisterManager().setLastExprPos(new RegisterOffset(0, Register.R0));
     }
 
     @Override
@@ -110,4 +113,10 @@ public class InstanceOf extends AbstractExpr {
         expr.prettyPrint(s, prefix, false);
         targetIdentifier.prettyPrint(s, prefix, true);
     }
+
+    @Override
+    protected AbstractExpr foldExpr(DecacCompiler compiler) {
+        expr = expr.foldExpr(compiler);
+        return this;
+    }
 }
@@ -15,7 +15,6 @@ import fr.ensimag.ima.pseudocode.RegisterOffset;
 import fr.ensimag.ima.pseudocode.instructions.LOAD;
 import fr.ensimag.ima.pseudocode.instructions.PUSH;
 import fr.ensimag.ima.pseudocode.instructions.WINT;
-import fr.ensimag.deca.codegen.StackCount;
 import fr.ensimag.arm.pseudocode.ARMGPRegister;
 import fr.ensimag.arm.pseudocode.ARMImmediateInteger;
 import fr.ensimag.arm.pseudocode.ARMRegister;
@@ -27,7 +26,9 @@ import fr.ensimag.arm.pseudocode.instructions.ARM_POP;
 import fr.ensimag.arm.pseudocode.instructions.ARM_BL;
 import fr.ensimag.arm.pseudocode.instructions.ARM_LDR;
 import fr.ensimag.arm.pseudocode.ARMLiteral;
-import fr.ensimag.deca.codegen.ARMDataSection;
+import fr.ensimag.deca.ir.IRBuilder;
+import fr.ensimag.deca.ir.IntConstant;
+import fr.ensimag.deca.ir.Operand;
 
 /**
  * Integer literal
@@ -86,15 +87,15 @@ public class IntLiteral extends AbstractExpr {
     @Override
     protected void ARMCodeGenPrint(DecacCompiler compiler, boolean printHex) {
         // Account for incoming int printing
-        ARMDataSection.setIntPrint();
+        compiler.getARMDataSection().setIntPrint();
 
         // Load int_format data into R0 (if used, push then pop)
-        if (ARMRegister.isUsed(0)) {
+        if (compiler.getARMRegisterManager().isUsed(0)) {
             compiler.addARMInstruction(new ARM_PUSH(ARMRegister.R0));
         }
 
         // Load literal to be printed in R1 (if used, push then pop)
-        if (ARMRegister.isUsed(1)) {
+        if (compiler.getARMRegisterManager().isUsed(1)) {
             compiler.addARMInstruction(new ARM_PUSH(ARMRegister.R1));
         }
 
@@ -105,39 +106,44 @@ public class IntLiteral extends AbstractExpr {
         compiler.addARMInstruction(new ARM_BL(new ARMLabel("printf")));
 
         // Restore R0 and or R1 if need be
-        if (ARMRegister.isUsed(1)) {
+        if (compiler.getARMRegisterManager().isUsed(1)) {
             compiler.addARMInstruction(new ARM_POP(ARMRegister.R1));
         }
-        if (ARMRegister.isUsed(0)) {
+        if (compiler.getARMRegisterManager().isUsed(0)) {
             compiler.addARMInstruction(new ARM_POP(ARMRegister.R0));
         }
     }
 
+    @Override
+    protected boolean isReorderable() {
+        return true;
+    }
+
     @Override
     protected void codeGenInst(DecacCompiler compiler) {
-        GPRegister unusedReg = Register.getUnusedR();
+        GPRegister unusedReg = compiler.getRegisterManager().getUnusedR();
         if (unusedReg != null) {
-            Register.setLastExprPos(new RegisterOffset(0, unusedReg));
+            compiler.getRegisterManager().setLastExprPos(new RegisterOffset(0, unusedReg));
             compiler.addInstruction(new LOAD(this.value, unusedReg));
         } else {
-            Register.setLastExprPos(new RegisterOffset(0, Register.SP));
+            compiler.getRegisterManager().setLastExprPos(new RegisterOffset(0, Register.SP));
             compiler.addInstruction(new LOAD(this.value, Register.R1));
             compiler.addInstruction(new PUSH(Register.R1));
-            StackCount.countPush();
+            compiler.getStackCount().countPush();
         }
     }
 
     @Override
     protected void ARMCodeGenInst(DecacCompiler compiler) {
-        ARMGPRegister unusedReg = ARMRegister.getUnusedR();
+        ARMGPRegister unusedReg = compiler.getARMRegisterManager().getUnusedR();
         if (unusedReg != null) {
-            ARMRegister.setLastExprPos(new ARMRegisterOffset(0, unusedReg));
+            compiler.getARMRegisterManager().setLastExprPos(new ARMRegisterOffset(0, unusedReg));
             compiler.addARMInstruction(new ARM_MOV(unusedReg, new ARMImmediateInteger(value)));
         } else {
-            ARMRegister.setLastExprPos(new ARMRegisterOffset(0, ARMRegister.SP));
+            compiler.getARMRegisterManager().setLastExprPos(new ARMRegisterOffset(0, ARMRegister.SP));
             compiler.addARMInstruction(new ARM_MOV(ARMRegister.R12, new ARMImmediateInteger(value)));
             compiler.addARMInstruction(new ARM_PUSH(ARMRegister.R12));
-            StackCount.countPush();
+            compiler.getStackCount().countPush();
         }
     }
 
@@ -161,4 +167,13 @@ public class IntLiteral extends AbstractExpr {
         // leaf node => nothing to do
     }
 
+    @Override
+    protected Operand getConstantValue() {
+        return new IntConstant(value);
+    }
+
+    @Override
+    protected Operand lowerExpr(IRBuilder builder) {
+        return getConstantValue();
+    }
 }
@@ -1,10 +1,15 @@
 package fr.ensimag.deca.tree;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
 import org.apache.log4j.Logger;
 
 import fr.ensimag.deca.DecacCompiler;
-import fr.ensimag.deca.codegen.StackCount;
+import fr.ensimag.deca.codegen.CodeGenUnits;
 import fr.ensimag.deca.context.ContextualError;
+import fr.ensimag.deca.tools.CompilerEvents;
 import fr.ensimag.deca.tools.IndentPrintStream;
 import fr.ensimag.ima.pseudocode.LabelOperand;
 import fr.ensimag.ima.pseudocode.Label;
@@ -43,9 +48,14 @@ public class ListDeclClass extends TreeList<AbstractDeclClass> {
      */
     void verifyListClass(DecacCompiler compiler) throws ContextualError {
         LOG.debug("verify listClass: start");
+        CompilerEvents.Event event = CompilerEvents.begin(CompilerEvents.Kind.VERIFY_CLASSES);
         for (AbstractDeclClass decl : getList()) {
             decl.verifyClass(compiler);
         }
+        compiler.environmentType.numberClasses();
+        if (event != null) {
+            event.set(CompilerEvents.Field.FILE, compiler.getSourceName()).commit();
+        }
         verifyListClassMembers(compiler);
         LOG.debug("verify listClass: end");
     }
@@ -55,9 +65,13 @@ public class ListDeclClass extends TreeList<AbstractDeclClass> {
      */
     public void verifyListClassMembers(DecacCompiler compiler) throws ContextualError {
         LOG.debug("verify listClassMemebers: start");
+        CompilerEvents.Event event = CompilerEvents.begin(CompilerEvents.Kind.VERIFY_MEMBERS);
         for (AbstractDeclClass decl : getList()) {
             decl.verifyClassMembers(compiler);
         }
+        if (event != null) {
+            event.set(CompilerEvents.Field.FILE, compiler.getSourceName()).commit();
+        }
         LOG.debug("verify listClassMemebers: end");
         verifyListClassBody(compiler);
     }
@@ -67,12 +81,49 @@ public class ListDeclClass extends TreeList<AbstractDeclClass> {
      */
     public void verifyListClassBody(DecacCompiler compiler) throws ContextualError {
         LOG.debug("verify listClassBody: start");
+        CompilerEvents.Event event = CompilerEvents.begin(CompilerEvents.Kind.VERIFY_BODIES);
+        List<AbstractDeclClass.BodyVerification> verifications = new ArrayList<>();
         for (AbstractDeclClass decl : getList()) {
-            decl.verifyClassBody(compiler);
+            decl.verifyClassBody(compiler, verifications);
+        }
+        if (compiler.getCompilerOptions() != null && compiler.getCompilerOptions().getParallel()
+                && verifications.size() > 1) {
+            verifyConcurrently(verifications);
+        } else {
+            for (AbstractDeclClass.BodyVerification verification : verifications) {
+                verification.verify();
+            }
+        }
+        if (event != null) {
+            event.set(CompilerEvents.Field.FILE, compiler.getSourceName()).commit();
         }
         LOG.debug("verify listClassBody: end");
     }
 
+    /**
+     * Run the verifications of pass 3 on the common fork/join pool. All of
+     * them are run, and the error reported is the one of the first
+     * verification in source order, as when they are run one after the other.
+     */
+    private static void verifyConcurrently(List<AbstractDeclClass.BodyVerification> verifications)
+            throws ContextualError {
+        Exception[] errors = new Exception[verifications.size()];
+        IntStream.range(0, verifications.size()).parallel().forEach(i -> {
+            try {
+                verifications.get(i).verify();
+            } catch (ContextualError | RuntimeException e) {
+                errors[i] = e;
+            }
+        });
+        for (Exception e : errors) {
+            if (e instanceof ContextualError) {
+                throw (ContextualError) e;
+            } else if (e != null) {
+                throw (RuntimeException) e;
+            }
+        }
+    }
+
     /**
      * Generate VTable entry for all classes
      */
@@ -93,7 +144,7 @@ public class ListDeclClass extends TreeList<AbstractDeclClass> {
         }
 
         // add VTable size to StakCount to account for it for ADDSP
-        StackCount.addVarCount(DeclClass.getVTableSize());
+        compiler.getStackCount().addVarCount(compiler.getHelperInfo().getVTableSize());
     }
 
     /**
@@ -127,8 +178,11 @@ public class ListDeclClass extends TreeList<AbstractDeclClass> {
         compiler.addLabel(new Label("end_if.Object.equals"));
         compiler.addInstruction(new RTS());
 
+        // the classes are generated by units, which can be generated concurrently
+        CodeGenUnits units = new CodeGenUnits();
         for (AbstractDeclClass decl : getList()) {
-            decl.codeGenClass(compiler);
+            decl.codeGenClass(units);
         }
+        compiler.codeGenUnits(units);
     }
 }
@@ -5,6 +5,7 @@ import fr.ensimag.deca.context.ClassDefinition;
 import fr.ensimag.deca.context.ContextualError;
 import fr.ensimag.deca.context.EnvironmentExp;
 import fr.ensimag.deca.tools.IndentPrintStream;
+import fr.ensimag.deca.ir.IRBuilder;
 
 /**
  * List of declarations (e.g. int x; float y,z).
@@ -61,4 +62,9 @@ public class ListDeclVar extends TreeList<AbstractDeclVar> {
         }
     }
 
+    void lowerListDeclVar(IRBuilder builder) {
+        for (AbstractDeclVar declVar : getList()) {
+            declVar.lowerDeclVar(builder);
+        }
+    }
 }
@@ -7,6 +7,7 @@ import fr.ensimag.deca.context.ContextualError;
 import fr.ensimag.deca.context.EnvironmentExp;
 import fr.ensimag.deca.tools.IndentPrintStream;
 import fr.ensimag.ima.pseudocode.Label;
+import fr.ensimag.deca.ir.IRBuilder;
 
 /**
  * 
@@ -54,4 +55,17 @@ public class ListInst extends TreeList<AbstractInst> {
             s.println();
         }
     }
+
+    public void lowerListInst(IRBuilder builder) {
+        for (AbstractInst i : getList()) {
+            i.lowerInst(builder);
+        }
+    }
+
+    @Override
+    protected void foldConstants(DecacCompiler compiler) {
+        for (int i = 0; i < size(); i++) {
+            set(i, getList().get(i).foldInst(compiler));
+        }
+    }
 }
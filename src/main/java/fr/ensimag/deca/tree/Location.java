@@ -1,10 +1,17 @@
 package fr.ensimag.deca.tree;
 
 import java.io.Serializable;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Location in a file (File, line, positionInLine).
  *
+ * The trees do not keep Location objects, which would dominate their memory
+ * footprint, but their packed form (see {@link #pack(int, int, String)}): a
+ * long made of the id of the file in a table of source names, the line and
+ * the position in line. The Location objects are only created when they are
+ * asked for, typically to display an error.
+ *
  * @author gl13
  * @date 01/01/2025
  */
@@ -59,4 +66,127 @@ public class Location implements Serializable {
         this.filename = filename;
     }
 
+    /*
+     * Packed locations: file id on the high FILE_BITS bits, line + 1 on the
+     * next LINE_BITS bits, positionInLine + 1 on the low COLUMN_BITS bits.
+     * File ids start at 1, so that 0 is no location. Lines and columns too
+     * large for their bits are clamped.
+     */
+    private static final int FILE_BITS = 20;
+    private static final int LINE_BITS = 24;
+    private static final int COLUMN_BITS = 20;
+    private static final long LINE_MAX = (1L << LINE_BITS) - 1;
+    private static final long COLUMN_MAX = (1L << COLUMN_BITS) - 1;
+
+    /**
+     * Packed form of no location (null).
+     */
+    public static final long NO_LOCATION = 0L;
+
+    /**
+     * Packed form of {@link #BUILTIN}. All its bits are set: no location in
+     * a source file is packed to it, as the greatest file id is never given
+     * (see {@link #fileId(String)}).
+     */
+    public static final long BUILTIN_PACKED = -1L;
+    private static final int MAX_FILE_ID = (1 << FILE_BITS) - 2;
+
+    /*
+     * Table of the source names, shared by the compilations of the process
+     * like the symbols (see SymbolTable.getShared()): a tree has no access to
+     * its compiler when its location is asked for. null (stdin) is stored as
+     * NO_SOURCE_NAME. The table is bounded by the FILE_BITS of the ids, and
+     * the compile server empties it between requests (see
+     * resetFileTable()).
+     */
+    private static final ConcurrentHashMap<String, Integer> fileIds = new ConcurrentHashMap<String, Integer>();
+    private static final ConcurrentHashMap<Integer, String> fileNames = new ConcurrentHashMap<Integer, String>();
+    private static int nextFileId = 1;
+
+    /**
+     * @return the id of the source name in the table of source names, added
+     *         if needed
+     * @throws IllegalStateException if the table is full
+     */
+    public static int fileId(String filename) {
+        String name = filename == null ? NO_SOURCE_NAME : filename;
+        Integer id = fileIds.get(name);
+        if (id == null) {
+            synchronized (fileIds) {
+                id = fileIds.get(name);
+                if (id == null) {
+                    if (nextFileId > MAX_FILE_ID) {
+                        throw new IllegalStateException("Too many source files");
+                    }
+                    id = nextFileId++;
+                    fileNames.put(id, name);
+                    fileIds.put(name, id);
+                }
+            }
+        }
+        return id;
+    }
+
+    /**
+     * @return the number of source names in the table
+     */
+    public static int getFileCount() {
+        return fileIds.size();
+    }
+
+    /**
+     * Empty the table of source names. The packed locations created before
+     * can't be unpacked anymore: this must only be called when no compilation
+     * is running and the trees of the previous ones are no longer used.
+     */
+    public static void resetFileTable() {
+        synchronized (fileIds) {
+            fileIds.clear();
+            fileNames.clear();
+            nextFileId = 1;
+        }
+    }
+
+    /**
+     * @param fileId id returned by {@link #fileId(String)}
+     * @return the packed form of the location
+     */
+    public static long pack(int line, int positionInLine, int fileId) {
+        long packedLine = Math.min(Math.max(line + 1L, 0), LINE_MAX);
+        long packedColumn = Math.min(Math.max(positionInLine + 1L, 0), COLUMN_MAX);
+        return ((long) fileId << (LINE_BITS + COLUMN_BITS)) | (packedLine << COLUMN_BITS) | packedColumn;
+    }
+
+    public static long pack(int line, int positionInLine, String filename) {
+        return pack(line, positionInLine, fileId(filename));
+    }
+
+    /**
+     * @return the packed form of location, which may be null
+     */
+    public static long pack(Location location) {
+        if (location == null) {
+            return NO_LOCATION;
+        } else if (location == BUILTIN) {
+            return BUILTIN_PACKED;
+        } else {
+            return pack(location.line, location.positionInLine, location.filename);
+        }
+    }
+
+    /**
+     * @return the location of a packed form, or null for {@link #NO_LOCATION}
+     */
+    public static Location unpack(long packed) {
+        if (packed == NO_LOCATION) {
+            return null;
+        } else if (packed == BUILTIN_PACKED) {
+            return BUILTIN;
+        }
+        int fileId = (int) (packed >>> (LINE_BITS + COLUMN_BITS));
+        int line = (int) ((packed >>> COLUMN_BITS) & LINE_MAX) - 1;
+        int positionInLine = (int) (packed & COLUMN_MAX) - 1;
+        return new Location(line, positionInLine, fileNames.get(fileId));
+    }
+
 }
@@ -5,13 +5,20 @@ import java.io.PrintStream;
 import org.apache.commons.lang.Validate;
 import org.apache.log4j.Logger;
 
+import fr.ensimag.deca.CompilerOptions;
 import fr.ensimag.deca.DecacCompiler;
-import fr.ensimag.deca.codegen.StackCount;
 import fr.ensimag.deca.context.ContextualError;
 import fr.ensimag.deca.context.EnvironmentExp;
 import fr.ensimag.deca.context.VoidType;
 import fr.ensimag.deca.tools.IndentPrintStream;
 import fr.ensimag.ima.pseudocode.Line;
+import fr.ensimag.deca.ir.ARMSelector;
+import fr.ensimag.deca.ir.ControlFlowGraph;
+import fr.ensimag.deca.ir.IMASelector;
+import fr.ensimag.deca.ir.IRBuilder;
+import fr.ensimag.deca.ir.Optimizer;
+import fr.ensimag.deca.ir.UnsupportedLoweringException;
+import fr.ensimag.ima.pseudocode.Register;
 
 /**
  * @author gl13
@@ -45,8 +52,40 @@ public class Main extends AbstractMain {
         LOG.debug("verify Main: end");
     }
 
+    /**
+     * Lower the main program to the intermediate representation.
+     *
+     * @return the control-flow graph, or null if the IR does not cover the
+     *         program
+     */
+    private ControlFlowGraph lower(CompilerOptions options) {
+        try {
+            IRBuilder builder = new IRBuilder("main");
+            declVariables.lowerListDeclVar(builder);
+            insts.lowerListInst(builder);
+            ControlFlowGraph cfg = builder.finish();
+            Optimizer.optimize(cfg, options);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("IR of the main program:\n" + cfg.display());
+            }
+            return cfg;
+        } catch (UnsupportedLoweringException e) {
+            LOG.debug("main program not lowered to the IR: " + e.getMessage());
+            return null;
+        }
+    }
+
     @Override
     protected void codeGenMain(DecacCompiler compiler) {
+        ControlFlowGraph cfg = compiler.getCompilerOptions().getIR() ? lower(compiler.getCompilerOptions()) : null;
+        if (cfg != null) {
+            compiler.addComment("Main program, through the IR:");
+            new IMASelector(compiler, cfg, Register.GB, null).codeGen();
+            compiler.setPossibleStackOverflow();
+            compiler.getStackCount().genCodeAllocateStack(compiler);
+            compiler.addFirst(new Line("Main program stack allocation"));
+            return;
+        }
         if (!declVariables.isEmpty()) {
             compiler.addComment("Beginning of variable declarations:");
             declVariables.codeGenListDeclVar(compiler);
@@ -55,11 +94,11 @@ public class Main extends AbstractMain {
             compiler.setPossibleStackOverflow();
 
             // generate code for stack overflow checking
-            StackCount.genCodeAllocateStack(compiler);
+            compiler.getStackCount().genCodeAllocateStack(compiler);
             compiler.addFirst(new Line("Main program stack allocation"));
         } else {
             compiler.setPossibleStackOverflow();
-            StackCount.genCodeAllocateStack(compiler);
+            compiler.getStackCount().genCodeAllocateStack(compiler);
         }
 
         if (!insts.isEmpty()) {
@@ -70,7 +109,12 @@ public class Main extends AbstractMain {
 
     @Override
     protected void ARMCodeGenMain(DecacCompiler compiler) {
-        // TODO Auto-generated method stub
+        ControlFlowGraph cfg = compiler.getCompilerOptions().getIR() ? lower(compiler.getCompilerOptions()) : null;
+        if (cfg != null && ARMSelector.supports(cfg)) {
+            compiler.addComment("Main program, through the IR:");
+            new ARMSelector(compiler, cfg).codeGen();
+            return;
+        }
         if (!declVariables.isEmpty()) {
             compiler.addComment("Beginning of variable declarations:");
             declVariables.ARMCodeGenListDeclVar(compiler);
@@ -79,11 +123,11 @@ public class Main extends AbstractMain {
             // compiler.setPossibleStackOverflow();
 
             // generate code for stack overflow checking
-            // StackCount.genCodeAllocateStack(compiler);
+            // compiler.getStackCount().genCodeAllocateStack(compiler);
             // compiler.addFirst(new Line("Main program stack allocation"));
         } else {
             // compiler.setPossibleStackOverflow();
-            // StackCount.genCodeAllocateStack(compiler);
+            // compiler.getStackCount().genCodeAllocateStack(compiler);
         }
 
         if (!insts.isEmpty()) {
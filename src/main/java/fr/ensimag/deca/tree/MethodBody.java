@@ -8,11 +8,21 @@ import fr.ensimag.deca.DecacCompiler;
 import fr.ensimag.deca.context.Type;
 
 import java.io.PrintStream;
+import fr.ensimag.deca.ir.ControlFlowGraph;
+import fr.ensimag.deca.ir.IMASelector;
+import fr.ensimag.deca.ir.IRBuilder;
+import fr.ensimag.deca.ir.Optimizer;
+import fr.ensimag.deca.ir.UnsupportedLoweringException;
+import fr.ensimag.ima.pseudocode.Label;
+import fr.ensimag.ima.pseudocode.Register;
+import org.apache.log4j.Logger;
 
 /**
  * Represents the body of a method.
  */
 public class MethodBody extends AbstractMethodBody {
+    private static final Logger LOG = Logger.getLogger(MethodBody.class);
+
     private final ListDeclVar decls;
     private final ListInst insts;
     private EnvironmentExp methodEnvExp;
@@ -54,6 +64,23 @@ public class MethodBody extends AbstractMethodBody {
     @Override
     public void codeGenInst(DecacCompiler compiler) {
         compiler.addComment("Start of method body");
+        if (compiler.getCompilerOptions().getIR()) {
+            DeclMethod method = compiler.getHelperInfo().getCurrentMethod();
+            Label label = method.getMethodDefinition().getLabel();
+            try {
+                IRBuilder builder = new IRBuilder(label.toString());
+                decls.lowerListDeclVar(builder);
+                insts.lowerListInst(builder);
+                ControlFlowGraph cfg = builder.finish();
+                Optimizer.optimize(cfg, compiler.getCompilerOptions());
+                new IMASelector(compiler, cfg, Register.LB, new Label(label.toString().replace("code", "end")))
+                        .codeGen();
+                compiler.addComment("End of method body");
+                return;
+            } catch (UnsupportedLoweringException e) {
+                LOG.debug("method " + label + " not lowered to the IR: " + e.getMessage());
+            }
+        }
         decls.codeGenListDeclVar(compiler);
         insts.codeGenListInst(compiler);
         compiler.addComment("End of method body");
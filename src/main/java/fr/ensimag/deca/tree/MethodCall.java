@@ -5,7 +5,6 @@ import java.io.PrintStream;
 import org.apache.commons.lang.Validate;
 
 import fr.ensimag.deca.DecacCompiler;
-import fr.ensimag.deca.codegen.StackCount;
 import fr.ensimag.deca.context.ClassDefinition;
 import fr.ensimag.deca.context.ContextualError;
 import fr.ensimag.deca.context.EnvironmentExp;
@@ -32,7 +31,7 @@ import fr.ensimag.ima.pseudocode.instructions.SUBSP;
  * Represents a method call like `object.method(args)`.
  */
 public class MethodCall extends AbstractExpr {
-    private final AbstractExpr object;
+    private AbstractExpr object;
     private final AbstractIdentifier method;
     private final ListExpr args;
 
@@ -60,7 +59,7 @@ public class MethodCall extends AbstractExpr {
         }
         Symbol methodSym = compiler.createSymbol(method.getName().getName() + ".m");
         MethodDefinition methodDef = (MethodDefinition) objectClassDef.getMembers().getAsMethod(methodSym,
-                getLocation());
+                getPackedLocation());
 
         if (methodDef == null) {
             throw new ContextualError(
@@ -110,25 +109,25 @@ public class MethodCall extends AbstractExpr {
 
         // get address of instance
         object.codeGenInst(compiler);
-        DVal instanceAddrPos = Register.getLastExprPos();
+        DVal instanceAddrPos = compiler.getRegisterManager().getLastExprPos();
 
         // update max param count if needed
-        StackCount.setMaxParamCount(args.size());
+        compiler.getStackCount().setMaxParamCount(args.size());
 
         // push implicit param
         compiler.addInstruction(new STORE((GPRegister) instanceAddrPos, new RegisterOffset(0, Register.SP)));
-        Register.setUnused((GPRegister) instanceAddrPos);
+        compiler.getRegisterManager().setUnused((GPRegister) instanceAddrPos);
 
         for (int i = args.size() - 1; i >= 0; i--) {
             // evaluate expression passed as an argument
             args.getList().get(i).codeGenInst(compiler);
 
             // TODO : handle case where no register is unused
-            if (!Register.getLastExprPos().equals(Register.SP)) {
-                GPRegister loadTarget = (GPRegister) Register.getLastExprPos();
+            if (!compiler.getRegisterManager().getLastExprPos().equals(Register.SP)) {
+                GPRegister loadTarget = (GPRegister) compiler.getRegisterManager().getLastExprPos();
                 compiler.addInstruction(
                         new STORE(loadTarget, new RegisterOffset(-1 - i, Register.SP)));
-                Register.setUnused(loadTarget);
+                compiler.getRegisterManager().setUnused(loadTarget);
             } else {
                 // TODO : handle case where no unused register is available
             }
@@ -137,7 +136,7 @@ public class MethodCall extends AbstractExpr {
         // TODO : handle case where no register is unused (we NEED one)
 
         // load implicit param address
-        GPRegister loadTarget = Register.getUnusedR();
+        GPRegister loadTarget = compiler.getRegisterManager().getUnusedR();
         compiler.addInstruction(new LOAD(new RegisterOffset(0, Register.SP), loadTarget));
 
         // manage null dereferencement
@@ -158,9 +157,9 @@ public class MethodCall extends AbstractExpr {
         // done in Return node, but we do it here to take into account a call to the
         // Object's equal method
         if (!methodDef.getSignature().getReturnType().isVoid()) {
-            Register.setLastExprPos(new RegisterOffset(0, Register.R0));
+            compiler.getRegisterManager().setLastExprPos(new RegisterOffset(0, Register.R0));
         }
-        Register.setUnused(loadTarget);
+        compiler.getRegisterManager().setUnused(loadTarget);
     }
 
     @Override
@@ -186,4 +185,13 @@ public class MethodCall extends AbstractExpr {
         method.prettyPrint(s, prefix, false);
         args.prettyPrint(s, prefix, true);
     }
+
+    @Override
+    protected AbstractExpr foldExpr(DecacCompiler compiler) {
+        object = object.foldExpr(compiler);
+        for (int i = 0; i < args.size(); i++) {
+            args.set(i, args.getList().get(i).foldExpr(compiler));
+        }
+        return this;
+    }
 }
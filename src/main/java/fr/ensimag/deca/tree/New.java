@@ -47,12 +47,12 @@ public class New extends AbstractExpr {
     @Override
     protected void codeGenInst(DecacCompiler compiler) {
         // allocate memory for new object in the heao
-        String comment = String.format("allocation of new instance of %s", className.toString().toString());
+        String comment = String.format("allocation of new instance of %s", className.getName().getName());
 
         // TODO : handle case where no register is unused
 
         // allocate memory for new instance of the class
-        GPRegister loadTarget = Register.getUnusedR();
+        GPRegister loadTarget = compiler.getRegisterManager().getUnusedR();
         int allocSize = className.getClassDefinition().getNumberOfFields() + 1;
         compiler.addInstruction(new NEW(new ImmediateInteger(allocSize), loadTarget), comment);
 
@@ -62,7 +62,7 @@ public class New extends AbstractExpr {
             compiler.setPossibleFullHeapError();
         }
 
-        Register.setLastExprPos(new RegisterOffset(0, loadTarget));
+        compiler.getRegisterManager().setLastExprPos(new RegisterOffset(0, loadTarget));
 
         compiler.addInstruction(new LEA(className.getClassDefinition().getVBTableOffset(), Register.R0));
         compiler.addInstruction(new STORE(Register.R0, new RegisterOffset(0, loadTarget)));
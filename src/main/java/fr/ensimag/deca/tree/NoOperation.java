@@ -7,6 +7,7 @@ import fr.ensimag.deca.context.ClassDefinition;
 import fr.ensimag.deca.context.EnvironmentExp;
 import fr.ensimag.deca.context.Type;
 import fr.ensimag.deca.tools.IndentPrintStream;
+import fr.ensimag.deca.ir.IRBuilder;
 
 /**
  * 
@@ -46,4 +47,8 @@ public class NoOperation extends AbstractInst {
         // leaf node => nothing to do
     }
 
+    @Override
+    protected void lowerInst(IRBuilder builder) {
+        // nothing to do
+    }
 }
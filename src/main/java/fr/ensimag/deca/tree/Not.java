@@ -6,12 +6,11 @@ import fr.ensimag.deca.context.ContextualError;
 import fr.ensimag.deca.context.EnvironmentExp;
 import fr.ensimag.deca.context.Type;
 import fr.ensimag.ima.pseudocode.*;
-import fr.ensimag.ima.pseudocode.instructions.BEQ;
-import fr.ensimag.ima.pseudocode.instructions.BRA;
-import fr.ensimag.ima.pseudocode.instructions.LOAD;
-import fr.ensimag.ima.pseudocode.instructions.POP;
-import fr.ensimag.ima.pseudocode.instructions.PUSH;
-import fr.ensimag.deca.codegen.StackCount;
+import fr.ensimag.deca.ir.BasicBlock;
+import fr.ensimag.deca.ir.IRBuilder;
+import fr.ensimag.deca.ir.Operand;
+import fr.ensimag.deca.ir.UnaryOperator;
+import fr.ensimag.deca.ir.IntConstant;
 
 /**
  * Represents the unary "Not" operation in the Deca language.
@@ -50,56 +49,37 @@ public class Not extends AbstractUnaryExpr {
 
     @Override
     protected void codeGenInst(DecacCompiler compiler) {
-        getOperand().codeGenInst(compiler);
-        DVal operandPos = Register.getLastExprPos();
-
-        GPRegister tempRegister = Register.getUnusedR();
-
-        if (tempRegister == null) {
-            // No registers available: use the stack
-            GPRegister stackRegister = Register.getR(1); // Use a fixed register for operations
-            compiler.addInstruction(new LOAD(operandPos, stackRegister));
-
-            // Push the value onto the stack
-            compiler.addInstruction(new PUSH(stackRegister));
-            StackCount.countPush(); // Track stack usage
-
-            Label trueLabel = compiler.createLabel("not_true");
-            Label endLabel = compiler.createLabel("not_end");
-
-            // Pop the value back and perform the NOT operation
-            compiler.addInstruction(new POP(stackRegister));
-            StackCount.countPop();
-            compiler.addInstruction(new BEQ(trueLabel));
-            compiler.addInstruction(new LOAD(new ImmediateInteger(0), stackRegister));
-            compiler.addInstruction(new BRA(endLabel));
-            compiler.addLabel(trueLabel);
-            compiler.addInstruction(new LOAD(new ImmediateInteger(1), stackRegister));
-            compiler.addLabel(endLabel);
-
-            // Update lastExprPos with the stack register using a RegisterOffset
-            RegisterOffset stackRegisterOffset = new RegisterOffset(0, stackRegister);
-            Register.setLastExprPos(stackRegisterOffset);
+        if (getOperand() instanceof AbstractOpCmp) {
+            // !(a < b) is a >= b
+            ((AbstractOpCmp) getOperand()).codeGenValue(compiler, true);
         } else {
-            // Use the register directly
-            compiler.addInstruction(new LOAD(operandPos, tempRegister));
+            codeGenConditionValue(compiler);
+        }
+    }
 
-            Label trueLabel = compiler.createLabel("not_true");
-            Label endLabel = compiler.createLabel("not_end");
+    @Override
+    protected void codeGenCondition(DecacCompiler compiler, boolean jumpIf, Label label) {
+        getOperand().codeGenCondition(compiler, !jumpIf, label);
+    }
 
-            // Perform the NOT operation
-            compiler.addInstruction(new BEQ(trueLabel));
-            compiler.addInstruction(new LOAD(new ImmediateInteger(0), tempRegister));
-            compiler.addInstruction(new BRA(endLabel));
-            compiler.addLabel(trueLabel);
-            compiler.addInstruction(new LOAD(new ImmediateInteger(1), tempRegister));
-            compiler.addLabel(endLabel);
+    @Override
+    protected Operand lowerExpr(IRBuilder builder) {
+        return builder.emitUnary(UnaryOperator.NOT, getOperand().lowerExpr(builder));
+    }
 
-            // Update lastExprPos with the temporary register
-            RegisterOffset tempRegisterOffset = new RegisterOffset(0, tempRegister);
-            Register.setLastExprPos(tempRegisterOffset);
-            Register.setUnused(tempRegister);
-        }
+    @Override
+    protected void lowerCondition(IRBuilder builder, BasicBlock ifTrue, BasicBlock ifFalse) {
+        getOperand().lowerCondition(builder, ifFalse, ifTrue);
     }
 
+    @Override
+    protected AbstractExpr foldExpr(DecacCompiler compiler) {
+        super.foldExpr(compiler);
+        if (getOperand() instanceof Not) {
+            // !!b
+            return ((Not) getOperand()).getOperand();
+        }
+        Operand value = getOperand().getConstantValue();
+        return value == null ? this : literal(compiler, IntConstant.of(((IntConstant) value).getValue() == 0));
+    }
 }
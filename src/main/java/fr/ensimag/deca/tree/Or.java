@@ -2,12 +2,10 @@ package fr.ensimag.deca.tree;
 
 import fr.ensimag.deca.DecacCompiler;
 import fr.ensimag.ima.pseudocode.*;
-import fr.ensimag.ima.pseudocode.instructions.BNE;
-import fr.ensimag.ima.pseudocode.instructions.BRA;
-import fr.ensimag.ima.pseudocode.instructions.LOAD;
-import fr.ensimag.ima.pseudocode.instructions.POP;
-import fr.ensimag.ima.pseudocode.instructions.PUSH;
-import fr.ensimag.deca.codegen.StackCount;
+import fr.ensimag.deca.ir.BasicBlock;
+import fr.ensimag.deca.ir.IRBuilder;
+import fr.ensimag.deca.ir.IntConstant;
+import fr.ensimag.deca.ir.Operand;
 
 /**
  * Represents the logical "||" operation in the Deca language.
@@ -28,56 +26,20 @@ public class Or extends AbstractOpBool {
 
     @Override
     protected void codeGenInst(DecacCompiler compiler) {
-        Label trueLabel = compiler.createLabel("or_true");
-        Label endLabel = compiler.createLabel("or_end");
-
-        getLeftOperand().codeGenInst(compiler);
-        DVal leftOperandPos = Register.getLastExprPos();
-        GPRegister tempRegister = Register.getUnusedR();
-
-        if (tempRegister == null) {
-            // No registers available: use a fixed register for stack operations
-            GPRegister stackRegister = Register.getR(1); // Use R1 as a fixed temporary register
-            compiler.addInstruction(new LOAD(leftOperandPos, stackRegister));
-
-            compiler.addInstruction(new PUSH(stackRegister));
-            StackCount.countPush();
-        } else {
-            compiler.addInstruction(new LOAD(leftOperandPos, tempRegister));
-        }
-
-        compiler.addInstruction(new BNE(trueLabel));
-
-        getRightOperand().codeGenInst(compiler);
-        DVal rightOperandPos = Register.getLastExprPos();
+        codeGenConditionValue(compiler);
+    }
 
-        if (tempRegister == null) {
-            // Pop the left operand from the stack
-            GPRegister stackRegister = Register.getR(1); // Use a fixed register for popping
-            compiler.addInstruction(new POP(stackRegister));
-            StackCount.countPop();
-            compiler.addInstruction(new LOAD(rightOperandPos, stackRegister));
-            tempRegister = stackRegister; // Use the popped register as temp
+    @Override
+    protected void codeGenCondition(DecacCompiler compiler, boolean jumpIf, Label label) {
+        if (jumpIf) {
+            getLeftOperand().codeGenCondition(compiler, true, label);
+            getRightOperand().codeGenCondition(compiler, true, label);
         } else {
-            // Load the right operand into the temporary register
-            compiler.addInstruction(new LOAD(rightOperandPos, tempRegister));
-        }
-
-        // Short-circuit to true if the right operand is true
-        compiler.addInstruction(new BNE(trueLabel));
-
-        compiler.addInstruction(new LOAD(new ImmediateInteger(0), tempRegister));
-        compiler.addInstruction(new BRA(endLabel));
-
-        // True case: set result to 1
-        compiler.addLabel(trueLabel);
-        compiler.addInstruction(new LOAD(new ImmediateInteger(1), tempRegister));
-
-        compiler.addLabel(endLabel);
-
-        if (tempRegister != null) {
-            Register.setLastExprPos(new RegisterOffset(0, tempRegister));
-            Register.setUnused(tempRegister);
+            // the right operand is not evaluated if the left one is true
+            Label trueLabel = compiler.createLabel("or_true");
+            getLeftOperand().codeGenCondition(compiler, true, trueLabel);
+            getRightOperand().codeGenCondition(compiler, false, label);
+            compiler.addLabel(trueLabel);
         }
     }
 
@@ -86,4 +48,24 @@ public class Or extends AbstractOpBool {
         // TODO Auto-generated method stub
 
     }
+
+    @Override
+    protected void lowerCondition(IRBuilder builder, BasicBlock ifTrue, BasicBlock ifFalse) {
+        BasicBlock right = builder.newBlock();
+        getLeftOperand().lowerCondition(builder, ifTrue, right);
+        builder.startBlock(right);
+        getRightOperand().lowerCondition(builder, ifTrue, ifFalse);
+    }
+
+    @Override
+    protected AbstractExpr foldExpr(DecacCompiler compiler) {
+        super.foldExpr(compiler);
+        Operand left = getLeftOperand().getConstantValue();
+        if (left != null) {
+            // false || e is e, true || e is true (e is not evaluated)
+            return left.equals(IntConstant.FALSE) ? getRightOperand() : getLeftOperand();
+        }
+        // e || false is e
+        return IntConstant.FALSE.equals(getRightOperand().getConstantValue()) ? getLeftOperand() : this;
+    }
 }
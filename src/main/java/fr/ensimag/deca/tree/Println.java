@@ -3,6 +3,8 @@ package fr.ensimag.deca.tree;
 import fr.ensimag.deca.DecacCompiler;
 import fr.ensimag.ima.pseudocode.Label;
 import fr.ensimag.ima.pseudocode.instructions.WNL;
+import fr.ensimag.deca.ir.IRBuilder;
+import fr.ensimag.deca.ir.PrintNewline;
 
 /**
  * @author gl13
@@ -29,4 +31,10 @@ public class Println extends AbstractPrint {
     String getSuffix() {
         return "ln";
     }
+
+    @Override
+    protected void lowerInst(IRBuilder builder) {
+        super.lowerInst(builder);
+        builder.emit(new PrintNewline());
+    }
 }
@@ -15,7 +15,6 @@ import fr.ensimag.arm.pseudocode.ARMLabel;
 import fr.ensimag.arm.pseudocode.ARMRegister;
 import fr.ensimag.arm.pseudocode.instructions.ARM_MOV;
 
-import fr.ensimag.deca.codegen.ARMDataSection;
 
 /**
  * Deca complete program (class definition plus main block)
@@ -113,7 +112,7 @@ public class Program extends AbstractProgram {
         ARMCodeGenMainLabel(compiler);
 
         // Generate .data section
-        ARMDataSection.codeGenDataSection(compiler);
+        compiler.getARMDataSection().codeGenDataSection(compiler);
 
         // Generate header, specifying useful information
         ARMCodeGenHeader(compiler);
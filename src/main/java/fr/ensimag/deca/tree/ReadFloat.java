@@ -16,7 +16,11 @@ import fr.ensimag.ima.pseudocode.instructions.BOV;
 import fr.ensimag.ima.pseudocode.instructions.LOAD;
 import fr.ensimag.ima.pseudocode.instructions.RFLOAT;
 import fr.ensimag.ima.pseudocode.instructions.PUSH;
-import fr.ensimag.deca.codegen.StackCount;
+import fr.ensimag.deca.ir.IRBuilder;
+import fr.ensimag.deca.ir.IRType;
+import fr.ensimag.deca.ir.Operand;
+import fr.ensimag.deca.ir.Read;
+import fr.ensimag.deca.ir.VirtualRegister;
 
 /**
  *
@@ -49,7 +53,7 @@ public class ReadFloat extends AbstractReadExpr {
 
     @Override
     protected void codeGenInst(DecacCompiler compiler) {
-        GPRegister tempRegister = Register.getUnusedR();
+        GPRegister tempRegister = compiler.getRegisterManager().getUnusedR();
 
         compiler.addInstruction(new RFLOAT());
         compiler.setPossibleIOError();
@@ -58,17 +62,17 @@ public class ReadFloat extends AbstractReadExpr {
 
         if (tempRegister == null) {
             compiler.addInstruction(new PUSH(Register.R1));
-            StackCount.countPush();
+            compiler.getStackCount().countPush();
 
             RegisterOffset tempRegisterOffset = new RegisterOffset(0, Register.SP);
-            Register.setLastExprPos(tempRegisterOffset);
+            compiler.getRegisterManager().setLastExprPos(tempRegisterOffset);
         } else {
             compiler.addInstruction(new LOAD(Register.R1, tempRegister));
 
             RegisterOffset tempRegisterOffset = new RegisterOffset(0, tempRegister);
-            Register.setLastExprPos(tempRegisterOffset);
+            compiler.getRegisterManager().setLastExprPos(tempRegisterOffset);
 
-            Register.setUnused(tempRegister);
+            compiler.getRegisterManager().setUnused(tempRegister);
         }
 
     }
@@ -78,4 +82,11 @@ public class ReadFloat extends AbstractReadExpr {
         // TODO Auto-generated method stub
 
     }
+
+    @Override
+    protected Operand lowerExpr(IRBuilder builder) {
+        VirtualRegister value = builder.newTemp(IRType.FLOAT);
+        builder.emit(new Read(value));
+        return value;
+    }
 }
@@ -10,7 +10,11 @@ import fr.ensimag.deca.context.Type;
 import fr.ensimag.deca.tools.IndentPrintStream;
 import fr.ensimag.ima.pseudocode.*;
 import fr.ensimag.ima.pseudocode.instructions.*;
-import fr.ensimag.deca.codegen.StackCount;
+import fr.ensimag.deca.ir.IRBuilder;
+import fr.ensimag.deca.ir.IRType;
+import fr.ensimag.deca.ir.Operand;
+import fr.ensimag.deca.ir.Read;
+import fr.ensimag.deca.ir.VirtualRegister;
 
 /**
  *
@@ -43,7 +47,7 @@ public class ReadInt extends AbstractReadExpr {
 
     @Override
     protected void codeGenInst(DecacCompiler compiler) {
-        GPRegister tempRegister = Register.getUnusedR();
+        GPRegister tempRegister = compiler.getRegisterManager().getUnusedR();
 
         compiler.addInstruction(new RINT());
         compiler.setPossibleIOError();
@@ -52,17 +56,17 @@ public class ReadInt extends AbstractReadExpr {
 
         if (tempRegister == null) {
             compiler.addInstruction(new PUSH(Register.R1));
-            StackCount.countPush();
+            compiler.getStackCount().countPush();
 
             RegisterOffset tempRegisterOffset = new RegisterOffset(0, Register.SP);
-            Register.setLastExprPos(tempRegisterOffset);
+            compiler.getRegisterManager().setLastExprPos(tempRegisterOffset);
         } else {
             compiler.addInstruction(new LOAD(Register.R1, tempRegister));
 
             RegisterOffset tempRegisterOffset = new RegisterOffset(0, tempRegister);
-            Register.setLastExprPos(tempRegisterOffset);
+            compiler.getRegisterManager().setLastExprPos(tempRegisterOffset);
 
-            Register.setUnused(tempRegister);
+            compiler.getRegisterManager().setUnused(tempRegister);
         }
 
     }
@@ -72,4 +76,11 @@ public class ReadInt extends AbstractReadExpr {
         // TODO Auto-generated method stub
 
     }
+
+    @Override
+    protected Operand lowerExpr(IRBuilder builder) {
+        VirtualRegister value = builder.newTemp(IRType.INT);
+        builder.emit(new Read(value));
+        return value;
+    }
 }
@@ -5,7 +5,6 @@ import java.io.PrintStream;
 import org.apache.commons.lang.Validate;
 
 import fr.ensimag.deca.DecacCompiler;
-import fr.ensimag.deca.codegen.HelperInfo;
 import fr.ensimag.deca.context.ClassDefinition;
 import fr.ensimag.deca.context.ContextualError;
 import fr.ensimag.deca.context.EnvironmentExp;
@@ -16,6 +15,7 @@ import fr.ensimag.ima.pseudocode.Register;
 import fr.ensimag.ima.pseudocode.RegisterOffset;
 import fr.ensimag.ima.pseudocode.instructions.BRA;
 import fr.ensimag.ima.pseudocode.instructions.LOAD;
+import fr.ensimag.deca.ir.IRBuilder;
 
 /**
  *
@@ -36,12 +36,12 @@ public class Return extends AbstractInst {
         ret.codeGenInst(compiler);
 
         // load rExp in R0
-        compiler.addInstruction(new LOAD(Register.getLastExprPos(), Register.R0));
-        Register.setLastExprPos(new RegisterOffset(0, Register.R0));
+        compiler.addInstruction(new LOAD(compiler.getRegisterManager().getLastExprPos(), Register.R0));
+        compiler.getRegisterManager().setLastExprPos(new RegisterOffset(0, Register.R0));
 
         // exit without error, we are returning
         Label methodEndLabel = new Label(
-                HelperInfo.getCurrentMethod().getMethodDefinition().getLabel().toString().replace("code", "end"));
+                compiler.getHelperInfo().getCurrentMethod().getMethodDefinition().getLabel().toString().replace("code", "end"));
         compiler.addInstruction(new BRA(methodEndLabel));
     }
 
@@ -74,4 +74,13 @@ public class Return extends AbstractInst {
         ret.prettyPrint(s, prefix, true);
     }
 
+    @Override
+    protected void lowerInst(IRBuilder builder) {
+        builder.emit(new fr.ensimag.deca.ir.Return(ret.lowerExpr(builder)));
+    }
+
+    @Override
+    protected void foldConstants(DecacCompiler compiler) {
+        ret = ret.foldExpr(compiler);
+    }
 }
@@ -28,7 +28,7 @@ import fr.ensimag.deca.tree.Visibility;;
  * arguments.
  */
 public class Selection extends AbstractLValue {
-    private final AbstractExpr object;
+    private AbstractExpr object;
     private final AbstractIdentifier field;
 
     /**
@@ -103,7 +103,7 @@ public class Selection extends AbstractLValue {
 
         // TODO : handle case where there are no available registers
 
-        DVal loadTarget = Register.getLastExprPos();
+        DVal loadTarget = compiler.getRegisterManager().getLastExprPos();
         DVal fieldPos = new RegisterOffset(field.getFieldDefinition().getIndex(), (GPRegister) loadTarget);
 
         // handle null dereference
@@ -152,4 +152,10 @@ public class Selection extends AbstractLValue {
         object.prettyPrint(s, prefix, false);
         field.prettyPrint(s, prefix, true);
     }
+
+    @Override
+    protected AbstractExpr foldExpr(DecacCompiler compiler) {
+        object = object.foldExpr(compiler);
+        return this;
+    }
 }
@@ -13,7 +13,6 @@ import fr.ensimag.arm.pseudocode.instructions.ARM_MOV;
 import fr.ensimag.arm.pseudocode.instructions.ARM_POP;
 import fr.ensimag.arm.pseudocode.instructions.ARM_PUSH;
 import fr.ensimag.deca.DecacCompiler;
-import fr.ensimag.deca.codegen.ARMDataSection;
 import fr.ensimag.deca.context.ClassDefinition;
 import fr.ensimag.deca.context.ContextualError;
 import fr.ensimag.deca.context.EnvironmentExp;
@@ -21,6 +20,8 @@ import fr.ensimag.deca.context.Type;
 import fr.ensimag.deca.tools.IndentPrintStream;
 import fr.ensimag.ima.pseudocode.ImmediateString;
 import fr.ensimag.ima.pseudocode.instructions.WSTR;
+import fr.ensimag.deca.ir.IRBuilder;
+import fr.ensimag.deca.ir.PrintString;
 
 /**
  * String literal
@@ -83,18 +84,18 @@ public class StringLiteral extends AbstractStringLiteral {
     @Override
     protected void ARMCodeGenPrint(DecacCompiler compiler, boolean printHex) {
         // Account for incoming int printing
-        ARMDataSection.setStringPrint();
+        compiler.getARMDataSection().setStringPrint();
 
         // Load int_format data into R0 (if used, push then pop)
-        if (ARMRegister.isUsed(0)) {
+        if (compiler.getARMRegisterManager().isUsed(0)) {
             compiler.addARMInstruction(new ARM_PUSH(ARMRegister.R0));
         }
         // Load literal to be printed in R1 (if used, push then pop)
-        if (ARMRegister.isUsed(1)) {
+        if (compiler.getARMRegisterManager().isUsed(1)) {
             compiler.addARMInstruction(new ARM_PUSH(ARMRegister.R1));
         }
 
-        String stringDataEntry = ARMDataSection.createStringDataEntry(value);
+        String stringDataEntry = compiler.getARMDataSection().createStringDataEntry(value);
         compiler.addARMInstruction(new ARM_LDR(ARMRegister.R0, new ARMLiteral("string_format")));
         compiler.addARMInstruction(new ARM_LDR(ARMRegister.R1, new ARMLiteral(stringDataEntry)));
 
@@ -102,10 +103,10 @@ public class StringLiteral extends AbstractStringLiteral {
         compiler.addARMInstruction(new ARM_BL(new ARMLabel("printf")));
 
         // Restore R0 and or R1 if need be
-        if (ARMRegister.isUsed(1)) {
+        if (compiler.getARMRegisterManager().isUsed(1)) {
             compiler.addARMInstruction(new ARM_POP(ARMRegister.R1));
         }
-        if (ARMRegister.isUsed(0)) {
+        if (compiler.getARMRegisterManager().isUsed(0)) {
             compiler.addARMInstruction(new ARM_POP(ARMRegister.R0));
         }
 
@@ -142,4 +143,8 @@ public class StringLiteral extends AbstractStringLiteral {
         return "StringLiteral (" + value + ")";
     }
 
+    @Override
+    protected void lowerPrint(IRBuilder builder, boolean printHex) {
+        builder.emit(new PrintString(value));
+    }
 }
@@ -34,15 +34,20 @@ public class This extends AbstractExpr {
 
     }
 
+    @Override
+    protected boolean isReorderable() {
+        return true;
+    }
+
     @Override
     protected void codeGenInst(DecacCompiler compiler) {
         // `this`, meaning the current instance of the class, is always at -2(LB)
 
         // TODO : handle case where no available registers
 
-        GPRegister loadTarget = Register.getUnusedR();
+        GPRegister loadTarget = compiler.getRegisterManager().getUnusedR();
         compiler.addInstruction(new LOAD(new RegisterOffset(-2, Register.LB), loadTarget));
-        Register.setLastExprPos(new RegisterOffset(0, loadTarget));
+        compiler.getRegisterManager().setLastExprPos(new RegisterOffset(0, loadTarget));
     }
 
     /**
@@ -21,18 +21,32 @@ public abstract class Tree {
 
     private static final Logger LOG = Logger.getLogger(Main.class);
 
+    /**
+     * @return the location of the tree, created from its packed form, or null
+     */
     public Location getLocation() {
-        return location;
+        return Location.unpack(location);
     }
 
     public void setLocation(Location location) {
-        this.location = location;
+        this.location = Location.pack(location);
     }
 
     public void setLocation(int line, int column, String filename) {
-        this.location = new Location(line, column, filename);
+        this.location = Location.pack(line, column, filename);
     }
-    private Location location;
+
+    /**
+     * @return the location of the tree in the form of {@link Location#pack}
+     */
+    public long getPackedLocation() {
+        return location;
+    }
+
+    public void setPackedLocation(long location) {
+        this.location = location;
+    }
+    private long location = Location.NO_LOCATION;
 
     /**
      * Display the tree as a (compilable) source program
@@ -96,7 +110,7 @@ public abstract class Tree {
         } else {
             s.print("+>");
         }
-        if (getLocation() != null) {
+        if (location != Location.NO_LOCATION) {
             s.print(" " + getLocation().toString());
         }
         s.print(" ");
@@ -204,6 +218,27 @@ public abstract class Tree {
         iterChildren(f);
     }
 
+    /**
+     * Fold the constant expressions held by the node (see
+     * {@link AbstractExpr#foldExpr}). Called on each node by
+     * {@link #foldAllConstants}, before its children.
+     */
+    protected void foldConstants(DecacCompiler compiler) {
+        // Nothing by default. Override in the nodes holding expressions.
+    }
+
+    /**
+     * Fold the constant expressions of the tree, which must be decorated.
+     */
+    public void foldAllConstants(final DecacCompiler compiler) {
+        iter(new TreeFunction() {
+            @Override
+            public void apply(Tree t) {
+                t.foldConstants(compiler);
+            }
+        });
+    }
+
     /**
      * Function used internally by {@link #iter(TreeFunction)}. Must call iter() on each
      * child of the tree.
@@ -252,7 +287,7 @@ public abstract class Tree {
      * information.
      */
     protected void checkLocation() {
-        if (getLocation() == null) {
+        if (location == Location.NO_LOCATION) {
             LOG.info(prettyPrint());
             throw new DecacInternalError("Tree "
                     + getClass().getName()
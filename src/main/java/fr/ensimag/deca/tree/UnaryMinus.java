@@ -11,7 +11,10 @@ import fr.ensimag.ima.pseudocode.Register;
 import fr.ensimag.ima.pseudocode.instructions.LOAD;
 import fr.ensimag.ima.pseudocode.instructions.OPP;
 import fr.ensimag.ima.pseudocode.instructions.PUSH;
-import fr.ensimag.deca.codegen.StackCount;
+import fr.ensimag.deca.ir.IRBuilder;
+import fr.ensimag.deca.ir.Operand;
+import fr.ensimag.deca.ir.UnaryOperator;
+import fr.ensimag.deca.ir.ConstantFolder;
 
 /**
  * @author gl13
@@ -48,7 +51,7 @@ public class UnaryMinus extends AbstractUnaryExpr {
     @Override
     protected void codeGenInst(DecacCompiler compiler) {
         getOperand().codeGenInst(compiler);
-        DVal operandPos = Register.getLastExprPos();
+        DVal operandPos = compiler.getRegisterManager().getLastExprPos();
 
         if (operandPos.equals(Register.SP)) {
             GPRegister fixedRegister = Register.R1; // Fixed register for stack manipulation
@@ -57,10 +60,24 @@ public class UnaryMinus extends AbstractUnaryExpr {
             compiler.addInstruction(new OPP(fixedRegister, fixedRegister));
 
             compiler.addInstruction(new PUSH(fixedRegister));
-            StackCount.countPush();
+            compiler.getStackCount().countPush();
         } else {
             compiler.addInstruction(new OPP((GPRegister) operandPos, (GPRegister) operandPos));
         }
     }
 
+    @Override
+    protected Operand lowerExpr(IRBuilder builder) {
+        return builder.emitUnary(UnaryOperator.NEG, getOperand().lowerExpr(builder));
+    }
+
+    @Override
+    protected AbstractExpr foldExpr(DecacCompiler compiler) {
+        super.foldExpr(compiler);
+        Operand value = getOperand().getConstantValue();
+        if (value != null) {
+            value = ConstantFolder.fold(UnaryOperator.NEG, value);
+        }
+        return value == null ? this : literal(compiler, value);
+    }
 }
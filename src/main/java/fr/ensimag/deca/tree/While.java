@@ -8,15 +8,13 @@ import fr.ensimag.deca.context.ClassDefinition;
 import fr.ensimag.deca.context.ContextualError;
 import fr.ensimag.deca.context.EnvironmentExp;
 import fr.ensimag.deca.tools.IndentPrintStream;
-import fr.ensimag.ima.pseudocode.DVal;
-import fr.ensimag.ima.pseudocode.GPRegister;
 import fr.ensimag.ima.pseudocode.Label;
-import fr.ensimag.deca.codegen.StackCount;
 import java.io.PrintStream;
 
-import fr.ensimag.ima.pseudocode.Register;
 import fr.ensimag.ima.pseudocode.instructions.*;
 import org.apache.commons.lang.Validate;
+import fr.ensimag.deca.ir.BasicBlock;
+import fr.ensimag.deca.ir.IRBuilder;
 
 /**
  * Represents a "while" loop instruction in the Deca language.
@@ -51,79 +49,67 @@ public class While extends AbstractInst {
         this.body = body;
     }
 
+    /**
+     * The loop is rotated: the condition is tested once before the loop, and
+     * then at the bottom of the body, so that each iteration only executes
+     * the conditional branch back to the body.
+     */
     @Override
     protected void codeGenInst(DecacCompiler compiler) {
-        Label startLabel = compiler.createLabel("while_start");
+        Label bodyLabel = compiler.createLabel("while_body");
         Label endLabel = compiler.createLabel("while_end");
 
-        compiler.addLabel(startLabel);
-
-        getCondition().codeGenInst(compiler);
-        DVal conditionResult = Register.getLastExprPos();
-
-        GPRegister tempRegister = Register.getUnusedR();
-
-        if (tempRegister == null) {
-            // No registers available: use the stack to evaluate the condition
-            GPRegister stackRegister = Register.getR(1); // Use R1 as a fixed stack helper
-            compiler.addInstruction(new LOAD(conditionResult, stackRegister));
-
-            // Push the condition result onto the stack
-            compiler.addInstruction(new PUSH(stackRegister));
-            StackCount.countPush();
-
-            // Test the condition by popping from the stack
-            compiler.addInstruction(new POP(stackRegister));
-            StackCount.countPop();
-            compiler.addInstruction(new BEQ(endLabel));
-        } else {
-            // Use the temporary register for the condition
-            compiler.addInstruction(new LOAD(conditionResult, tempRegister));
-            compiler.addInstruction(new BEQ(endLabel));
-        }
+        // skip the loop when the condition is false on entry
+        getCondition().codeGenCondition(compiler, false, endLabel);
 
+        compiler.addLabel(bodyLabel);
         getBody().codeGenListInst(compiler);
 
-        compiler.addInstruction(new BRA(startLabel));
+        // loop back while the condition is true
+        getCondition().codeGenCondition(compiler, true, bodyLabel);
 
         compiler.addLabel(endLabel);
-
-        if (tempRegister != null) {
-            Register.setUnused(tempRegister);
-        }
     }
 
     @Override
     protected void ARMCodeGenInst(DecacCompiler compiler) {
-        ARMLabel startLabel = new ARMLabel("while_" + Integer.toHexString(compiler.createLabel("while").toString().hashCode()));
+        ARMLabel bodyLabel = new ARMLabel("while_" + Integer.toHexString(compiler.createLabel("while").toString().hashCode()));
         ARMLabel endLabel = new ARMLabel("end_while_" + Integer.toHexString(compiler.createLabel("while").toString().hashCode()));
 
-        compiler.addARMLabel(startLabel);
+        ARMCodeGenTest(compiler);
+        compiler.addARMInstruction(new ARM_BGE(endLabel));
+
+        compiler.addARMLabel(bodyLabel);
+        body.ARMCodeGenListInst(compiler);
+
+        ARMCodeGenTest(compiler);
+        compiler.addARMInstruction(new ARM_BLT(bodyLabel));
 
+        compiler.addARMLabel(endLabel);
+    }
+
+    /**
+     * Generate the comparison of the condition deciding whether the loop goes
+     * on (LT) or ends (GE).
+     */
+    private void ARMCodeGenTest(DecacCompiler compiler) {
         condition.ARMCodeGenInst(compiler);
 
         ARMGPRegister conditionReg;
-        if (ARMRegister.getLastExprPos() instanceof fr.ensimag.arm.pseudocode.ARMRegisterOffset) {
-            compiler.addARMInstruction(new ARM_LDR(ARMRegister.R1, (ARMRegisterOffset)ARMRegister.getLastExprPos()));
+        if (compiler.getARMRegisterManager().getLastExprPos() instanceof fr.ensimag.arm.pseudocode.ARMRegisterOffset) {
+            compiler.addARMInstruction(new ARM_LDR(ARMRegister.R1, (ARMRegisterOffset)compiler.getARMRegisterManager().getLastExprPos()));
             conditionReg = ARMRegister.R1;
         } else {
-            conditionReg = (ARMGPRegister) ARMRegister.getLastExprPos();
+            conditionReg = (ARMGPRegister) compiler.getARMRegisterManager().getLastExprPos();
         }
 
         compiler.addARMInstruction(new ARM_CMP(conditionReg, new ARMImmediateInteger(3)));
 
-        compiler.addARMInstruction(new ARM_BGE(endLabel));
-
         if (!conditionReg.equals(ARMRegister.R1)) {
-            ARMRegister.setUnused(conditionReg);
+            compiler.getARMRegisterManager().setUnused(conditionReg);
         }
-
-        body.ARMCodeGenListInst(compiler);
-
-        compiler.addARMInstruction(new ARM_B(startLabel));
-
-        compiler.addARMLabel(endLabel);
     }
+
     @Override
     protected void verifyInst(DecacCompiler compiler, EnvironmentExp localEnv,
             ClassDefinition currentClass, Type returnType)
@@ -173,4 +159,21 @@ public class While extends AbstractInst {
         body.prettyPrint(s, prefix, true);
     }
 
+    @Override
+    protected void lowerInst(IRBuilder builder) {
+        // rotated as in codeGenInst: the test at the bottom of the body
+        // branches back to it
+        BasicBlock bodyBlock = builder.newBlock();
+        BasicBlock end = builder.newBlock();
+        condition.lowerCondition(builder, bodyBlock, end);
+        builder.startBlock(bodyBlock);
+        body.lowerListInst(builder);
+        condition.lowerCondition(builder, bodyBlock, end);
+        builder.startBlock(end);
+    }
+
+    @Override
+    protected void foldConstants(DecacCompiler compiler) {
+        condition = condition.foldExpr(compiler);
+    }
 }
@@ -3,6 +3,7 @@ package fr.ensimag.ima.pseudocode;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.util.LinkedList;
+import java.util.List;
 
 /**
  * Abstract representation of an IMA program, i.e. set of Lines.
@@ -49,6 +50,27 @@ public class IMAProgram {
         lines.addFirst(l);
     }
 
+    /**
+     * @return the lines of the program, which may be modified (e.g. by an
+     *         optimizer)
+     */
+    public List<AbstractLine> getLines() {
+        return lines;
+    }
+
+    /**
+     * @return the number of instructions of the program
+     */
+    public int getInstructionCount() {
+        int res = 0;
+        for (AbstractLine l: lines) {
+            if (l instanceof Line && ((Line) l).getInstruction() != null) {
+                res++;
+            }
+        }
+        return res;
+    }
+
     /**
      * Display the program in a textual form readable by IMA to stream s.
      */
@@ -58,6 +80,15 @@ public class IMAProgram {
         }
     }
 
+    /**
+     * Display the program to stream s, and remove its lines. Used to write
+     * finished parts of the program without keeping them in memory.
+     */
+    public void flush(PrintStream s) {
+        display(s);
+        lines.clear();
+    }
+
     /**
      * Return the program in a textual form readable by IMA as a String.
      */
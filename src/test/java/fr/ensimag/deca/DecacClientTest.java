@@ -0,0 +1,30 @@
+package fr.ensimag.deca;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the requests sent by the client of the compile server.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class DecacClientTest {
+    private static String absolute(String path) {
+        return new File(path).getAbsolutePath();
+    }
+
+    @Test
+    public void pathsAreAbsolute() throws IOException {
+        ByteArrayOutputStream request = new ByteArrayOutputStream();
+        DecacClient.sendRequest(new String[] { "-r", "8", "-cache", "cache", "-Tjson", "t.json", "a.deca" }, request);
+        String expected = "-r\n8\n-cache\n" + absolute("cache") + "\n-Tjson\n" + absolute("t.json") + "\n"
+                + absolute("a.deca") + "\n\n";
+        assertEquals(expected, new String(request.toByteArray(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,121 @@
+package fr.ensimag.deca;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.PatternLayout;
+import org.apache.log4j.WriterAppender;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Check that the IMA program streamed to the destination file block by block
+ * is the program that is displayed once complete.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class DecacCompilerTest {
+    private static final String PROGRAM = "class A {\n"
+            + "    int x = 1;\n"
+            + "    int m(int n) {\n"
+            + "        if (n > 0) { return n + x; } else { return -n; }\n"
+            + "    }\n"
+            + "}\n"
+            + "class B extends A {\n"
+            + "    int y = 2;\n"
+            + "    int m(int n) {\n"
+            + "        while (n > 10) { n = n - 10; }\n"
+            + "        return n * y;\n"
+            + "    }\n"
+            + "}\n"
+            + "{\n"
+            + "    A a = new A();\n"
+            + "    B b = new B();\n"
+            + "    int i = 0;\n"
+            + "    while (i < 3) { println(a.m(i - 1), b.m(i + 20)); i = i + 1; }\n"
+            + "}\n";
+
+    private static final String TRACE = "Generated assembly code:\n";
+
+    @TempDir
+    File tmp;
+
+    private File source() throws IOException {
+        File source = new File(tmp, "prog.deca");
+        Files.write(source.toPath(), PROGRAM.getBytes(StandardCharsets.UTF_8));
+        return source;
+    }
+
+    private String compile(File source, String... args) throws CLIException, IOException {
+        CompilerOptions options = new CompilerOptions();
+        String[] argv = new String[args.length + 1];
+        System.arraycopy(args, 0, argv, 0, args.length);
+        argv[args.length] = source.getPath();
+        options.parseArgs(argv);
+        assertFalse(new DecacCompiler(options, source).compile());
+        return destination();
+    }
+
+    private String destination() throws IOException {
+        return new String(Files.readAllBytes(new File(tmp, "prog.ass").toPath()), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compile with the debug traces of the compiler, which keep the whole
+     * program in memory and display it once generated.
+     *
+     * @return the traces of the compiler
+     */
+    private String compileTraced(File source, String... args) throws CLIException, IOException {
+        Logger log = Logger.getLogger(DecacCompiler.class);
+        Level level = log.getLevel();
+        boolean additive = log.getAdditivity();
+        StringWriter traces = new StringWriter();
+        WriterAppender appender = new WriterAppender(new PatternLayout("%m%n"), traces);
+        log.addAppender(appender);
+        log.setAdditivity(false);
+        log.setLevel(Level.DEBUG);
+        try {
+            compile(source, args);
+        } finally {
+            log.setLevel(level);
+            log.setAdditivity(additive);
+            log.removeAppender(appender);
+        }
+        return traces.toString();
+    }
+
+    @Test
+    public void streamedAsDisplayed() throws CLIException, IOException {
+        File source = source();
+        String streamed = compile(source);
+
+        String traces = compileTraced(source);
+        int start = traces.indexOf(TRACE) + TRACE.length();
+        int end = traces.indexOf("\nWriting assembly file...", start);
+        assertTrue(start >= TRACE.length() && end >= 0, traces);
+        // the display of the program, as written by the traces
+        assertEquals(traces.substring(start, end), streamed);
+        // written at once when the traces are on
+        assertEquals(streamed, destination());
+    }
+
+    @Test
+    public void streamedAsOptimized() throws CLIException, IOException {
+        // the peephole optimizer runs on each streamed block, and on the
+        // whole program when the traces are on
+        File source = source();
+        String streamed = compile(source, "-O1");
+        compileTraced(source, "-O1");
+        assertEquals(destination(), streamed);
+        assertNotEquals(compile(source), streamed);
+    }
+}
@@ -0,0 +1,109 @@
+package fr.ensimag.deca;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the protocol of the compile server, on byte streams.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class DecacServerTest {
+    /**
+     * One response: its out and err chunks, its exit status.
+     */
+    private static class Response {
+        String out = "";
+        String err = "";
+        int status = -1;
+    }
+
+    private static List<Response> serve(String requests) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        DecacServer.serve(new ByteArrayInputStream(requests.getBytes(StandardCharsets.UTF_8)), output);
+        return parse(output.toByteArray());
+    }
+
+    private static List<Response> parse(byte[] bytes) {
+        List<Response> responses = new ArrayList<Response>();
+        Response response = new Response();
+        int position = 0;
+        while (position < bytes.length) {
+            int end = position;
+            while (bytes[end] != '\n') {
+                end++;
+            }
+            String[] header = new String(bytes, position, end - position, StandardCharsets.UTF_8).split(" ");
+            position = end + 1;
+            switch (header[0]) {
+                case "out":
+                case "err":
+                    int length = Integer.parseInt(header[1]);
+                    String content = new String(bytes, position, length, StandardCharsets.UTF_8);
+                    position += length;
+                    if (header[0].equals("out")) {
+                        response.out = content;
+                    } else {
+                        response.err = content;
+                    }
+                    break;
+                case "exit":
+                    assertEquals(3, header.length);
+                    assertTrue(Long.parseLong(header[2]) >= 0);
+                    response.status = Integer.parseInt(header[1]);
+                    responses.add(response);
+                    response = new Response();
+                    break;
+                default:
+                    fail("unexpected response: " + String.join(" ", header));
+            }
+        }
+        assertEquals("", response.out + response.err, "output after the last exit line");
+        return responses;
+    }
+
+    @Test
+    public void requestsOnOneConnection() throws IOException {
+        List<Response> responses = serve("-b\n\n-x\n\n");
+        assertEquals(2, responses.size());
+
+        Response banner = responses.get(0);
+        assertEquals(0, banner.status);
+        assertTrue(banner.out.contains("ProjetGL"));
+        assertEquals("", banner.err);
+
+        Response invalid = responses.get(1);
+        assertEquals(1, invalid.status);
+        assertTrue(invalid.err.contains("Invalid option: -x"));
+        assertTrue(invalid.out.startsWith("Expected : decac"));
+    }
+
+    @Test
+    public void missingSourceFile() throws IOException {
+        List<Response> responses = serve("-v\n/nonexistent/a.deca\n\n");
+        assertEquals(1, responses.size());
+        assertEquals(1, responses.get(0).status);
+        assertTrue(responses.get(0).err.contains("Source file does not exist: /nonexistent/a.deca"));
+    }
+
+    @Test
+    public void quit() throws IOException {
+        List<Response> responses = serve("-b\n\n" + DecacServer.QUIT + "\n\n-b\n\n");
+        assertEquals(1, responses.size());
+    }
+
+    @Test
+    public void unterminatedRequest() throws IOException {
+        // a request without its empty line is not run
+        assertTrue(serve("-b\n").isEmpty());
+        assertTrue(serve("").isEmpty());
+    }
+}
@@ -0,0 +1,107 @@
+package fr.ensimag.deca.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.ensimag.deca.CLIException;
+import fr.ensimag.deca.CompilerOptions;
+import fr.ensimag.deca.DecacCompiler;
+
+/**
+ * Tests of the build cache (hits, invalidation by include contents, eviction).
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class BuildCacheTest {
+    @TempDir
+    File tmp;
+
+    private File write(String name, String content) throws IOException {
+        File f = new File(tmp, name);
+        Files.write(f.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return f;
+    }
+
+    private String read(File f) throws IOException {
+        return new String(Files.readAllBytes(f.toPath()), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void hitAndInvalidation() throws IOException {
+        BuildCache cache = new BuildCache(new File(tmp, "cache"), BuildCache.DEFAULT_MAX_SIZE);
+        File source = write("prog.deca", "#include \"lib.decah\"\n{}");
+        write("lib.decah", "class A {}");
+        File dest = write("prog.ass", "\tHALT\n");
+        CompilerOptions options = new CompilerOptions();
+
+        String key = cache.key(source, options);
+        assertFalse(cache.restore(key, source, dest));
+        cache.store(key, source, Arrays.asList(new BuildCache.Include("lib.decah", tmp)), dest);
+
+        dest.delete();
+        assertTrue(cache.restore(key, source, dest));
+        assertEquals("\tHALT\n", read(dest));
+
+        // an include changed: the entry cannot be used
+        write("lib.decah", "class B {}");
+        assertFalse(cache.restore(key, source, dest));
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+
+        // the source changed: the key changes
+        write("prog.deca", "{}");
+        assertNotEquals(key, cache.key(source, options));
+    }
+
+    @Test
+    public void nestedIncludes() throws IOException, CLIException {
+        File dir = new File(tmp, "cache");
+        File source = write("prog.deca", "#include \"a.decah\"\n{ A a = new A(); println(a.v()); }");
+        write("a.decah", "#include \"b.decah\"\nclass A extends B {}");
+        write("b.decah", "class B { int v() { return 11; } }");
+        File dest = new File(tmp, "prog.ass");
+        CompilerOptions options = new CompilerOptions();
+        options.parseArgs(new String[] { "-cache", dir.getPath(), source.getPath() });
+        BuildCache cache = BuildCache.forDirectory(dir, options.getCacheSize());
+
+        assertFalse(new DecacCompiler(options, source).compile());
+        assertTrue(read(dest).contains("#11"));
+        assertFalse(new DecacCompiler(options, source).compile());
+        assertEquals(1, cache.getHits());
+
+        // the header included by a header changed: the program is compiled
+        // again
+        write("b.decah", "class B { int v() { return 12; } }");
+        assertFalse(new DecacCompiler(options, source).compile());
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertTrue(read(dest).contains("#12"));
+    }
+
+    @Test
+    public void eviction() throws IOException {
+        File dir = new File(tmp, "cache");
+        BuildCache cache = new BuildCache(dir, 100);
+        File source = write("prog.deca", "{}");
+        char[] big = new char[60];
+        Arrays.fill(big, 'x');
+        File dest = write("prog.ass", new String(big));
+
+        cache.store("old", source, Collections.<BuildCache.Include>emptyList(), dest);
+        new File(dir, "old.entry").setLastModified(System.currentTimeMillis() - 10000);
+        cache.store("new", source, Collections.<BuildCache.Include>emptyList(), dest);
+
+        assertFalse(cache.restore("old", source, dest));
+        assertTrue(cache.restore("new", source, dest));
+    }
+}
@@ -0,0 +1,89 @@
+package fr.ensimag.deca.codegen;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.ensimag.deca.CLIException;
+import fr.ensimag.deca.CompilerOptions;
+import fr.ensimag.deca.DecacCompiler;
+
+/**
+ * Check that the units of code generated concurrently give the same program
+ * as when they are generated one after the other.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class CodeGenUnitsTest {
+    private static final String PROGRAM = "class A {\n"
+            + "    int x = 1;\n"
+            + "    int m(int n) {\n"
+            + "        if (n > 0) { return n; } else { return -n; }\n"
+            + "    }\n"
+            + "    int p(int n) {\n"
+            + "        if (n > x) { return x; } else { return n; }\n"
+            + "    }\n"
+            + "}\n"
+            + "class B extends A {\n"
+            + "    boolean b = true;\n"
+            + "    int m(int n) {\n"
+            + "        while (n > 10) { n = n - 10; }\n"
+            + "        return n;\n"
+            + "    }\n"
+            + "}\n"
+            + "{\n"
+            + "    A a = new A();\n"
+            + "    B b = new B();\n"
+            + "    if (a.m(-3) > b.m(25)) { println(a.p(2)); } else { println(b.p(0)); }\n"
+            + "}\n";
+
+    @TempDir
+    File tmp;
+
+    private byte[] compile(File source, String... args) throws CLIException, IOException {
+        CompilerOptions options = new CompilerOptions();
+        String[] argv = new String[args.length + 1];
+        System.arraycopy(args, 0, argv, 0, args.length);
+        argv[args.length] = source.getPath();
+        options.parseArgs(argv);
+        assertFalse(new DecacCompiler(options, source).compile());
+        return Files.readAllBytes(new File(tmp, "multi.ass").toPath());
+    }
+
+    @Test
+    public void parallelSameAsSequential() throws CLIException, IOException {
+        File source = new File(tmp, "multi.deca");
+        Files.write(source.toPath(), PROGRAM.getBytes(StandardCharsets.UTF_8));
+
+        byte[] sequential = compile(source);
+        for (int i = 0; i < 10; i++) {
+            assertArrayEquals(sequential, compile(source, "-P"));
+        }
+
+        Set<String> labels = new HashSet<String>();
+        for (String line : new String(sequential, StandardCharsets.UTF_8).split("\n")) {
+            if (line.matches("[^\\s;]+:")) {
+                assertTrue(labels.add(line), "label defined twice: " + line);
+            }
+        }
+        // the labels of each unit end with its suffix
+        assertTrue(labels.contains("init.A:"));
+        assertTrue(labels.contains("else.0.A.m:"));
+        assertTrue(labels.contains("else.0.A.p:"));
+        assertTrue(labels.contains("code.B.m:"));
+        boolean loop = false;
+        for (String label : labels) {
+            loop |= label.startsWith("while_") && label.endsWith(".B.m:");
+        }
+        assertTrue(loop, labels.toString());
+    }
+}
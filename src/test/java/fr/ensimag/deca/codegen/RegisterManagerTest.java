@@ -0,0 +1,40 @@
+package fr.ensimag.deca.codegen;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import fr.ensimag.deca.DecacCompiler;
+import fr.ensimag.ima.pseudocode.Register;
+
+/**
+ * Check that the code generation state is owned by each compiler instance.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class RegisterManagerTest {
+    @Test
+    public void independentCompilers() {
+        DecacCompiler c1 = new DecacCompiler(null, null);
+        DecacCompiler c2 = new DecacCompiler(null, null);
+        assertSame(Register.getR(2), c1.getRegisterManager().getUnusedR());
+        assertSame(Register.getR(3), c1.getRegisterManager().getUnusedR());
+        // registers used by c1 are still free for c2
+        assertSame(Register.getR(2), c2.getRegisterManager().getUnusedR());
+
+        c1.getStackCount().countPush();
+        assertEquals(1, c1.getStackCount().getTempCount());
+        assertEquals(0, c2.getStackCount().getTempCount());
+    }
+
+    @Test
+    public void registerLimit() {
+        RegisterManager manager = new RegisterManager(4, new StackCount());
+        assertSame(Register.getR(2), manager.getUnusedR());
+        assertSame(Register.getR(3), manager.getUnusedR());
+        assertNull(manager.getUnusedR());
+        manager.setUnused(Register.getR(2));
+        assertSame(Register.getR(2), manager.getUnusedR());
+    }
+}
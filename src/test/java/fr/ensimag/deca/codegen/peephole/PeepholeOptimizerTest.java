@@ -0,0 +1,118 @@
+package fr.ensimag.deca.codegen.peephole;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import fr.ensimag.ima.pseudocode.IMAProgram;
+import fr.ensimag.ima.pseudocode.Label;
+import fr.ensimag.ima.pseudocode.Register;
+import fr.ensimag.ima.pseudocode.RegisterOffset;
+import fr.ensimag.ima.pseudocode.instructions.ADD;
+import fr.ensimag.ima.pseudocode.instructions.BEQ;
+import fr.ensimag.ima.pseudocode.instructions.BRA;
+import fr.ensimag.ima.pseudocode.instructions.CMP;
+import fr.ensimag.ima.pseudocode.instructions.HALT;
+import fr.ensimag.ima.pseudocode.instructions.LOAD;
+import fr.ensimag.ima.pseudocode.instructions.POP;
+import fr.ensimag.ima.pseudocode.instructions.PUSH;
+import fr.ensimag.ima.pseudocode.instructions.STORE;
+import fr.ensimag.ima.pseudocode.instructions.WINT;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the peephole optimizer.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class PeepholeOptimizerTest {
+    private final RegisterOffset x = new RegisterOffset(3, Register.GB);
+
+    private static String optimize(PeepholeOptimizer optimizer, IMAProgram program, String... localLabels) {
+        optimizer.optimize(program, new HashSet<String>(Arrays.asList(localLabels)));
+        return program.display();
+    }
+
+    private static int hits(PeepholeOptimizer optimizer, String rule) {
+        for (PeepholeRule r : optimizer.getRules()) {
+            if (r.getName().equals(rule)) {
+                return r.getHits();
+            }
+        }
+        throw new IllegalArgumentException(rule);
+    }
+
+    @Test
+    public void pushPopAndStoreLoad() {
+        IMAProgram program = new IMAProgram();
+        program.addInstruction(new LOAD(x, Register.R1));
+        program.addInstruction(new PUSH(Register.R1));
+        program.addComment("kept");
+        program.addInstruction(new POP(Register.R1));
+        program.addInstruction(new STORE(Register.R1, x));
+        program.addInstruction(new LOAD(x, Register.R1));
+        program.addInstruction(new ADD(Register.R1, Register.R1));
+        program.addInstruction(new HALT());
+        PeepholeOptimizer optimizer = new PeepholeOptimizer();
+        assertEquals("\tLOAD 3(GB), R1\n; kept\n\tSTORE R1, 3(GB)\n\tADD R1, R1\n\tHALT\n",
+                optimize(optimizer, program));
+        assertEquals(1, hits(optimizer, "push-pop"));
+        assertEquals(1, hits(optimizer, "store-load"));
+    }
+
+    @Test
+    public void storeLoadSettingConditionCodes() {
+        IMAProgram program = new IMAProgram();
+        program.addInstruction(new STORE(Register.R1, x));
+        program.addInstruction(new LOAD(x, Register.R1));
+        program.addInstruction(new WINT());
+        program.addInstruction(new BEQ(new Label("l")));
+        program.addLabel(new Label("l"));
+        program.addInstruction(new HALT());
+        String before = program.display();
+        // the LOAD sets the condition codes read by the BEQ
+        PeepholeOptimizer optimizer = new PeepholeOptimizer(Arrays.<PeepholeRule>asList(new StoreLoadRule()));
+        assertEquals(before, optimize(optimizer, program));
+    }
+
+    @Test
+    public void branchesAndLabels() {
+        Label ifLabel = new Label("if.0");
+        Label elseLabel = new Label("else.0");
+        Label end = new Label("end_if.0");
+        IMAProgram program = new IMAProgram();
+        program.addInstruction(new CMP(0, Register.getR(2)));
+        program.addInstruction(new BEQ(ifLabel));
+        program.addInstruction(new BRA(elseLabel));
+        program.addLabel(ifLabel);
+        program.addInstruction(new WINT());
+        program.addInstruction(new BRA(end));
+        program.addLabel(elseLabel);
+        program.addInstruction(new BRA(end));
+        program.addLabel(end);
+        // not local: may be used by another part of the program
+        program.addLabel(new Label("code.A.m"));
+        program.addInstruction(new HALT());
+        PeepholeOptimizer optimizer = new PeepholeOptimizer();
+        assertEquals("\tCMP #0, R2\n\tBNE else.0\n\tWINT\nelse.0:\ncode.A.m:\n\tHALT\n",
+                optimize(optimizer, program, "if.0", "else.0", "end_if.0"));
+        assertEquals(1, hits(optimizer, "inverted-branch"));
+        assertEquals(2, hits(optimizer, "unreferenced-label"));
+    }
+
+    @Test
+    public void deadLoad() {
+        IMAProgram program = new IMAProgram();
+        program.addInstruction(new LOAD(x, Register.getR(2)));
+        program.addInstruction(new LOAD(1, Register.getR(2)));
+        program.addInstruction(new LOAD(x, Register.getR(3)));
+        program.addInstruction(new LOAD(new RegisterOffset(0, Register.getR(3)), Register.getR(3)));
+        program.addInstruction(new HALT());
+        Set<String> none = new HashSet<String>();
+        PeepholeOptimizer optimizer = new PeepholeOptimizer();
+        optimizer.optimize(program, none);
+        assertEquals("\tLOAD #1, R2\n\tLOAD 3(GB), R3\n\tLOAD 0(R3), R3\n\tHALT\n", program.display());
+    }
+}
@@ -0,0 +1,140 @@
+package fr.ensimag.deca.context;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.ensimag.deca.CLIException;
+import fr.ensimag.deca.CompilerOptions;
+import fr.ensimag.deca.DecacCompiler;
+import fr.ensimag.deca.context.EnvironmentExp.DoubleDefException;
+import fr.ensimag.deca.tools.SymbolTable.Symbol;
+import fr.ensimag.deca.tree.Location;
+import fr.ensimag.deca.tree.Visibility;
+
+/**
+ * Tests of the flattened member tables and of the subclass tests of the
+ * classes.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class ClassDefinitionTest {
+    private final DecacCompiler compiler = new DecacCompiler(null, null);
+    private final EnvironmentType env = compiler.environmentType;
+
+    @TempDir
+    File tmp;
+
+    private ClassDefinition declareClass(String name, ClassDefinition superClass) {
+        ClassType type = new ClassType(compiler.createSymbol(name), Location.BUILTIN, superClass);
+        ClassDefinition def = type.getDefinition();
+        def.setNumberOfFields(superClass.getNumberOfFields());
+        def.setNumberOfMethods(superClass.getNumberOfMethods());
+        return def;
+    }
+
+    private MethodDefinition declareMethod(ClassDefinition c, String name, int index) throws DoubleDefException {
+        MethodDefinition def = new MethodDefinition(env.INT, Location.BUILTIN, new Signature(), index);
+        if (index == c.getNumberOfMethods()) {
+            c.incNumberOfMethods();
+        }
+        c.getMembers().declare(compiler.createSymbol(name + ".m"), def);
+        return def;
+    }
+
+    private FieldDefinition declareField(ClassDefinition c, String name) throws DoubleDefException {
+        c.incNumberOfFields();
+        FieldDefinition def = new FieldDefinition(env.INT, Location.BUILTIN, Visibility.PUBLIC, c,
+                c.getNumberOfFields());
+        c.getMembers().declare(compiler.createSymbol(name), def);
+        return def;
+    }
+
+    @Test
+    public void memberTables() throws DoubleDefException, ContextualError {
+        ClassDefinition object = env.OBJECT.getDefinition();
+        ClassDefinition a = declareClass("A", object);
+        FieldDefinition x = declareField(a, "x");
+        MethodDefinition am = declareMethod(a, "m", 1);
+        MethodDefinition an = declareMethod(a, "n", 2);
+        a.buildMemberTables();
+
+        ClassDefinition b = declareClass("B", a);
+        FieldDefinition bx = declareField(b, "x");
+        MethodDefinition bm = declareMethod(b, "m", 1);
+        MethodDefinition bp = declareMethod(b, "p", 3);
+        b.buildMemberTables();
+
+        assertSame(object.getMethodOfIndex(0), b.getMethodOfIndex(0));
+        assertSame(bm, b.getMethodOfIndex(1));
+        assertSame(an, b.getMethodOfIndex(2));
+        assertSame(bp, b.getMethodOfIndex(3));
+        assertSame(am, a.getMethodOfIndex(1));
+        assertSame(x, b.getFieldOfIndex(1));
+        assertSame(bx, b.getFieldOfIndex(2));
+
+        Symbol xSym = compiler.createSymbol("x");
+        Symbol nSym = compiler.createSymbol("n.m");
+        assertSame(bx, b.getMembers().getAsField(xSym, Location.BUILTIN_PACKED));
+        assertSame(x, a.getMembers().getAsField(xSym, Location.BUILTIN_PACKED));
+        assertSame(an, b.getMembers().getAsMethod(nSym, Location.BUILTIN_PACKED));
+        assertSame(object.getMethodOfIndex(0), b.getMembers().get(compiler.createSymbol("equals.m"), Location.BUILTIN_PACKED));
+        assertThrows(ContextualError.class,
+                () -> b.getMembers().get(compiler.createSymbol("undefined"), Location.BUILTIN_PACKED));
+
+        // environments of method bodies still see the members
+        EnvironmentExp local = new EnvironmentExp(b.getMembers());
+        assertSame(bm, local.get(compiler.createSymbol("m.m"), Location.BUILTIN_PACKED));
+    }
+
+    @Test
+    public void subClasses() throws EnvironmentType.DoubleDefException {
+        ClassDefinition object = env.OBJECT.getDefinition();
+        ClassDefinition a = declareClass("A", object);
+        ClassDefinition b = declareClass("B", a);
+        ClassDefinition c = declareClass("C", object);
+        ClassDefinition d = declareClass("D", b);
+        for (ClassDefinition def : new ClassDefinition[] { a, b, c, d }) {
+            env.declare(def.getType().getName(), def);
+        }
+        for (int numbered = 0; numbered < 2; numbered++) {
+            // same answers walking up the superclasses and with the numbering
+            if (numbered == 1) {
+                env.numberClasses();
+            }
+            assertTrue(d.isSubClassOf(object));
+            assertTrue(d.isSubClassOf(a));
+            assertTrue(d.isSubClassOf(d));
+            assertFalse(d.isSubClassOf(c));
+            assertFalse(a.isSubClassOf(b));
+            assertFalse(object.isSubClassOf(a));
+            assertTrue(env.isSubType(b.getType(), a.getType()));
+            assertFalse(env.isSubType(c.getType(), a.getType()));
+            assertTrue(env.isSubType(env.NULL, c.getType()));
+        }
+    }
+
+    @Test
+    public void subClassesOfDeclaredClasses() throws IOException, CLIException {
+        // the classes declared by the program, and not by hand as above
+        File source = new File(tmp, "sub.deca");
+        Files.write(source.toPath(), ("class A {}\n"
+                + "class B extends A {}\n"
+                + "{\n"
+                + "    A a = new B();\n"
+                + "    B b = new B();\n"
+                + "    a = (A) (b);\n"
+                + "    b = (B) (a);\n"
+                + "}\n").getBytes(StandardCharsets.UTF_8));
+        CompilerOptions options = new CompilerOptions();
+        options.parseArgs(new String[] { "-v", source.getPath() });
+        assertFalse(new DecacCompiler(options, source).compile());
+    }
+}
@@ -0,0 +1,261 @@
+package fr.ensimag.deca.generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+/**
+ * Generator of large, valid Deca programs, to test how the compiler scales.
+ *
+ * A generated program has:
+ * <ul>
+ * <li>classes classes, grouped in chains of at most depth classes, each class
+ * of a chain extending the previous one;</li>
+ * <li>methods methods per class: even ones (m0, m2...) are declared by the
+ * first class of the chain and overridden by the others, odd ones are new in
+ * each class;</li>
+ * <li>statements statements in each method and in the main block;</li>
+ * <li>arithmetic expressions nested expressionDepth levels deep.</li>
+ * </ul>
+ * Methods only call methods of lower index, so that the programs terminate.
+ * The same parameters and seed always give the same program.
+ *
+ * Usage: DecaProgramGenerator [-classes N] [-depth N] [-methods N]
+ * [-statements N] [-expr N] [-seed N] [-o file.deca]
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class DecaProgramGenerator {
+    private final int classes;
+    private final int depth;
+    private final int methods;
+    private final int statements;
+    private final int expressionDepth;
+    private final long seed;
+
+    private Random random;
+    private StringBuilder out;
+
+    /**
+     * @param classes         number of classes
+     * @param depth           maximum depth of the class hierarchies (&gt;= 1)
+     * @param methods         number of methods of each class
+     * @param statements      number of statements of each method and of the
+     *                        main block
+     * @param expressionDepth nesting depth of the expressions
+     * @param seed            seed of the pseudo-random choices
+     */
+    public DecaProgramGenerator(int classes, int depth, int methods, int statements, int expressionDepth,
+            long seed) {
+        if (classes < 0 || depth < 1 || methods < 0 || statements < 0 || expressionDepth < 0) {
+            throw new IllegalArgumentException("invalid generator parameters");
+        }
+        this.classes = classes;
+        this.depth = depth;
+        this.methods = methods;
+        this.statements = statements;
+        this.expressionDepth = expressionDepth;
+        this.seed = seed;
+    }
+
+    /**
+     * @return the source code of the program
+     */
+    public String generate() {
+        random = new Random(seed);
+        out = new StringBuilder();
+        out.append("// Generated by DecaProgramGenerator: classes=").append(classes).append(" depth=")
+                .append(depth).append(" methods=").append(methods).append(" statements=").append(statements)
+                .append(" expr=").append(expressionDepth).append(" seed=").append(seed).append("\n\n");
+        for (int c = 0; c < classes; c++) {
+            generateClass(c);
+        }
+        generateMain();
+        String res = out.toString();
+        out = null;
+        return res;
+    }
+
+    /**
+     * Write the program to a file.
+     */
+    public void write(File file) throws IOException {
+        Files.write(file.toPath(), generate().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String className(int c) {
+        return "C" + c;
+    }
+
+    /** Name of method m of class c */
+    private static String methodName(int c, int m) {
+        return m % 2 == 0 ? "m" + m : "p" + m + "_" + c;
+    }
+
+    private boolean isChainRoot(int c) {
+        return c % depth == 0;
+    }
+
+    private void generateClass(int c) {
+        out.append("class ").append(className(c));
+        if (!isChainRoot(c)) {
+            out.append(" extends ").append(className(c - 1));
+        }
+        out.append(" {\n");
+        out.append("    int f").append(c).append(" = ").append(c).append(";\n");
+        for (int m = 0; m < methods; m++) {
+            generateMethod(c, m);
+        }
+        out.append("}\n\n");
+    }
+
+    private void generateMethod(int c, int m) {
+        String[] operands = { "a", "b", "x", "f" + c };
+        out.append("    int ").append(methodName(c, m)).append("(int x) {\n");
+        out.append("        int a = x, b = 1, k = 0;\n");
+        if (m > 0) {
+            out.append("        a = a + ").append(methodName(c, m - 1)).append("(x % 10);\n");
+        }
+        generateStatements("        ", "f" + c, operands);
+        out.append("        return a + b;\n    }\n");
+    }
+
+    private void generateMain() {
+        String[] operands = { "a", "b", "x", "s" };
+        out.append("{\n    int a = 1, b = 2, k = 0, x = 3, s = 0;\n");
+        for (int c = 0; c < classes; c++) {
+            out.append("    ").append(className(c)).append(" o").append(c).append(" = new ").append(className(c))
+                    .append("();\n");
+        }
+        for (int c = 0; c < classes; c++) {
+            if (methods > 0) {
+                out.append("    s = s + o").append(c).append(".").append(methodName(c, methods - 1))
+                        .append("(").append(c).append(");\n");
+            }
+        }
+        generateStatements("    ", "s", operands);
+        out.append("    println(a, \" \", b, \" \", s);\n}\n");
+    }
+
+    /**
+     * Generate the statements of a block which declares the int variables a, b
+     * and k.
+     *
+     * @param indent   indentation of the statements
+     * @param field    another int variable which can be assigned
+     * @param operands variables usable in expressions
+     */
+    private void generateStatements(String indent, String field, String[] operands) {
+        for (int i = 0; i < statements; i++) {
+            out.append(indent);
+            switch (i % 5) {
+                case 0:
+                    out.append("a = ");
+                    generateExpression(operands, expressionDepth);
+                    out.append(";\n");
+                    break;
+                case 1:
+                    out.append("if (a > b) {\n").append(indent).append("    b = ");
+                    generateExpression(operands, expressionDepth);
+                    out.append(";\n").append(indent).append("} else {\n").append(indent)
+                            .append("    b = b + 1;\n").append(indent).append("}\n");
+                    break;
+                case 2:
+                    out.append("k = 0;\n").append(indent).append("while (k < 2) {\n").append(indent)
+                            .append("    a = a + k;\n").append(indent).append("    k = k + 1;\n").append(indent)
+                            .append("}\n");
+                    break;
+                case 3:
+                    out.append(field).append(" = ");
+                    generateExpression(operands, expressionDepth);
+                    out.append(";\n");
+                    break;
+                default:
+                    // keep the values small
+                    out.append("a = a % 1000;\n").append(indent).append("b = b % 1000;\n");
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Generate an int expression nested depth levels deep, one operand of each
+     * level being a leaf so that the size of the expression stays linear in
+     * its depth.
+     */
+    private void generateExpression(String[] operands, int depth) {
+        if (depth == 0) {
+            if (random.nextInt(4) == 0) {
+                out.append(random.nextInt(100));
+            } else {
+                out.append(operands[random.nextInt(operands.length)]);
+            }
+            return;
+        }
+        final String[] operators = { " + ", " - ", " * " };
+        String operator = operators[random.nextInt(operators.length)];
+        boolean leafFirst = random.nextBoolean();
+        out.append("(");
+        if (leafFirst) {
+            generateExpression(operands, 0);
+            out.append(operator);
+            generateExpression(operands, depth - 1);
+        } else {
+            generateExpression(operands, depth - 1);
+            out.append(operator);
+            generateExpression(operands, 0);
+        }
+        out.append(")");
+    }
+
+    public static void main(String[] args) throws IOException {
+        int classes = 10, depth = 3, methods = 5, statements = 20, expr = 3;
+        long seed = 42;
+        File output = null;
+        for (int i = 0; i < args.length; i++) {
+            if (i + 1 >= args.length) {
+                usage();
+            }
+            switch (args[i]) {
+                case "-classes":
+                    classes = Integer.parseInt(args[++i]);
+                    break;
+                case "-depth":
+                    depth = Integer.parseInt(args[++i]);
+                    break;
+                case "-methods":
+                    methods = Integer.parseInt(args[++i]);
+                    break;
+                case "-statements":
+                    statements = Integer.parseInt(args[++i]);
+                    break;
+                case "-expr":
+                    expr = Integer.parseInt(args[++i]);
+                    break;
+                case "-seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "-o":
+                    output = new File(args[++i]);
+                    break;
+                default:
+                    usage();
+            }
+        }
+        DecaProgramGenerator generator = new DecaProgramGenerator(classes, depth, methods, statements, expr, seed);
+        if (output == null) {
+            System.out.print(generator.generate());
+        } else {
+            generator.write(output);
+        }
+    }
+
+    private static void usage() {
+        System.err.println("Usage: DecaProgramGenerator [-classes N] [-depth N] [-methods N] [-statements N]"
+                + " [-expr N] [-seed N] [-o file.deca]");
+        System.exit(1);
+    }
+}
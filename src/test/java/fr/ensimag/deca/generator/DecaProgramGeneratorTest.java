@@ -0,0 +1,47 @@
+package fr.ensimag.deca.generator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.ensimag.deca.CLIException;
+import fr.ensimag.deca.CompilerOptions;
+import fr.ensimag.deca.DecacCompiler;
+
+/**
+ * Check that the generated programs are reproducible and contextually valid.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class DecaProgramGeneratorTest {
+    @TempDir
+    File tmp;
+
+    @Test
+    public void reproducible() {
+        String p1 = new DecaProgramGenerator(5, 2, 3, 10, 4, 1).generate();
+        String p2 = new DecaProgramGenerator(5, 2, 3, 10, 4, 1).generate();
+        String p3 = new DecaProgramGenerator(5, 2, 3, 10, 4, 2).generate();
+        assertEquals(p1, p2);
+        assertNotEquals(p1, p3);
+        assertTrue(p1.contains("class C1 extends C0"));
+        assertFalse(p1.contains("class C2 extends"));
+    }
+
+    @Test
+    public void generatedProgramsAreValid() throws IOException, CLIException {
+        int[][] configurations = { { 0, 1, 0, 0, 0 }, { 6, 3, 4, 12, 5 }, { 3, 1, 1, 40, 30 } };
+        for (int[] c : configurations) {
+            File source = new File(tmp, "gen.deca");
+            new DecaProgramGenerator(c[0], c[1], c[2], c[3], c[4], 42).write(source);
+            CompilerOptions options = new CompilerOptions();
+            options.parseArgs(new String[] { "-v", source.getPath() });
+            assertFalse(new DecacCompiler(options, source).compile(), "invalid program generated");
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package fr.ensimag.deca.generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+
+import fr.ensimag.deca.CLIException;
+import fr.ensimag.deca.CompilerOptions;
+import fr.ensimag.deca.DecacCompiler;
+import fr.ensimag.deca.tools.PhaseTimer;
+
+/**
+ * Measure how the compilation time and memory grow with the size of the
+ * programs generated by {@link DecaProgramGenerator}.
+ *
+ * Each parameter of the generator (number of classes, depth of the
+ * hierarchies, methods per class, statements per method, depth of the
+ * expressions) is doubled in turn from a base configuration, and the programs
+ * are compiled with the per-phase measures of decac -T. For each phase, the
+ * exponent of the growth between two sizes is printed: about 1 for a linear
+ * growth, 2 for a quadratic one. Exponents well above 1 are flagged.
+ *
+ * Usage: ScalingBenchmark [steps] (default 6, sizes up to base * 2^(steps-1)),
+ * e.g. with mvn test-compile exec:java@scaling-benchmark
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class ScalingBenchmark {
+    /** Exponent above which a growth is reported as super-linear */
+    private static final double SUPER_LINEAR = 1.3;
+    /** Compilations of each program, the fastest one is kept */
+    private static final int RUNS = 3;
+
+    private static final String[] PARAMETERS = { "classes", "depth", "methods", "statements", "expr" };
+    private static final int[] BASE = { 8, 1, 4, 8, 2 };
+    private static final int CLASSES = 0, DEPTH = 1;
+    private static final String[] PHASES = { "parsing", "lexing", "verification", "codegen", "emission" };
+
+    public static void main(String[] args) throws IOException, CLIException {
+        int steps = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        File dir = Files.createTempDirectory("deca-scaling").toFile();
+        try {
+            // warm up the JIT on a medium program
+            compile(dir, BASE, CLASSES, 32);
+            for (int p = 0; p < PARAMETERS.length; p++) {
+                scale(dir, p, steps);
+            }
+        } finally {
+            File[] files = dir.listFiles();
+            if (files != null) {
+                for (File f : files) {
+                    f.delete();
+                }
+            }
+            dir.delete();
+        }
+    }
+
+    /**
+     * Double one parameter of the base configuration steps times and print the
+     * measures.
+     */
+    private static void scale(File dir, int parameter, int steps) throws IOException, CLIException {
+        System.out.println();
+        int[] base = BASE.clone();
+        if (parameter == DEPTH) {
+            // enough classes for the deepest hierarchy
+            base[CLASSES] = BASE[DEPTH] << (steps - 1);
+        }
+        System.out.println("Scaling " + PARAMETERS[parameter] + " (others: " + describe(base, parameter) + ")");
+        StringBuilder header = new StringBuilder(String.format("%10s", PARAMETERS[parameter]));
+        for (String phase : PHASES) {
+            header.append(String.format(" %14s", phase + " ms"));
+        }
+        header.append(String.format(" %10s %10s %8s", "total ms", "alloc MiB", "growth"));
+        System.out.println(header);
+
+        PhaseTimer previous = null;
+        int previousSize = 0;
+        for (int step = 0; step < steps; step++) {
+            int size = BASE[parameter] << step;
+            PhaseTimer timer = compile(dir, base, parameter, size);
+            StringBuilder row = new StringBuilder(String.format("%10d", size));
+            for (String phase : PHASES) {
+                row.append(String.format(" %14.2f", wall(timer, phase) / 1e6));
+            }
+            row.append(String.format(" %10.2f %10.1f", total(timer, false) / 1e6,
+                    total(timer, true) / (1024.0 * 1024.0)));
+            if (previous != null) {
+                double exponent = Math.log((double) total(timer, false) / total(previous, false))
+                        / Math.log((double) size / previousSize);
+                row.append(String.format(" %8.2f", exponent));
+                if (exponent > SUPER_LINEAR) {
+                    row.append(" super-linear: ").append(slowestGrowth(previous, timer, (double) size / previousSize));
+                }
+            }
+            System.out.println(row);
+            previous = timer;
+            previousSize = size;
+        }
+    }
+
+    /**
+     * Generate and compile a program, keeping the measures of the fastest of
+     * {@link #RUNS} compilations.
+     */
+    private static PhaseTimer compile(File dir, int[] base, int parameter, int size)
+            throws IOException, CLIException {
+        int[] values = base.clone();
+        values[parameter] = size;
+        File source = new File(dir, "gen_" + PARAMETERS[parameter] + "_" + size + ".deca");
+        new DecaProgramGenerator(values[0], values[1], values[2], values[3], values[4], 42).write(source);
+
+        CompilerOptions options = new CompilerOptions();
+        options.parseArgs(new String[] { "-T", source.getPath() });
+        PhaseTimer best = null;
+        for (int run = 0; run < RUNS; run++) {
+            System.gc();
+            DecacCompiler compiler = new DecacCompiler(options, source);
+            if (compiler.compile()) {
+                throw new IllegalStateException("compilation of " + source + " failed");
+            }
+            PhaseTimer timer = compiler.getPhaseTimer();
+            if (best == null || total(timer, false) < total(best, false)) {
+                best = timer;
+            }
+        }
+        return best;
+    }
+
+    private static long wall(PhaseTimer timer, String phase) {
+        PhaseTimer.Measure measure = timer.getPhases().get(phase);
+        return measure == null ? 0 : measure.getWallNanos();
+    }
+
+    /**
+     * @param allocated true for the allocated bytes, false for the wall time
+     */
+    private static long total(PhaseTimer timer, boolean allocated) {
+        long res = 0;
+        for (PhaseTimer.Measure measure : timer.getPhases().values()) {
+            res += allocated ? measure.getAllocatedBytes() : measure.getWallNanos();
+        }
+        return Math.max(res, 1);
+    }
+
+    /**
+     * @return the phase whose time grew the most between two sizes
+     */
+    private static String slowestGrowth(PhaseTimer before, PhaseTimer after, double ratio) {
+        String res = null;
+        double worst = 0;
+        for (Map.Entry<String, PhaseTimer.Measure> phase : after.getPhases().entrySet()) {
+            long previous = wall(before, phase.getKey());
+            if (previous > 0) {
+                double exponent = Math.log((double) phase.getValue().getWallNanos() / previous) / Math.log(ratio);
+                if (res == null || exponent > worst) {
+                    res = phase.getKey();
+                    worst = exponent;
+                }
+            }
+        }
+        return res == null ? "?" : String.format("%s (%.2f)", res, worst);
+    }
+
+    private static String describe(int[] values, int except) {
+        StringBuilder res = new StringBuilder();
+        for (int p = 0; p < PARAMETERS.length; p++) {
+            if (p != except) {
+                res.append(res.length() == 0 ? "" : ", ").append(PARAMETERS[p]).append("=").append(values[p]);
+            }
+        }
+        return res.toString();
+    }
+}
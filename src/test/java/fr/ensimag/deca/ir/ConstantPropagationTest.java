@@ -0,0 +1,117 @@
+package fr.ensimag.deca.ir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the SSA form and of the constant propagation.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class ConstantPropagationTest {
+    @Test
+    public void folding() {
+        assertEquals(new IntConstant(7), ConstantFolder.fold(BinaryOperator.ADD, new IntConstant(3), new IntConstant(4)));
+        assertEquals(new IntConstant(-2), ConstantFolder.fold(BinaryOperator.QUO, new IntConstant(-7), new IntConstant(3)));
+        assertEquals(new IntConstant(-1), ConstantFolder.fold(BinaryOperator.REM, new IntConstant(-7), new IntConstant(3)));
+        assertEquals(IntConstant.TRUE, ConstantFolder.fold(BinaryOperator.LT, new IntConstant(-7), new IntConstant(3)));
+        // overflows and divisions by zero are left to the execution
+        assertNull(ConstantFolder.fold(BinaryOperator.ADD, new IntConstant(Integer.MAX_VALUE), new IntConstant(1)));
+        assertNull(ConstantFolder.fold(BinaryOperator.QUO, new IntConstant(1), new IntConstant(0)));
+        assertNull(ConstantFolder.fold(UnaryOperator.NEG, new IntConstant(Integer.MIN_VALUE)));
+        assertNull(ConstantFolder.fold(BinaryOperator.DIV, new FloatConstant(1), new FloatConstant(0)));
+        assertNull(ConstantFolder.fold(BinaryOperator.MUL, new FloatConstant(Float.MAX_VALUE), new FloatConstant(2)));
+        assertNull(ConstantFolder.fold(BinaryOperator.MUL, new FloatConstant(Float.MIN_NORMAL), new FloatConstant(0.5f)));
+        // single precision
+        assertEquals(new FloatConstant(0.1f + 0.2f),
+                ConstantFolder.fold(BinaryOperator.ADD, new FloatConstant(0.1f), new FloatConstant(0.2f)));
+        assertEquals(new FloatConstant(16777216f), ConstantFolder.fold(UnaryOperator.FLOAT, new IntConstant(16777217)));
+    }
+
+    /**
+     * x = 3; i = 0; while (i < n) { if (x > 5) print(i); i = i + x; } print(x)
+     */
+    @Test
+    public void loop() {
+        IRBuilder builder = new IRBuilder("main");
+        VirtualRegister x = builder.getGraph().newRegister(IRType.INT, "x");
+        VirtualRegister i = builder.getGraph().newRegister(IRType.INT, "i");
+        VirtualRegister n = builder.newTemp(IRType.INT);
+        builder.emit(new Read(n));
+        builder.emit(new Copy(x, new IntConstant(3)));
+        builder.emit(new Copy(i, new IntConstant(0)));
+        BasicBlock test = builder.newBlock();
+        BasicBlock body = builder.newBlock();
+        BasicBlock print = builder.newBlock();
+        BasicBlock next = builder.newBlock();
+        BasicBlock end = builder.newBlock();
+        builder.emit(new Jump(test));
+        builder.startBlock(test);
+        builder.emit(new Branch(BinaryOperator.LT, i, n, body, end));
+        builder.startBlock(body);
+        builder.emit(new Branch(BinaryOperator.GT, x, new IntConstant(5), print, next));
+        builder.startBlock(print);
+        builder.emit(new Print(i, false));
+        builder.emit(new Jump(next));
+        builder.startBlock(next);
+        builder.emit(new Copy(i, builder.emitBinary(BinaryOperator.ADD, i, x)));
+        builder.emit(new Jump(test));
+        builder.startBlock(end);
+        Print printX = new Print(x, false);
+        builder.emit(printX);
+        ControlFlowGraph cfg = builder.finish();
+
+        SSAForm ssa = new SSAForm(cfg);
+        assertTrue(ssa.getDominatorTree().dominates(test, end));
+        assertFalse(ssa.getDominatorTree().dominates(body, test));
+        assertEquals(Arrays.asList(test), ssa.getDominatorTree().getFrontier(next));
+        // i is merged at the loop header, x is only defined once
+        assertEquals(1, ssa.getPhis(test).size());
+        assertSame(i, ssa.getPhis(test).get(0).getRegister());
+
+        assertTrue(ConstantPropagation.run(cfg));
+        assertEquals(new IntConstant(3), printX.getSrc(0));
+        assertFalse(cfg.getBlocks().contains(print));
+        // the loop is kept: i is not constant
+        assertTrue(cfg.getBlocks().contains(test));
+        assertTrue(test.getTerminator() instanceof Branch);
+        assertSame(i, test.getTerminator().getSrc(0));
+        cfg.mergeBlocks();
+        assertFalse(cfg.getBlocks().contains(next));
+    }
+
+    /**
+     * if (read() == 0) y = 1 else y = 1; print(y)
+     */
+    @Test
+    public void sameValueOnBothPaths() {
+        IRBuilder builder = new IRBuilder("main");
+        VirtualRegister y = builder.getGraph().newRegister(IRType.INT, "y");
+        VirtualRegister r = builder.newTemp(IRType.INT);
+        builder.emit(new Read(r));
+        BasicBlock thenBlock = builder.newBlock();
+        BasicBlock elseBlock = builder.newBlock();
+        BasicBlock end = builder.newBlock();
+        builder.emit(new Branch(BinaryOperator.EQ, r, new IntConstant(0), thenBlock, elseBlock));
+        builder.startBlock(thenBlock);
+        builder.emit(new Copy(y, new IntConstant(1)));
+        builder.emit(new Jump(end));
+        builder.startBlock(elseBlock);
+        builder.emit(new Copy(y, new IntConstant(1)));
+        builder.emit(new Jump(end));
+        builder.startBlock(end);
+        Print print = new Print(builder.emitBinary(BinaryOperator.MUL, y, new IntConstant(2)), false);
+        builder.emit(print);
+        ControlFlowGraph cfg = builder.finish();
+
+        ConstantPropagation.run(cfg);
+        assertEquals(new IntConstant(2), print.getSrc(0));
+        // both branches are still possible
+        assertTrue(cfg.getBlocks().contains(thenBlock));
+        assertTrue(cfg.getBlocks().contains(elseBlock));
+    }
+}
@@ -0,0 +1,82 @@
+package fr.ensimag.deca.ir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import fr.ensimag.deca.CompilerOptions;
+import fr.ensimag.deca.DecacCompiler;
+import fr.ensimag.ima.pseudocode.Register;
+
+/**
+ * Tests of the construction of the control-flow graphs and of their
+ * translation to IMA.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class IRBuilderTest {
+    /**
+     * x = 0; while (x < 10) { x = x + 1; } print(x)
+     */
+    private ControlFlowGraph loop(IRBuilder builder) {
+        VirtualRegister x = builder.newTemp(IRType.INT);
+        builder.emit(new Copy(x, new IntConstant(0)));
+        BasicBlock test = builder.newBlock();
+        BasicBlock body = builder.newBlock();
+        BasicBlock end = builder.newBlock();
+        builder.emit(new Jump(test));
+        builder.startBlock(test);
+        builder.emit(new Branch(BinaryOperator.LT, x, new IntConstant(10), body, end));
+        builder.startBlock(body);
+        builder.emit(new Copy(x, builder.emitBinary(BinaryOperator.ADD, x, new IntConstant(1))));
+        builder.emit(new Jump(test));
+        builder.startBlock(end);
+        builder.emit(new Print(x, false));
+        return builder.finish();
+    }
+
+    @Test
+    public void layoutAndEdges() {
+        ControlFlowGraph cfg = loop(new IRBuilder("main"));
+        BasicBlock entry = cfg.getEntry();
+        BasicBlock test = entry.getSuccessors().get(0);
+        BasicBlock body = test.getSuccessors().get(0);
+        BasicBlock end = test.getSuccessors().get(1);
+        assertEquals(Arrays.asList(entry, test, body, end, cfg.getExit()), cfg.getBlocks());
+        assertEquals(Arrays.asList(entry, body), test.getPredecessors());
+        assertEquals(Arrays.asList(end), cfg.getExit().getPredecessors());
+        List<BasicBlock> order = cfg.reversePostOrder();
+        assertEquals(5, order.size());
+        assertEquals(Arrays.asList(entry, test), order.subList(0, 2));
+        assertTrue(order.indexOf(end) < order.indexOf(cfg.getExit()));
+    }
+
+    @Test
+    public void unreachableCode() {
+        IRBuilder builder = new IRBuilder("main");
+        builder.emit(new Jump(builder.getGraph().getExit()));
+        // after a terminator, the instructions go to a new unreachable block
+        builder.emit(new PrintNewline());
+        ControlFlowGraph cfg = builder.finish();
+        assertEquals(Arrays.asList(cfg.getEntry(), cfg.getExit()), cfg.getBlocks());
+    }
+
+    @Test
+    public void imaSelection() {
+        DecacCompiler compiler = new DecacCompiler(new CompilerOptions(), null);
+        new IMASelector(compiler, loop(new IRBuilder("main")), Register.GB, null).codeGen();
+        String code = compiler.displayIMAProgram();
+        // one slot per register
+        assertTrue(code.contains("STORE R0, 2(GB)"));
+        assertEquals(2, compiler.getStackCount().getVarCount());
+        // the body follows the test: a single branch, to the end of the loop
+        assertTrue(code.contains("BGE "));
+        assertFalse(code.contains("BLT "));
+        assertEquals(2, code.split("BRA ").length);
+        assertTrue(code.contains("WINT"));
+    }
+}
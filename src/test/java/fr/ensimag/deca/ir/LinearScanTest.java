@@ -0,0 +1,105 @@
+package fr.ensimag.deca.ir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import fr.ensimag.deca.CompilerOptions;
+import fr.ensimag.deca.DecacCompiler;
+import fr.ensimag.ima.pseudocode.Register;
+
+/**
+ * Tests of the register allocation by linear scan.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class LinearScanTest {
+    private VirtualRegister x;
+    private VirtualRegister n;
+    private VirtualRegister i;
+    private VirtualRegister s;
+    private VirtualRegister next;
+
+    /**
+     * x = read(); n = read(); i = 0; s = 0; while (i < n) { s = s + i; i = i +
+     * 1; } print(s); print(x)
+     */
+    private ControlFlowGraph loop() {
+        IRBuilder builder = new IRBuilder("main");
+        x = builder.getGraph().newRegister(IRType.INT, "x");
+        n = builder.getGraph().newRegister(IRType.INT, "n");
+        i = builder.getGraph().newRegister(IRType.INT, "i");
+        s = builder.getGraph().newRegister(IRType.INT, "s");
+        builder.emit(new Read(x));
+        builder.emit(new Read(n));
+        builder.emit(new Copy(i, new IntConstant(0)));
+        builder.emit(new Copy(s, new IntConstant(0)));
+        BasicBlock test = builder.newBlock();
+        BasicBlock body = builder.newBlock();
+        BasicBlock end = builder.newBlock();
+        builder.emit(new Jump(test));
+        builder.startBlock(test);
+        builder.emit(new Branch(BinaryOperator.LT, i, n, body, end));
+        builder.startBlock(body);
+        builder.emit(new Copy(s, builder.emitBinary(BinaryOperator.ADD, s, i)));
+        next = builder.emitBinary(BinaryOperator.ADD, i, new IntConstant(1));
+        builder.emit(new Copy(i, next));
+        builder.emit(new Jump(test));
+        builder.startBlock(end);
+        builder.emit(new Print(s, false));
+        builder.emit(new Print(x, false));
+        return builder.finish();
+    }
+
+    @Test
+    public void enoughRegisters() {
+        LinearScan scan = new LinearScan(loop(), 14);
+        scan.run();
+        assertEquals(0, scan.getSpilledCount());
+        // the temporaries of s = s + i and i = i + 1 share the register of
+        // the variable
+        assertEquals(2, scan.getCoalescedCount());
+        assertEquals(scan.getRegister(i), scan.getRegister(next));
+        // the variables are all live in the loop
+        int[] registers = { scan.getRegister(x), scan.getRegister(n), scan.getRegister(i), scan.getRegister(s) };
+        for (int a = 0; a < registers.length; a++) {
+            assertTrue(registers[a] >= 0 && registers[a] < 4);
+            for (int b = a + 1; b < registers.length; b++) {
+                assertNotEquals(registers[a], registers[b]);
+            }
+        }
+    }
+
+    @Test
+    public void spilling() {
+        LinearScan scan = new LinearScan(loop(), 2);
+        scan.run();
+        assertEquals(2, scan.getSpilledCount());
+        // x is not used in the loop, i is used three times in each iteration
+        assertEquals(-1, scan.getRegister(x));
+        assertTrue(scan.getRegister(i) >= 0);
+        assertNotEquals(scan.getRegister(i), scan.getRegister(s));
+    }
+
+    @Test
+    public void imaSelection() {
+        DecacCompiler compiler = new DecacCompiler(new CompilerOptions() {
+            @Override
+            public int getOptimizationLevel() {
+                return 1;
+            }
+
+            @Override
+            public int getNbRegisters() {
+                return 4;
+            }
+        }, null);
+        new IMASelector(compiler, loop(), Register.GB, null).codeGen();
+        String code = compiler.displayIMAProgram();
+        // two variables in R2 and R3, the two others in a slot
+        assertEquals(2, compiler.getStackCount().getVarCount());
+        assertFalse(code.contains("R4"));
+        assertTrue(code.contains("ADD #1, R"));
+    }
+}
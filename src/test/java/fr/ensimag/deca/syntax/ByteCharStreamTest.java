@@ -0,0 +1,109 @@
+package fr.ensimag.deca.syntax;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.misc.Interval;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Check that ByteCharStream reads files as CharStreams.fromFileName does.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class ByteCharStreamTest {
+    @TempDir
+    File tmp;
+
+    private File write(byte[] content) throws IOException {
+        File f = new File(tmp, "test.deca");
+        Files.write(f.toPath(), content);
+        return f;
+    }
+
+    /**
+     * Compare every operation of the two streams along a consumption of the
+     * whole input.
+     */
+    private void assertSameStream(File f) throws IOException {
+        CharStream expected = CharStreams.fromFileName(f.getPath());
+        CharStream actual = ByteCharStream.fromFileName(f.getPath());
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.getSourceName(), actual.getSourceName());
+        assertEquals(expected.toString(), actual.toString());
+        int size = expected.size();
+        for (int i = 0; i <= size; i++) {
+            assertEquals(expected.index(), actual.index());
+            for (int k = -3; k <= 3; k++) {
+                assertEquals(expected.LA(k), actual.LA(k), "LA(" + k + ") at " + i);
+            }
+            for (int a = Math.max(0, i - 70); a <= i; a += 7) {
+                Interval interval = Interval.of(a, i);
+                assertEquals(expected.getText(interval), actual.getText(interval), interval.toString());
+            }
+            if (i < size) {
+                expected.consume();
+                actual.consume();
+            }
+        }
+        assertEquals(IntStream.EOF, actual.LA(1));
+        assertThrows(IllegalStateException.class, actual::consume);
+        for (int i : new int[] { size / 2, 0, size, size - 1, 1, 129 }) {
+            if (i >= 0 && i <= size) {
+                expected.seek(i);
+                actual.seek(i);
+                assertEquals(expected.LA(1), actual.LA(1), "seek(" + i + ")");
+                assertEquals(expected.LA(-1), actual.LA(-1), "seek(" + i + ")");
+            }
+        }
+    }
+
+    @Test
+    public void ascii() throws IOException {
+        File f = write("{\n    println(\"hello\");\n}\n".getBytes(StandardCharsets.US_ASCII));
+        assertTrue(ByteCharStream.fromFileName(f.getPath()) instanceof ByteCharStream);
+        assertSameStream(f);
+    }
+
+    @Test
+    public void utf8() throws IOException {
+        StringBuilder source = new StringBuilder("// é\n");
+        for (int i = 0; i < 50; i++) {
+            source.append("println(\"à ").append(i).append(" € 😀\");\n");
+        }
+        File f = write(source.toString().getBytes(StandardCharsets.UTF_8));
+        assertTrue(ByteCharStream.fromFileName(f.getPath()) instanceof ByteCharStream);
+        assertSameStream(f);
+    }
+
+    @Test
+    public void mapped() throws IOException {
+        StringBuilder source = new StringBuilder();
+        while (source.length() < ByteCharStream.MAP_THRESHOLD) {
+            source.append("// été\n{ int x = 1; }\n");
+        }
+        File f = write(source.toString().getBytes(StandardCharsets.UTF_8));
+        assertSameStream(f);
+    }
+
+    @Test
+    public void malformed() throws IOException {
+        File f = write(new byte[] { 'a', (byte) 0xC3, 'b', (byte) 0xED, (byte) 0xA0, (byte) 0x80, 'c' });
+        assertFalse(ByteCharStream.fromFileName(f.getPath()) instanceof ByteCharStream);
+        assertSameStream(f);
+    }
+
+    @Test
+    public void empty() throws IOException {
+        assertSameStream(write(new byte[0]));
+    }
+}
@@ -0,0 +1,123 @@
+package fr.ensimag.deca.syntax;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonToken;
+import org.antlr.v4.runtime.ListTokenSource;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenSource;
+import org.antlr.v4.runtime.misc.Pair;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the cache of the tokens of included files.
+ *
+ * Each test uses its own source names, the cache being shared by the process.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class PrecompiledHeadersTest {
+    private static final String HEADER = "class A {\n  int x;\n}\n";
+
+    /**
+     * @return the tokens of "class", "A" and "x" in HEADER, as a lexer would
+     *         produce them
+     */
+    private static List<Token> tokens(CharStream input) {
+        List<Token> tokens = new ArrayList<Token>();
+        tokens.add(token(input, 1, 0, 4, 1, 0));
+        tokens.add(token(input, 2, 6, 6, 1, 6));
+        tokens.add(token(input, 2, 16, 16, 2, 6));
+        return tokens;
+    }
+
+    private static Token token(CharStream input, int type, int start, int stop, int line, int column) {
+        CommonToken token = new CommonToken(new Pair<TokenSource, CharStream>(null, input), type,
+                Token.DEFAULT_CHANNEL, start, stop);
+        token.setLine(line);
+        token.setCharPositionInLine(column);
+        return token;
+    }
+
+    @Test
+    public void hit() {
+        CharStream input = CharStreams.fromString(HEADER, "hit/A.decah");
+        assertNull(PrecompiledHeaders.lookup(input));
+        PrecompiledHeaders.store(input, tokens(input));
+
+        long hits = PrecompiledHeaders.getHits();
+        List<Token> replayed = PrecompiledHeaders.lookup(CharStreams.fromString(HEADER, "hit/A.decah"));
+        assertNotNull(replayed);
+        assertEquals(hits + 1, PrecompiledHeaders.getHits());
+        assertEquals(3, replayed.size());
+        assertEquals("class", replayed.get(0).getText());
+        assertEquals("x", replayed.get(2).getText());
+        // the recorded tokens do not keep the lexer nor the stream of the
+        // first compilation
+        assertNull(replayed.get(0).getTokenSource());
+        assertNull(replayed.get(0).getInputStream());
+
+        // another file with the same content has its own entry
+        assertNull(PrecompiledHeaders.lookup(CharStreams.fromString(HEADER, "hit/B.decah")));
+    }
+
+    @Test
+    public void invalidatedWhenContentChanges() {
+        CharStream input = CharStreams.fromString(HEADER, "changed/A.decah");
+        PrecompiledHeaders.store(input, tokens(input));
+
+        long misses = PrecompiledHeaders.getMisses();
+        CharStream changed = CharStreams.fromString(HEADER.replace("x", "y"), "changed/A.decah");
+        assertNull(PrecompiledHeaders.lookup(changed));
+        assertEquals(misses + 1, PrecompiledHeaders.getMisses());
+
+        // lexed again, the new content replaces the old one
+        List<Token> tokens = tokens(changed);
+        PrecompiledHeaders.store(changed, tokens);
+        assertEquals("y", PrecompiledHeaders.lookup(changed).get(2).getText());
+        assertNull(PrecompiledHeaders.lookup(CharStreams.fromString(HEADER, "changed/A.decah")));
+    }
+
+    @Test
+    public void replayedTokensLocations() {
+        CharStream first = CharStreams.fromString(HEADER, "locations/A.decah");
+        PrecompiledHeaders.store(first, tokens(first));
+
+        CharStream second = CharStreams.fromString(HEADER, "locations/A.decah");
+        TokenSource lexer = new ListTokenSource(new ArrayList<Token>());
+        List<Token> replayed = PrecompiledHeaders.lookup(second);
+        Token x = PrecompiledHeaders.copy(replayed.get(2), lexer, second);
+        // the parser takes the locations of the trees from these
+        assertSame(lexer, x.getTokenSource());
+        assertSame(second, x.getInputStream());
+        assertEquals("locations/A.decah", x.getInputStream().getSourceName());
+        assertEquals(2, x.getLine());
+        assertEquals(6, x.getCharPositionInLine());
+        assertEquals(16, x.getStartIndex());
+        assertEquals(16, x.getStopIndex());
+        assertEquals("x", x.getText());
+        assertEquals(Token.DEFAULT_CHANNEL, x.getChannel());
+        assertEquals(2, x.getType());
+    }
+
+    private static ByteCharStream bytes(String content, String name) {
+        return ByteCharStream.create(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)), name, false);
+    }
+
+    @Test
+    public void byteStreams() {
+        CharStream input = bytes(HEADER, "bytes/A.decah");
+        PrecompiledHeaders.store(input, tokens(input));
+
+        assertNotNull(PrecompiledHeaders.lookup(bytes(HEADER, "bytes/A.decah")));
+        assertNull(PrecompiledHeaders.lookup(bytes(HEADER.replace("x", "y"), "bytes/A.decah")));
+    }
+}
@@ -0,0 +1,126 @@
+package fr.ensimag.deca.syntax;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.antlr.v4.runtime.ANTLRErrorListener;
+import org.antlr.v4.runtime.ANTLRErrorStrategy;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.junit.jupiter.api.Test;
+
+import fr.ensimag.deca.CompilerOptions;
+import fr.ensimag.deca.DecacCompiler;
+import fr.ensimag.deca.tree.AbstractProgram;
+
+/**
+ * Check that parsing with SLL prediction first gives the same results and the
+ * same diagnostics as parsing with the full LL prediction only.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class TwoStageParsingTest {
+    private static class Result {
+        AbstractProgram program;
+        String errors;
+    }
+
+    private static DecaParser parser(String program) {
+        DecacCompiler compiler = new DecacCompiler(new CompilerOptions(), new File("test.deca"));
+        DecaLexer lexer = new DecaLexer(CharStreams.fromString(program, "test.deca"));
+        lexer.setDecacCompiler(compiler);
+        DecaParser parser = new DecaParser(new CommonTokenStream(lexer));
+        parser.setDecacCompiler(compiler);
+        return parser;
+    }
+
+    private static Result parse(String program, boolean twoStage) {
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        ByteArrayOutputStream stray = new ByteArrayOutputStream();
+        Result result = new Result();
+        PrintStream stderr = System.err;
+        System.setErr(new PrintStream(stray, true));
+        try {
+            result.program = parser(program).parseProgramAndManageErrors(new PrintStream(err, true), twoStage);
+        } finally {
+            System.setErr(stderr);
+        }
+        result.errors = err.toString();
+        // everything goes to the error stream of the compilation
+        assertEquals("", stray.toString());
+        return result;
+    }
+
+    /**
+     * @return the diagnostic of the invalid program, checked to be the same in
+     *         both ways
+     */
+    private static String assertSameError(String program) {
+        Result ll = parse(program, false);
+        Result twoStage = parse(program, true);
+        assertNull(ll.program);
+        assertNull(twoStage.program);
+        assertFalse(ll.errors.isEmpty());
+        assertEquals(ll.errors, twoStage.errors);
+        return twoStage.errors;
+    }
+
+    @Test
+    public void validPrograms() {
+        String[] programs = {
+            "{ int x = 1; println(x + 2 * 3); }",
+            "class A extends Object { protected int x; int get() { return this.x; } }"
+                    + " { A a = new A(); if (a.get() == 0 && !(1 < 2)) { a = null; } else { println(\"ok\"); } }",
+            "{ int i = 0; while (i < 10) { i = i + 1; } x = (float) (i) + 0.5; }",
+        };
+        for (String program : programs) {
+            Result ll = parse(program, false);
+            Result twoStage = parse(program, true);
+            assertNotNull(twoStage.program, program);
+            assertEquals("", twoStage.errors);
+            assertEquals(ll.program.decompile(), twoStage.program.decompile());
+        }
+    }
+
+    @Test
+    public void syntaxErrors() {
+        assertTrue(assertSameError("{ int x = ; }").startsWith("test.deca:1:10: "));
+        assertSameError("{ println(\"a\" }");
+        assertSameError("class A { void m() { return } }");
+        assertSameError("{ if (true) { } else }");
+        assertSameError("{ x = 1 }");
+        assertSameError("{ int x = 1;\n  x = (1 + ; }");
+    }
+
+    @Test
+    public void lexerErrors() {
+        // no token matches
+        assertTrue(assertSameError("{ int x = 1 @ 2; }").startsWith("test.deca:1:12: "));
+        // errors raised by the actions of the lexer
+        assertSameError("{ float f = 1e99999; }");
+        assertSameError("#include \"nonexistent.decah\"\n{ }");
+    }
+
+    @Test
+    public void semanticActionErrors() {
+        assertTrue(assertSameError("{ 1 = 2; }").startsWith("test.deca:1:2: "));
+        assertSameError("{ int x;\n  x + 1 = 2; }");
+        assertSameError("{ int x = 99999999999; }");
+    }
+
+    @Test
+    public void errorHandlingRestored() {
+        DecaParser parser = parser("{ int x = ; }");
+        ANTLRErrorStrategy strategy = parser.getErrorHandler();
+        List<? extends ANTLRErrorListener> listeners = new ArrayList<ANTLRErrorListener>(parser.getErrorListeners());
+        assertNull(parser.parseProgramAndManageErrors(new PrintStream(new ByteArrayOutputStream()), true));
+        assertSame(strategy, parser.getErrorHandler());
+        assertEquals(listeners, parser.getErrorListeners());
+    }
+}
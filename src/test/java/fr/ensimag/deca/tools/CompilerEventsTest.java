@@ -0,0 +1,75 @@
+package fr.ensimag.deca.tools;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import fr.ensimag.deca.tools.CompilerEvents.Field;
+import fr.ensimag.deca.tools.CompilerEvents.Kind;
+
+/**
+ * Check the dispatch of the compiler events to their sink.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class CompilerEventsTest {
+    /** Sink recording the committed events as strings */
+    private static class RecordingSink implements CompilerEvents.Sink {
+        final List<String> committed = new ArrayList<String>();
+
+        @Override
+        public boolean isEnabled(Kind kind) {
+            return kind != Kind.EMISSION;
+        }
+
+        @Override
+        public Object begin(Kind kind) {
+            return new StringBuilder(kind.getEventName());
+        }
+
+        @Override
+        public void set(Object event, int index, Object value) {
+            ((StringBuilder) event).append(" ").append(index).append("=").append(value);
+        }
+
+        @Override
+        public void commit(Object event) {
+            committed.add(event.toString());
+        }
+    }
+
+    @Test
+    public void eventsReachTheSink() {
+        CompilerEvents.Sink previous = CompilerEvents.getSink();
+        RecordingSink sink = new RecordingSink();
+        CompilerEvents.setSink(sink);
+        try {
+            CompilerEvents.begin(Kind.METHOD_CODEGEN)
+                    .set(Field.CLASS, "A")
+                    .set(Field.METHOD, "m")
+                    .set(Field.TOKENS, 3) // not a field of this kind
+                    .set(Field.INSTRUCTIONS, 12)
+                    .commit();
+            assertNull(CompilerEvents.begin(Kind.EMISSION));
+        } finally {
+            CompilerEvents.setSink(previous);
+        }
+        assertEquals(1, sink.committed.size());
+        assertEquals("fr.ensimag.deca.MethodCodeGeneration 1=A 2=m 3=12", sink.committed.get(0));
+    }
+
+    @Test
+    public void noSinkNoEvent() {
+        CompilerEvents.Sink previous = CompilerEvents.getSink();
+        CompilerEvents.setSink(null);
+        try {
+            assertNull(CompilerEvents.begin(Kind.PARSING));
+        } finally {
+            CompilerEvents.setSink(previous);
+        }
+    }
+}
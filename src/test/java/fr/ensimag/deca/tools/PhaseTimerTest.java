@@ -0,0 +1,69 @@
+package fr.ensimag.deca.tools;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Check the measures of the decac -T report.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class PhaseTimerTest {
+    private static void spin(long nanos) {
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) {
+            // busy wait
+        }
+    }
+
+    @Test
+    public void nestedPhasesAreExcluded() {
+        PhaseTimer timer = new PhaseTimer("a.deca", true);
+        PhaseTimer.Phase parsing = timer.start("parsing");
+        for (int i = 0; i < 3; i++) {
+            PhaseTimer.Phase lexing = timer.start("lexing");
+            spin(5000000);
+            lexing.close();
+        }
+        parsing.close();
+        Map<String, PhaseTimer.Measure> phases = timer.getPhases();
+        assertEquals(Arrays.asList("lexing", "parsing"), Arrays.asList(phases.keySet().toArray()));
+        assertTrue(phases.get("lexing").getWallNanos() >= 15000000);
+        assertTrue(phases.get("parsing").getWallNanos() < phases.get("lexing").getWallNanos());
+    }
+
+    @Test
+    public void disabledTimerRecordsNothing() {
+        PhaseTimer timer = new PhaseTimer("a.deca", false);
+        PhaseTimer.Phase phase = timer.start("parsing");
+        spin(1000);
+        phase.close();
+        assertTrue(timer.getPhases().isEmpty());
+    }
+
+    @Test
+    public void totalAndJson() {
+        PhaseTimer t1 = new PhaseTimer("a.deca", true);
+        PhaseTimer t2 = new PhaseTimer("b\"c.deca", true);
+        t1.start("parsing").close();
+        t2.start("parsing").close();
+        t2.start("codegen").close();
+        Map<String, PhaseTimer.Measure> total = PhaseTimer.total(Arrays.asList(t1, t2));
+        assertEquals(t1.getPhases().get("parsing").getWallNanos() + t2.getPhases().get("parsing").getWallNanos(),
+                total.get("parsing").getWallNanos());
+        assertEquals(t2.getPhases().get("codegen").getWallNanos(), total.get("codegen").getWallNanos());
+
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        PhaseTimer.printJson(Arrays.asList(t1, t2), 42, new PrintStream(json, true));
+        String s = json.toString();
+        assertTrue(s.contains("\"elapsedNanos\": 42"));
+        assertTrue(s.contains("{\"file\": \"b\\\"c.deca\", \"phases\": {\"parsing\": {\"wallNanos\": "));
+    }
+}
@@ -0,0 +1,71 @@
+package fr.ensimag.deca.tools;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import fr.ensimag.deca.tools.SymbolTable.Symbol;
+
+/**
+ * Tests of the symbol ids and of SymbolMap.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class SymbolMapTest {
+    @Test
+    public void denseIds() {
+        SymbolTable t = new SymbolTable();
+        assertEquals(0, t.create("a").getId());
+        assertEquals(1, t.create("b").getId());
+        assertEquals(0, t.create("a").getId());
+        assertEquals(2, t.size());
+    }
+
+    @Test
+    public void concurrentInterning() {
+        SymbolTable t = new SymbolTable();
+        IntStream.range(0, 10000).parallel().forEach(i -> t.create("s" + (i % 1000)));
+        assertEquals(1000, t.size());
+        boolean[] ids = new boolean[1000];
+        for (int i = 0; i < 1000; i++) {
+            Symbol s = t.create("s" + i);
+            assertFalse(ids[s.getId()]);
+            ids[s.getId()] = true;
+        }
+    }
+
+    @Test
+    public void putGet() {
+        SymbolTable t = new SymbolTable();
+        SymbolMap<Integer> map = new SymbolMap<Integer>();
+        List<Symbol> symbols = new ArrayList<Symbol>();
+        for (int i = 0; i < 1000; i++) {
+            symbols.add(t.create("s" + i));
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            assertNull(map.put(symbols.get(i), i));
+        }
+        assertEquals(500, map.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 == 0 ? Integer.valueOf(i) : null, map.get(symbols.get(i)));
+            assertEquals(i % 2 == 0, map.containsKey(symbols.get(i)));
+        }
+        assertEquals(Integer.valueOf(0), map.put(symbols.get(0), -1));
+        assertEquals(Integer.valueOf(-1), map.get(symbols.get(0)));
+        assertEquals(500, map.size());
+        assertSame(symbols.get(4), map.keys().get(2));
+        assertEquals(Integer.valueOf(4), map.values().get(2));
+    }
+
+    @Test
+    public void sameNameOtherTable() {
+        SymbolMap<String> map = new SymbolMap<String>();
+        map.put(new SymbolTable().create("x"), "first");
+        assertNull(map.get(new SymbolTable().create("x")));
+    }
+}
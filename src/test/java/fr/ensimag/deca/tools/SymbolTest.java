@@ -31,4 +31,15 @@ public class SymbolTest {
         assertEquals(s1.getName(), s2.getName());
         assertNotSame(s1, s2);
     }
+
+    @Test
+    public void resetShared() {
+        SymbolTable before = SymbolTable.getShared();
+        Symbol s = before.create("foo");
+        SymbolTable.resetShared();
+        assertNotSame(before, SymbolTable.getShared());
+        assertEquals(0, SymbolTable.getShared().size());
+        // the compilations started before keep their symbols
+        assertSame(s, before.create("foo"));
+    }
 }
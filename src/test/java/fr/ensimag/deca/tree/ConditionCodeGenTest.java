@@ -0,0 +1,63 @@
+package fr.ensimag.deca.tree;
+
+import static fr.ensimag.deca.tree.TreeFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import fr.ensimag.deca.DecacCompiler;
+import fr.ensimag.deca.context.ContextualError;
+import fr.ensimag.ima.pseudocode.Label;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the code of the conditions in control-flow positions.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class ConditionCodeGenTest {
+    private final DecacCompiler compiler = compiler();
+
+    @Test
+    public void comparisonsBranchDirectly() throws ContextualError {
+        // readInt() < 3 && !(readInt() == 2)
+        AbstractExpr condition = verify(compiler,
+                loc(new And(loc(new Lower(read(), i(3))), loc(new Not(loc(new Equals(read(), i(2))))))));
+        condition.codeGenCondition(compiler, false, new Label("else"));
+        String code = compiler.displayIMAProgram();
+        // no boolean is computed, each comparison jumps to the else label
+        assertFalse(code.contains("\tS"));
+        assertFalse(code.contains("CMP #0"));
+        assertTrue(code.contains("\tBGE else\n"));
+        assertTrue(code.contains("\tBEQ else\n"));
+        assertFalse(code.contains("BRA"));
+    }
+
+    @Test
+    public void valuesAreMaterialized() throws ContextualError {
+        verify(compiler, loc(new Not(loc(new Lower(read(), i(3)))))).codeGenInst(compiler);
+        String code = compiler.displayIMAProgram();
+        assertTrue(code.contains("\tSGE R"));
+        assertFalse(code.contains("BGE"));
+
+        verify(compiler, loc(new And(loc(new Lower(read(), i(3))), loc(new Greater(read(), i(0)))))).codeGenInst(compiler);
+        code = compiler.displayIMAProgram();
+        // the right operand is not evaluated if the left one is false
+        assertTrue(code.contains("\tBGE false_"));
+        assertTrue(code.contains("\tBLE false_"));
+        assertTrue(code.contains("\tLOAD #1, R"));
+        assertTrue(code.contains("\tLOAD #0, R"));
+    }
+
+    @Test
+    public void loopsAreRotated() throws ContextualError {
+        // while (readInt() < 3) {}
+        While loop = loc(new While(verify(compiler, loc(new Lower(read(), i(3)))), new ListInst()));
+        loop.codeGenInst(compiler);
+        String code = compiler.displayIMAProgram();
+        // tested on entry, then at the bottom with a single backward branch
+        assertTrue(code.contains("\tBGE while_end"));
+        assertTrue(code.contains("\tBLT while_body"));
+        assertTrue(code.indexOf("while_body") < code.indexOf("BLT"));
+        assertFalse(code.contains("BRA"));
+    }
+}
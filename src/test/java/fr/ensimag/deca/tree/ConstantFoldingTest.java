@@ -0,0 +1,82 @@
+package fr.ensimag.deca.tree;
+
+import static fr.ensimag.deca.tree.TreeFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import fr.ensimag.deca.DecacCompiler;
+import fr.ensimag.deca.context.ContextualError;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the folding of the constant expressions of the decorated tree.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class ConstantFoldingTest {
+    private final DecacCompiler compiler = compiler();
+
+    /**
+     * @return the expression decorated and folded
+     */
+    private AbstractExpr fold(AbstractExpr expr) throws ContextualError {
+        return verify(compiler, expr).foldExpr(compiler);
+    }
+
+    @Test
+    public void literals() throws ContextualError {
+        AbstractExpr folded = fold(loc(new Plus(i(1), loc(new Multiply(i(2), i(3))))));
+        assertTrue(folded instanceof IntLiteral);
+        assertEquals(7, ((IntLiteral) folded).getValue());
+        assertTrue(folded.getType().isInt());
+
+        folded = fold(loc(new Modulo(loc(new UnaryMinus(i(7))), i(3))));
+        assertEquals(-1, ((IntLiteral) folded).getValue());
+
+        folded = fold(loc(new Plus(loc(new ConvFloat(i(1))), f(0.5f))));
+        assertTrue(folded instanceof FloatLiteral);
+        assertEquals(1.5f, ((FloatLiteral) folded).getValue());
+        assertTrue(folded.getType().isFloat());
+
+        folded = fold(loc(new And(loc(new Lower(i(1), i(2))), loc(new Not(loc(new GreaterOrEqual(f(2), f(3))))))));
+        assertTrue(folded instanceof BooleanLiteral);
+        assertTrue(((BooleanLiteral) folded).getValue());
+    }
+
+    @Test
+    public void machineErrorsAreKept() throws ContextualError {
+        assertTrue(fold(loc(new Divide(i(1), i(0)))) instanceof Divide);
+        assertTrue(fold(loc(new Modulo(i(1), i(0)))) instanceof Modulo);
+        assertTrue(fold(loc(new Plus(i(Integer.MAX_VALUE), i(1)))) instanceof Plus);
+        assertTrue(fold(loc(new Divide(f(1), f(0)))) instanceof Divide);
+        assertTrue(fold(loc(new UnaryMinus(i(Integer.MIN_VALUE)))) instanceof UnaryMinus);
+    }
+
+    @Test
+    public void identities() throws ContextualError {
+        AbstractExpr x = read();
+        assertSame(x, fold(loc(new Plus(x, i(0)))));
+        x = read();
+        assertSame(x, fold(loc(new Plus(i(0), x))));
+        x = read();
+        assertSame(x, fold(loc(new Multiply(i(1), x))));
+        x = read();
+        assertSame(x, fold(loc(new Divide(x, i(1)))));
+        x = read();
+        assertTrue(fold(loc(new Multiply(x, i(0)))) instanceof Multiply);
+
+        AbstractExpr c = loc(new Greater(read(), i(0)));
+        assertSame(c, fold(loc(new Not(loc(new Not(c))))));
+        c = loc(new Greater(read(), i(0)));
+        assertSame(c, fold(loc(new And(b(true), c))));
+        c = loc(new Greater(read(), i(0)));
+        assertSame(c, fold(loc(new Or(c, b(false)))));
+        c = loc(new Greater(read(), i(0)));
+        AbstractExpr folded = fold(loc(new And(b(false), c)));
+        assertTrue(folded instanceof BooleanLiteral);
+        assertFalse(((BooleanLiteral) folded).getValue());
+        // the right operand may have side effects
+        c = loc(new Greater(read(), i(0)));
+        assertTrue(fold(loc(new And(c, b(false)))) instanceof And);
+    }
+}
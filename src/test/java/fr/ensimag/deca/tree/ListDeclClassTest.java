@@ -0,0 +1,64 @@
+package fr.ensimag.deca.tree;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.ensimag.deca.CLIException;
+import fr.ensimag.deca.CompilerOptions;
+import fr.ensimag.deca.DecacCompiler;
+
+/**
+ * Tests of the concurrent verification of the method bodies (pass 3).
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class ListDeclClassTest {
+    @TempDir
+    File tmp;
+
+    /**
+     * @return what the verification of source prints on stderr
+     */
+    private String verify(File source, String... args) throws CLIException, IOException {
+        CompilerOptions options = new CompilerOptions();
+        String[] argv = new String[args.length + 1];
+        System.arraycopy(args, 0, argv, 0, args.length);
+        argv[args.length] = source.getPath();
+        options.parseArgs(argv);
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        PrintStream stderr = new PrintStream(err, true, "UTF-8");
+        assertTrue(new DecacCompiler(options, source).compile(System.out, stderr));
+        return new String(err.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void firstErrorInSourceOrder() throws CLIException, IOException {
+        // the body of m takes longer to verify than the one of n, so that
+        // the error of n is usually found first under -P
+        StringBuilder program = new StringBuilder("class A {\n    void m() {\n        int x = 0;\n");
+        for (int i = 0; i < 500; i++) {
+            program.append("        x = x + ").append(i).append(" * (x - 1);\n");
+        }
+        program.append("        x = true;\n    }\n}\n");
+        int line = 4 + 500;
+        program.append("class B {\n    void n() {\n        int y = false;\n    }\n}\n");
+        File source = new File(tmp, "errors.deca");
+        Files.write(source.toPath(), program.toString().getBytes(StandardCharsets.UTF_8));
+
+        String sequential = verify(source, "-v");
+        assertTrue(sequential.startsWith(source.getPath() + ":" + line + ":"), sequential);
+        for (int i = 0; i < 20; i++) {
+            assertEquals(sequential, verify(source, "-v", "-P"));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package fr.ensimag.deca.tree;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the packed locations of the trees.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class LocationTest {
+    @Test
+    public void packUnpack() {
+        Tree tree = new IntLiteral(1);
+        assertNull(tree.getLocation());
+
+        tree.setLocation(12, 7, "dir/a.deca");
+        Location location = tree.getLocation();
+        assertEquals(12, location.getLine());
+        assertEquals(7, location.getPositionInLine());
+        assertEquals("dir/a.deca", location.getFilename());
+
+        tree.setLocation(new Location(3, 0, null));
+        assertEquals(Location.NO_SOURCE_NAME, tree.getLocation().getFilename());
+        assertEquals(0, tree.getLocation().getPositionInLine());
+
+        tree.setLocation(Location.BUILTIN);
+        assertSame(Location.BUILTIN, tree.getLocation());
+        tree.setLocation((Location) null);
+        assertNull(tree.getLocation());
+    }
+
+    @Test
+    public void fileIds() {
+        int a = Location.fileId("a.deca");
+        assertEquals(a, Location.fileId("a.deca"));
+        assertNotEquals(a, Location.fileId("b.deca"));
+        assertEquals("b.deca", Location.unpack(Location.pack(1, 1, "b.deca")).getFilename());
+    }
+
+    @Test
+    public void clamped() {
+        Location location = Location.unpack(Location.pack(1, 1 << 24, "a.deca"));
+        assertEquals(1, location.getLine());
+        assertEquals((1 << 20) - 2, location.getPositionInLine());
+    }
+
+    @Test
+    public void resetFileTable() {
+        Location.fileId("a.deca");
+        Location.resetFileTable();
+        assertEquals(0, Location.getFileCount());
+        assertEquals(1, Location.fileId("b.deca"));
+        assertEquals("b.deca", Location.unpack(Location.pack(1, 1, "b.deca")).getFilename());
+    }
+}
@@ -0,0 +1,60 @@
+package fr.ensimag.deca.tree;
+
+import static fr.ensimag.deca.tree.TreeFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import fr.ensimag.deca.DecacCompiler;
+import fr.ensimag.deca.context.ContextualError;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the ordering of the operands of the binary expressions by their
+ * register needs.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+public class SethiUllmanTest {
+    /** R2 and R3 only */
+    private final DecacCompiler compiler = compiler(4);
+
+    /**
+     * @return 1 - 2 * (3 - 4 * (5 - 6)), verified
+     */
+    private AbstractExpr horner() throws ContextualError {
+        AbstractExpr expr = loc(new Minus(i(5), i(6)));
+        expr = loc(new Minus(i(3), loc(new Multiply(i(4), expr))));
+        expr = loc(new Minus(i(1), loc(new Multiply(i(2), expr))));
+        return verify(compiler, expr);
+    }
+
+    @Test
+    public void registerNeeds() throws ContextualError {
+        assertEquals(1, i(1).getRegisterNeed());
+        AbstractExpr expr = horner();
+        assertEquals(2, expr.getRegisterNeed());
+        assertTrue(expr.isReorderable());
+        AbstractExpr balanced = loc(new Plus(loc(new Plus(i(1), i(2))), loc(new Plus(i(3), i(4)))));
+        assertEquals(3, balanced.getRegisterNeed());
+        assertFalse(loc(new Plus(i(1), read())).isReorderable());
+    }
+
+    @Test
+    public void rightHeavyTreeInTwoRegisters() throws ContextualError {
+        horner().codeGenInst(compiler);
+        String code = compiler.displayIMAProgram();
+        assertFalse(code.contains("PUSH"));
+        // the right operands are computed first, the subtractions keep their
+        // order
+        assertTrue(code.startsWith("\tLOAD #5, R2\n\tLOAD #6, R3\n\tSUB R3, R2\n"));
+        assertTrue(code.endsWith("\tLOAD #1, R2\n\tSUB R3, R2\n"));
+    }
+
+    @Test
+    public void observableOrderIsKept() throws ContextualError {
+        AbstractExpr expr = verify(compiler, loc(new Minus(read(), loc(new Multiply(i(2), loc(new Plus(i(3), i(4))))))));
+        expr.codeGenInst(compiler);
+        String code = compiler.displayIMAProgram();
+        assertTrue(code.indexOf("RINT") < code.indexOf("LOAD #2"));
+    }
+}
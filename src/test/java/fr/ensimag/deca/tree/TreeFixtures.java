@@ -0,0 +1,67 @@
+package fr.ensimag.deca.tree;
+
+import fr.ensimag.deca.CompilerOptions;
+import fr.ensimag.deca.DecacCompiler;
+import fr.ensimag.deca.context.ContextualError;
+import fr.ensimag.deca.context.EnvironmentExp;
+import java.io.File;
+
+/**
+ * Construction of small trees for the tests of the tree package: the nodes
+ * are located in test.deca, and the expressions are decorated in an empty
+ * environment.
+ *
+ * @author gl13
+ * @date 18/10/2026
+ */
+final class TreeFixtures {
+    private static final String SOURCE = "test.deca";
+
+    private TreeFixtures() {
+    }
+
+    static DecacCompiler compiler() {
+        return new DecacCompiler(new CompilerOptions(), new File(SOURCE));
+    }
+
+    /**
+     * @param nbRegisters number of registers, R0 and R1 included
+     */
+    static DecacCompiler compiler(final int nbRegisters) {
+        return new DecacCompiler(new CompilerOptions() {
+            @Override
+            public int getNbRegisters() {
+                return nbRegisters;
+            }
+        }, new File(SOURCE));
+    }
+
+    static <T extends Tree> T loc(T tree) {
+        tree.setLocation(1, 1, SOURCE);
+        return tree;
+    }
+
+    static IntLiteral i(int value) {
+        return loc(new IntLiteral(value));
+    }
+
+    static FloatLiteral f(float value) {
+        return loc(new FloatLiteral(value));
+    }
+
+    static BooleanLiteral b(boolean value) {
+        return loc(new BooleanLiteral(value));
+    }
+
+    static AbstractExpr read() {
+        return loc(new ReadInt());
+    }
+
+    /**
+     * @return expr, decorated
+     */
+    static <T extends AbstractExpr> T verify(DecacCompiler compiler, T expr) throws ContextualError {
+        expr.verifyExpr(compiler, new EnvironmentExp(null), null);
+        return expr;
+    }
+}
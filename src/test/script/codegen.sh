@@ -6,7 +6,8 @@
 #
 # Expects success for all files in valid subdirectory, and compares the
 # resulting IMA assembly code to a known correct one if it exists, no
-# comparison otherwise.
+# comparison otherwise. A valid source file may give the options of decac
+# on a line "// Options : <options>" of its header.
 
 cd "$(dirname "$0")"/../../.. || exit 1
 
@@ -36,6 +37,7 @@ mkdir -p test_out/test/deca/codegen/valid/assign
 mkdir -p test_out/test/deca/codegen/valid/class
 mkdir -p test_out/test/deca/codegen/valid/cast
 mkdir -p test_out/test/deca/codegen/valid/instanceof
+mkdir -p test_out/test/deca/codegen/valid/optim
 
 mkdir -p test_out/test/deca/codegen/invalid
 mkdir -p test_out/test/deca/codegen/invalid/if
@@ -76,7 +78,10 @@ codegen_test_valid () {
         expected_out="${deca_source%.deca}"-verif.out
         expected_out="${expected_out/src/verif}"
 
-        decac "$deca_source" 2> "$codegen_res"
+        # decac options given by an "// Options :" line of the source, if any
+        decac_options=$(sed -n 's|^// Options : ||p' "$deca_source" | head -n 1)
+
+        decac $decac_options "$deca_source" 2> "$codegen_res"
 
         # unexpected syntax errors
         if [ -s "$codegen_res" ]; then